@@ -0,0 +1,76 @@
+package com.newssentiment.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a page of articles as {@code GET /articles} returns it, with an
+ * object mapper set up like Spring Boot's default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticlePageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private Page<ArticleDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        List<ArticleDTO> content = new ArrayList<>(size);
+        Instant publishedAt = Instant.parse("2024-03-01T09:30:00Z");
+        for (int i = 0; i < size; i++) {
+            content.add(new ArticleDTO(
+                    100_000L + i,
+                    (long) (i % 12),
+                    "Source " + (i % 12),
+                    "Government announces new measures as inflation concerns grow, part " + i,
+                    "https://example.com/news/2024/03/01/article-" + i,
+                    i % 3 == 0 ? null : "Staff reporter",
+                    publishedAt.minusSeconds(i * 60L),
+                    i % 3 == 0 ? "NEGATIVE" : "NEUTRAL",
+                    new BigDecimal("0.8731"),
+                    null
+            ));
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, size, Sort.by("publishedAt").descending()), 25_000);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,75 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.dto.ArticleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps one feed row to an {@link ArticleDTO}, as the list, feed, search and
+ * export queries do for every row. The row comes from an in-memory result set,
+ * so the figure covers the mapping and column lookups but not the driver's
+ * decoding.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleDTOMappingBenchmark {
+
+    private ResultSet row;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> columns = new HashMap<>();
+        columns.put("id", 123_456L);
+        columns.put("source_id", 7L);
+        columns.put("source_name", "Armenpress");
+        columns.put("title", "Government announces new measures as inflation concerns grow");
+        columns.put("url", "https://example.com/news/2024/03/01/government-announces-new-measures");
+        columns.put("author", "Staff reporter");
+        columns.put("published_at", OffsetDateTime.of(2024, 3, 1, 9, 30, 0, 0, ZoneOffset.UTC));
+        columns.put("sentiment", "NEGATIVE");
+        columns.put("confidence", new BigDecimal("0.8731"));
+        row = resultSet(columns);
+    }
+
+    @Benchmark
+    public ArticleDTO toArticleDTO() throws SQLException {
+        return ArticleRepositoryImpl.toArticleDTO(row, null);
+    }
+
+    /**
+     * A result set positioned on one row, answering the getters the mapping uses.
+     */
+    private static ResultSet resultSet(Map<String, Object> columns) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object value = columns.get((String) args[0]);
+                    return switch (method.getName()) {
+                        case "getLong" -> value != null ? (Long) value : 0L;
+                        case "getObject", "getString", "getBigDecimal" -> value;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
@@ -0,0 +1,45 @@
+package com.newssentiment.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashes article content of typical and long-read length, as
+ * {@link ArticleService} does for every article it saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArticleHashBenchmark {
+
+    private static final String SENTENCE = "Officials said the economy remains stable despite warnings from analysts. ";
+
+    @Param({"2000", "20000"})
+    private int length;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = SENTENCE.repeat(length / SENTENCE.length() + 1).substring(0, length);
+    }
+
+    @Benchmark
+    public String computeHash() {
+        return ArticleService.computeHash(content);
+    }
+}
@@ -0,0 +1,63 @@
+package com.newssentiment.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores an article of about 2,000 characters in each supported language.
+ * Run with {@code ./gradlew jmh}; add {@code -Pjmh.profilers=gc} to see the
+ * allocation per article.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LexiconSentimentScorerBenchmark {
+
+    private static final String EN = "The government announced new measures on Tuesday as inflation concerns grow. "
+            + "Officials said the economy remains stable despite warnings from analysts, and that growth should "
+            + "recover next year. ";
+    private static final String RU = "Правительство объявило о новых мерах во вторник на фоне роста инфляции. "
+            + "Чиновники заявили, что экономика остается стабильной, несмотря на предупреждения аналитиков, "
+            + "и что рост восстановится в следующем году. ";
+    private static final String HY = "Կառավարությունը երեքշաբթի նոր միջոցառումներ հայտարարեց գնաճի աճի ֆոնին։ "
+            + "Պաշտոնյաները նշեցին, որ տնտեսությունը մնում է կայուն, չնայած վերլուծաբանների մտահոգություններին, "
+            + "և որ աճը կվերականգնվի հաջորդ տարի։ ";
+
+    @Param({"en", "ru", "hy"})
+    private String language;
+
+    private LexiconSentimentScorer scorer;
+    private String title;
+    private String content;
+
+    @Setup
+    public void setUp() {
+        scorer = LexiconSentimentScorer.fromClasspath(LexiconSentimentScorer.DEFAULT_LEXICONS);
+        String sentence = switch (language) {
+            case "ru" -> RU;
+            case "hy" -> HY;
+            default -> EN;
+        };
+        title = sentence.substring(0, sentence.indexOf(' ', 40));
+        content = sentence.repeat(Math.max(1, 2000 / sentence.length()));
+    }
+
+    @Benchmark
+    public LexiconSentimentScorer.Score score() {
+        return scorer.score(title, content);
+    }
+}
@@ -0,0 +1,168 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.SentimentAggregateDTO;
+import com.newssentiment.model.SentimentResult.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a year of cached day counts into the day, week and source aggregates
+ * served by {@code /sentiment/aggregate}, leaving out loading the counts
+ * themselves. The {@code boxed} benchmarks are the implementation these
+ * replaced, keyed by boxed longs in a {@link TreeMap}, kept here to compare
+ * against. {@code bySourceAndHour*} groups a month of per-source hourly counts,
+ * the kind of high-cardinality grouping where the boxing showed most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SentimentAggregationBenchmark {
+
+    private static final Sentiment[] SENTIMENTS = Sentiment.values();
+
+    @Param({"365"})
+    private int days;
+
+    @Param({"40"})
+    private int sources;
+
+    private NavigableMap<LocalDate, SentimentCounts> countsByDay;
+
+    // One row per hour, source and sentiment, as the hourly rollups return them
+    private long[] rowHours;
+    private long[] rowSources;
+    private Sentiment[] rowSentiments;
+    private long[] rowCounts;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        countsByDay = new TreeMap<>();
+        LocalDate first = LocalDate.of(2024, 1, 1);
+        for (int d = 0; d < days; d++) {
+            long[] sourceIds = new long[sources];
+            long[] positive = new long[sources];
+            long[] negative = new long[sources];
+            long[] neutral = new long[sources];
+            for (int s = 0; s < sources; s++) {
+                sourceIds[s] = s;
+                positive[s] = random.nextInt(200);
+                negative[s] = random.nextInt(200);
+                neutral[s] = random.nextInt(200);
+            }
+            countsByDay.put(first.plusDays(d), new SentimentCounts(sourceIds, positive, negative, neutral));
+        }
+
+        int rows = 30 * 24 * sources * SENTIMENTS.length;
+        rowHours = new long[rows];
+        rowSources = new long[rows];
+        rowSentiments = new Sentiment[rows];
+        rowCounts = new long[rows];
+        long firstHour = first.toEpochDay() * 24;
+        int row = 0;
+        for (int h = 0; h < 30 * 24; h++) {
+            for (int s = 0; s < sources; s++) {
+                for (Sentiment sentiment : SENTIMENTS) {
+                    rowHours[row] = firstHour + h;
+                    rowSources[row] = s + 1;
+                    rowSentiments[row] = sentiment;
+                    rowCounts[row] = random.nextInt(20);
+                    row++;
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> byDay() {
+        return SentimentService.aggregateByDay(countsByDay);
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> byDayBoxed() {
+        List<SentimentAggregateDTO> result = new ArrayList<>();
+        countsByDay.forEach((day, counts) -> {
+            if (counts.size() > 0) {
+                result.add(SentimentAggregateDTO.of(day.toString(),
+                        counts.totalPositive(), counts.totalNegative(), counts.totalNeutral()));
+            }
+        });
+        return result;
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> byWeek() {
+        return SentimentService.aggregateByWeek(countsByDay);
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> bySource() {
+        return SentimentService.aggregateBySource(countsByDay.values());
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> bySourceBoxed() {
+        return boxed(countsByDay.values());
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> bySourceAndHour() {
+        SentimentAggregator aggregator = new SentimentAggregator(30 * 24 * sources);
+        for (int i = 0; i < rowCounts.length; i++) {
+            aggregator.add(rowHours[i] << 16 | rowSources[i], rowSentiments[i], rowCounts[i]);
+        }
+        return aggregator.toAggregates(Long::toString);
+    }
+
+    @Benchmark
+    public List<SentimentAggregateDTO> bySourceAndHourBoxed() {
+        Map<Long, long[]> groups = new TreeMap<>();
+        for (int i = 0; i < rowCounts.length; i++) {
+            groups.computeIfAbsent(rowHours[i] << 16 | rowSources[i], key -> new long[3])
+                    [rowSentiments[i].ordinal()] += rowCounts[i];
+        }
+        return groups.entrySet().stream()
+                .map(entry -> SentimentAggregateDTO.of(entry.getKey().toString(),
+                        entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]))
+                .toList();
+    }
+
+    private static List<SentimentAggregateDTO> boxed(Collection<SentimentCounts> days) {
+        Map<Long, long[]> bySource = new TreeMap<>();
+        for (SentimentCounts counts : days) {
+            for (int i = 0; i < counts.size(); i++) {
+                long[] totals = bySource.computeIfAbsent(counts.sourceIds()[i], id -> new long[3]);
+                totals[0] += counts.positive()[i];
+                totals[1] += counts.negative()[i];
+                totals[2] += counts.neutral()[i];
+            }
+        }
+
+        return bySource.entrySet().stream()
+                .map(entry -> SentimentAggregateDTO.of(entry.getKey() == 0 ? "null" : entry.getKey().toString(),
+                        entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]))
+                .toList();
+    }
+}
@@ -0,0 +1,114 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult.Sentiment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Counts sentiment per day over monthly segments holding {@code rows} results
+ * in total, spread over three years with 40 sources. {@code full} covers every
+ * segment; {@code partial} starts and ends mid-day so edge blocks are decoded.
+ * Setup writes the segments to a temporary directory, which takes a while at
+ * 100M rows. Run with {@code ./gradlew jmh -Pjmh.includes=SentimentSegment}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SentimentSegmentBenchmark {
+
+    private static final YearMonth FIRST = YearMonth.of(2022, 1);
+    private static final int MONTHS = 36;
+    private static final long HOUR_MICROS = 3_600_000_000L;
+
+    @Param({"100000000"})
+    private long rows;
+
+    @Param({"full", "partial"})
+    private String range;
+
+    private Path directory;
+    private List<SentimentSegment> segments;
+    private long from;
+    private long to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sentiment-segments");
+        segments = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(42);
+        long perMonth = rows / MONTHS;
+        for (int m = 0; m < MONTHS; m++) {
+            YearMonth month = FIRST.plusMonths(m);
+            long start = micros(month);
+            long end = micros(month.plusMonths(1));
+            long step = (end - start) / perMonth;
+            SentimentSegment.Builder builder = new SentimentSegment.Builder(start, end);
+            for (long i = 0; i < perMonth; i++) {
+                builder.add(start + i * step + random.nextLong(step), random.nextInt(40), random.nextInt(50),
+                        Sentiment.values()[random.nextInt(3)], 50 + random.nextInt(50));
+            }
+            segments.add(builder.write(directory.resolve("sentiment-" + month + ".seg")));
+        }
+
+        long start = micros(FIRST);
+        long end = micros(FIRST.plusMonths(MONTHS));
+        from = "partial".equals(range) ? start + 30 * 24 * HOUR_MICROS + 5 * HOUR_MICROS : start;
+        to = "partial".equals(range) ? end - 9 * HOUR_MICROS : end;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        segments = null;
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public int countsByDay() {
+        // The same scan as SentimentAnalyticsStore#countsBetween
+        List<Map<LocalDate, SentimentCounts>> perSegment = segments.parallelStream()
+                .filter(segment -> segment.rangeStart() < to && segment.rangeEnd() > from)
+                .map(segment -> segment.countsByDay(from, to))
+                .toList();
+        int days = 0;
+        for (Map<LocalDate, SentimentCounts> counts : perSegment) {
+            days += counts.size();
+        }
+        return days;
+    }
+
+    private static long micros(YearMonth month) {
+        return SentimentAnalyticsStore.toMicros(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
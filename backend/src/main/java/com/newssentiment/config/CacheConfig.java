@@ -0,0 +1,124 @@
+package com.newssentiment.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.newssentiment.dto.SourceDTO;
+import com.newssentiment.service.SentimentCounts;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Redis-backed caches with a Caffeine near-cache per instance. Values are
+ * stored as Smile (binary JSON) against a fixed type per cache, so entries
+ * carry no class names and stay readable across deployments. Only active when
+ * {@code spring.cache.type} is redis; other profiles get Spring Boot's default
+ * cache manager with the same cache names.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis")
+public class CacheConfig {
+
+    public static final String SENTIMENT_DAYS = "sentimentDays";
+    public static final String SOURCES = "sources";
+
+    private static final String EVICTION_CHANNEL = "cache:evictions";
+
+    @Value("${app.cache.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${app.cache.local-ttl-seconds:60}")
+    private long localTtlSeconds;
+
+    @Value("${app.cache.sentiment-days-ttl-hours:168}")
+    private long sentimentDaysTtlHours;
+
+    @Value("${app.cache.sources-ttl-minutes:5}")
+    private long sourcesTtlMinutes;
+
+    @Bean
+    public TwoLevelCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        ObjectMapper smile = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .build();
+
+        RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                .withCacheConfiguration(SENTIMENT_DAYS, redisConfig(
+                        Duration.ofHours(sentimentDaysTtlHours),
+                        smile.constructType(SentimentCounts.class), smile))
+                .withCacheConfiguration(SOURCES, redisConfig(
+                        Duration.ofMinutes(sourcesTtlMinutes),
+                        smile.getTypeFactory().constructCollectionType(List.class, SourceDTO.class), smile))
+                .disableCreateOnMissingCache()
+                .build();
+        redis.initializeCaches();
+
+        BiConsumer<String, String> publisher = (cacheName, key) -> stringRedisTemplate.convertAndSend(
+                EVICTION_CHANNEL, key == null ? cacheName : cacheName + "\n" + key);
+
+        return new TwoLevelCacheManager(redis.getCacheNames().stream()
+                .map(name -> new TwoLevelCache(
+                        name,
+                        Caffeine.newBuilder()
+                                .maximumSize(localMaxSize)
+                                .expireAfterWrite(Duration.ofSeconds(localTtlSeconds))
+                                .build(),
+                        redis.getCache(name),
+                        publisher,
+                        meterRegistry))
+                .toList());
+    }
+
+    /**
+     * Drops local copies of entries evicted on any instance, including this one.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheEvictionListener(
+            RedisConnectionFactory connectionFactory,
+            TwoLevelCacheManager cacheManager
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf('\n');
+            if (separator < 0) {
+                cacheManager.evictLocal(body, null);
+            } else {
+                cacheManager.evictLocal(body.substring(0, separator), body.substring(separator + 1));
+            }
+        }, new ChannelTopic(EVICTION_CHANNEL));
+        return container;
+    }
+
+    private static RedisCacheConfiguration redisConfig(Duration ttl, JavaType type, ObjectMapper mapper) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(ttl)
+                .disableCachingNullValues()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new Jackson2JsonRedisSerializer<>(mapper, type)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.newssentiment.config;
+
+import com.newssentiment.service.ArticleStreamHub;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Delivers live feed messages published by any node to this node's
+ * subscribers. Only active when {@code app.stream.redis.enabled} is true;
+ * otherwise {@link ArticleStreamHub} delivers locally.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.stream.redis.enabled", havingValue = "true")
+public class StreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer articleStreamListener(
+            RedisConnectionFactory connectionFactory,
+            ArticleStreamHub articleStreamHub
+    ) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("article-stream-relay-");
+        executor.setVirtualThreads(true);
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.addMessageListener(
+                (message, pattern) -> articleStreamHub.deliver(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(ArticleStreamHub.CHANNEL));
+        return container;
+    }
+}
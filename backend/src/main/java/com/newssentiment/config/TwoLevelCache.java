@@ -0,0 +1,156 @@
+package com.newssentiment.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * A Caffeine near-cache in front of a Redis cache. Reads try the local tier,
+ * then Redis, and copy Redis hits into the local tier. Writes go to both.
+ * Evictions go to both and are broadcast so other instances drop their local
+ * copies too. Null values are not cached.
+ */
+class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final BiConsumer<String, String> evictionPublisher;
+
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+
+    TwoLevelCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> local,
+            Cache remote,
+            BiConsumer<String, String> evictionPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.evictionPublisher = evictionPublisher;
+
+        this.localHits = meterRegistry.counter("cache.requests", "cache", name, "result", "local_hit");
+        this.remoteHits = meterRegistry.counter("cache.requests", "cache", name, "result", "remote_hit");
+        this.misses = meterRegistry.counter("cache.requests", "cache", name, "result", "miss");
+
+        Gauge.builder("cache.hit.ratio", this, c -> c.hitRatio(c.localHits.count() + c.remoteHits.count()))
+                .tags("cache", name, "tier", "any")
+                .description("Share of lookups answered by either tier")
+                .register(meterRegistry);
+        Gauge.builder("cache.hit.ratio", this, c -> c.hitRatio(c.localHits.count()))
+                .tags("cache", name, "tier", "local")
+                .description("Share of lookups answered without a Redis round trip")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            remoteHits.increment();
+            local.put(localKey, wrapper.get());
+            return wrapper;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            local.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        remote.put(key, value);
+        local.put(localKey(key), value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remote.evict(key);
+        local.invalidate(localKey);
+        evictionPublisher.accept(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        evictionPublisher.accept(name, null);
+    }
+
+    /**
+     * Applies an eviction broadcast by another instance to the local tier only.
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+
+    private double hitRatio(double hits) {
+        double total = localHits.count() + remoteHits.count() + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
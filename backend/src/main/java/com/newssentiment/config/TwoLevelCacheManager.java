@@ -0,0 +1,39 @@
+package com.newssentiment.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Serves a fixed set of {@link TwoLevelCache}s. Puts and evictions made inside
+ * a transaction are applied after commit, so a reader can't repopulate a
+ * bucket with counts the committing transaction is about to change.
+ */
+class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+
+    private final Map<String, TwoLevelCache> caches;
+
+    TwoLevelCacheManager(Collection<TwoLevelCache> caches) {
+        this.caches = caches.stream().collect(Collectors.toUnmodifiableMap(TwoLevelCache::getName, Function.identity()));
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return caches.values();
+    }
+
+    /**
+     * Handles an eviction broadcast; a null key clears the whole local tier.
+     */
+    void evictLocal(String cacheName, String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.evictLocal(key);
+        }
+    }
+}
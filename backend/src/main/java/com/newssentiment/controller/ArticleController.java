@@ -1,24 +1,34 @@
 package com.newssentiment.controller;
 
 import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFeedDTO;
 import com.newssentiment.dto.ArticleFilterRequest;
 import com.newssentiment.model.SentimentResult;
+import com.newssentiment.service.ArticleExportService;
 import com.newssentiment.service.ArticleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/articles")
 @RequiredArgsConstructor
 public class ArticleController {
 
+    private static final int MAX_FEED_PAGE_SIZE = 100;
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private final ArticleService articleService;
+    private final ArticleExportService articleExportService;
 
     @GetMapping
     public ResponseEntity<Page<ArticleDTO>> getArticles(
@@ -40,6 +50,76 @@ public class ArticleController {
         return ResponseEntity.ok(articleService.findWithFilters(filter, pageable));
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<ArticleFeedDTO> getArticleFeed(
+            @RequestParam(required = false) Long sourceId,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        ArticleFilterRequest filter = new ArticleFilterRequest(
+                sourceId,
+                sentiment != null ? SentimentResult.Sentiment.valueOf(sentiment.toUpperCase()) : null,
+                from,
+                to,
+                q
+        );
+
+        int pageSize = Math.max(1, Math.min(size, MAX_FEED_PAGE_SIZE));
+        return ResponseEntity.ok(articleService.findFeed(filter, cursor, pageSize, includeTotal));
+    }
+
+    /**
+     * Streams every matching article as NDJSON or CSV, gzip-compressed when
+     * the client accepts it. Not paginated; memory use doesn't depend on the
+     * number of rows.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportArticles(
+            @RequestParam(required = false) Long sourceId,
+            @RequestParam(required = false) String sentiment,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ArticleFilterRequest filter = new ArticleFilterRequest(
+                sourceId,
+                sentiment != null ? SentimentResult.Sentiment.valueOf(sentiment.toUpperCase()) : null,
+                from,
+                to,
+                q
+        );
+        ArticleExportService.Format exportFormat = ArticleExportService.Format.valueOf(format.toUpperCase());
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // Sync flush so each chunk reaches the client as it is written
+                GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE, true);
+                articleExportService.export(filter, exportFormat, compressed);
+                compressed.finish();
+            } else {
+                articleExportService.export(filter, exportFormat, out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType() + ";charset=UTF-8")
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"articles." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ArticleDTO> getArticle(@PathVariable Long id) {
         return articleService.findById(id)
@@ -0,0 +1,27 @@
+package com.newssentiment.controller;
+
+import com.newssentiment.dto.IngestionSweepResult;
+import com.newssentiment.service.RssIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/admin/ingestion")
+@RequiredArgsConstructor
+public class IngestionController {
+
+    private final RssIngestionService rssIngestionService;
+
+    @GetMapping("/last-sweep")
+    public ResponseEntity<IngestionSweepResult> getLastSweep() {
+        return rssIngestionService.getLastSweep()
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.noContent().build());
+    }
+
+    @PostMapping("/sweep")
+    public ResponseEntity<IngestionSweepResult> runSweep() {
+        return ResponseEntity.ok(rssIngestionService.sweep());
+    }
+}
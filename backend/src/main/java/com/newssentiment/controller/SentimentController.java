@@ -1,9 +1,11 @@
 package com.newssentiment.controller;
 
 import com.newssentiment.dto.SentimentAggregateDTO;
+import com.newssentiment.model.User;
 import com.newssentiment.service.SentimentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.Instant;
@@ -21,11 +23,16 @@ public class SentimentController {
     public ResponseEntity<List<SentimentAggregateDTO>> getAggregated(
             @RequestParam String groupBy,
             @RequestParam Instant from,
-            @RequestParam Instant to
+            @RequestParam Instant to,
+            @AuthenticationPrincipal User user
     ) {
         List<SentimentAggregateDTO> result = switch (groupBy.toLowerCase()) {
+            case "hour" -> sentimentService.getAggregatedByHour(from, to);
             case "day" -> sentimentService.getAggregatedByDay(from, to);
+            case "week" -> sentimentService.getAggregatedByWeek(from, to);
             case "source" -> sentimentService.getAggregatedBySource(from, to);
+            case "language" -> sentimentService.getAggregatedByLanguage(from, to);
+            case "topic" -> sentimentService.getAggregatedByTopic(from, to, user);
             default -> throw new IllegalArgumentException("Invalid groupBy: " + groupBy);
         };
 
@@ -2,7 +2,7 @@ package com.newssentiment.controller;
 
 import com.newssentiment.dto.SourceDTO;
 import com.newssentiment.model.Source;
-import com.newssentiment.repository.SourceRepository;
+import com.newssentiment.service.SourceService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,52 +14,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class SourceController {
 
-    private final SourceRepository sourceRepository;
+    private final SourceService sourceService;
 
     @GetMapping
     public ResponseEntity<List<SourceDTO>> getSources(
             @RequestParam(required = false) String language,
             @RequestParam(required = false) Boolean active
     ) {
-        List<Source> sources;
-
-        if (active != null && active) {
-            sources = sourceRepository.findByActiveTrue();
-        } else if (language != null) {
-            sources = sourceRepository.findByLanguage(Source.Language.valueOf(language.toUpperCase()));
-        } else {
-            sources = sourceRepository.findAll();
-        }
-
-        List<SourceDTO> dtos = sources.stream()
-                .map(s -> new SourceDTO(
-                        s.getId(),
-                        s.getName(),
-                        s.getUrl(),
-                        s.getType().name(),
-                        s.getLanguage().name(),
-                        s.getActive(),
-                        s.getLastFetched(),
-                        s.getLastSuccess()
-                ))
-                .toList();
-
-        return ResponseEntity.ok(dtos);
+        Source.Language lang = language != null ? Source.Language.valueOf(language.toUpperCase()) : null;
+        return ResponseEntity.ok(sourceService.findSources(lang, active != null && active));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<SourceDTO> getSource(@PathVariable Long id) {
-        return sourceRepository.findById(id)
-                .map(s -> new SourceDTO(
-                        s.getId(),
-                        s.getName(),
-                        s.getUrl(),
-                        s.getType().name(),
-                        s.getLanguage().name(),
-                        s.getActive(),
-                        s.getLastFetched(),
-                        s.getLastSuccess()
-                ))
+        return sourceService.findById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
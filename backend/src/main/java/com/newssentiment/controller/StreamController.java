@@ -0,0 +1,49 @@
+package com.newssentiment.controller;
+
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.service.ArticleStreamHub;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/stream")
+@RequiredArgsConstructor
+public class StreamController {
+
+    private final ArticleStreamHub articleStreamHub;
+
+    @Value("${app.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    /**
+     * Server-sent events named "article" for every newly analyzed article
+     * matching all given filters. Connections end after the configured
+     * timeout; clients reconnect.
+     */
+    @GetMapping(value = "/articles", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamArticles(
+            @RequestParam(required = false) Set<Long> sourceId,
+            @RequestParam(required = false) Set<Long> topicId,
+            @RequestParam(required = false) Set<SentimentResult.Sentiment> sentiment
+    ) {
+        ArticleStreamHub.Filter filter = new ArticleStreamHub.Filter(
+                sourceId != null ? sourceId : Set.of(),
+                topicId != null ? topicId : Set.of(),
+                sentiment != null ? sentiment : Set.of());
+
+        return articleStreamHub.subscribe(filter, Duration.ofMinutes(timeoutMinutes).toMillis())
+                .map(emitter -> ResponseEntity.ok()
+                        // Keep reverse proxies from buffering the stream
+                        .header("X-Accel-Buffering", "no")
+                        .body(emitter))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+}
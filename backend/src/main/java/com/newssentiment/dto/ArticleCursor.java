@@ -0,0 +1,39 @@
+package com.newssentiment.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position in the article feed: the (published_at, id) of the last article
+ * returned. Clients only see it as an opaque token.
+ */
+public record ArticleCursor(
+        Instant publishedAt,
+        long id
+) {
+    private static final String UNDATED = "-";
+
+    public String encode() {
+        String raw = (publishedAt != null ? publishedAt.toString() : UNDATED) + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ArticleCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.lastIndexOf(',');
+            String publishedAt = raw.substring(0, comma);
+            return new ArticleCursor(
+                    UNDATED.equals(publishedAt) ? null : Instant.parse(publishedAt),
+                    Long.parseLong(raw.substring(comma + 1))
+            );
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    public static ArticleCursor after(ArticleDTO article) {
+        return new ArticleCursor(article.publishedAt(), article.id());
+    }
+}
@@ -1,5 +1,7 @@
 package com.newssentiment.dto;
 
+import com.newssentiment.model.SentimentResult;
+
 import java.math.BigDecimal;
 import java.time.Instant;
 
@@ -12,5 +14,24 @@ public record ArticleDTO(
         String author,
         Instant publishedAt,
         String sentiment,
-        BigDecimal confidence
-) {}
+        BigDecimal confidence,
+        String headline
+) {
+    /**
+     * Used by JPQL constructor expressions, which select the enum column as is.
+     */
+    public ArticleDTO(
+            Long id,
+            Long sourceId,
+            String sourceName,
+            String title,
+            String url,
+            String author,
+            Instant publishedAt,
+            SentimentResult.Sentiment sentiment,
+            BigDecimal confidence
+    ) {
+        this(id, sourceId, sourceName, title, url, author, publishedAt,
+                sentiment != null ? sentiment.name() : null, confidence, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.newssentiment.dto;
+
+import java.util.List;
+
+public record ArticleFeedDTO(
+        List<ArticleDTO> content,
+        String nextCursor,
+        Long totalElements
+) {}
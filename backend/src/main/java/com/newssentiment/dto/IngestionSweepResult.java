@@ -0,0 +1,13 @@
+package com.newssentiment.dto;
+
+import java.time.Instant;
+
+public record IngestionSweepResult(
+        Instant startedAt,
+        long durationMs,
+        int sources,
+        int succeeded,
+        int failed,
+        int articlesFetched,
+        int articlesSaved
+) {}
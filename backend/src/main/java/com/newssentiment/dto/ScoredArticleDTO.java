@@ -0,0 +1,22 @@
+package com.newssentiment.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A newly analyzed article as pushed to live feed subscribers. {@code topicId}
+ * is the article's best topic match and {@code topicIds} all of them.
+ */
+public record ScoredArticleDTO(
+        Long articleId,
+        Long sourceId,
+        Long topicId,
+        List<Long> topicIds,
+        String title,
+        String url,
+        Instant publishedAt,
+        String sentiment,
+        BigDecimal confidence,
+        Instant processedAt
+) {}
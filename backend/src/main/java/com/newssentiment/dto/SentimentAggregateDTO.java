@@ -5,5 +5,22 @@ public record SentimentAggregateDTO(
         Long positive,
         Long negative,
         Long neutral,
-        Long total
-) {}
+        Long total,
+        Double positivePercent,
+        Double negativePercent,
+        Double neutralPercent
+) {
+    /**
+     * Computes the total and each sentiment's share of it in percent, rounded
+     * to two decimals; the shares are 0 for an empty group.
+     */
+    public static SentimentAggregateDTO of(String group, long positive, long negative, long neutral) {
+        long total = positive + negative + neutral;
+        return new SentimentAggregateDTO(group, positive, negative, neutral, total,
+                percent(positive, total), percent(negative, total), percent(neutral, total));
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : Math.round(count * 10_000.0 / total) / 100.0;
+    }
+}
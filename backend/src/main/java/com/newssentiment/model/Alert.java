@@ -37,6 +37,9 @@ public class Alert {
     @Column(nullable = false, length = 50)
     private Channel channel;
 
+    @Column(length = 500)
+    private String webhookUrl;
+
     @Builder.Default
     @Column(nullable = false)
     private Boolean active = true;
@@ -6,12 +6,18 @@ import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
+import java.util.HashSet;
 import java.util.Map;
-
+import java.util.Set;
+
+/**
+ * A fetched article. The table is partitioned by {@code published_at}, so
+ * (source_id, external_id) cannot be a unique constraint on it; the key is
+ * claimed in {@code article_keys} by an insert trigger, which rejects
+ * duplicates like a unique constraint would.
+ */
 @Entity
-@Table(name = "articles", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"source_id", "external_id"})
-})
+@Table(name = "articles")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -24,13 +30,22 @@ public class Article {
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "source_id")
+    @JoinColumn(name = "source_id", nullable = false)
     private Source source;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "topic_id")
     private Topic topic;
 
+    /**
+     * Every topic the article matched; {@link #topic} is the best of them.
+     */
+    @ElementCollection
+    @CollectionTable(name = "article_topics", joinColumns = @JoinColumn(name = "article_id"))
+    @Column(name = "topic_id")
+    @Builder.Default
+    private Set<Long> topicIds = new HashSet<>();
+
     @Column(name = "external_id", length = 500)
     private String externalId;
 
@@ -55,6 +70,21 @@ public class Article {
     @Column(length = 64)
     private String contentHash;
 
+    private Long simhash;
+
+    @Column(name = "duplicate_of")
+    private Long duplicateOf;
+
+    private Instant sentimentClaimedUntil;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Short sentimentAttempts = 0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Boolean sentimentPending = true;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(columnDefinition = "jsonb")
     private Map<String, Object> metadata;
@@ -10,10 +10,14 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A sentiment analysis of an article. The table is partitioned by
+ * {@code processed_at}, so (article_id, model_version) cannot be a unique
+ * constraint on it; the key is claimed in {@code sentiment_result_keys} by an
+ * insert trigger, which rejects duplicates like a unique constraint would.
+ */
 @Entity
-@Table(name = "sentiment_results", uniqueConstraints = {
-    @UniqueConstraint(columnNames = {"article_id", "model_version"})
-})
+@Table(name = "sentiment_results")
 @Getter
 @Setter
 @NoArgsConstructor
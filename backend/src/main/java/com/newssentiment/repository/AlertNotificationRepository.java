@@ -0,0 +1,9 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.model.AlertNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AlertNotificationRepository extends JpaRepository<AlertNotification, Long>, AlertNotificationRepositoryCustom {
+}
@@ -0,0 +1,45 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.AlertNotification;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox operations that need set-based SQL: batched enqueueing and claiming
+ * due rows across concurrent workers with {@code FOR UPDATE SKIP LOCKED}.
+ */
+public interface AlertNotificationRepositoryCustom {
+
+    /**
+     * Inserts one pending notification per alert id with the matching payload,
+     * addressed to the alert owner's email or the alert's webhook URL. Alerts
+     * that no longer exist or have no webhook URL are skipped, as are firings
+     * less than the alert's window away from one already in the outbox, so an
+     * alert fired by several nodes or again after a restart is sent once.
+     * Must run in a transaction: the alerts are advisory-locked until it ends
+     * so concurrent enqueues of the same alert see each other's rows. Returns
+     * the number of rows inserted.
+     */
+    int enqueue(List<Long> alertIds, List<Instant> firedAts, List<Integer> windowMinutes,
+                List<Map<String, Object>> payloads, Instant notBefore);
+
+    /**
+     * Claims up to {@code limit} due notifications on a channel by moving
+     * their next attempt {@code lease} into the future, so rows of a worker
+     * that dies are retried once the lease runs out.
+     */
+    List<AlertNotification> claimDue(Alert.Channel channel, int limit, Duration lease);
+
+    void markSent(List<Long> ids);
+
+    /**
+     * Records a failed attempt. Each row is retried after
+     * {@code baseBackoff * 2^attempts}, capped at {@code maxBackoff}, until it
+     * has been tried {@code maxAttempts} times and is marked FAILED.
+     */
+    void markFailed(List<Long> ids, String error, int maxAttempts, Duration baseBackoff, Duration maxBackoff);
+}
@@ -0,0 +1,154 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.AlertNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class AlertNotificationRepositoryImpl implements AlertNotificationRepositoryCustom {
+
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+
+    // Taken in id order so concurrent batches can't deadlock
+    private static final String LOCK_ALERTS_SQL = """
+            SELECT pg_advisory_xact_lock(id)
+            FROM (SELECT DISTINCT unnest(?::bigint[]) AS id ORDER BY 1) ids
+            """;
+
+    private static final String ENQUEUE_SQL = """
+            INSERT INTO alert_notifications (alert_id, user_id, channel, recipient, payload, next_attempt_at, fired_at)
+            SELECT a.id, a.user_id, a.channel,
+                   CASE WHEN a.channel = 'EMAIL' THEN u.email ELSE a.webhook_url END,
+                   t.payload::jsonb, ?, t.fired_at
+            FROM unnest(?::bigint[], ?::timestamptz[], ?::int[], ?::text[])
+                 AS t(alert_id, fired_at, window_minutes, payload)
+            JOIN alerts a ON a.id = t.alert_id
+            JOIN users u ON u.id = a.user_id
+            WHERE (a.channel = 'EMAIL' OR a.webhook_url IS NOT NULL)
+              AND NOT EXISTS (SELECT 1 FROM alert_notifications n
+                              WHERE n.alert_id = t.alert_id
+                                AND n.fired_at > t.fired_at - make_interval(mins => t.window_minutes)
+                                AND n.fired_at < t.fired_at + make_interval(mins => t.window_minutes))
+            """;
+
+    private static final String CLAIM_SQL = """
+            UPDATE alert_notifications n
+            SET next_attempt_at = NOW() + make_interval(secs => ?)
+            FROM (SELECT id FROM alert_notifications
+                  WHERE status = 'PENDING' AND channel = ? AND next_attempt_at <= NOW()
+                  ORDER BY next_attempt_at
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE n.id = due.id
+            RETURNING n.id, n.alert_id, n.user_id, n.recipient, n.payload::text, n.attempts, n.created_at
+            """;
+
+    private static final String MARK_FAILED_SQL = """
+            UPDATE alert_notifications
+            SET attempts = attempts + 1,
+                last_error = ?,
+                status = CASE WHEN attempts + 1 >= ? THEN 'FAILED' ELSE 'PENDING' END,
+                next_attempt_at = NOW() + make_interval(secs => LEAST(? * power(2, attempts), ?))
+            WHERE id = ANY(?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public int enqueue(List<Long> alertIds, List<Instant> firedAts, List<Integer> windowMinutes,
+                       List<Map<String, Object>> payloads, Instant notBefore) {
+        if (alertIds.isEmpty()) {
+            return 0;
+        }
+        String[] json = payloads.stream().map(this::toJson).toArray(String[]::new);
+        Timestamp[] fired = firedAts.stream().map(Timestamp::from).toArray(Timestamp[]::new);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(LOCK_ALERTS_SQL);
+            ps.setArray(1, idArray(connection, alertIds));
+            return ps;
+        }, rs -> {});
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(ENQUEUE_SQL);
+            ps.setTimestamp(1, Timestamp.from(notBefore));
+            ps.setArray(2, idArray(connection, alertIds));
+            ps.setArray(3, connection.createArrayOf("timestamptz", fired));
+            ps.setArray(4, connection.createArrayOf("integer", windowMinutes.toArray()));
+            ps.setArray(5, connection.createArrayOf("text", json));
+            return ps;
+        });
+    }
+
+    @Override
+    public List<AlertNotification> claimDue(Alert.Channel channel, int limit, Duration lease) {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> AlertNotification.builder()
+                        .id(rs.getLong("id"))
+                        .alertId(rs.getObject("alert_id", Long.class))
+                        .userId(rs.getLong("user_id"))
+                        .channel(channel)
+                        .recipient(rs.getString("recipient"))
+                        .payload(fromJson(rs.getString("payload")))
+                        .attempts(rs.getInt("attempts"))
+                        .createdAt(rs.getTimestamp("created_at").toInstant())
+                        .build(),
+                lease.toSeconds(), channel.name(), limit);
+    }
+
+    @Override
+    public void markSent(List<Long> ids) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "UPDATE alert_notifications SET status = 'SENT', attempts = attempts + 1, sent_at = NOW() " +
+                    "WHERE id = ANY(?)");
+            ps.setArray(1, idArray(connection, ids));
+            return ps;
+        });
+    }
+
+    @Override
+    public void markFailed(List<Long> ids, String error, int maxAttempts, Duration baseBackoff, Duration maxBackoff) {
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(MARK_FAILED_SQL);
+            ps.setString(1, error);
+            ps.setInt(2, maxAttempts);
+            ps.setLong(3, baseBackoff.toSeconds());
+            ps.setLong(4, maxBackoff.toSeconds());
+            ps.setArray(5, idArray(connection, ids));
+            return ps;
+        });
+    }
+
+    private static Array idArray(Connection connection, List<Long> ids) throws SQLException {
+        return connection.createArrayOf("bigint", ids.toArray());
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Alert payload is not serializable", e);
+        }
+    }
+
+    private Map<String, Object> fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, PAYLOAD_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored alert payload is not valid JSON", e);
+        }
+    }
+}
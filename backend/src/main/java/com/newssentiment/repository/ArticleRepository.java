@@ -1,5 +1,6 @@
 package com.newssentiment.repository;
 
+import com.newssentiment.dto.ArticleDTO;
 import com.newssentiment.model.Article;
 import com.newssentiment.model.SentimentResult;
 import org.springframework.data.domain.Page;
@@ -14,7 +15,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ArticleRepository extends JpaRepository<Article, Long> {
+public interface ArticleRepository extends JpaRepository<Article, Long>, ArticleRepositoryCustom {
 
     Optional<Article> findBySourceIdAndExternalId(Long sourceId, String externalId);
 
@@ -28,21 +29,35 @@ public interface ArticleRepository extends JpaRepository<Article, Long> {
             @Param("to") Instant to,
             Pageable pageable);
 
-    @Query("SELECT a FROM Article a " +
-           "LEFT JOIN FETCH a.sentimentResult sr " +
-           "WHERE (:sourceId IS NULL OR a.source.id = :sourceId) " +
-           "AND (:sentiment IS NULL OR sr.sentiment = :sentiment) " +
-           "AND (:from IS NULL OR a.publishedAt >= :from) " +
-           "AND (:to IS NULL OR a.publishedAt <= :to)")
-    Page<Article> findWithFilters(
+    @Query(value = "SELECT new com.newssentiment.dto.ArticleDTO(" +
+                   "a.id, s.id, s.name, a.title, a.url, a.author, a.publishedAt, sr.sentiment, sr.confidence) " +
+                   "FROM Article a " +
+                   "LEFT JOIN a.source s " +
+                   "LEFT JOIN a.sentimentResult sr " +
+                   "WHERE (:sourceId IS NULL OR s.id = :sourceId) " +
+                   "AND (:sentiment IS NULL OR sr.sentiment = :sentiment) " +
+                   "AND (:from IS NULL OR a.publishedAt >= :from) " +
+                   "AND (:to IS NULL OR a.publishedAt <= :to)",
+           countQuery = "SELECT COUNT(a) FROM Article a " +
+                   "LEFT JOIN a.sentimentResult sr " +
+                   "WHERE (:sourceId IS NULL OR a.source.id = :sourceId) " +
+                   "AND (:sentiment IS NULL OR sr.sentiment = :sentiment) " +
+                   "AND (:from IS NULL OR a.publishedAt >= :from) " +
+                   "AND (:to IS NULL OR a.publishedAt <= :to)")
+    Page<ArticleDTO> findWithFilters(
             @Param("sourceId") Long sourceId,
             @Param("sentiment") SentimentResult.Sentiment sentiment,
             @Param("from") Instant from,
             @Param("to") Instant to,
             Pageable pageable);
 
-    @Query("SELECT a FROM Article a WHERE a.sentimentResult IS NULL")
-    List<Article> findUnprocessedArticles(Pageable pageable);
+    @Query("SELECT new com.newssentiment.dto.ArticleDTO(" +
+           "a.id, s.id, s.name, a.title, a.url, a.author, a.publishedAt, sr.sentiment, sr.confidence) " +
+           "FROM Article a " +
+           "LEFT JOIN a.source s " +
+           "LEFT JOIN a.sentimentResult sr " +
+           "WHERE a.id = :id")
+    Optional<ArticleDTO> findDTOById(@Param("id") Long id);
 
     @Query("SELECT COUNT(a) FROM Article a WHERE a.source.id = :sourceId AND a.publishedAt >= :since")
     long countBySourceIdSince(@Param("sourceId") Long sourceId, @Param("since") Instant since);
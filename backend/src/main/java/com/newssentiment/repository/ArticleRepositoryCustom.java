@@ -0,0 +1,85 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.dto.ArticleCursor;
+import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFilterRequest;
+import com.newssentiment.model.Article;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface ArticleRepositoryCustom {
+
+    /**
+     * Inserts the given articles with one set-based statement per chunk, skipping
+     * rows that conflict on (source_id, external_id). Returns the keys of the rows
+     * that were actually inserted. Runs in the caller's transaction, or its own.
+     */
+    List<InsertedArticle> insertIgnoringDuplicates(List<Article> articles);
+
+    /**
+     * Full-text search over {@code search_vector} using {@code websearch_to_tsquery},
+     * so the GIN index drives the match. Results are ordered by rank and carry a
+     * highlighted headline; the pageable's sort is ignored.
+     */
+    Page<ArticleDTO> search(ArticleFilterRequest filter, Pageable pageable);
+
+    /**
+     * Keyset page of the article feed, newest first, starting after the given
+     * cursor (or from the top if it is null). Seeks on (published_at, id), so the
+     * cost of a page doesn't depend on how deep it is. Articles without a
+     * publication date follow all dated ones.
+     */
+    List<ArticleDTO> findFeedPage(ArticleFilterRequest filter, ArticleCursor after, int limit);
+
+    long countWithFilters(ArticleFilterRequest filter);
+
+    /**
+     * Passes up to {@code limit} articles matching the filter with an id above
+     * {@code afterId} to {@code consumer}, in id order, and returns how many.
+     * Rows are read through a cursor of {@code fetchSize} rows, which needs a
+     * surrounding transaction; without one the driver buffers the whole chunk.
+     */
+    int exportChunk(ArticleFilterRequest filter, long afterId, int limit, int fetchSize, Consumer<ArticleDTO> consumer);
+
+    /**
+     * Sets {@code duplicate_of} for the given article ids in a single statement.
+     */
+    void updateDuplicateOf(Map<Long, Long> duplicateOfById);
+
+    /**
+     * Records the topics each article matched in {@code article_topics} and sets
+     * {@code topic_id} to the first topic in each list where it is still unset.
+     * Topics deleted in the meantime are skipped.
+     */
+    void assignTopics(Map<Long, List<Long>> topicIdsByArticle);
+
+    /**
+     * Topics each of the given articles matched in {@code article_topics}, in
+     * topic id order. Articles without a match are absent from the map.
+     */
+    Map<Long, List<Long>> findTopicIds(Collection<Long> articleIds);
+
+    /**
+     * Claims up to {@code limit} articles that still need sentiment analysis,
+     * oldest first, for the duration of {@code lease}. Rows are picked with
+     * {@code FOR UPDATE SKIP LOCKED} and their lease is written in the same
+     * statement, so concurrent workers on any node never get the same article
+     * while the lease holds. Near-duplicates are only claimed once their
+     * cluster representative has a result, which the worker copies, or is no
+     * longer pending without one, in which case they are analyzed themselves.
+     * Articles that already used {@code maxAttempts} claims are skipped; the
+     * claim that uses up the last attempt takes the article off the pending
+     * index. The returned articles are detached and carry only their id,
+     * title, url, content, content hash, publication time, source, topic and
+     * representative.
+     */
+    List<Article> claimUnprocessedArticles(int limit, Duration lease, int maxAttempts);
+
+    record InsertedArticle(Long id, Long sourceId, String externalId) {}
+}
@@ -0,0 +1,445 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ArticleCursor;
+import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFilterRequest;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.Source;
+import com.newssentiment.model.Topic;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@RequiredArgsConstructor
+public class ArticleRepositoryImpl implements ArticleRepositoryCustom {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // (source_id, external_id) is unique through article_keys, whose insert
+    // trigger raises on duplicates unless app.skip_duplicate_keys is on, so
+    // there is no conflict target to name here
+    private static final String INSERT_SQL = """
+            INSERT INTO articles (source_id, topic_id, external_id, title, content, url, author,
+                                  published_at, fetched_at, content_hash, simhash, metadata, created_at)
+            SELECT t.source_id, t.topic_id, t.external_id, t.title, t.content, t.url, t.author,
+                   t.published_at, t.fetched_at, t.content_hash, t.simhash, t.metadata::jsonb, t.created_at
+            FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::text[], ?::text[], ?::varchar[],
+                        ?::varchar[], ?::timestamptz[], ?::timestamptz[], ?::varchar[], ?::bigint[],
+                        ?::text[], ?::timestamptz[])
+                 AS t(source_id, topic_id, external_id, title, content, url, author,
+                      published_at, fetched_at, content_hash, simhash, metadata, created_at)
+            ON CONFLICT DO NOTHING
+            RETURNING id, source_id, external_id
+            """;
+
+    private static final String SKIP_DUPLICATE_KEYS_SQL = "SELECT set_config('app.skip_duplicate_keys', ?, TRUE)";
+
+    private static final String UPDATE_DUPLICATE_OF_SQL = """
+            UPDATE articles SET duplicate_of = t.duplicate_of
+            FROM unnest(?::bigint[], ?::bigint[]) AS t(id, duplicate_of)
+            WHERE articles.id = t.id
+            """;
+
+    private static final String INSERT_ARTICLE_TOPICS_SQL = """
+            INSERT INTO article_topics (article_id, topic_id)
+            SELECT t.article_id, t.topic_id
+            FROM unnest(?::bigint[], ?::bigint[]) AS t(article_id, topic_id)
+            JOIN topics ON topics.id = t.topic_id
+            ON CONFLICT DO NOTHING
+            """;
+
+    private static final String UPDATE_TOPIC_SQL = """
+            UPDATE articles SET topic_id = t.topic_id
+            FROM unnest(?::bigint[], ?::bigint[]) AS t(id, topic_id)
+            JOIN topics ON topics.id = t.topic_id
+            WHERE articles.id = t.id AND articles.topic_id IS NULL
+            """;
+
+    private static final String FIND_TOPIC_IDS_SQL = """
+            SELECT article_id, topic_id FROM article_topics
+            WHERE article_id = ANY(?)
+            ORDER BY article_id, topic_id
+            """;
+
+    // Walks idx_articles_sentiment_pending, which only holds articles without
+    // a result and with attempts left; the last attempt clears the flag
+    private static final String CLAIM_UNPROCESSED_SQL = """
+            UPDATE articles a
+            SET sentiment_claimed_until = NOW() + make_interval(secs => ?),
+                sentiment_attempts = a.sentiment_attempts + 1,
+                sentiment_pending = a.sentiment_attempts + 1 < ?
+            FROM (SELECT id FROM articles
+                  WHERE sentiment_pending
+                    AND sentiment_attempts < ?
+                    AND (sentiment_claimed_until IS NULL OR sentiment_claimed_until < NOW())
+                    AND NOT EXISTS (SELECT 1 FROM sentiment_results sr WHERE sr.article_id = articles.id)
+                    AND (duplicate_of IS NULL
+                         OR EXISTS (SELECT 1 FROM sentiment_results rep WHERE rep.article_id = articles.duplicate_of)
+                         OR NOT EXISTS (SELECT 1 FROM articles rep
+                                        WHERE rep.id = articles.duplicate_of AND rep.sentiment_pending))
+                  ORDER BY id
+                  LIMIT ?
+                  FOR UPDATE SKIP LOCKED) due
+            WHERE a.id = due.id
+            RETURNING a.id, a.source_id, a.topic_id, a.title, a.url, a.content, a.content_hash, a.published_at, a.duplicate_of
+            """;
+
+    private static final String SEARCH_FROM = """
+             FROM articles a
+            CROSS JOIN websearch_to_tsquery('simple', ?) AS q(query)
+            LEFT JOIN sentiment_results sr ON sr.article_id = a.id
+            WHERE a.search_vector @@ q.query
+            """;
+
+    private static final String HEADLINE_OPTIONS =
+            "StartSel=<mark>, StopSel=</mark>, MaxWords=35, MinWords=15, MaxFragments=2";
+
+    // Rank and paginate on ids first, then fetch display columns and build
+    // headlines only for the rows on the requested page.
+    private static final String SEARCH_SQL = """
+            SELECT a.id, a.source_id, s.name AS source_name, a.title, a.url, a.author, a.published_at,
+                   sr.sentiment, sr.confidence,
+                   ts_headline('simple', coalesce(a.content, a.title), m.query, '%s') AS headline
+            FROM (SELECT a.id, a.published_at, q.query, ts_rank_cd(a.search_vector, q.query) AS rank
+                  %s
+                  ORDER BY rank DESC, a.published_at DESC NULLS LAST, a.id DESC
+                  LIMIT ? OFFSET ?) m
+            JOIN articles a ON a.id = m.id
+            LEFT JOIN sources s ON s.id = a.source_id
+            LEFT JOIN sentiment_results sr ON sr.article_id = a.id
+            ORDER BY m.rank DESC, m.published_at DESC NULLS LAST, m.id DESC
+            """;
+
+    private static final String FEED_SELECT = """
+            SELECT a.id, a.source_id, s.name AS source_name, a.title, a.url, a.author, a.published_at,
+                   sr.sentiment, sr.confidence
+            FROM articles a
+            LEFT JOIN sources s ON s.id = a.source_id
+            LEFT JOIN sentiment_results sr ON sr.article_id = a.id
+            WHERE TRUE""";
+
+    private static final String COUNT_SELECT = """
+            SELECT count(*)
+            FROM articles a
+            LEFT JOIN sentiment_results sr ON sr.article_id = a.id
+            WHERE TRUE""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional
+    public List<InsertedArticle> insertIgnoringDuplicates(List<Article> articles) {
+        List<InsertedArticle> inserted = new ArrayList<>();
+        // Only for these statements; single-row saves in the transaction still fail on duplicates
+        jdbcTemplate.queryForObject(SKIP_DUPLICATE_KEYS_SQL, String.class, "on");
+        for (int from = 0; from < articles.size(); from += CHUNK_SIZE) {
+            List<Article> chunk = articles.subList(from, Math.min(from + CHUNK_SIZE, articles.size()));
+            inserted.addAll(jdbcTemplate.query(
+                    connection -> prepareInsert(connection, chunk),
+                    (rs, rowNum) -> new InsertedArticle(
+                            rs.getLong("id"),
+                            rs.getObject("source_id", Long.class),
+                            rs.getString("external_id"))
+            ));
+        }
+        jdbcTemplate.queryForObject(SKIP_DUPLICATE_KEYS_SQL, String.class, "off");
+        return inserted;
+    }
+
+    @Override
+    public Page<ArticleDTO> search(ArticleFilterRequest filter, Pageable pageable) {
+        StringBuilder from = new StringBuilder(SEARCH_FROM);
+        List<Object> params = new ArrayList<>();
+        params.add(filter.query());
+        appendFilters(from, params, filter);
+
+        Long total = jdbcTemplate.queryForObject("SELECT count(*)" + from, Long.class, params.toArray());
+        if (total == null || total == 0) {
+            return Page.empty(pageable);
+        }
+
+        params.add(pageable.getPageSize());
+        params.add(pageable.getOffset());
+        List<ArticleDTO> content = jdbcTemplate.query(
+                SEARCH_SQL.formatted(HEADLINE_OPTIONS, from),
+                (rs, rowNum) -> toArticleDTO(rs, rs.getString("headline")),
+                params.toArray()
+        );
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    public List<ArticleDTO> findFeedPage(ArticleFilterRequest filter, ArticleCursor after, int limit) {
+        List<ArticleDTO> page = new ArrayList<>(limit);
+
+        // Dated articles first, seeking on (published_at, id) along idx_articles_published_at
+        if (after == null || after.publishedAt() != null) {
+            StringBuilder sql = new StringBuilder(FEED_SELECT).append(" AND a.published_at IS NOT NULL");
+            List<Object> params = new ArrayList<>();
+            appendFilters(sql, params, filter);
+            appendTextMatch(sql, params, filter);
+            if (after != null) {
+                sql.append(" AND (a.published_at, a.id) < (?, ?)");
+                params.add(Timestamp.from(after.publishedAt()));
+                params.add(after.id());
+            }
+            sql.append(" ORDER BY a.published_at DESC, a.id DESC LIMIT ?");
+            params.add(limit);
+            page.addAll(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toArticleDTO(rs, null), params.toArray()));
+        }
+
+        // Then the few undated ones, newest id first, along idx_articles_unpublished
+        if (page.size() < limit && filter.from() == null && filter.to() == null) {
+            StringBuilder sql = new StringBuilder(FEED_SELECT).append(" AND a.published_at IS NULL");
+            List<Object> params = new ArrayList<>();
+            appendFilters(sql, params, filter);
+            appendTextMatch(sql, params, filter);
+            if (after != null && after.publishedAt() == null) {
+                sql.append(" AND a.id < ?");
+                params.add(after.id());
+            }
+            sql.append(" ORDER BY a.id DESC LIMIT ?");
+            params.add(limit - page.size());
+            page.addAll(jdbcTemplate.query(sql.toString(), (rs, rowNum) -> toArticleDTO(rs, null), params.toArray()));
+        }
+
+        return page;
+    }
+
+    @Override
+    public long countWithFilters(ArticleFilterRequest filter) {
+        StringBuilder sql = new StringBuilder(COUNT_SELECT);
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, filter);
+        appendTextMatch(sql, params, filter);
+        Long total = jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+        return total != null ? total : 0;
+    }
+
+    @Override
+    public int exportChunk(ArticleFilterRequest filter, long afterId, int limit, int fetchSize,
+                           Consumer<ArticleDTO> consumer) {
+        StringBuilder sql = new StringBuilder(FEED_SELECT);
+        List<Object> params = new ArrayList<>();
+        appendFilters(sql, params, filter);
+        appendTextMatch(sql, params, filter);
+        sql.append(" AND a.id > ? ORDER BY a.id LIMIT ?");
+        params.add(afterId);
+        params.add(limit);
+
+        int[] count = {0};
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql.toString());
+                    ps.setFetchSize(fetchSize);
+                    new ArgumentPreparedStatementSetter(params.toArray()).setValues(ps);
+                    return ps;
+                },
+                rs -> {
+                    consumer.accept(toArticleDTO(rs, null));
+                    count[0]++;
+                }
+        );
+        return count[0];
+    }
+
+    @Override
+    public void updateDuplicateOf(Map<Long, Long> duplicateOfById) {
+        if (duplicateOfById.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_DUPLICATE_OF_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", duplicateOfById.keySet().toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", duplicateOfById.values().toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public void assignTopics(Map<Long, List<Long>> topicIdsByArticle) {
+        List<Long> articleIds = new ArrayList<>();
+        List<Long> topicIds = new ArrayList<>();
+        List<Long> bestArticleIds = new ArrayList<>();
+        List<Long> bestTopicIds = new ArrayList<>();
+        topicIdsByArticle.forEach((articleId, topics) -> {
+            if (topics.isEmpty()) {
+                return;
+            }
+            bestArticleIds.add(articleId);
+            bestTopicIds.add(topics.get(0));
+            for (Long topicId : topics) {
+                articleIds.add(articleId);
+                topicIds.add(topicId);
+            }
+        });
+        if (articleIds.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_ARTICLE_TOPICS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", articleIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", topicIds.toArray()));
+            return ps;
+        });
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(UPDATE_TOPIC_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", bestArticleIds.toArray()));
+            ps.setArray(2, connection.createArrayOf("bigint", bestTopicIds.toArray()));
+            return ps;
+        });
+    }
+
+    @Override
+    public Map<Long, List<Long>> findTopicIds(Collection<Long> articleIds) {
+        Map<Long, List<Long>> topicIds = new HashMap<>();
+        if (articleIds.isEmpty()) {
+            return topicIds;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_TOPIC_IDS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", articleIds.toArray()));
+            return ps;
+        }, rs -> {
+            topicIds.computeIfAbsent(rs.getLong("article_id"), id -> new ArrayList<>()).add(rs.getLong("topic_id"));
+        });
+        return topicIds;
+    }
+
+    @Override
+    public List<Article> claimUnprocessedArticles(int limit, Duration lease, int maxAttempts) {
+        return jdbcTemplate.query(CLAIM_UNPROCESSED_SQL, (rs, rowNum) -> {
+                    long sourceId = rs.getLong("source_id");
+                    Source source = rs.wasNull() ? null : Source.builder().id(sourceId).build();
+                    long topicId = rs.getLong("topic_id");
+                    Topic topic = rs.wasNull() ? null : Topic.builder().id(topicId).build();
+                    OffsetDateTime publishedAt = rs.getObject("published_at", OffsetDateTime.class);
+                    return Article.builder()
+                            .id(rs.getLong("id"))
+                            .duplicateOf(rs.getObject("duplicate_of", Long.class))
+                            .source(source)
+                            .topic(topic)
+                            .title(rs.getString("title"))
+                            .url(rs.getString("url"))
+                            .content(rs.getString("content"))
+                            .contentHash(rs.getString("content_hash"))
+                            .publishedAt(publishedAt != null ? publishedAt.toInstant() : null)
+                            .build();
+                },
+                lease.toSeconds(), maxAttempts, maxAttempts, limit);
+    }
+
+    /**
+     * Appends the source, sentiment and date-range filters shared by all listing
+     * queries. Only set filters produce a predicate, so the planner never sees
+     * {@code param IS NULL OR ...} conditions.
+     */
+    private static void appendFilters(StringBuilder sql, List<Object> params, ArticleFilterRequest filter) {
+        if (filter.sourceId() != null) {
+            sql.append(" AND a.source_id = ?");
+            params.add(filter.sourceId());
+        }
+        if (filter.sentiment() != null) {
+            sql.append(" AND sr.sentiment = ?");
+            params.add(filter.sentiment().name());
+        }
+        if (filter.from() != null) {
+            sql.append(" AND a.published_at >= ?");
+            params.add(Timestamp.from(filter.from()));
+        }
+        if (filter.to() != null) {
+            sql.append(" AND a.published_at <= ?");
+            params.add(Timestamp.from(filter.to()));
+        }
+    }
+
+    private static void appendTextMatch(StringBuilder sql, List<Object> params, ArticleFilterRequest filter) {
+        if (filter.query() != null && !filter.query().isBlank()) {
+            sql.append(" AND a.search_vector @@ websearch_to_tsquery('simple', ?)");
+            params.add(filter.query());
+        }
+    }
+
+    static ArticleDTO toArticleDTO(ResultSet rs, String headline) throws SQLException {
+        OffsetDateTime publishedAt = rs.getObject("published_at", OffsetDateTime.class);
+        return new ArticleDTO(
+                rs.getLong("id"),
+                rs.getObject("source_id", Long.class),
+                rs.getString("source_name"),
+                rs.getString("title"),
+                rs.getString("url"),
+                rs.getString("author"),
+                publishedAt != null ? publishedAt.toInstant() : null,
+                rs.getString("sentiment"),
+                rs.getBigDecimal("confidence"),
+                headline
+        );
+    }
+
+    private PreparedStatement prepareInsert(Connection connection, List<Article> chunk) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+        ps.setArray(1, connection.createArrayOf("bigint",
+                column(chunk, a -> a.getSource() != null ? a.getSource().getId() : null)));
+        ps.setArray(2, connection.createArrayOf("bigint",
+                column(chunk, a -> a.getTopic() != null ? a.getTopic().getId() : null)));
+        ps.setArray(3, connection.createArrayOf("varchar", column(chunk, Article::getExternalId)));
+        ps.setArray(4, connection.createArrayOf("text", column(chunk, Article::getTitle)));
+        ps.setArray(5, connection.createArrayOf("text", column(chunk, Article::getContent)));
+        ps.setArray(6, connection.createArrayOf("varchar", column(chunk, Article::getUrl)));
+        ps.setArray(7, connection.createArrayOf("varchar", column(chunk, Article::getAuthor)));
+        ps.setArray(8, connection.createArrayOf("timestamptz", column(chunk, a -> timestamp(a.getPublishedAt()))));
+        ps.setArray(9, connection.createArrayOf("timestamptz", column(chunk, a -> timestamp(a.getFetchedAt()))));
+        ps.setArray(10, connection.createArrayOf("varchar", column(chunk, Article::getContentHash)));
+        ps.setArray(11, connection.createArrayOf("bigint", column(chunk, Article::getSimhash)));
+        ps.setArray(12, connection.createArrayOf("text", column(chunk, a -> toJson(a.getMetadata()))));
+        ps.setArray(13, connection.createArrayOf("timestamptz", column(chunk, a -> timestamp(a.getCreatedAt()))));
+        return ps;
+    }
+
+    private static Object[] column(List<Article> chunk, Function<Article, Object> getter) {
+        Object[] values = new Object[chunk.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = getter.apply(chunk.get(i));
+        }
+        return values;
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Article metadata is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.model.SentimentResult;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Aggregate counts served from {@code sentiment_rollups}, which an insert
+ * trigger keeps current, for every whole hour and day, plus raw
+ * {@code sentiment_results} rows for the partial hours at the edges of the
+ * range.
+ */
+public interface SentimentResultRepositoryCustom {
+
+    /**
+     * Returns rows of (UTC date, sourceId, sentiment, count) for results
+     * processed in {@code [from, to)}, ordered by date. Source id 0 stands for
+     * articles without a source. The upper bound is exclusive so that adjacent
+     * ranges can be added up without counting a result twice.
+     */
+    List<Object[]> countByDaySourceAndSentiment(Instant from, Instant to);
+
+    /**
+     * Passes (UTC hour as hours since the epoch, sentiment, count) for results
+     * processed in {@code [from, to)} to {@code handler}, read from the hourly
+     * rollups for whole hours.
+     */
+    void countByHourAndSentiment(Instant from, Instant to, GroupCountHandler handler);
+
+    /**
+     * Passes (topic id, sentiment, count) for results processed in
+     * {@code [from, to)} whose articles matched one of {@code topicIds}. An
+     * article matching several topics counts for each.
+     */
+    void countByTopicAndSentiment(Instant from, Instant to, Collection<Long> topicIds, GroupCountHandler handler);
+
+    /**
+     * Inserts the given results, whose articles must carry an id, with one
+     * set-based statement. Results conflicting on (article_id, model_version)
+     * are skipped; returns the article ids of the rows actually inserted. Runs in
+     * the caller's transaction, or its own.
+     */
+    List<Long> insertIgnoringDuplicates(List<SentimentResult> results);
+
+    /**
+     * Latest stored result for each of the given content hashes under one of
+     * {@code modelVersions}, preferring versions listed first. The results are
+     * detached and their articles are stubs carrying only the content hash.
+     */
+    List<SentimentResult> findByContentHashes(Collection<String> contentHashes, List<String> modelVersions);
+
+    /**
+     * Latest stored result of each of the given articles, whatever its model
+     * version. The results are detached and their articles are stubs carrying
+     * only the id.
+     */
+    List<SentimentResult> findLatestByArticleIds(Collection<Long> articleIds);
+
+    /**
+     * Earliest processing time of any stored result, or null if there are none.
+     */
+    Instant findEarliestProcessedAt();
+
+    /**
+     * Streams every result processed in {@code [from, to)}, in processing time
+     * order, through a cursor of {@code fetchSize} rows. Must run in a
+     * transaction for the cursor to be used.
+     */
+    void forEachProcessedBetween(Instant from, Instant to, int fetchSize, ProcessedResultHandler handler);
+
+    @FunctionalInterface
+    interface GroupCountHandler {
+
+        void accept(long key, SentimentResult.Sentiment sentiment, long count);
+    }
+
+    @FunctionalInterface
+    interface ProcessedResultHandler {
+
+        /**
+         * Source and topic id 0 stand for articles without one; confidence may
+         * be null.
+         */
+        void accept(Instant processedAt, long sourceId, long topicId, SentimentResult.Sentiment sentiment,
+                    BigDecimal confidence);
+    }
+}
@@ -0,0 +1,328 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class SentimentResultRepositoryImpl implements SentimentResultRepositoryCustom {
+
+    private static final String AGGREGATE_SQL = """
+            SELECT day, source_id, sentiment, SUM(cnt) AS cnt FROM (
+                SELECT (bucket_start AT TIME ZONE 'UTC')::date AS day, source_id, sentiment, count AS cnt
+                FROM sentiment_rollups
+                WHERE granularity = 'DAY' AND bucket_start >= ? AND bucket_start < ?
+                UNION ALL
+                SELECT (bucket_start AT TIME ZONE 'UTC')::date, source_id, sentiment, count
+                FROM sentiment_rollups
+                WHERE granularity = 'HOUR'
+                  AND ((bucket_start >= ? AND bucket_start < ?) OR (bucket_start >= ? AND bucket_start < ?))
+                UNION ALL
+                SELECT (sr.processed_at AT TIME ZONE 'UTC')::date, COALESCE(a.source_id, 0), sr.sentiment, count(*)
+                FROM sentiment_results sr
+                JOIN articles a ON a.id = sr.article_id
+                WHERE (sr.processed_at >= ? AND sr.processed_at < ?) OR (sr.processed_at >= ? AND sr.processed_at < ?)
+                GROUP BY 1, 2, 3
+            ) t
+            GROUP BY day, source_id, sentiment
+            ORDER BY day
+            """;
+
+    private static final String HOURLY_SQL = """
+            SELECT hour, sentiment, SUM(cnt) AS cnt FROM (
+                SELECT bucket_start AS hour, sentiment, count AS cnt
+                FROM sentiment_rollups
+                WHERE granularity = 'HOUR' AND bucket_start >= ? AND bucket_start < ?
+                UNION ALL
+                SELECT date_trunc('hour', processed_at, 'UTC'), sentiment, count(*)
+                FROM sentiment_results
+                WHERE (processed_at >= ? AND processed_at < ?) OR (processed_at >= ? AND processed_at < ?)
+                GROUP BY 1, 2
+            ) t
+            GROUP BY hour, sentiment
+            """;
+
+    private static final String BY_TOPIC_SQL = """
+            SELECT at.topic_id, sr.sentiment, count(*)
+            FROM sentiment_results sr
+            JOIN article_topics at ON at.article_id = sr.article_id
+            WHERE sr.processed_at >= ? AND sr.processed_at < ? AND at.topic_id = ANY(?::bigint[])
+            GROUP BY 1, 2
+            """;
+
+    // (article_id, model_version) is unique through sentiment_result_keys,
+    // whose insert trigger raises on duplicates unless app.skip_duplicate_keys is on
+    private static final String INSERT_SQL = """
+            INSERT INTO sentiment_results (article_id, sentiment, confidence, model_version, reasoning,
+                                           topics, entities, processed_at)
+            SELECT t.article_id, t.sentiment, t.confidence, t.model_version, t.reasoning,
+                   ARRAY(SELECT jsonb_array_elements_text(t.topics::jsonb)), t.entities::jsonb, t.processed_at
+            FROM unnest(?::bigint[], ?::varchar[], ?::numeric[], ?::varchar[], ?::text[],
+                        ?::text[], ?::text[], ?::timestamptz[])
+                 AS t(article_id, sentiment, confidence, model_version, reasoning, topics, entities, processed_at)
+            ON CONFLICT DO NOTHING
+            RETURNING article_id
+            """;
+
+    private static final String SKIP_DUPLICATE_KEYS_SQL = "SELECT set_config('app.skip_duplicate_keys', ?, TRUE)";
+
+    private static final String FIND_BY_CONTENT_HASHES_SQL = """
+            SELECT DISTINCT ON (a.content_hash) a.content_hash, sr.sentiment, sr.confidence, sr.model_version,
+                   sr.reasoning, to_jsonb(sr.topics)::text AS topics, sr.entities::text AS entities
+            FROM articles a
+            JOIN sentiment_results sr ON sr.article_id = a.id
+            WHERE a.content_hash = ANY(?::varchar[]) AND sr.model_version = ANY(?::varchar[])
+            ORDER BY a.content_hash, array_position(?::varchar[], sr.model_version), sr.processed_at DESC
+            """;
+
+    private static final String FIND_LATEST_BY_ARTICLE_IDS_SQL = """
+            SELECT DISTINCT ON (sr.article_id) sr.article_id, sr.sentiment, sr.confidence, sr.model_version,
+                   sr.reasoning, to_jsonb(sr.topics)::text AS topics, sr.entities::text AS entities
+            FROM sentiment_results sr
+            WHERE sr.article_id = ANY(?::bigint[])
+            ORDER BY sr.article_id, sr.processed_at DESC
+            """;
+
+    private static final String PROCESSED_BETWEEN_SQL = """
+            SELECT sr.processed_at, COALESCE(a.source_id, 0), COALESCE(a.topic_id, 0), sr.sentiment, sr.confidence
+            FROM sentiment_results sr
+            JOIN articles a ON a.id = sr.article_id
+            WHERE sr.processed_at >= ? AND sr.processed_at < ?
+            ORDER BY sr.processed_at
+            """;
+
+    private static final TypeReference<List<String>> TOPICS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Object>> ENTITIES = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<Object[]> countByDaySourceAndSentiment(Instant from, Instant to) {
+        Ranges ranges = Ranges.split(from, to);
+
+        return jdbcTemplate.query(AGGREGATE_SQL, (rs, rowNum) -> new Object[]{
+                        rs.getObject(1, LocalDate.class),
+                        rs.getLong(2),
+                        SentimentResult.Sentiment.valueOf(rs.getString(3)),
+                        rs.getLong(4)
+                },
+                Timestamp.from(ranges.dayStart), Timestamp.from(ranges.dayEnd),
+                Timestamp.from(ranges.hourStart), Timestamp.from(ranges.dayStart),
+                Timestamp.from(ranges.dayEnd), Timestamp.from(ranges.hourEnd),
+                Timestamp.from(from), Timestamp.from(ranges.hourStart),
+                Timestamp.from(ranges.hourEnd), Timestamp.from(to)
+        );
+    }
+
+    @Override
+    public void countByHourAndSentiment(Instant from, Instant to, GroupCountHandler handler) {
+        Ranges ranges = Ranges.split(from, to);
+
+        jdbcTemplate.query(HOURLY_SQL, rs -> {
+                    handler.accept(
+                            rs.getObject(1, OffsetDateTime.class).toEpochSecond() / 3600,
+                            SentimentResult.Sentiment.valueOf(rs.getString(2)),
+                            rs.getLong(3));
+                },
+                Timestamp.from(ranges.hourStart), Timestamp.from(ranges.hourEnd),
+                Timestamp.from(from), Timestamp.from(ranges.hourStart),
+                Timestamp.from(ranges.hourEnd), Timestamp.from(to)
+        );
+    }
+
+    @Override
+    public void countByTopicAndSentiment(Instant from, Instant to, Collection<Long> topicIds,
+                                         GroupCountHandler handler) {
+        if (topicIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(BY_TOPIC_SQL);
+                    ps.setTimestamp(1, Timestamp.from(from));
+                    ps.setTimestamp(2, Timestamp.from(to));
+                    ps.setArray(3, connection.createArrayOf("bigint", topicIds.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    handler.accept(
+                            rs.getLong(1),
+                            SentimentResult.Sentiment.valueOf(rs.getString(2)),
+                            rs.getLong(3));
+                }
+        );
+    }
+
+    /**
+     * Splits [from, to) into raw edges and rolled-up buckets:
+     * raw [from, hourStart), hourly [hourStart, dayStart), daily [dayStart, dayEnd),
+     * hourly [dayEnd, hourEnd), raw [hourEnd, to). The rollups are maintained
+     * on insert, so every whole hour and day can be read from them.
+     */
+    private record Ranges(Instant hourStart, Instant dayStart, Instant dayEnd, Instant hourEnd) {
+
+        static Ranges split(Instant from, Instant to) {
+            Instant end = to.truncatedTo(ChronoUnit.HOURS);
+            Instant hourStart = ceil(from, ChronoUnit.HOURS);
+            if (!hourStart.isBefore(end)) {
+                return new Ranges(from, from, from, from);
+            }
+            Instant dayStart = min(ceil(hourStart, ChronoUnit.DAYS), end);
+            Instant dayEnd = max(end.truncatedTo(ChronoUnit.DAYS), dayStart);
+            return new Ranges(hourStart, dayStart, dayEnd, end);
+        }
+
+        private static Instant ceil(Instant instant, ChronoUnit unit) {
+            Instant floor = instant.truncatedTo(unit);
+            return floor.equals(instant) ? floor : floor.plus(1, unit);
+        }
+
+        private static Instant min(Instant a, Instant b) {
+            return a.isBefore(b) ? a : b;
+        }
+
+        private static Instant max(Instant a, Instant b) {
+            return a.isAfter(b) ? a : b;
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<Long> insertIgnoringDuplicates(List<SentimentResult> results) {
+        if (results.isEmpty()) {
+            return List.of();
+        }
+        // Only for this statement; single-row saves in the transaction still fail on duplicates
+        jdbcTemplate.queryForObject(SKIP_DUPLICATE_KEYS_SQL, String.class, "on");
+        List<Long> inserted = jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint",
+                    results.stream().map(r -> r.getArticle().getId()).toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar",
+                    results.stream().map(r -> r.getSentiment().name()).toArray()));
+            ps.setArray(3, connection.createArrayOf("numeric",
+                    results.stream().map(SentimentResult::getConfidence).toArray()));
+            ps.setArray(4, connection.createArrayOf("varchar",
+                    results.stream().map(SentimentResult::getModelVersion).toArray()));
+            ps.setArray(5, connection.createArrayOf("text",
+                    results.stream().map(SentimentResult::getReasoning).toArray()));
+            ps.setArray(6, connection.createArrayOf("text",
+                    results.stream().map(r -> toJson(r.getTopics())).toArray()));
+            ps.setArray(7, connection.createArrayOf("text",
+                    results.stream().map(r -> toJson(r.getEntities())).toArray()));
+            ps.setArray(8, connection.createArrayOf("timestamptz",
+                    results.stream().map(r -> Timestamp.from(r.getProcessedAt())).toArray()));
+            return ps;
+        }, (rs, rowNum) -> rs.getLong(1));
+        jdbcTemplate.queryForObject(SKIP_DUPLICATE_KEYS_SQL, String.class, "off");
+        return inserted;
+    }
+
+    @Override
+    public List<SentimentResult> findByContentHashes(Collection<String> contentHashes, List<String> modelVersions) {
+        if (contentHashes.isEmpty() || modelVersions.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_BY_CONTENT_HASHES_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", contentHashes.toArray()));
+            ps.setArray(2, connection.createArrayOf("varchar", modelVersions.toArray()));
+            ps.setArray(3, connection.createArrayOf("varchar", modelVersions.toArray()));
+            return ps;
+        }, (rs, rowNum) -> SentimentResult.builder()
+                .article(Article.builder().contentHash(rs.getString("content_hash")).build())
+                .sentiment(SentimentResult.Sentiment.valueOf(rs.getString("sentiment")))
+                .confidence(rs.getBigDecimal("confidence"))
+                .modelVersion(rs.getString("model_version"))
+                .reasoning(rs.getString("reasoning"))
+                .topics(fromJson(rs.getString("topics"), TOPICS))
+                .entities(fromJson(rs.getString("entities"), ENTITIES))
+                .build());
+    }
+
+    @Override
+    public List<SentimentResult> findLatestByArticleIds(Collection<Long> articleIds) {
+        if (articleIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(FIND_LATEST_BY_ARTICLE_IDS_SQL);
+            ps.setArray(1, connection.createArrayOf("bigint", articleIds.toArray()));
+            return ps;
+        }, (rs, rowNum) -> SentimentResult.builder()
+                .article(Article.builder().id(rs.getLong("article_id")).build())
+                .sentiment(SentimentResult.Sentiment.valueOf(rs.getString("sentiment")))
+                .confidence(rs.getBigDecimal("confidence"))
+                .modelVersion(rs.getString("model_version"))
+                .reasoning(rs.getString("reasoning"))
+                .topics(fromJson(rs.getString("topics"), TOPICS))
+                .entities(fromJson(rs.getString("entities"), ENTITIES))
+                .build());
+    }
+
+    @Override
+    public Instant findEarliestProcessedAt() {
+        Timestamp earliest = jdbcTemplate.queryForObject(
+                "SELECT MIN(processed_at) FROM sentiment_results", Timestamp.class);
+        return earliest != null ? earliest.toInstant() : null;
+    }
+
+    @Override
+    public void forEachProcessedBetween(Instant from, Instant to, int fetchSize, ProcessedResultHandler handler) {
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(PROCESSED_BETWEEN_SQL);
+                    ps.setFetchSize(fetchSize);
+                    ps.setTimestamp(1, Timestamp.from(from));
+                    ps.setTimestamp(2, Timestamp.from(to));
+                    return ps;
+                },
+                rs -> {
+                    handler.accept(
+                            rs.getObject(1, OffsetDateTime.class).toInstant(),
+                            rs.getLong(2),
+                            rs.getLong(3),
+                            SentimentResult.Sentiment.valueOf(rs.getString(4)),
+                            rs.getBigDecimal(5));
+                }
+        );
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read stored sentiment result field", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize sentiment result field", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.newssentiment.repository;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Fetch bookkeeping written with targeted SQL rather than by saving the
+ * {@link com.newssentiment.model.Source} entity, so a sweep doesn't overwrite
+ * columns or config keys changed by others while it ran.
+ */
+public interface SourceRepositoryCustom {
+
+    /**
+     * Sets {@code last_fetched}, and {@code last_success} unless
+     * {@code succeededAt} is null. A non-null {@code fingerprint} replaces the
+     * HTTP validators and body hash in {@code config}; other keys are kept.
+     */
+    void recordFetch(Long sourceId, Instant fetchedAt, Instant succeededAt, Map<String, Object> fingerprint);
+}
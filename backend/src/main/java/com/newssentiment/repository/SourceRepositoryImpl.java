@@ -0,0 +1,48 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class SourceRepositoryImpl implements SourceRepositoryCustom {
+
+    // Validators missing from the new response must not survive from the old one
+    private static final String RECORD_FETCH_SQL = """
+            UPDATE sources
+            SET last_fetched = ?,
+                last_success = COALESCE(?, last_success),
+                config = CASE WHEN ?::jsonb IS NULL THEN config
+                              ELSE (COALESCE(config, '{}'::jsonb) - 'etag' - 'lastModified') || ?::jsonb
+                         END
+            WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void recordFetch(Long sourceId, Instant fetchedAt, Instant succeededAt, Map<String, Object> fingerprint) {
+        String json = toJson(fingerprint);
+        jdbcTemplate.update(RECORD_FETCH_SQL,
+                Timestamp.from(fetchedAt),
+                succeededAt != null ? Timestamp.from(succeededAt) : null,
+                json, json, sourceId);
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize source config", e);
+        }
+    }
+}
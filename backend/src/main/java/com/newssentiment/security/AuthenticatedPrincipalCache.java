@@ -0,0 +1,144 @@
+package com.newssentiment.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * Verified bearer tokens mapped to the principal they authenticated, so
+ * repeat requests with the same token skip both signature verification and
+ * the user lookup. Entries live for the configured TTL or until the token
+ * expires, whichever comes first, and are dropped when the user's access
+ * changes. Tokens are also indexed by username, so dropping a user's entries
+ * doesn't scan the cache. Invalidation is local to this instance; the TTL
+ * bounds how long another instance can keep serving a stale principal.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private final Cache<String, CachedPrincipal> cache;
+    private final ConcurrentMap<String, Set<String>> tokensByUser = new ConcurrentHashMap<>();
+
+    public AuthenticatedPrincipalCache(
+            MeterRegistry meterRegistry,
+            @Value("${jwt.principal-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.principal-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        long ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal principal, long currentTime) {
+                        long untilTokenExpiry = Duration.between(Instant.now(), principal.tokenExpiresAt()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                // Replacing a token keeps it indexed under the new entry's user
+                .removalListener((String token, CachedPrincipal principal, RemovalCause cause) -> {
+                    if (cause != RemovalCause.REPLACED) {
+                        unindex(principal.userDetails().getUsername(), token);
+                    }
+                })
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtPrincipals");
+    }
+
+    public UserDetails get(String token) {
+        CachedPrincipal principal = cache.getIfPresent(token);
+        return principal != null ? principal.userDetails() : null;
+    }
+
+    public void put(String token, UserDetails userDetails, Instant tokenExpiresAt) {
+        // Indexed first, so an entry that is removed right away is unindexed too
+        tokensByUser.compute(userDetails.getUsername(), (username, tokens) -> {
+            Set<String> indexed = tokens != null ? tokens : ConcurrentHashMap.newKeySet();
+            indexed.add(token);
+            return indexed;
+        });
+        cache.put(token, new CachedPrincipal(userDetails, tokenExpiresAt, Access.of(userDetails)));
+    }
+
+    /**
+     * Drops every cached token of the given user, e.g. after the account was
+     * disabled or its role changed.
+     */
+    public void invalidateUser(String username) {
+        Set<String> tokens = tokensByUser.get(username);
+        if (tokens != null) {
+            cache.invalidateAll(Set.copyOf(tokens));
+        }
+    }
+
+    /**
+     * Drops the cached tokens of {@code user} whose principal was cached with a
+     * different enabled flag or different authorities. Other changes, such as
+     * the last login time, leave the user's sessions cached.
+     */
+    public void invalidateIfAccessChanged(UserDetails user) {
+        Set<String> tokens = tokensByUser.get(user.getUsername());
+        if (tokens == null) {
+            return;
+        }
+        Access access = Access.of(user);
+        List<String> stale = new ArrayList<>();
+        for (String token : tokens) {
+            CachedPrincipal principal = cache.getIfPresent(token);
+            if (principal != null && !principal.access().equals(access)) {
+                stale.add(token);
+            }
+        }
+        cache.invalidateAll(stale);
+    }
+
+    private void unindex(String username, String token) {
+        tokensByUser.computeIfPresent(username, (u, tokens) -> {
+            tokens.remove(token);
+            return tokens.isEmpty() ? null : tokens;
+        });
+    }
+
+    /**
+     * What a principal was allowed to do when it was cached, copied because
+     * the principal itself may be a mutable entity.
+     */
+    private record Access(boolean enabled, Set<String> authorities) {
+
+        static Access of(UserDetails user) {
+            return new Access(user.isEnabled(), user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+
+    private record CachedPrincipal(UserDetails userDetails, Instant tokenExpiresAt, Access access) {}
+}
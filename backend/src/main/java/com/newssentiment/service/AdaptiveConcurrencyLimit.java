@@ -0,0 +1,131 @@
+package com.newssentiment.service;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Additive-increase/multiplicative-decrease limit on concurrent requests.
+ * Every successful request while the limit is in use adds {@code 1/limit},
+ * so the limit grows by about one per round of requests. A throttled or timed
+ * out request, or one whose latency exceeds {@code tolerance} times the
+ * baseline, multiplies it by {@code backoffRatio}, at most once per baseline
+ * latency so that one burst of slow responses counts as one signal.
+ *
+ * <p>The baseline is the lowest latency seen, drifting slowly upwards so that
+ * it follows a backend that has become permanently slower.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private static final int BASELINE_DRIFT = 256;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long lastDecreaseNanos;
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid concurrency bounds " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits until a request may start.
+     */
+    void acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                available.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a completed request; call before {@link #release()}.
+     */
+    void onSuccess(long latencyNanos) {
+        lock.lock();
+        try {
+            if (latencyNanos < baselineNanos) {
+                baselineNanos = latencyNanos;
+            } else {
+                baselineNanos += (latencyNanos - baselineNanos) / BASELINE_DRIFT;
+            }
+            if (latencyNanos > tolerance * baselineNanos) {
+                decrease();
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the limit is actually what holds requests back
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a throttled (429) or timed out request; call before {@link #release()}.
+     */
+    void onDropped() {
+        lock.lock();
+        try {
+            decrease();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int limit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void decrease() {
+        long now = System.nanoTime();
+        long spacing = baselineNanos == Long.MAX_VALUE ? 0 : baselineNanos;
+        if (now - lastDecreaseNanos < spacing) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+}
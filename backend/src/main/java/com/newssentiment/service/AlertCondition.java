@@ -0,0 +1,73 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parsed form of {@code alerts.condition}. Supported shapes:
+ * <ul>
+ *   <li>{@code {"type": "threshold", "value": 0.6}} fires when the share of
+ *   results with the given sentiment over the window reaches {@code value};</li>
+ *   <li>{@code {"type": "spike", "value": 3}} fires when the count of results
+ *   with the given sentiment over the window reaches {@code value} times the
+ *   average of the preceding {@code baselineWindows} windows.</li>
+ * </ul>
+ * Optional keys: {@code sentiment} (default NEGATIVE), {@code windowMinutes}
+ * (default 60), {@code minArticles} (default 5) and {@code baselineWindows}
+ * (default 24, spike only).
+ */
+public record AlertCondition(
+        Type type,
+        SentimentResult.Sentiment sentiment,
+        double value,
+        int windowMinutes,
+        int minArticles,
+        int baselineWindows
+) {
+
+    static final int MAX_HORIZON_MINUTES = 7 * 24 * 60;
+
+    public enum Type {
+        THRESHOLD,
+        SPIKE
+    }
+
+    /**
+     * @throws IllegalArgumentException if the condition is missing required keys or out of range
+     */
+    public static AlertCondition parse(Map<String, Object> condition) {
+        if (condition == null || condition.get("type") == null || !(condition.get("value") instanceof Number value)) {
+            throw new IllegalArgumentException("Alert condition needs a type and a numeric value: " + condition);
+        }
+
+        Type type = Type.valueOf(condition.get("type").toString().toUpperCase(Locale.ROOT));
+        SentimentResult.Sentiment sentiment = condition.get("sentiment") != null
+                ? SentimentResult.Sentiment.valueOf(condition.get("sentiment").toString().toUpperCase(Locale.ROOT))
+                : SentimentResult.Sentiment.NEGATIVE;
+        int windowMinutes = intValue(condition, "windowMinutes", 60);
+        int minArticles = intValue(condition, "minArticles", 5);
+        int baselineWindows = type == Type.SPIKE ? intValue(condition, "baselineWindows", 24) : 0;
+
+        if (windowMinutes < 1 || windowMinutes * (baselineWindows + 1L) > MAX_HORIZON_MINUTES) {
+            throw new IllegalArgumentException("Alert window must cover between 1 minute and 7 days: " + condition);
+        }
+        if (type == Type.SPIKE && baselineWindows < 1) {
+            throw new IllegalArgumentException("Spike alerts need at least one baseline window: " + condition);
+        }
+        if (type == Type.THRESHOLD && (value.doubleValue() <= 0 || value.doubleValue() > 1)) {
+            throw new IllegalArgumentException("Threshold alert value must be a share in (0, 1]: " + condition);
+        }
+        if (value.doubleValue() <= 0) {
+            throw new IllegalArgumentException("Alert value must be positive: " + condition);
+        }
+
+        return new AlertCondition(type, sentiment, value.doubleValue(), windowMinutes, Math.max(1, minArticles), baselineWindows);
+    }
+
+    private static int intValue(Map<String, Object> condition, String key, int defaultValue) {
+        Object value = condition.get(key);
+        return value instanceof Number number ? number.intValue() : defaultValue;
+    }
+}
@@ -0,0 +1,293 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.AlertNotification;
+import com.newssentiment.repository.AlertNotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers triggered alerts through the {@code alert_notifications} outbox.
+ * Triggers are handed to a bounded queue, so the thread that fired them, the
+ * sentiment worker's after-commit thread or the Redis relay, never waits for
+ * the database. A virtual-thread writer drains the queue and writes up to a
+ * batch of triggers to the outbox in one transaction. When the queue is full
+ * the firing thread writes its triggers itself, which slows ingestion down
+ * instead of dropping them. One dispatcher per channel claims due rows,
+ * groups them by recipient into digests and sends each digest on a virtual
+ * thread, with a per-channel cap on concurrent sends. Failed digests are
+ * retried with exponential backoff.
+ *
+ * <p>New notifications become due after the digest delay, so triggers for the
+ * same recipient that arrive close together go out as one message.
+ */
+@Slf4j
+@Service
+public class AlertDeliveryService {
+
+    private final AlertNotificationRepository notificationRepository;
+    private final TransactionTemplate transaction;
+    private final Map<Alert.Channel, AlertSender> senders = new EnumMap<>(Alert.Channel.class);
+    private final MeterRegistry meterRegistry;
+    private final Counter dropped;
+
+    @Value("${app.alerts.delivery.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.alerts.delivery.digest-delay-seconds:60}")
+    private long digestDelaySeconds;
+
+    @Value("${app.alerts.delivery.poll-interval-seconds:5}")
+    private long pollIntervalSeconds;
+
+    @Value("${app.alerts.delivery.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.alerts.delivery.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.alerts.delivery.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.alerts.delivery.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${app.alerts.delivery.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    @Value("${app.alerts.delivery.max-concurrent-email:4}")
+    private int maxConcurrentEmail;
+
+    @Value("${app.alerts.delivery.max-concurrent-webhook:16}")
+    private int maxConcurrentWebhook;
+
+    private final BlockingQueue<AlertTrigger> triggers;
+    private final List<Thread> workers = new ArrayList<>();
+    private Thread writer;
+    private volatile boolean running;
+
+    public AlertDeliveryService(
+            AlertNotificationRepository notificationRepository,
+            PlatformTransactionManager transactionManager,
+            List<AlertSender> senders,
+            MeterRegistry meterRegistry,
+            @Value("${app.alerts.delivery.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.notificationRepository = notificationRepository;
+        // A new transaction, as this may run after the triggering one committed
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        senders.forEach(sender -> this.senders.put(sender.channel(), sender));
+        this.meterRegistry = meterRegistry;
+        this.dropped = meterRegistry.counter("alerts.delivery.dropped");
+        this.triggers = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gaugeCollectionSize("alerts.delivery.queued", List.of(), triggers);
+    }
+
+    /**
+     * Queues the triggers for the outbox writer, or writes those that don't
+     * fit on the calling thread.
+     */
+    @EventListener
+    public void onAlertTriggered(AlertTriggeredEvent event) {
+        List<AlertTrigger> overflow = new ArrayList<>();
+        for (AlertTrigger trigger : event.triggers()) {
+            if (!triggers.offer(trigger)) {
+                overflow.add(trigger);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            log.debug("Outbox queue full; writing {} trigger(s) on the calling thread", overflow.size());
+            write(overflow);
+        }
+    }
+
+    /**
+     * Writes triggers to the outbox in one transaction. Triggers that can't be
+     * written are counted and logged; with the Redis relay every node fires
+     * the same alerts, so another node's write stands in for them.
+     */
+    void write(List<AlertTrigger> batch) {
+        try {
+            Integer written = transaction.execute(status -> notificationRepository.enqueue(
+                    batch.stream().map(AlertTrigger::alertId).toList(),
+                    batch.stream().map(AlertTrigger::triggeredAt).toList(),
+                    batch.stream().map(trigger -> trigger.condition().windowMinutes()).toList(),
+                    batch.stream().map(AlertDeliveryService::toPayload).toList(),
+                    Instant.now().plusSeconds(digestDelaySeconds)));
+            log.debug("Queued {} notification(s) for {} trigger(s)", written, batch.size());
+        } catch (RuntimeException e) {
+            dropped.increment(batch.size());
+            log.error("Failed to write {} alert trigger(s) to the outbox", batch.size(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        // Triggers are written to the outbox even where this node doesn't dispatch
+        writer = Thread.ofVirtual().name("alert-outbox-writer").start(this::writeLoop);
+        if (!enabled) {
+            return;
+        }
+        senders.keySet().forEach(channel -> workers.add(
+                Thread.ofVirtual().name("alert-dispatch-" + channel.name().toLowerCase()).start(() -> dispatchLoop(channel))));
+        log.info("Started alert delivery for channels {}", senders.keySet());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        workers.clear();
+        // Not interrupted: it writes what is still queued before it exits
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void writeLoop() {
+        List<AlertTrigger> batch = new ArrayList<>(batchSize);
+        while (running || !triggers.isEmpty()) {
+            try {
+                AlertTrigger first = triggers.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                triggers.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void dispatchLoop(Alert.Channel channel) {
+        AlertSender sender = senders.get(channel);
+        Semaphore permits = new Semaphore(channel == Alert.Channel.EMAIL ? maxConcurrentEmail : maxConcurrentWebhook);
+
+        while (running) {
+            try {
+                List<AlertNotification> claimed = notificationRepository.claimDue(
+                        channel, batchSize, Duration.ofSeconds(leaseSeconds));
+                if (!claimed.isEmpty()) {
+                    deliver(sender, toDigests(channel, claimed), permits);
+                }
+                if (claimed.size() < batchSize) {
+                    sleep(Duration.ofSeconds(pollIntervalSeconds));
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                log.error("Alert dispatch for {} failed", channel, e);
+                sleep(Duration.ofSeconds(pollIntervalSeconds));
+            }
+        }
+    }
+
+    private void deliver(AlertSender sender, Map<AlertDigest, List<Long>> digests, Semaphore permits) throws InterruptedException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<AlertDigest, List<Long>> entry : digests.entrySet()) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        send(sender, entry.getKey(), entry.getValue());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private void send(AlertSender sender, AlertDigest digest, List<Long> ids) {
+        String channel = sender.channel().name();
+        try {
+            sender.send(digest);
+            notificationRepository.markSent(ids);
+            meterRegistry.counter("alerts.delivery", "channel", channel, "outcome", "sent").increment(ids.size());
+        } catch (Exception e) {
+            log.warn("Delivering {} alert(s) to {} failed: {}", ids.size(), digest.recipient(), e.getMessage());
+            notificationRepository.markFailed(ids, String.valueOf(e.getMessage()), maxAttempts,
+                    Duration.ofSeconds(initialBackoffSeconds), Duration.ofSeconds(maxBackoffSeconds));
+            meterRegistry.counter("alerts.delivery", "channel", channel, "outcome", "failed").increment(ids.size());
+        }
+    }
+
+    /**
+     * Groups claimed notifications by user and recipient, preserving claim order.
+     */
+    static Map<AlertDigest, List<Long>> toDigests(Alert.Channel channel, List<AlertNotification> claimed) {
+        Map<List<Object>, List<AlertNotification>> grouped = new LinkedHashMap<>();
+        for (AlertNotification notification : claimed) {
+            grouped.computeIfAbsent(List.of(notification.getUserId(), notification.getRecipient()), k -> new ArrayList<>())
+                    .add(notification);
+        }
+
+        Map<AlertDigest, List<Long>> digests = new LinkedHashMap<>();
+        grouped.values().forEach(group -> digests.put(
+                new AlertDigest(
+                        group.get(0).getUserId(),
+                        channel,
+                        group.get(0).getRecipient(),
+                        group.stream().map(AlertNotification::getPayload).toList()),
+                group.stream().map(AlertNotification::getId).toList()));
+        return digests;
+    }
+
+    private static Map<String, Object> toPayload(AlertTrigger trigger) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("alertId", trigger.alertId());
+        payload.put("topicId", trigger.topicId());
+        payload.put("type", trigger.condition().type().name());
+        payload.put("sentiment", trigger.condition().sentiment().name());
+        payload.put("threshold", trigger.condition().value());
+        payload.put("windowMinutes", trigger.condition().windowMinutes());
+        payload.put("observed", trigger.observed());
+        payload.put("triggeredAt", trigger.triggeredAt().toString());
+        return payload;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * All pending notifications for one recipient on one channel, delivered as a
+ * single message.
+ */
+public record AlertDigest(
+        Long userId,
+        Alert.Channel channel,
+        String recipient,
+        List<Map<String, Object>> notifications
+) {}
@@ -0,0 +1,270 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.ScoredArticleDTO;
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.repository.AlertRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates active alerts as sentiment results arrive. Alerts are compiled
+ * into {@link AlertStream}s, one per scope (an alert's topic, or all results
+ * for alerts without one) and window shape, so a result only updates the
+ * handful of streams for its topics and the global scope. A result counts
+ * towards every topic its article matched in {@code article_topics}. Finding
+ * the alerts that fire is a binary search over each stream's sorted
+ * thresholds; cost per result does not grow with the number of alerts.
+ *
+ * <p>Results are taken from {@link ArticleScoredEvent}s, which carry the
+ * results saved on every node when the Redis relay is enabled, so each node
+ * sees full windows. Every node then fires the same alerts; the outbox keeps
+ * one notification per alert and window (see
+ * {@link AlertDeliveryService}), which also absorbs firings repeated after a
+ * restart.
+ *
+ * <p>Alerts are recompiled from the database periodically; streams whose
+ * shape survives keep their counts. On startup recent results are replayed so
+ * windows start full, without firing.
+ */
+@Slf4j
+@Service
+public class AlertEngine {
+
+    private static final long GLOBAL_SCOPE = 0;
+
+    private static final String REPLAY_GLOBAL_SQL = """
+            SELECT floor(extract(epoch FROM processed_at) / 60)::bigint AS minute, sentiment, count(*)
+            FROM sentiment_results
+            WHERE processed_at >= ?
+            GROUP BY 1, 2
+            ORDER BY 1
+            """;
+
+    // Same topics as SentimentResultSavedEvent.topicIds: the matched ones plus
+    // articles.topic_id, the only one the scraper and older rows set
+    private static final String REPLAY_TOPICS_SQL = """
+            SELECT t.topic_id, floor(extract(epoch FROM sr.processed_at) / 60)::bigint AS minute,
+                   sr.sentiment, count(*)
+            FROM sentiment_results sr
+            JOIN articles a ON a.id = sr.article_id
+            CROSS JOIN LATERAL (SELECT at.topic_id FROM article_topics at WHERE at.article_id = a.id
+                                UNION
+                                SELECT a.topic_id WHERE a.topic_id IS NOT NULL) t
+            WHERE sr.processed_at >= ?
+            GROUP BY 1, 2, 3
+            ORDER BY 2
+            """;
+
+    private final AlertRepository alertRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter triggered;
+
+    private volatile Compiled compiled = new Compiled(Map.of(), Map.of(), Map.of());
+
+    public AlertEngine(
+            AlertRepository alertRepository,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry
+    ) {
+        this.alertRepository = alertRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.triggered = meterRegistry.counter("alerts.triggered");
+
+        Gauge.builder("alerts.active", this, engine -> engine.compiled.targets().size())
+                .register(meterRegistry);
+        Gauge.builder("alerts.streams", this, engine -> engine.compiled.streams().size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        reload();
+        replay();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.alerts.reload-interval-seconds:60}",
+            initialDelayString = "${app.alerts.reload-interval-seconds:60}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    @Transactional(readOnly = true)
+    public void reload() {
+        Compiled previous = compiled;
+        Map<StreamKey, List<AlertTarget>> grouped = new HashMap<>();
+        Map<Long, AlertTarget> targets = new HashMap<>();
+
+        for (Alert alert : alertRepository.findByActiveTrue()) {
+            AlertCondition condition;
+            try {
+                condition = AlertCondition.parse(alert.getCondition());
+            } catch (IllegalArgumentException e) {
+                log.warn("Skipping alert {}: {}", alert.getId(), e.getMessage());
+                continue;
+            }
+            Long topicId = alert.getTopic() != null ? alert.getTopic().getId() : null;
+            AlertTarget target = new AlertTarget(alert.getId(), alert.getUser().getId(), topicId, alert.getChannel(), condition);
+            targets.put(alert.getId(), target);
+            grouped.computeIfAbsent(StreamKey.of(topicId, condition), k -> new ArrayList<>()).add(target);
+        }
+
+        Map<StreamKey, AlertStream> streams = new HashMap<>();
+        Map<Long, List<AlertStream>> byScope = new HashMap<>();
+        grouped.forEach((key, members) -> {
+            AlertStream stream = previous.streams().containsKey(key)
+                    ? previous.streams().get(key)
+                    : new AlertStream(members.get(0).condition());
+            stream.setAlerts(
+                    members.stream().mapToLong(AlertTarget::alertId).toArray(),
+                    members.stream().mapToDouble(target -> target.condition().value()).toArray());
+            streams.put(key, stream);
+            byScope.computeIfAbsent(key.scope(), s -> new ArrayList<>()).add(stream);
+        });
+
+        compiled = new Compiled(streams, byScope, targets);
+        log.debug("Compiled {} active alerts into {} streams", targets.size(), streams.size());
+    }
+
+    @EventListener
+    public void onArticleScored(ArticleScoredEvent event) {
+        ScoredArticleDTO article = event.article();
+        // Messages from nodes that predate topicIds only carry the best match
+        List<Long> topicIds = article.topicIds() != null ? article.topicIds()
+                : article.topicId() != null ? List.of(article.topicId()) : List.of();
+        evaluate(topicIds, SentimentResult.Sentiment.valueOf(article.sentiment()), article.processedAt(), 1);
+    }
+
+    /**
+     * Feeds {@code count} results with the given topics and sentiment into the
+     * matching streams and publishes one {@link AlertTriggeredEvent} with
+     * every alert that fires.
+     */
+    public void evaluate(Collection<Long> topicIds, SentimentResult.Sentiment sentiment, Instant processedAt, long count) {
+        Compiled current = compiled;
+        long minute = TimeUnit.MILLISECONDS.toMinutes(processedAt.toEpochMilli());
+        List<AlertTrigger> triggers = new ArrayList<>();
+
+        for (AlertStream stream : streamsFor(current, topicIds)) {
+            AlertStream.Fired fired = stream.record(minute, sentiment, count, true);
+            for (Long alertId : fired.alertIds()) {
+                AlertTarget target = current.targets().get(alertId);
+                if (target == null) {
+                    continue;
+                }
+                log.debug("Alert {} triggered for user {}: {} {} reached {}",
+                        alertId, target.userId(), target.condition().type(), fired.value(), target.condition().value());
+                triggers.add(new AlertTrigger(
+                        alertId, target.userId(), target.topicId(), target.channel(),
+                        target.condition(), fired.value(), processedAt));
+            }
+        }
+
+        if (!triggers.isEmpty()) {
+            triggered.increment(triggers.size());
+            log.info("{} alert(s) triggered by a {} result at {}", triggers.size(), sentiment, processedAt);
+            eventPublisher.publishEvent(new AlertTriggeredEvent(triggers));
+        }
+    }
+
+    /**
+     * Loads per-minute counts covering the longest stream horizon so windows
+     * and baselines are populated before live results arrive. The global
+     * scope counts each result once and topic scopes count it once per
+     * matched topic, so they are replayed separately, each in minute order.
+     */
+    private void replay() {
+        Compiled current = compiled;
+        int horizon = current.streams().values().stream().mapToInt(AlertStream::horizonMinutes).max().orElse(0);
+        if (horizon == 0) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        Timestamp since = Timestamp.from(Instant.now().minusSeconds(horizon * 60L));
+        List<AlertStream> global = current.byScope().getOrDefault(GLOBAL_SCOPE, List.of());
+        if (!global.isEmpty()) {
+            jdbcTemplate.query(REPLAY_GLOBAL_SQL, rs -> {
+                long minute = rs.getLong(1);
+                SentimentResult.Sentiment sentiment = SentimentResult.Sentiment.valueOf(rs.getString(2));
+                long count = rs.getLong(3);
+                for (AlertStream stream : global) {
+                    stream.record(minute, sentiment, count, false);
+                }
+            }, since);
+        }
+        if (current.byScope().size() > (global.isEmpty() ? 0 : 1)) {
+            jdbcTemplate.query(REPLAY_TOPICS_SQL, rs -> {
+                long topicId = rs.getLong(1);
+                long minute = rs.getLong(2);
+                SentimentResult.Sentiment sentiment = SentimentResult.Sentiment.valueOf(rs.getString(3));
+                long count = rs.getLong(4);
+                for (AlertStream stream : current.byScope().getOrDefault(topicId, List.of())) {
+                    stream.record(minute, sentiment, count, false);
+                }
+            }, since);
+        }
+        log.info("Replayed {} minutes of sentiment results into {} alert streams in {} ms",
+                horizon, current.streams().size(), System.currentTimeMillis() - start);
+    }
+
+    private static List<AlertStream> streamsFor(Compiled compiled, Collection<Long> topicIds) {
+        List<AlertStream> global = compiled.byScope().getOrDefault(GLOBAL_SCOPE, List.of());
+        if (topicIds.isEmpty()) {
+            return global;
+        }
+        List<AlertStream> streams = new ArrayList<>(global);
+        for (Long topicId : topicIds) {
+            streams.addAll(compiled.byScope().getOrDefault(topicId, List.of()));
+        }
+        return streams;
+    }
+
+    private record StreamKey(
+            long scope,
+            AlertCondition.Type type,
+            SentimentResult.Sentiment sentiment,
+            int windowMinutes,
+            int minArticles,
+            int baselineWindows
+    ) {
+        static StreamKey of(Long topicId, AlertCondition condition) {
+            return new StreamKey(
+                    topicId != null ? topicId : GLOBAL_SCOPE,
+                    condition.type(),
+                    condition.sentiment(),
+                    condition.windowMinutes(),
+                    condition.minArticles(),
+                    condition.baselineWindows());
+        }
+    }
+
+    private record AlertTarget(long alertId, long userId, Long topicId, Alert.Channel channel, AlertCondition condition) {}
+
+    private record Compiled(
+            Map<StreamKey, AlertStream> streams,
+            Map<Long, List<AlertStream>> byScope,
+            Map<Long, AlertTarget> targets
+    ) {}
+}
@@ -0,0 +1,13 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+
+public interface AlertSender {
+
+    Alert.Channel channel();
+
+    /**
+     * Delivers the digest. Throwing marks every notification in it for retry.
+     */
+    void send(AlertDigest digest) throws Exception;
+}
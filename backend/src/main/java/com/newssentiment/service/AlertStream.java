@@ -0,0 +1,192 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Sliding per-minute counts for one scope and window shape, shared by every
+ * alert with that shape. Thresholds are kept sorted, so when a new result
+ * moves the statistic from {@code p} to {@code v} the alerts that crossed are
+ * the contiguous range with threshold in {@code (p, v]}, found by binary
+ * search. An alert re-arms once the statistic drops back below its threshold
+ * and fires at most once per window.
+ */
+final class AlertStream {
+
+    private final AlertCondition.Type type;
+    private final SentimentResult.Sentiment sentiment;
+    private final int windowMinutes;
+    private final int minArticles;
+    private final int baselineWindows;
+
+    // Ring buffers indexed by epoch minute modulo their length
+    private final long[] totals;
+    private final long[] matches;
+    private long headMinute = Long.MIN_VALUE;
+
+    private long windowTotal;
+    private long windowMatches;
+    private long baselineMatches;
+    private double lastValue;
+
+    private double[] thresholds = new double[0];
+    private long[] alertIds = new long[0];
+    private final Map<Long, Long> lastFiredMinute = new HashMap<>();
+
+    AlertStream(AlertCondition condition) {
+        this.type = condition.type();
+        this.sentiment = condition.sentiment();
+        this.windowMinutes = condition.windowMinutes();
+        this.minArticles = condition.minArticles();
+        this.baselineWindows = condition.baselineWindows();
+
+        int length = windowMinutes * (baselineWindows + 1);
+        this.totals = new long[length];
+        this.matches = new long[length];
+    }
+
+    /**
+     * Replaces the alerts evaluated by this stream. Arrays must be the same
+     * length; they are sorted here by threshold.
+     */
+    synchronized void setAlerts(long[] ids, double[] values) {
+        Integer[] order = new Integer[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        double[] sortedThresholds = new double[ids.length];
+        long[] sortedIds = new long[ids.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedThresholds[i] = values[order[i]];
+            sortedIds[i] = ids[order[i]];
+        }
+        this.thresholds = sortedThresholds;
+        this.alertIds = sortedIds;
+        lastFiredMinute.keySet().retainAll(Arrays.stream(sortedIds).boxed().collect(Collectors.toSet()));
+    }
+
+    /**
+     * Adds {@code count} results observed in the given minute and returns the
+     * alerts that fire as a result, with the value that triggered them. With {@code evaluate} false the
+     * counts are only accumulated, as during warm-up.
+     */
+    synchronized Fired record(long minute, SentimentResult.Sentiment resultSentiment, long count, boolean evaluate) {
+        advanceTo(minute);
+        long age = headMinute - minute;
+        if (age >= totals.length) {
+            return Fired.NONE;
+        }
+
+        int slot = slot(minute);
+        long matching = resultSentiment == sentiment ? count : 0;
+        totals[slot] += count;
+        matches[slot] += matching;
+        if (age < windowMinutes) {
+            windowTotal += count;
+            windowMatches += matching;
+        } else {
+            baselineMatches += matching;
+        }
+
+        double value = value();
+        double previous = lastValue;
+        lastValue = value;
+        if (!evaluate || value <= previous) {
+            return Fired.NONE;
+        }
+
+        int from = upperBound(previous);
+        int to = upperBound(value);
+        List<Long> fired = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            long alertId = alertIds[i];
+            Long last = lastFiredMinute.get(alertId);
+            if (last == null || headMinute - last >= windowMinutes) {
+                lastFiredMinute.put(alertId, headMinute);
+                fired.add(alertId);
+            }
+        }
+        return fired.isEmpty() ? Fired.NONE : new Fired(value, fired);
+    }
+
+    int horizonMinutes() {
+        return totals.length;
+    }
+
+    private double value() {
+        return switch (type) {
+            case THRESHOLD -> windowTotal >= minArticles ? (double) windowMatches / windowTotal : 0;
+            case SPIKE -> {
+                if (windowMatches < minArticles) {
+                    yield 0;
+                }
+                double baseline = (double) baselineMatches / baselineWindows;
+                yield windowMatches / Math.max(baseline, 1.0);
+            }
+        };
+    }
+
+    /**
+     * Moves the head forward minute by minute, shifting the bucket that leaves
+     * the current window into the baseline and clearing the one that leaves
+     * the ring.
+     */
+    private void advanceTo(long minute) {
+        if (headMinute == Long.MIN_VALUE || minute - headMinute >= totals.length) {
+            Arrays.fill(totals, 0);
+            Arrays.fill(matches, 0);
+            windowTotal = 0;
+            windowMatches = 0;
+            baselineMatches = 0;
+            headMinute = minute;
+            return;
+        }
+        while (headMinute < minute) {
+            headMinute++;
+            long leavingWindow = headMinute - windowMinutes;
+            int leavingSlot = slot(leavingWindow);
+            windowTotal -= totals[leavingSlot];
+            windowMatches -= matches[leavingSlot];
+            baselineMatches += matches[leavingSlot];
+
+            // With no baseline this is the slot that just left the window
+            int expiringSlot = slot(headMinute);
+            baselineMatches -= matches[expiringSlot];
+            totals[expiringSlot] = 0;
+            matches[expiringSlot] = 0;
+        }
+    }
+
+    record Fired(double value, List<Long> alertIds) {
+        static final Fired NONE = new Fired(0, List.of());
+    }
+
+    private int slot(long minute) {
+        return (int) Math.floorMod(minute, (long) totals.length);
+    }
+
+    /**
+     * Index of the first threshold strictly greater than {@code value}.
+     */
+    private int upperBound(double value) {
+        int low = 0;
+        int high = thresholds.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (thresholds[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
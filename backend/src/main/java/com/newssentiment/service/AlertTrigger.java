@@ -0,0 +1,20 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+
+import java.time.Instant;
+
+/**
+ * One firing of an alert whose condition is met. {@code observed} is the
+ * share (threshold alerts) or multiple of baseline (spike alerts) that
+ * crossed {@code condition.value()}.
+ */
+public record AlertTrigger(
+        Long alertId,
+        Long userId,
+        Long topicId,
+        Alert.Channel channel,
+        AlertCondition condition,
+        double observed,
+        Instant triggeredAt
+) {}
@@ -0,0 +1,9 @@
+package com.newssentiment.service;
+
+import java.util.List;
+
+/**
+ * Published once per evaluated result with every alert it fired, so a result
+ * crossing a stream shared by many alerts is handed over in one call.
+ */
+public record AlertTriggeredEvent(List<AlertTrigger> triggers) {}
@@ -0,0 +1,250 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFilterRequest;
+import com.newssentiment.repository.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Writes every article matching a filter, with its sentiment, as NDJSON or
+ * CSV. The result set is walked in id order in chunks of {@code chunk-size}
+ * rows; each chunk is one short read-only transaction whose rows come through
+ * a cursor of {@code fetch-size} rows and go straight to the output. Memory
+ * stays constant however many rows match, and no transaction or snapshot is
+ * held for longer than one chunk takes to send.
+ */
+@Slf4j
+@Service
+public class ArticleExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final ArticleRepository articleRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter exported;
+
+    @Value("${app.export.chunk-size:10000}")
+    private int chunkSize;
+
+    @Value("${app.export.fetch-size:1000}")
+    private int fetchSize;
+
+    public ArticleExportService(
+            ArticleRepository articleRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.articleRepository = articleRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.exported = meterRegistry.counter("articles.exported");
+    }
+
+    /**
+     * Writes the export to {@code out}, which is flushed after every chunk but
+     * not closed. Returns the number of articles written.
+     */
+    public long export(ArticleFilterRequest filter, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out, objectMapper);
+        long total = 0;
+        long[] lastId = {0};
+        try {
+            writer.begin();
+            while (true) {
+                long afterId = lastId[0];
+                Integer count = readOnlyTransaction.execute(status -> articleRepository.exportChunk(
+                        filter, afterId, chunkSize, fetchSize, row -> {
+                            writer.write(row);
+                            lastId[0] = row.id();
+                        }));
+                total += count;
+                exported.increment(count);
+                writer.flush();
+                if (count < chunkSize) {
+                    break;
+                }
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the chunk's transaction has already rolled back
+            throw e.getCause();
+        }
+        log.debug("Exported {} articles as {} in {} ms", total, format, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    private interface RowWriter {
+
+        default void begin() throws IOException {
+        }
+
+        /**
+         * Writes one row; I/O errors are rethrown unchecked so they can leave
+         * the row callback.
+         */
+        void write(ArticleDTO row);
+
+        void flush() throws IOException;
+    }
+
+    private static final class NdjsonWriter implements RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ArticleDTO row) {
+            try {
+                json.writeStartObject();
+                json.writeNumberField("id", row.id());
+                writeNumber("sourceId", row.sourceId());
+                json.writeStringField("sourceName", row.sourceName());
+                json.writeStringField("title", row.title());
+                json.writeStringField("url", row.url());
+                json.writeStringField("author", row.author());
+                json.writeStringField("publishedAt", row.publishedAt() != null ? row.publishedAt().toString() : null);
+                json.writeStringField("sentiment", row.sentiment());
+                writeNumber("confidence", row.confidence());
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeNumber(String field, Long value) throws IOException {
+            if (value != null) {
+                json.writeNumberField(field, value);
+            } else {
+                json.writeNullField(field);
+            }
+        }
+
+        private void writeNumber(String field, BigDecimal value) throws IOException {
+            if (value != null) {
+                json.writeNumberField(field, value);
+            } else {
+                json.writeNullField(field);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            json.flush();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+
+        private static final String HEADER = "id,source_id,source_name,title,url,author,published_at,sentiment,confidence";
+
+        private final Writer out;
+
+        CsvWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.write(HEADER);
+            out.write("\r\n");
+        }
+
+        @Override
+        public void write(ArticleDTO row) {
+            try {
+                out.write(Long.toString(row.id()));
+                out.write(',');
+                field(row.sourceId());
+                out.write(',');
+                field(row.sourceName());
+                out.write(',');
+                field(row.title());
+                out.write(',');
+                field(row.url());
+                out.write(',');
+                field(row.author());
+                out.write(',');
+                field(row.publishedAt());
+                out.write(',');
+                field(row.sentiment());
+                out.write(',');
+                field(row.confidence());
+                out.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void field(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            String text = value instanceof Instant instant ? instant.toString() : value.toString();
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                out.write(text);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.ScoredArticleDTO;
+
+/**
+ * Published by {@link ArticleStreamHub} on every node for each article scored
+ * on any node, once the scoring transaction has committed. Listeners that need
+ * the cluster-wide stream of results, rather than only this node's, use this
+ * instead of {@link SentimentResultSavedEvent}.
+ */
+public record ArticleScoredEvent(ScoredArticleDTO article) {}
@@ -1,9 +1,12 @@
 package com.newssentiment.service;
 
+import com.newssentiment.dto.ArticleCursor;
 import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFeedDTO;
 import com.newssentiment.dto.ArticleFilterRequest;
 import com.newssentiment.model.Article;
 import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.ArticleRepositoryCustom.InsertedArticle;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,7 +15,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,22 +27,44 @@ import java.util.Optional;
 public class ArticleService {
 
     private final ArticleRepository articleRepository;
+    private final NearDuplicateService nearDuplicateService;
+    private final TopicMatcher topicMatcher;
 
     @Transactional(readOnly = true)
     public Page<ArticleDTO> findWithFilters(ArticleFilterRequest filter, Pageable pageable) {
-        Page<Article> articles = articleRepository.findWithFilters(
+        if (filter.query() != null && !filter.query().isBlank()) {
+            return articleRepository.search(filter, pageable);
+        }
+        return articleRepository.findWithFilters(
                 filter.sourceId(),
                 filter.sentiment(),
                 filter.from(),
                 filter.to(),
                 pageable
         );
-        return articles.map(this::toDTO);
+    }
+
+    /**
+     * One page of the keyset-paginated feed. {@code nextCursor} is null on the
+     * last page; the total is only computed when asked for.
+     */
+    @Transactional(readOnly = true)
+    public ArticleFeedDTO findFeed(ArticleFilterRequest filter, String cursor, int size, boolean includeTotal) {
+        ArticleCursor after = cursor != null && !cursor.isBlank() ? ArticleCursor.decode(cursor) : null;
+        List<ArticleDTO> content = articleRepository.findFeedPage(filter, after, size + 1);
+
+        String nextCursor = null;
+        if (content.size() > size) {
+            content = content.subList(0, size);
+            nextCursor = ArticleCursor.after(content.get(size - 1)).encode();
+        }
+        Long total = includeTotal ? articleRepository.countWithFilters(filter) : null;
+        return new ArticleFeedDTO(content, nextCursor, total);
     }
 
     @Transactional(readOnly = true)
     public Optional<ArticleDTO> findById(Long id) {
-        return articleRepository.findById(id).map(this::toDTO);
+        return articleRepository.findDTOById(id);
     }
 
     @Transactional
@@ -43,7 +72,53 @@ public class ArticleService {
         if (article.getContent() != null) {
             article.setContentHash(computeHash(article.getContent()));
         }
-        return articleRepository.save(article);
+        article.setSimhash(NearDuplicateService.fingerprint(article));
+        Article saved = articleRepository.save(article);
+        nearDuplicateService.link(List.of(saved));
+        topicMatcher.assign(List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Inserts a batch of articles with set-based statements instead of one
+     * existence check and insert per row. Articles whose (source, external id)
+     * already exists are skipped; the returned list holds only the newly inserted
+     * articles, with their generated ids set.
+     */
+    @Transactional
+    public List<Article> saveAll(List<Article> articles) {
+        List<Article> keyed = new ArrayList<>(articles.size());
+        List<Article> saved = new ArrayList<>();
+
+        for (Article article : articles) {
+            if (article.getContent() != null) {
+                article.setContentHash(computeHash(article.getContent()));
+            }
+            article.setSimhash(NearDuplicateService.fingerprint(article));
+            if (article.getExternalId() != null) {
+                keyed.add(article);
+            } else {
+                // Without an external id there is nothing to conflict on or match back
+                saved.add(articleRepository.save(article));
+            }
+        }
+
+        Map<ArticleKey, Long> insertedIds = new HashMap<>();
+        for (InsertedArticle row : articleRepository.insertIgnoringDuplicates(keyed)) {
+            insertedIds.put(new ArticleKey(row.sourceId(), row.externalId()), row.id());
+        }
+        for (Article article : keyed) {
+            Long id = insertedIds.remove(new ArticleKey(
+                    article.getSource() != null ? article.getSource().getId() : null,
+                    article.getExternalId()));
+            if (id != null) {
+                article.setId(id);
+                saved.add(article);
+            }
+        }
+        nearDuplicateService.link(saved);
+        topicMatcher.assign(saved);
+        return saved;
     }
 
     public boolean existsByContentHash(String contentHash) {
@@ -54,7 +129,7 @@ public class ArticleService {
         return articleRepository.findBySourceIdAndExternalId(sourceId, externalId);
     }
 
-    private String computeHash(String content) {
+    static String computeHash(String content) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hash = md.digest(content.getBytes());
@@ -64,17 +139,5 @@ public class ArticleService {
         }
     }
 
-    private ArticleDTO toDTO(Article article) {
-        return new ArticleDTO(
-                article.getId(),
-                article.getSource().getId(),
-                article.getSource().getName(),
-                article.getTitle(),
-                article.getUrl(),
-                article.getAuthor(),
-                article.getPublishedAt(),
-                article.getSentimentResult() != null ? article.getSentimentResult().getSentiment().name() : null,
-                article.getSentimentResult() != null ? article.getSentimentResult().getConfidence() : null
-        );
-    }
+    private record ArticleKey(Long sourceId, String externalId) {}
 }
@@ -0,0 +1,247 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ScoredArticleDTO;
+import com.newssentiment.model.SentimentResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans newly analyzed articles out to live feed subscribers over server-sent
+ * events. Each saved result is serialized once and handed to every matching
+ * subscriber's bounded queue; a virtual thread per subscriber writes its
+ * queue to the connection, so a slow client only holds up itself. A client
+ * that falls {@code queue-capacity} events behind is disconnected and is
+ * expected to reconnect, which EventSource does on its own.
+ *
+ * <p>With {@code app.stream.redis.enabled}, results are published to the
+ * {@value #CHANNEL} Redis channel instead and every node, this one included,
+ * delivers what it receives there, so subscribers see results saved on any
+ * node. If publishing fails the result is still delivered locally. Either way
+ * each delivered result is also published as an {@link ArticleScoredEvent}
+ * for other consumers of the cluster-wide stream.
+ */
+@Slf4j
+@Service
+public class ArticleStreamHub {
+
+    public static final String CHANNEL = "stream:articles";
+
+    private static final Message HEARTBEAT = new Message(null, null);
+    private static final long RECONNECT_MILLIS = 3000;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean relayEnabled;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter published;
+    private final Counter delivered;
+    private final Counter dropped;
+
+    public ArticleStreamHub(
+            ObjectMapper objectMapper,
+            ObjectProvider<StringRedisTemplate> redisTemplate,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${app.stream.redis.enabled:false}") boolean relayEnabled,
+            @Value("${app.stream.max-subscribers:10000}") int maxSubscribers,
+            @Value("${app.stream.queue-capacity:256}") int queueCapacity
+    ) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.relayEnabled = relayEnabled;
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.published = meterRegistry.counter("stream.articles.published");
+        this.delivered = meterRegistry.counter("stream.articles.delivered");
+        this.dropped = meterRegistry.counter("stream.subscribers.dropped");
+
+        Gauge.builder("stream.subscribers", subscribers, Set::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a feed of articles matching the filter, or returns empty when the
+     * subscriber limit is reached.
+     */
+    public Optional<SseEmitter> subscribe(Filter filter, long timeoutMillis) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        return subscribe(filter, emitter) ? Optional.of(emitter) : Optional.empty();
+    }
+
+    boolean subscribe(Filter filter, SseEmitter emitter) {
+        if (subscribers.size() >= maxSubscribers) {
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(emitter, filter, new ArrayBlockingQueue<>(queueCapacity));
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onResultSaved(SentimentResultSavedEvent event) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new ScoredArticleDTO(
+                    event.articleId(), event.sourceId(), event.topicId(), event.topicIds(), event.title(), event.url(),
+                    event.publishedAt(), event.sentiment().name(), event.confidence(), event.processedAt()));
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize article {} for the live feed", event.articleId(), e);
+            return;
+        }
+        published.increment();
+
+        StringRedisTemplate redis = relayEnabled ? redisTemplate.getIfAvailable() : null;
+        if (redis != null) {
+            try {
+                redis.convertAndSend(CHANNEL, json);
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Failed to relay article {} to other nodes: {}", event.articleId(), e.getMessage());
+            }
+        }
+        deliver(json);
+    }
+
+    /**
+     * Hands a serialized {@link ScoredArticleDTO} to the local subscribers it
+     * matches, then publishes it as an {@link ArticleScoredEvent}.
+     */
+    public void deliver(String json) {
+        ScoredArticleDTO article;
+        try {
+            article = objectMapper.readValue(json, ScoredArticleDTO.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed live feed message: {}", e.getMessage());
+            return;
+        }
+        if (!subscribers.isEmpty()) {
+            Message message = new Message(String.valueOf(article.articleId()), json);
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.filter.matches(article)) {
+                    subscriber.offer(message);
+                }
+            }
+        }
+        eventPublisher.publishEvent(new ArticleScoredEvent(article));
+    }
+
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-seconds:20}", timeUnit = TimeUnit.SECONDS)
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+    }
+
+    @PreDestroy
+    public void closeAll() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    /**
+     * Which articles a subscriber wants; an empty set matches anything. An
+     * article matches a topic filter through any topic it matched, not only
+     * its best one.
+     */
+    public record Filter(Set<Long> sourceIds, Set<Long> topicIds, Set<SentimentResult.Sentiment> sentiments) {
+
+        boolean matches(ScoredArticleDTO article) {
+            return (sourceIds.isEmpty() || (article.sourceId() != null && sourceIds.contains(article.sourceId())))
+                    && (topicIds.isEmpty() || matchesTopic(article))
+                    && (sentiments.isEmpty() || sentiments.contains(SentimentResult.Sentiment.valueOf(article.sentiment())));
+        }
+
+        private boolean matchesTopic(ScoredArticleDTO article) {
+            if (article.topicIds() != null && !article.topicIds().isEmpty()) {
+                return article.topicIds().stream().anyMatch(topicIds::contains);
+            }
+            // Messages relayed by nodes that predate topicIds
+            return article.topicId() != null && topicIds.contains(article.topicId());
+        }
+    }
+
+    private record Message(String id, String json) {}
+
+    private final class Subscriber {
+
+        final SseEmitter emitter;
+        final Filter filter;
+        final BlockingQueue<Message> queue;
+        volatile Thread sender;
+
+        Subscriber(SseEmitter emitter, Filter filter, BlockingQueue<Message> queue) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.queue = queue;
+        }
+
+        void start() {
+            sender = Thread.ofVirtual().name("article-stream").start(this::run);
+        }
+
+        void offer(Message message) {
+            if (!queue.offer(message)) {
+                dropped.increment();
+                log.debug("Disconnecting a live feed subscriber that fell {} events behind", queueCapacity);
+                close();
+            }
+        }
+
+        void close() {
+            subscribers.remove(this);
+            Thread thread = sender;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private void run() {
+            try {
+                emitter.send(SseEmitter.event().reconnectTime(RECONNECT_MILLIS).comment("connected"));
+                while (true) {
+                    Message message = queue.take();
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(message.id()).name("article").data(message.json()));
+                        delivered.increment();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Closed by the hub, or the request ended and this just confirms it
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the emitter already completed
+                log.trace("Live feed subscriber closed: {}", e.getMessage());
+            } finally {
+                subscribers.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+public class EmailAlertSender implements AlertSender {
+
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public EmailAlertSender(
+            JavaMailSender mailSender,
+            @Value("${app.alerts.delivery.mail-from:alerts@newssentiment.local}") String from
+    ) {
+        this.mailSender = mailSender;
+        this.from = from;
+    }
+
+    @Override
+    public Alert.Channel channel() {
+        return Alert.Channel.EMAIL;
+    }
+
+    @Override
+    public void send(AlertDigest digest) {
+        int count = digest.notifications().size();
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(from);
+        message.setTo(digest.recipient());
+        message.setSubject(count == 1 ? "Sentiment alert triggered" : count + " sentiment alerts triggered");
+
+        StringBuilder body = new StringBuilder();
+        for (Map<String, Object> notification : digest.notifications()) {
+            body.append(describe(notification)).append('\n');
+        }
+        message.setText(body.toString());
+
+        mailSender.send(message);
+    }
+
+    private static String describe(Map<String, Object> notification) {
+        String scope = notification.get("topicId") != null ? "topic " + notification.get("topicId") : "all articles";
+        if ("SPIKE".equals(notification.get("type"))) {
+            return String.format("Alert %s: %s results for %s reached %.1fx the baseline over %s minutes (threshold %s) at %s",
+                    notification.get("alertId"), notification.get("sentiment"), scope,
+                    ((Number) notification.get("observed")).doubleValue(),
+                    notification.get("windowMinutes"), notification.get("threshold"), notification.get("triggeredAt"));
+        }
+        return String.format("Alert %s: %s share for %s reached %.0f%% over %s minutes (threshold %s) at %s",
+                notification.get("alertId"), notification.get("sentiment"), scope,
+                ((Number) notification.get("observed")).doubleValue() * 100,
+                notification.get("windowMinutes"), notification.get("threshold"), notification.get("triggeredAt"));
+    }
+}
@@ -0,0 +1,407 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calls the sentiment API at {@code app.sentiment.api-url}. Concurrent
+ * {@link #analyze} calls are collected into micro-batches of up to
+ * {@code max-size} articles, waiting at most {@code max-linger-ms} for a batch
+ * to fill, and each batch is one POST to {@code /analyze/batch}:
+ * <pre>
+ * {"articles": [{"id": 1, "title": "...", "content": "..."}]}
+ * {"results": [{"id": 1, "sentiment": "NEGATIVE", "confidence": "HIGH", "topic": "...",
+ *               "entities": ["..."], "reasoning": "...", "modelVersion": "..."}]}
+ * </pre>
+ * {@code confidence} may be a number or HIGH/MEDIUM/LOW; {@code modelVersion}
+ * is optional.
+ *
+ * <p>The number of batches in flight follows an {@link AdaptiveConcurrencyLimit}:
+ * it grows while the API keeps up and is cut back on 429 responses, timeouts
+ * and latency well above the best seen. Articles of a throttled batch give
+ * their permit back and are queued again once the API's {@code Retry-After}
+ * (capped at {@value #MAX_RETRY_AFTER_SECONDS} s) has passed.
+ */
+@Slf4j
+@Component
+public class HttpSentimentAnalyzer implements SentimentAnalyzer {
+
+    private static final int MAX_CONTENT_LENGTH = 4000;
+    private static final int MAX_THROTTLED_RETRIES = 5;
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+    static final long MAX_RETRY_AFTER_SECONDS = 30;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double BACKOFF_RATIO = 0.5;
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService httpExecutor;
+    private final HttpClient httpClient;
+    private final URI endpoint;
+    private final Duration timeout;
+    private final String defaultModelVersion;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final AdaptiveConcurrencyLimit limit;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final Thread dispatcher;
+    private volatile boolean running = true;
+    private volatile String reportedModelVersion;
+
+    private final Timer batchTimer;
+    private final Timer queueWait;
+    private final DistributionSummary batchSizes;
+    private final Counter throttled;
+
+    public HttpSentimentAnalyzer(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.sentiment.api-url}") String apiUrl,
+            @Value("${app.sentiment.timeout-seconds:30}") int timeoutSeconds,
+            @Value("${app.sentiment.model-version:remote}") String defaultModelVersion,
+            @Value("${app.sentiment.batch.max-size:16}") int maxBatchSize,
+            @Value("${app.sentiment.batch.max-linger-ms:20}") long maxLingerMillis,
+            @Value("${app.sentiment.concurrency.initial:4}") int initialConcurrency,
+            @Value("${app.sentiment.concurrency.max:64}") int maxConcurrency
+    ) {
+        this.objectMapper = objectMapper;
+        this.endpoint = URI.create(apiUrl.replaceAll("/+$", "") + "/analyze/batch");
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.defaultModelVersion = defaultModelVersion;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLingerNanos = TimeUnit.MILLISECONDS.toNanos(maxLingerMillis);
+        this.limit = new AdaptiveConcurrencyLimit(initialConcurrency, 1, maxConcurrency, LATENCY_TOLERANCE, BACKOFF_RATIO);
+        this.httpExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(httpExecutor)
+                .build();
+
+        this.batchTimer = meterRegistry.timer("sentiment.api.batch");
+        this.queueWait = meterRegistry.timer("sentiment.api.queue.wait");
+        this.batchSizes = meterRegistry.summary("sentiment.api.batch.size");
+        this.throttled = meterRegistry.counter("sentiment.api.throttled");
+        Gauge.builder("sentiment.api.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .register(meterRegistry);
+        Gauge.builder("sentiment.api.in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .register(meterRegistry);
+
+        this.dispatcher = Thread.ofVirtual().name("sentiment-api-dispatcher").start(this::dispatchLoop);
+    }
+
+    /**
+     * The version the API last reported, if any, and the configured default.
+     */
+    @Override
+    public List<String> modelVersions() {
+        String reported = reportedModelVersion;
+        return reported == null || reported.equals(defaultModelVersion)
+                ? List.of(defaultModelVersion)
+                : List.of(reported, defaultModelVersion);
+    }
+
+    @Override
+    public SentimentResult analyze(Article article) throws IOException, InterruptedException {
+        if (article.getId() == null) {
+            throw new IllegalArgumentException("Only saved articles can be analyzed");
+        }
+        Pending pending = new Pending(article, System.nanoTime(), 0, new CompletableFuture<>());
+        enqueue(List.of(pending));
+        try {
+            return pending.result().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IOException("Sentiment analysis failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        httpClient.shutdownNow();
+        httpExecutor.shutdownNow();
+        abandonQueued();
+    }
+
+    /**
+     * Queues articles for the dispatcher, or fails them once the analyzer is
+     * closed. Checking again after adding covers a concurrent {@link #close}.
+     */
+    private void enqueue(List<Pending> pending) {
+        if (!running) {
+            pending.forEach(p -> p.result().completeExceptionally(new IOException("Sentiment analyzer shut down")));
+            return;
+        }
+        queue.addAll(pending);
+        if (!running) {
+            abandonQueued();
+        }
+    }
+
+    private void abandonQueued() {
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(p -> p.result().completeExceptionally(new IOException("Sentiment analyzer shut down")));
+    }
+
+    int concurrencyLimit() {
+        return limit.limit();
+    }
+
+    /**
+     * Takes a permit before forming a batch, so while all permits are in use
+     * requests pile up in the queue and the next batch leaves full.
+     */
+    private void dispatchLoop() {
+        while (running) {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+                limit.acquire();
+                long deadline = System.nanoTime() + maxLingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == maxBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                Thread.ofVirtual().start(() -> send(batch));
+            } catch (InterruptedException e) {
+                batch.forEach(p -> p.result().completeExceptionally(new IOException("Sentiment analyzer shut down")));
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        long now = System.nanoTime();
+        batch.forEach(p -> queueWait.record(now - p.enqueuedNanos(), TimeUnit.NANOSECONDS));
+        batchSizes.record(batch.size());
+        try {
+            Map<Long, JsonNode> results = post(batch);
+            for (Pending pending : batch) {
+                JsonNode result = results.get(pending.article().getId());
+                try {
+                    if (result == null) {
+                        throw new IOException("Sentiment API returned no result for article " + pending.article().getId());
+                    }
+                    pending.result().complete(toResult(result));
+                } catch (IOException e) {
+                    pending.result().completeExceptionally(e);
+                }
+            }
+        } catch (ThrottledException e) {
+            retryLater(batch, e.retryAfter());
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            batch.forEach(p -> p.result().completeExceptionally(e));
+        } finally {
+            limit.release();
+        }
+    }
+
+    /**
+     * Puts a throttled batch back on the queue after the delay, so no permit
+     * or thread is held while waiting. The dispatcher may regroup the articles
+     * with others.
+     */
+    private void retryLater(List<Pending> batch, Duration delay) {
+        List<Pending> retry = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            if (pending.throttles() >= MAX_THROTTLED_RETRIES) {
+                pending.result().completeExceptionally(new IOException("Sentiment API kept throttling (HTTP 429)"));
+            } else {
+                retry.add(pending);
+            }
+        }
+        if (!retry.isEmpty()) {
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS).execute(() -> enqueue(
+                    retry.stream().map(p -> new Pending(p.article(), System.nanoTime(), p.throttles() + 1, p.result())).toList()));
+        }
+    }
+
+    private Map<Long, JsonNode> post(List<Pending> batch) throws IOException, InterruptedException {
+        List<Map<String, Object>> articles = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            articles.add(toRequest(pending.article()));
+        }
+        HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("articles", articles))))
+                .build();
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (HttpTimeoutException e) {
+            limit.onDropped();
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long latency = System.nanoTime() - start;
+        batchTimer.record(latency, TimeUnit.NANOSECONDS);
+
+        if (response.statusCode() == 429) {
+            limit.onDropped();
+            throttled.increment();
+            throw new ThrottledException(retryAfter(response.headers().firstValue("Retry-After").orElse(null), Instant.now()));
+        }
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Sentiment API responded with HTTP " + response.statusCode());
+        }
+        limit.onSuccess(latency);
+        log.trace("Analyzed batch of {} in {} ms", batch.size(), TimeUnit.NANOSECONDS.toMillis(latency));
+
+        Map<Long, JsonNode> results = new HashMap<>();
+        for (JsonNode node : objectMapper.readTree(response.body()).path("results")) {
+            results.put(node.path("id").asLong(), node);
+        }
+        return results;
+    }
+
+    private static Map<String, Object> toRequest(Article article) {
+        String content = article.getContent() != null ? article.getContent() : article.getTitle();
+        if (content != null && content.length() > MAX_CONTENT_LENGTH) {
+            content = content.substring(0, MAX_CONTENT_LENGTH) + "...";
+        }
+        return Map.of(
+                "id", article.getId(),
+                "title", article.getTitle() != null ? article.getTitle() : "",
+                "content", content != null ? content : ""
+        );
+    }
+
+    /**
+     * Reads a {@code Retry-After} given in seconds or as an HTTP date, kept
+     * between zero and {@value #MAX_RETRY_AFTER_SECONDS} seconds.
+     */
+    static Duration retryAfter(String value, Instant now) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_RETRY_AFTER;
+        }
+        Duration delay;
+        try {
+            delay = Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                delay = Duration.between(now, ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            } catch (DateTimeParseException invalid) {
+                delay = DEFAULT_RETRY_AFTER;
+            }
+        }
+        if (delay.isNegative()) {
+            return Duration.ZERO;
+        }
+        return delay.compareTo(Duration.ofSeconds(MAX_RETRY_AFTER_SECONDS)) > 0 ? Duration.ofSeconds(MAX_RETRY_AFTER_SECONDS) : delay;
+    }
+
+    SentimentResult toResult(JsonNode json) throws IOException {
+        SentimentResult.Sentiment sentiment;
+        try {
+            sentiment = SentimentResult.Sentiment.valueOf(json.path("sentiment").asText().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Sentiment API returned an unknown sentiment: " + json.path("sentiment"));
+        }
+
+        List<String> topics = new ArrayList<>();
+        if (json.hasNonNull("topic")) {
+            topics.add(json.get("topic").asText());
+        }
+        List<String> entities = new ArrayList<>();
+        json.path("entities").forEach(entity -> entities.add(entity.asText()));
+
+        String modelVersion = defaultModelVersion;
+        if (json.hasNonNull("modelVersion")) {
+            modelVersion = json.get("modelVersion").asText();
+            reportedModelVersion = modelVersion;
+        }
+
+        return SentimentResult.builder()
+                .sentiment(sentiment)
+                .confidence(confidence(json.path("confidence")))
+                .modelVersion(modelVersion)
+                .reasoning(json.hasNonNull("reasoning") ? json.get("reasoning").asText() : null)
+                .topics(topics)
+                .entities(Map.of("names", entities))
+                .processedAt(Instant.now())
+                .build();
+    }
+
+    private static BigDecimal confidence(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue().max(BigDecimal.ZERO).min(BigDecimal.ONE).setScale(2, RoundingMode.HALF_UP);
+        }
+        return switch (node.asText().toUpperCase(Locale.ROOT)) {
+            case "HIGH" -> new BigDecimal("0.90");
+            case "LOW" -> new BigDecimal("0.50");
+            default -> new BigDecimal("0.70");
+        };
+    }
+
+    private record Pending(Article article, long enqueuedNanos, int throttles, CompletableFuture<SentimentResult> result) {}
+
+    private static final class ThrottledException extends IOException {
+
+        private final Duration retryAfter;
+
+        ThrottledException(Duration retryAfter) {
+            super("Sentiment API throttled the batch (HTTP 429)");
+            this.retryAfter = retryAfter;
+        }
+
+        Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.newssentiment.service;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton over a fixed set of keywords. Text and keywords are
+ * folded the same way (lower case, diacritics stripped, whitespace runs
+ * collapsed), and a keyword only matches on word boundaries, so "war" is
+ * found in "War," but not in "software". Matching is a single pass over the
+ * text regardless of how many keywords there are.
+ *
+ * <p>Because matches must start on a word boundary, failure links skip
+ * suffixes that begin mid-word; once a word stops matching, the rest of it is
+ * passed over without touching the automaton. Transitions out of the root are
+ * a direct table lookup and all others live in one open-addressing table
+ * keyed by (node, char). Instances are immutable and safe to share.
+ */
+final class KeywordAutomaton {
+
+    private static final int ROOT = 0;
+    private static final long EMPTY = 0L;
+    private static final int TARGET_BITS = 24;
+    private static final int MAX_NODES = 1 << TARGET_BITS;
+    static final char DROP = '\uFFFF';
+    private static final char[] FOLD = buildFoldTable();
+    private static final long[] WORD_CHARS = buildWordCharTable();
+
+    // Per-node fields interleaved so one cache line serves a state:
+    // failure link, dictionary link, keyword id ending here (or -1)
+    private static final int STRIDE = 4;
+    private static final int FAIL = 0;
+    private static final int DICTIONARY = 1;
+    private static final int KEYWORD = 2;
+
+    private final int[] rootNext;
+    // (state << 16 | char) in the high 40 bits, target state in the low 24
+    private final long[] edges;
+    private final int edgeMask;
+    private final int[] nodes;
+
+    /**
+     * Builds the automaton. Keyword ids are positions in the list; keywords
+     * are expected to be folded already and blank ones are ignored.
+     *
+     * @throws IllegalArgumentException if the keywords need more than 2^24 states
+     */
+    KeywordAutomaton(List<String> keywords) {
+        Builder builder = new Builder();
+        for (int id = 0; id < keywords.size(); id++) {
+            String keyword = keywords.get(id);
+            if (!keyword.isBlank()) {
+                builder.add(keyword, id);
+            }
+        }
+
+        int size = builder.size;
+        if (size > MAX_NODES) {
+            throw new IllegalArgumentException("Keyword set too large: " + size + " states");
+        }
+        this.rootNext = new int[Character.MAX_VALUE + 1];
+        this.nodes = new int[size * STRIDE];
+        for (int node = 0; node < size; node++) {
+            nodes[node * STRIDE + KEYWORD] = builder.keywordAt[node];
+        }
+
+        int capacity = Integer.highestOneBit(Math.max(4, size) * 2) << 1;
+        this.edges = new long[capacity];
+        this.edgeMask = capacity - 1;
+
+        // Breadth-first so that a node's failure target is final before its children need it
+        int[] queue = new int[size];
+        int head = 0;
+        int tail = 0;
+        nodes[ROOT * STRIDE + DICTIONARY] = -1;
+        for (int child = builder.firstChild[ROOT]; child != -1; child = builder.nextSibling[child]) {
+            rootNext[builder.label[child]] = child;
+            nodes[child * STRIDE + FAIL] = ROOT;
+            nodes[child * STRIDE + DICTIONARY] = -1;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int child = builder.firstChild[node]; child != -1; child = builder.nextSibling[child]) {
+                char c = builder.label[child];
+                putEdge(node, c, child);
+
+                // Failure links only lead to suffixes that start on a word boundary,
+                // since no other suffix can begin a match
+                int f = nodes[node * STRIDE + FAIL];
+                int target;
+                while (true) {
+                    if (f == ROOT) {
+                        target = isWordChar(builder.label[node]) ? ROOT : rootNext[c];
+                        break;
+                    }
+                    target = next(f, c);
+                    if (target >= 0) {
+                        break;
+                    }
+                    f = nodes[f * STRIDE + FAIL];
+                }
+                nodes[child * STRIDE + FAIL] = target;
+                nodes[child * STRIDE + DICTIONARY] = nodes[target * STRIDE + KEYWORD] >= 0
+                        ? target
+                        : nodes[target * STRIDE + DICTIONARY];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    /**
+     * Reports the id of every keyword occurrence in already folded text.
+     */
+    void match(char[] text, int length, IntConsumer onMatch) {
+        int[] nodes = this.nodes;
+        int state = ROOT;
+        for (int i = 0; i < length; i++) {
+            char c = text[i];
+            int target = -1;
+            while (state != ROOT) {
+                target = next(state, c);
+                if (target >= 0) {
+                    break;
+                }
+                state = nodes[state * STRIDE + FAIL];
+            }
+            if (state == ROOT) {
+                // Inside a word nothing can start, so the rest of it costs one table lookup per char
+                if (i > 0 && isWordChar(text[i - 1])) {
+                    continue;
+                }
+                target = rootNext[c];
+                if (target == ROOT) {
+                    continue;
+                }
+            }
+            state = target;
+
+            int base = state * STRIDE;
+            int node = nodes[base + KEYWORD] >= 0 ? state : nodes[base + DICTIONARY];
+            while (node >= 0) {
+                if (i + 1 == length || !isWordChar(text[i + 1])) {
+                    onMatch.accept(nodes[node * STRIDE + KEYWORD]);
+                }
+                node = nodes[node * STRIDE + DICTIONARY];
+            }
+        }
+    }
+
+    /**
+     * Folds a keyword for insertion into the automaton.
+     */
+    static String fold(CharSequence keyword) {
+        char[] out = new char[keyword.length()];
+        int length = fold(keyword, out, false);
+        return new String(out, 0, length).strip();
+    }
+
+    /**
+     * Folds text for matching into {@code out}, which must be at least as long
+     * as the input, and returns the folded length. With {@code skipMarkup},
+     * anything between '&lt;' and '&gt;' is treated as a space.
+     */
+    static int fold(CharSequence text, char[] out, boolean skipMarkup) {
+        int length = 0;
+        boolean inTag = false;
+        boolean lastSpace = true;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (skipMarkup) {
+                if (c == '<') {
+                    inTag = true;
+                    c = ' ';
+                } else if (inTag) {
+                    if (c == '>') {
+                        inTag = false;
+                    }
+                    c = ' ';
+                }
+            }
+            char folded = FOLD[c];
+            if (folded == DROP) {
+                continue;
+            }
+            if (folded == ' ') {
+                if (lastSpace) {
+                    continue;
+                }
+                lastSpace = true;
+            } else {
+                lastSpace = false;
+            }
+            out[length++] = folded;
+        }
+        return length;
+    }
+
+    /**
+     * Folds a single character the same way, returning {@link #DROP} for
+     * combining marks and ' ' for any kind of space.
+     */
+    static char fold(char c) {
+        return FOLD[c];
+    }
+
+    static boolean isWordChar(char c) {
+        return (WORD_CHARS[c >>> 6] & (1L << c)) != 0;
+    }
+
+    private int next(int state, char c) {
+        long key = ((long) state << 16) | c;
+        int slot = hash(key) & edgeMask;
+        while (true) {
+            long entry = edges[slot];
+            if (entry >>> TARGET_BITS == key) {
+                return (int) (entry & (MAX_NODES - 1));
+            }
+            if (entry == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & edgeMask;
+        }
+    }
+
+    private void putEdge(int state, char c, int target) {
+        long key = ((long) state << 16) | c;
+        int slot = hash(key) & edgeMask;
+        while (edges[slot] != EMPTY) {
+            slot = (slot + 1) & edgeMask;
+        }
+        edges[slot] = key << TARGET_BITS | target;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long[] buildWordCharTable() {
+        long[] table = new long[(Character.MAX_VALUE + 1) >>> 6];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            if (Character.isLetterOrDigit(c)) {
+                table[c >>> 6] |= 1L << c;
+            }
+        }
+        return table;
+    }
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            char ch = (char) c;
+            if (Character.isWhitespace(ch) || Character.isSpaceChar(ch)) {
+                table[c] = ' ';
+            } else if (Character.isSurrogate(ch)) {
+                table[c] = ch;
+            } else if (isMark(ch)) {
+                table[c] = DROP;
+            } else {
+                String decomposed = Normalizer.normalize(String.valueOf(Character.toLowerCase(ch)), Normalizer.Form.NFD);
+                table[c] = decomposed.charAt(0);
+            }
+        }
+        table[DROP] = DROP;
+        return table;
+    }
+
+    private static boolean isMark(char c) {
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK
+                || type == Character.FORMAT;
+    }
+
+    /**
+     * Plain trie with first-child/next-sibling links, used only while building.
+     */
+    private static final class Builder {
+
+        int size = 1;
+        int[] firstChild = {-1};
+        int[] nextSibling = {-1};
+        char[] label = {0};
+        int[] keywordAt = {-1};
+
+        void add(String keyword, int id) {
+            int node = ROOT;
+            for (int i = 0; i < keyword.length(); i++) {
+                node = child(node, keyword.charAt(i));
+            }
+            if (keywordAt[node] < 0) {
+                keywordAt[node] = id;
+            }
+        }
+
+        private int child(int node, char c) {
+            for (int child = firstChild[node]; child != -1; child = nextSibling[child]) {
+                if (label[child] == c) {
+                    return child;
+                }
+            }
+            if (size == label.length) {
+                int capacity = size * 2;
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                label = Arrays.copyOf(label, capacity);
+                keywordAt = Arrays.copyOf(keywordAt, capacity);
+            }
+            int created = size++;
+            firstChild[created] = -1;
+            nextSibling[created] = firstChild[node];
+            label[created] = c;
+            keywordAt[created] = -1;
+            firstChild[node] = created;
+            return created;
+        }
+    }
+}
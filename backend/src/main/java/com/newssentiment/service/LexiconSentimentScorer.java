@@ -0,0 +1,348 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult.Sentiment;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rule-based sentiment scorer for English, Russian and Armenian news. Text is
+ * folded like {@link KeywordAutomaton} folds it and split into words; each
+ * word is looked up as a whole word and then as the longest listed stem, so
+ * that one entry covers the inflected forms of Russian and Armenian words.
+ * Negators flip and dampen the next few sentiment words within the sentence,
+ * boosters scale the next one, and title words count double.
+ *
+ * <p>The weighted sum is squashed into a compound score in (-1, 1) as in
+ * VADER. Confidence grows with the size of the compound and with how one-sided
+ * the hits are; an article with no hits or a near-zero score is
+ * {@link Sentiment#NEUTRAL} with {@link #UNSURE} confidence.
+ *
+ * <p>Scoring works on the characters of the input directly: per article it
+ * allocates one small scratch object and never a string per word. Instances
+ * are immutable and safe to share.
+ */
+final class LexiconSentimentScorer {
+
+    static final String[] DEFAULT_LEXICONS = {"lexicon/en.tsv", "lexicon/ru.tsv", "lexicon/hy.tsv"};
+    static final double UNSURE = 0.5;
+
+    private static final int MAX_WORD = 48;
+    private static final int MIN_STEM = 3;
+    private static final int NEGATION_SCOPE = 3;
+    private static final double NEGATION_FACTOR = -0.74;
+    private static final double TITLE_WEIGHT = 2.0;
+    private static final double ALPHA = 15.0;
+    private static final double NEUTRAL_BAND = 0.2;
+    private static final double MAX_CONFIDENCE = 0.95;
+    private static final char ARMENIAN_NEGATION = 'չ';
+
+    private static final byte TERM = 0;
+    private static final byte NEGATOR = 1;
+    private static final byte BOOSTER = 2;
+
+    private final Table words;
+    private final Table stems;
+
+    /**
+     * Outcome of scoring one article; {@code terms} is the number of
+     * sentiment words found.
+     */
+    record Score(Sentiment sentiment, double compound, double confidence, int terms) {
+    }
+
+    private LexiconSentimentScorer(Map<String, Entry> words, Map<String, Entry> stems) {
+        this.words = new Table(words);
+        this.stems = new Table(stems);
+    }
+
+    /**
+     * Loads and merges lexicons from the classpath. Each non-comment line is
+     * {@code term<TAB>value}: a weight from -4 to 4, {@code NEGATE}, or
+     * {@code x} and a factor for boosters. A term ending in '*' is a stem.
+     */
+    static LexiconSentimentScorer fromClasspath(String... resources) {
+        Map<String, Entry> words = new LinkedHashMap<>();
+        Map<String, Entry> stems = new LinkedHashMap<>();
+        for (String resource : resources) {
+            try (InputStream in = LexiconSentimentScorer.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Lexicon " + resource + " not found on the classpath");
+                }
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+                String line;
+                int number = 0;
+                while ((line = reader.readLine()) != null) {
+                    number++;
+                    if (line.isBlank() || line.startsWith("#")) {
+                        continue;
+                    }
+                    parse(line, resource + ":" + number, words, stems);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read lexicon " + resource, e);
+            }
+        }
+        return new LexiconSentimentScorer(words, stems);
+    }
+
+    private static void parse(String line, String location, Map<String, Entry> words, Map<String, Entry> stems) {
+        String[] columns = line.split("\t");
+        if (columns.length != 2) {
+            throw new IllegalStateException("Malformed lexicon line " + location + ": " + line);
+        }
+        String term = columns[0].strip();
+        String value = columns[1].strip();
+        boolean stem = term.endsWith("*");
+        String folded = KeywordAutomaton.fold(stem ? term.substring(0, term.length() - 1) : term).replace('’', '\'');
+        if (folded.isEmpty() || folded.length() > MAX_WORD || (stem && folded.length() < MIN_STEM)) {
+            throw new IllegalStateException("Unusable lexicon term " + location + ": " + term);
+        }
+
+        Entry entry;
+        try {
+            if (value.equals("NEGATE")) {
+                entry = new Entry(NEGATOR, 0);
+            } else if (value.startsWith("x")) {
+                entry = new Entry(BOOSTER, Float.parseFloat(value.substring(1)));
+            } else {
+                entry = new Entry(TERM, Float.parseFloat(value));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Malformed lexicon value " + location + ": " + value, e);
+        }
+        if (stem && entry.kind() != TERM) {
+            throw new IllegalStateException("Only sentiment terms can be stems " + location + ": " + term);
+        }
+        (stem ? stems : words).put(folded, entry);
+    }
+
+    Score score(String title, String content) {
+        Scan scan = new Scan();
+        if (title != null) {
+            scan(title, TITLE_WEIGHT, scan);
+        }
+        if (content != null) {
+            scan(content, 1.0, scan);
+        }
+        if (scan.terms == 0) {
+            return new Score(Sentiment.NEUTRAL, 0, UNSURE, 0);
+        }
+
+        double sum = scan.positive - scan.negative;
+        double compound = sum / Math.sqrt(sum * sum + ALPHA);
+        if (Math.abs(compound) < NEUTRAL_BAND) {
+            return new Score(Sentiment.NEUTRAL, compound, UNSURE, scan.terms);
+        }
+        double agreement = Math.abs(sum) / (scan.positive + scan.negative);
+        double confidence = Math.min(MAX_CONFIDENCE, 0.5 + 0.5 * Math.abs(compound) * agreement);
+        return new Score(compound > 0 ? Sentiment.POSITIVE : Sentiment.NEGATIVE, compound, confidence, scan.terms);
+    }
+
+    private void scan(String text, double weight, Scan scan) {
+        scan.negationLeft = 0;
+        scan.boost = 1;
+        char[] word = scan.word;
+        int length = 0;
+        int n = text.length();
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (c >= '՛' && c <= '՞') {
+                // Armenian emphasis, exclamation and question marks sit inside the word
+                continue;
+            }
+            char folded = KeywordAutomaton.fold(c);
+            if (folded == KeywordAutomaton.DROP) {
+                continue;
+            }
+            if (KeywordAutomaton.isWordChar(folded)
+                    || (isApostrophe(folded) && length > 0 && i + 1 < n
+                        && KeywordAutomaton.isWordChar(KeywordAutomaton.fold(text.charAt(i + 1))))) {
+                if (length < MAX_WORD) {
+                    word[length] = isApostrophe(folded) ? '\'' : folded;
+                }
+                length++;
+                continue;
+            }
+            if (length > 0) {
+                if (length <= MAX_WORD) {
+                    word(scan, length, weight);
+                }
+                length = 0;
+            }
+            if (isSentenceEnd(folded)) {
+                scan.negationLeft = 0;
+                scan.boost = 1;
+            }
+        }
+    }
+
+    private void word(Scan scan, int length, double weight) {
+        char[] word = scan.word;
+        int index = words.find(word, 0, length, hash(word, 0, length));
+        if (index >= 0 && words.kinds[index] == NEGATOR || isNegatedContraction(word, length)) {
+            scan.negationLeft = NEGATION_SCOPE;
+            return;
+        }
+        if (index >= 0 && words.kinds[index] == BOOSTER) {
+            scan.boost = words.values[index];
+            return;
+        }
+
+        double value = index >= 0 ? words.values[index] : stem(scan, 0, length);
+        if (Double.isNaN(value) && length > MIN_STEM && word[0] == ARMENIAN_NEGATION) {
+            int at = words.find(word, 1, length - 1, hash(word, 1, length - 1));
+            value = at >= 0 && words.kinds[at] == TERM ? words.values[at] : stem(scan, 1, length - 1);
+            value *= NEGATION_FACTOR;
+        }
+        if (!Double.isNaN(value)) {
+            value *= scan.boost;
+            if (scan.negationLeft > 0) {
+                value *= NEGATION_FACTOR;
+            }
+            if (value > 0) {
+                scan.positive += value * weight;
+            } else {
+                scan.negative -= value * weight;
+            }
+            scan.terms++;
+        }
+        scan.boost = 1;
+        if (scan.negationLeft > 0) {
+            scan.negationLeft--;
+        }
+    }
+
+    /**
+     * Weight of the longest stem that {@code word[from, from + length)} starts
+     * with, or NaN.
+     */
+    private double stem(Scan scan, int from, int length) {
+        int[] prefixes = scan.prefixHashes;
+        int h = 0;
+        for (int i = 0; i < length; i++) {
+            h = 31 * h + scan.word[from + i];
+            prefixes[i] = h;
+        }
+        for (int end = length; end >= MIN_STEM; end--) {
+            int index = stems.find(scan.word, from, end, prefixes[end - 1]);
+            if (index >= 0) {
+                return stems.values[index];
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static int hash(char[] chars, int from, int length) {
+        int h = 0;
+        for (int i = from; i < from + length; i++) {
+            h = 31 * h + chars[i];
+        }
+        return h;
+    }
+
+    private static boolean isNegatedContraction(char[] word, int length) {
+        return length >= 4 && word[length - 1] == 't' && word[length - 2] == '\'' && word[length - 3] == 'n';
+    }
+
+    private static boolean isApostrophe(char c) {
+        return c == '\'' || c == '’';
+    }
+
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == ';' || c == ':' || c == '։' || c == '…';
+    }
+
+    private record Entry(byte kind, float value) {
+    }
+
+    /**
+     * Per-article scratch space and running totals.
+     */
+    private static final class Scan {
+        final char[] word = new char[MAX_WORD];
+        final int[] prefixHashes = new int[MAX_WORD];
+        double positive;
+        double negative;
+        int terms;
+        int negationLeft;
+        double boost = 1;
+    }
+
+    /**
+     * Open-addressing table from folded terms to their kind and value, probed
+     * with a character range so lookups need no string.
+     */
+    private static final class Table {
+
+        final char[][] keys;
+        final byte[] kinds;
+        final float[] values;
+        final int[] hashes;
+        final int[] slots;
+        final int mask;
+
+        Table(Map<String, Entry> entries) {
+            int size = entries.size();
+            keys = new char[size][];
+            kinds = new byte[size];
+            values = new float[size];
+            hashes = new int[size];
+            slots = new int[Integer.highestOneBit(Math.max(4, size * 2) - 1) << 1];
+            mask = slots.length - 1;
+
+            List<Map.Entry<String, Entry>> list = new ArrayList<>(entries.entrySet());
+            for (int i = 0; i < size; i++) {
+                char[] key = list.get(i).getKey().toCharArray();
+                keys[i] = key;
+                kinds[i] = list.get(i).getValue().kind();
+                values[i] = list.get(i).getValue().value();
+                hashes[i] = hash(key, 0, key.length);
+                int slot = mix(hashes[i]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = i + 1;
+            }
+        }
+
+        int find(char[] chars, int from, int length, int hash) {
+            int slot = mix(hash) & mask;
+            while (true) {
+                int index = slots[slot] - 1;
+                if (index < 0) {
+                    return -1;
+                }
+                if (hashes[index] == hash && matches(keys[index], chars, from, length)) {
+                    return index;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private static boolean matches(char[] key, char[] chars, int from, int length) {
+            if (key.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (key[i] != chars[from + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int mix(int hash) {
+            int h = hash * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
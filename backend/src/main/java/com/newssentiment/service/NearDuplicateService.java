@@ -0,0 +1,141 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.repository.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Links syndicated copies of the same story across sources. Every article with
+ * at least {@link #MIN_TOKENS} words gets a SimHash fingerprint at ingest
+ * time; a new article within {@link SimHashIndex#MAX_DISTANCE} bits of a
+ * recent one is marked as a near-duplicate of that article's cluster
+ * representative via {@code articles.duplicate_of}. Only representatives are
+ * analyzed; the sentiment worker copies a representative's result to the rest
+ * of its cluster.
+ *
+ * <p>The index covers articles fetched within the configured window, which is
+ * where syndication happens. It is rebuilt from the database daily so older
+ * fingerprints age out.
+ */
+@Slf4j
+@Service
+public class NearDuplicateService {
+
+    static final int MIN_TOKENS = 12;
+
+    private static final int WARM_UP_FETCH_SIZE = 10_000;
+
+    private final ArticleRepository articleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration window;
+    private final AtomicReference<SimHashIndex> index = new AtomicReference<>(new SimHashIndex());
+    private final Counter nearDuplicates;
+
+    public NearDuplicateService(
+            ArticleRepository articleRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.near-duplicate.window-days:14}") int windowDays
+    ) {
+        this.articleRepository = articleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.window = Duration.ofDays(windowDays);
+        this.nearDuplicates = meterRegistry.counter("dedup.near_duplicates");
+
+        Gauge.builder("dedup.simhash.indexed", index, ref -> ref.get().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * The article's SimHash over title and content, or null if together they
+     * have fewer than {@link #MIN_TOKENS} words. Such articles are never
+     * linked, so empty or title-only stubs don't all cluster together.
+     */
+    public static Long fingerprint(Article article) {
+        String title = article.getTitle() != null ? article.getTitle() : "";
+        String content = article.getContent() != null ? article.getContent() : "";
+        return SimHash.fingerprint(title + " " + content, MIN_TOKENS);
+    }
+
+    /**
+     * Assigns each newly inserted article to a near-duplicate cluster, adds it
+     * to the index, and persists the links in one statement. Articles must
+     * already have an id and a fingerprint.
+     */
+    @Transactional
+    public void link(List<Article> inserted) {
+        SimHashIndex current = index.get();
+        Map<Long, Long> duplicateOf = new HashMap<>();
+
+        for (Article article : inserted) {
+            if (article.getSimhash() == null) {
+                continue;
+            }
+            long cluster = current.findCluster(article.getSimhash());
+            if (cluster >= 0) {
+                article.setDuplicateOf(cluster);
+                duplicateOf.put(article.getId(), cluster);
+                current.add(article.getSimhash(), cluster);
+            } else {
+                current.add(article.getSimhash(), article.getId());
+            }
+        }
+
+        articleRepository.updateDuplicateOf(duplicateOf);
+        nearDuplicates.increment(duplicateOf.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.near-duplicate.rebuild-cron:0 30 3 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        SimHashIndex rebuilt = new SimHashIndex();
+        Timestamp since = Timestamp.from(Instant.now().minus(window));
+
+        jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement ps = connection.prepareStatement(
+                            "SELECT id, simhash, duplicate_of FROM articles " +
+                            "WHERE simhash IS NOT NULL AND fetched_at >= ? ORDER BY id");
+                    ps.setTimestamp(1, since);
+                    ps.setFetchSize(WARM_UP_FETCH_SIZE);
+                    return ps;
+                },
+                rs -> {
+                    long duplicateOf = rs.getLong(3);
+                    rebuilt.add(rs.getLong(2), rs.wasNull() ? rs.getLong(1) : duplicateOf);
+                }
+        );
+
+        // Articles linked while the query runs may be missing from the new index
+        // until the next rebuild; that only costs a missed match, not a wrong one.
+        index.set(rebuilt);
+        log.info("Rebuilt near-duplicate index with {} fingerprints in {} ms",
+                rebuilt.size(), System.currentTimeMillis() - start);
+    }
+}
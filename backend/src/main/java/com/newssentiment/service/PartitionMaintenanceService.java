@@ -0,0 +1,200 @@
+package com.newssentiment.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of {@code articles} and
+ * {@code sentiment_results} (see the V11 migration) ahead of the data and,
+ * with a retention configured, retires months that have expired.
+ *
+ * <p>The current month and {@code premake-months} after it always have a
+ * partition, so new rows land in the default partition only when dated far
+ * ahead. Creating a partition moves such rows out of the default one.
+ *
+ * <p>A month is retired once it is more than {@code retention-months} months
+ * before the current one. Rows referencing the expiring ones (results,
+ * labels, topic and duplicate links, natural keys) are removed first, as the
+ * former foreign key cascades did, so the table lock is held only for the
+ * detach itself. The partition is then moved to {@code archive-schema}, where
+ * it can be dumped or queried, or dropped if no schema is set. Expired rows
+ * in the default partition are deleted.
+ *
+ * <p>Each step is its own short transaction with a lock timeout, so a busy
+ * table makes a step fail and retry on the next run rather than queue every
+ * query behind it.
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceService {
+
+    private static final String LOCK_TIMEOUT = "5s";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * Results come first: retiring them leaves fewer rows to clean up when
+     * their articles expire.
+     */
+    private static final List<PartitionedTable> TABLES = List.of(
+            new PartitionedTable("sentiment_results", "processed_at", List.of(
+                    "DELETE FROM sentiment_result_keys k USING %s r " +
+                    "WHERE k.article_id = r.article_id AND k.model_version = r.model_version AND k.result_id = r.id")),
+            new PartitionedTable("articles", "published_at", List.of(
+                    "DELETE FROM sentiment_results WHERE article_id IN (SELECT id FROM %s)",
+                    "DELETE FROM labels WHERE article_id IN (SELECT id FROM %s)",
+                    "DELETE FROM article_topics WHERE article_id IN (SELECT id FROM %s)",
+                    "UPDATE articles SET duplicate_of = NULL WHERE duplicate_of IN (SELECT id FROM %s)",
+                    "DELETE FROM article_keys k USING %s a " +
+                    "WHERE k.source_id = a.source_id AND k.external_id = a.external_id AND k.article_id = a.id"))
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Counter created;
+    private final Counter retired;
+
+    @Value("${app.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.partitions.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${app.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Value("${app.partitions.archive-schema:archive}")
+    private String archiveSchema;
+
+    public PartitionMaintenanceService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.created = meterRegistry.counter("partitions.maintenance", "action", "created");
+        this.retired = meterRegistry.counter("partitions.maintenance", "action", "retired");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.partitions.maintenance-cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (PartitionedTable table : TABLES) {
+            for (int ahead = 0; ahead <= premakeMonths; ahead++) {
+                ensure(table, current.plusMonths(ahead));
+            }
+            if (retentionMonths > 0) {
+                retireBefore(table, current.minusMonths(retentionMonths));
+            }
+        }
+    }
+
+    private void ensure(PartitionedTable table, YearMonth month) {
+        try {
+            Boolean createdNow = transaction.execute(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+                return jdbcTemplate.queryForObject("SELECT ensure_monthly_partition(?, ?, ?::date)", Boolean.class,
+                        table.name(), table.keyColumn(), month.atDay(1).toString());
+            });
+            if (Boolean.TRUE.equals(createdNow)) {
+                created.increment();
+                log.info("Created partition {} for {}", table.partitionName(month), month);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not create partition {}, will retry on the next run: {}",
+                    table.partitionName(month), e.getMessage());
+        }
+    }
+
+    private void retireBefore(PartitionedTable table, YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = ?::regclass ORDER BY c.relname
+                """, String.class, table.name());
+        Pattern pattern = Pattern.compile(Pattern.quote(table.name()) + "_p(\\d{6})");
+
+        for (String partition : partitions) {
+            Matcher matcher = pattern.matcher(partition);
+            if (matcher.matches() && YearMonth.parse(matcher.group(1), SUFFIX).isBefore(cutoff)) {
+                retire(table, partition);
+            }
+        }
+
+        purgeDefault(table, cutoff);
+    }
+
+    private void purgeDefault(PartitionedTable table, YearMonth cutoff) {
+        Timestamp expired = Timestamp.from(cutoff.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        try {
+            Integer deleted = transaction.execute(status -> jdbcTemplate.update(
+                    "DELETE FROM " + table.name() + "_default WHERE " + table.keyColumn() + " < ?", expired));
+            if (deleted != null && deleted > 0) {
+                log.info("Deleted {} expired rows from {}_default", deleted, table.name());
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not delete expired rows from {}_default: {}", table.name(), e.getMessage());
+        }
+    }
+
+    private void retire(PartitionedTable table, String partition) {
+        long start = System.currentTimeMillis();
+        try {
+            transaction.executeWithoutResult(status -> {
+                for (String cleanup : table.cleanup()) {
+                    jdbcTemplate.update(cleanup.formatted(partition));
+                }
+            });
+            transaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '" + LOCK_TIMEOUT + "'");
+                jdbcTemplate.execute("ALTER TABLE " + table.name() + " DETACH PARTITION " + partition);
+                if (archiveSchema.isBlank()) {
+                    jdbcTemplate.execute("DROP TABLE " + partition);
+                } else {
+                    jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + archiveSchema);
+                }
+            });
+            retired.increment();
+            log.info("Retired partition {} to {} in {} ms", partition,
+                    archiveSchema.isBlank() ? "nowhere" : archiveSchema, System.currentTimeMillis() - start);
+        } catch (DataAccessException e) {
+            log.warn("Could not retire partition {}, will retry on the next run: {}", partition, e.getMessage());
+        }
+    }
+
+    /**
+     * A table partitioned by month on {@code keyColumn}, with the statements
+     * that remove references to a partition's rows before it is retired.
+     */
+    private record PartitionedTable(String name, String keyColumn, List<String> cleanup) {
+
+        String partitionName(YearMonth month) {
+            return name + "_p" + month.format(SUFFIX);
+        }
+    }
+}
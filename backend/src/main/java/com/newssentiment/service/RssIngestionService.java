@@ -0,0 +1,317 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.IngestionSweepResult;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.SourceRepository;
+import com.rometools.rome.feed.synd.SyndCategory;
+import com.rometools.rome.feed.synd.SyndContent;
+import com.rometools.rome.feed.synd.SyndEntry;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Polls all active RSS sources in parallel, one virtual thread per feed.
+ * Requests to the same host are bounded by a per-host semaphore so a sweep
+ * over many feeds of one publisher doesn't hammer it.
+ *
+ * <p>Each source remembers the ETag, Last-Modified and body hash of its last
+ * processed response in its {@code config} column. Polls are sent as
+ * conditional requests, and a 304 or an identical body skips parsing entirely.
+ * After each poll only the fetch times and those keys are written back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RssIngestionService {
+
+    private static final String USER_AGENT = "NewsSentimentBot/1.0";
+
+    private static final String CONFIG_ETAG = "etag";
+    private static final String CONFIG_LAST_MODIFIED = "lastModified";
+    private static final String CONFIG_BODY_HASH = "bodyHash";
+
+    private final SourceRepository sourceRepository;
+    private final ArticleService articleService;
+    private final SourceService sourceService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final AtomicReference<IngestionSweepResult> lastSweep = new AtomicReference<>();
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    @Value("${app.scraping.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.scraping.max-articles-per-source}")
+    private int maxArticlesPerSource;
+
+    @Value("${app.scraping.max-concurrent-per-host:2}")
+    private int maxConcurrentPerHost;
+
+    @Value("${app.scraping.request-timeout-seconds:20}")
+    private int requestTimeoutSeconds;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${app.scraping.interval-minutes}",
+            initialDelayString = "${app.scraping.initial-delay-minutes:1}",
+            timeUnit = TimeUnit.MINUTES
+    )
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * Runs a full sweep over all active RSS sources. If a sweep is already
+     * in progress the call returns the previous result without starting another.
+     */
+    public IngestionSweepResult sweep() {
+        if (!sweepLock.tryLock()) {
+            log.info("RSS sweep already running, skipping");
+            return lastSweep.get();
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+
+            List<Source> sources = sourceRepository.findActiveByType(Source.SourceType.RSS);
+            List<FeedOutcome> outcomes = new ArrayList<>(sources.size());
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<FeedOutcome>> futures = sources.stream()
+                        .map(source -> executor.submit(() -> ingest(source)))
+                        .toList();
+                for (Future<FeedOutcome> future : futures) {
+                    outcomes.add(await(future));
+                }
+            }
+
+            long elapsedNanos = System.nanoTime() - start;
+            Timer.builder("ingestion.sweep")
+                    .description("Duration of a full RSS sweep")
+                    .register(meterRegistry)
+                    .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+            int succeeded = (int) outcomes.stream().filter(FeedOutcome::success).count();
+            IngestionSweepResult result = new IngestionSweepResult(
+                    startedAt,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos),
+                    sources.size(),
+                    succeeded,
+                    sources.size() - succeeded,
+                    outcomes.stream().mapToInt(FeedOutcome::fetched).sum(),
+                    outcomes.stream().mapToInt(FeedOutcome::saved).sum()
+            );
+            meterRegistry.counter("ingestion.articles.saved").increment(result.articlesSaved());
+            lastSweep.set(result);
+            sourceService.evictListings();
+
+            log.info("RSS sweep finished in {} ms: {}/{} sources ok, {} articles fetched, {} saved",
+                    result.durationMs(), result.succeeded(), result.sources(),
+                    result.articlesFetched(), result.articlesSaved());
+            return result;
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    public Optional<IngestionSweepResult> getLastSweep() {
+        return Optional.ofNullable(lastSweep.get());
+    }
+
+    private FeedOutcome ingest(Source source) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Instant now = Instant.now();
+        Instant succeededAt = null;
+        Map<String, Object> fingerprint = null;
+        FeedOutcome outcome;
+
+        try {
+            FeedResponse response = fetch(source);
+            int saved = response.articles().isEmpty() ? 0 : articleService.saveAll(response.articles()).size();
+            fingerprint = response.fingerprint();
+            succeededAt = now;
+            outcome = new FeedOutcome(true, response.articles().size(), saved);
+            log.debug("Fetched {} articles from {} ({} new)", response.articles().size(), source.getName(), saved);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = new FeedOutcome(false, 0, 0);
+        } catch (Exception e) {
+            log.warn("Failed to fetch RSS source {} ({}): {}", source.getName(), source.getUrl(), e.getMessage());
+            outcome = new FeedOutcome(false, 0, 0);
+        }
+
+        // Only the fetch state; the entity was loaded when the sweep started
+        sourceRepository.recordFetch(source.getId(), now, succeededAt, fingerprint);
+
+        sample.stop(meterRegistry.timer("ingestion.feed.fetch", "outcome", outcome.success() ? "success" : "failure"));
+        return outcome;
+    }
+
+    private FeedResponse fetch(Source source) throws Exception {
+        URI uri = URI.create(source.getUrl());
+        Semaphore permits = hostPermits.computeIfAbsent(
+                String.valueOf(uri.getHost()), host -> new Semaphore(maxConcurrentPerHost));
+        Map<String, Object> config = source.getConfig() != null ? source.getConfig() : Map.of();
+
+        permits.acquire();
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                    .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                    .header("User-Agent", USER_AGENT)
+                    .header("Accept", "application/rss+xml, application/atom+xml, application/xml;q=0.9, */*;q=0.8")
+                    .GET();
+            if (config.get(CONFIG_ETAG) instanceof String etag) {
+                request.header("If-None-Match", etag);
+            }
+            if (config.get(CONFIG_LAST_MODIFIED) instanceof String lastModified) {
+                request.header("If-Modified-Since", lastModified);
+            }
+
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 304) {
+                recordCacheResult("not_modified");
+                return new FeedResponse(List.of(), null);
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("Unexpected HTTP status " + response.statusCode());
+            }
+
+            Map<String, Object> fingerprint = new HashMap<>();
+            response.headers().firstValue("ETag").ifPresent(etag -> fingerprint.put(CONFIG_ETAG, etag));
+            response.headers().firstValue("Last-Modified").ifPresent(lm -> fingerprint.put(CONFIG_LAST_MODIFIED, lm));
+            fingerprint.put(CONFIG_BODY_HASH, sha256(response.body()));
+
+            if (fingerprint.get(CONFIG_BODY_HASH).equals(config.get(CONFIG_BODY_HASH))) {
+                recordCacheResult("unchanged");
+                return new FeedResponse(List.of(), fingerprint);
+            }
+
+            recordCacheResult("miss");
+            SyndFeed feed = new SyndFeedInput().build(new XmlReader(new ByteArrayInputStream(response.body())));
+            List<Article> articles = feed.getEntries().stream()
+                    .limit(maxArticlesPerSource)
+                    .map(entry -> toArticle(entry, source))
+                    .toList();
+            return new FeedResponse(articles, fingerprint);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void recordCacheResult(String result) {
+        meterRegistry.counter("ingestion.feed.cache", "result", result).increment();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Article toArticle(SyndEntry entry, Source source) {
+        String content = "";
+        if (entry.getContents() != null && !entry.getContents().isEmpty()) {
+            content = valueOf(entry.getContents().get(0));
+        } else if (entry.getDescription() != null) {
+            content = valueOf(entry.getDescription());
+        }
+
+        String externalId = entry.getUri() != null ? entry.getUri() : entry.getLink();
+        Date published = entry.getPublishedDate() != null ? entry.getPublishedDate() : entry.getUpdatedDate();
+
+        return Article.builder()
+                .source(source)
+                .externalId(truncate(externalId, 500))
+                .title(entry.getTitle() != null ? entry.getTitle().trim() : "Untitled")
+                .content(content)
+                .url(truncate(entry.getLink(), 500))
+                .author(entry.getAuthor() == null || entry.getAuthor().isBlank() ? null : truncate(entry.getAuthor(), 255))
+                .publishedAt(published != null ? published.toInstant() : null)
+                .metadata(Map.of("tags", entry.getCategories().stream()
+                        .map(SyndCategory::getName)
+                        .filter(Objects::nonNull)
+                        .toList()))
+                .build();
+    }
+
+    private static String valueOf(SyndContent content) {
+        return content.getValue() != null ? content.getValue() : "";
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static FeedOutcome await(Future<FeedOutcome> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FeedOutcome(false, 0, 0);
+        } catch (ExecutionException e) {
+            log.error("RSS ingestion task failed", e.getCause());
+            return new FeedOutcome(false, 0, 0);
+        }
+    }
+
+    /**
+     * Parsed articles of one poll. {@code fingerprint} is null when the server
+     * answered 304, and the articles are empty when the body hash was unchanged.
+     */
+    private record FeedResponse(List<Article> articles, Map<String, Object> fingerprint) {}
+
+    private record FeedOutcome(boolean success, int fetched, int saved) {}
+}
@@ -0,0 +1,155 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.SentimentAggregateDTO;
+import com.newssentiment.model.SentimentResult.Sentiment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Sentiment counts grouped by a primitive key: an epoch day or hour, a source
+ * or topic id, or anything else that fits in a long. Groups live in an
+ * open-addressing table of keys next to a flat {@code long[]} of counts, three
+ * per group indexed by {@link Sentiment#ordinal()}, so adding a count neither
+ * boxes nor allocates once the table has grown to the number of groups.
+ *
+ * <p>Not thread-safe; each aggregation uses its own instance.
+ */
+final class SentimentAggregator {
+
+    private static final int SENTIMENTS = Sentiment.values().length;
+    private static final int POSITIVE = Sentiment.POSITIVE.ordinal();
+    private static final int NEGATIVE = Sentiment.NEGATIVE.ordinal();
+    private static final int NEUTRAL = Sentiment.NEUTRAL.ordinal();
+
+    private long[] keys;
+    private boolean[] used;
+    private long[] counts;
+    private int size;
+
+    SentimentAggregator() {
+        this(16);
+    }
+
+    /**
+     * Sizes the table for about {@code expectedGroups} groups before it grows.
+     */
+    SentimentAggregator(int expectedGroups) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedGroups * 2 - 1)) << 1;
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        counts = new long[capacity * SENTIMENTS];
+    }
+
+    void add(long key, Sentiment sentiment, long count) {
+        // slot() may grow the table, so it has to run before counts is read
+        int base = slot(key) * SENTIMENTS;
+        counts[base + sentiment.ordinal()] += count;
+    }
+
+    void add(long key, long positive, long negative, long neutral) {
+        int base = slot(key) * SENTIMENTS;
+        counts[base + POSITIVE] += positive;
+        counts[base + NEGATIVE] += negative;
+        counts[base + NEUTRAL] += neutral;
+    }
+
+    /**
+     * Adds every source of one day's counts to the group {@code key}.
+     */
+    void addAll(long key, SentimentCounts day) {
+        long positive = 0;
+        long negative = 0;
+        long neutral = 0;
+        for (int i = 0; i < day.size(); i++) {
+            positive += day.positive()[i];
+            negative += day.negative()[i];
+            neutral += day.neutral()[i];
+        }
+        if (positive + negative + neutral > 0) {
+            add(key, positive, negative, neutral);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns one aggregate per group in ascending key order, labelled by
+     * {@code label}.
+     */
+    List<SentimentAggregateDTO> toAggregates(LongFunction<String> label) {
+        long[] sorted = new long[size];
+        int n = 0;
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                sorted[n++] = keys[slot];
+            }
+        }
+        Arrays.sort(sorted);
+
+        List<SentimentAggregateDTO> aggregates = new ArrayList<>(size);
+        for (long key : sorted) {
+            int base = find(key) * SENTIMENTS;
+            aggregates.add(SentimentAggregateDTO.of(label.apply(key),
+                    counts[base + POSITIVE], counts[base + NEGATIVE], counts[base + NEUTRAL]));
+        }
+        return aggregates;
+    }
+
+    /**
+     * The slot of {@code key}, claiming a free one if the key is new.
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size + 1 > keys.length / 2) {
+            grow();
+            return slot(key);
+        }
+        used[slot] = true;
+        keys[slot] = key;
+        size++;
+        return slot;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key || !used[slot]) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        long[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        counts = new long[oldCounts.length * 2];
+        size = 0;
+
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldUsed[old]) {
+                int slot = slot(oldKeys[old]);
+                System.arraycopy(oldCounts, old * SENTIMENTS, counts, slot * SENTIMENTS, SENTIMENTS);
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
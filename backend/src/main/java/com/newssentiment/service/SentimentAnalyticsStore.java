@@ -0,0 +1,271 @@
+package com.newssentiment.service;
+
+import com.newssentiment.repository.SentimentResultRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sentiment history compacted from {@code sentiment_results} into one
+ * {@link SentimentSegment} file per UTC month, so that counts over months or
+ * years are a scan of memory-mapped columns instead of a database query.
+ *
+ * <p>Compaction covers whole UTC days once they are {@code lag-minutes} old.
+ * The segment of the current month is rewritten as its days complete; earlier
+ * months are never touched again, so they keep their history after the
+ * database partitions holding it are retired. Results stamped in the past are
+ * only picked up while their month is still being rewritten.
+ *
+ * <p>The store answers for {@link #coverage()} only; callers combine it with
+ * the database for the rest of a range. Segments are scanned in parallel.
+ */
+@Slf4j
+@Service
+public class SentimentAnalyticsStore {
+
+    private static final String EXTENSION = ".seg";
+    private static final DateTimeFormatter FILE_MONTH = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final SentimentResultRepository sentimentResultRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path directory;
+    private final Duration lag;
+    private final int fetchSize;
+    private final boolean enabled;
+    private volatile NavigableMap<YearMonth, SentimentSegment> segments = Collections.emptyNavigableMap();
+
+    /**
+     * The time range, start inclusive and end exclusive, that the store has
+     * compacted. Empty when {@code from} is not before {@code to}.
+     */
+    public record Coverage(Instant from, Instant to) {
+
+        static final Coverage NONE = new Coverage(Instant.EPOCH, Instant.EPOCH);
+
+        public boolean isEmpty() {
+            return !from.isBefore(to);
+        }
+    }
+
+    public SentimentAnalyticsStore(
+            SentimentResultRepository sentimentResultRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.enabled:true}") boolean enabled,
+            @Value("${app.analytics.dir:./data/analytics}") String directory,
+            @Value("${app.analytics.lag-minutes:10}") long lagMinutes,
+            @Value("${app.analytics.fetch-size:10000}") int fetchSize
+    ) {
+        this.sentimentResultRepository = sentimentResultRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.lag = Duration.ofMinutes(lagMinutes);
+        this.fetchSize = fetchSize;
+
+        Gauge.builder("analytics.segments", this, store -> store.segments.size())
+                .register(meterRegistry);
+        Gauge.builder("analytics.rows", this,
+                        store -> store.segments.values().stream().mapToLong(SentimentSegment::rows).sum())
+                .register(meterRegistry);
+    }
+
+    public Coverage coverage() {
+        NavigableMap<YearMonth, SentimentSegment> current = segments;
+        if (current.isEmpty()) {
+            return Coverage.NONE;
+        }
+        return new Coverage(toInstant(current.firstEntry().getValue().rangeStart()),
+                toInstant(current.lastEntry().getValue().rangeEnd()));
+    }
+
+    /**
+     * Returns counts per UTC day for results processed in {@code [from, to)},
+     * which must lie within {@link #coverage()}. Days without results are
+     * absent.
+     */
+    public NavigableMap<LocalDate, SentimentCounts> countsBetween(Instant from, Instant to) {
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        List<SentimentSegment> overlapping = segments.values().stream()
+                .filter(segment -> segment.rangeStart() < toMicros && segment.rangeEnd() > fromMicros)
+                .toList();
+
+        // Segments cover disjoint whole days, so their results never share a key
+        NavigableMap<LocalDate, SentimentCounts> result = new TreeMap<>();
+        overlapping.parallelStream()
+                .map(segment -> segment.countsByDay(fromMicros, toMicros))
+                .toList()
+                .forEach(result::putAll);
+        return result;
+    }
+
+    /**
+     * Maps the segments already on disk and catches up in the background,
+     * which on first start means compacting the whole history.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void open() {
+        if (!enabled) {
+            return;
+        }
+        segments = load();
+        Thread.ofVirtual().name("analytics-compaction").start(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                log.error("Sentiment compaction failed, retrying on schedule", e);
+            }
+        });
+    }
+
+    /**
+     * Writes segments for the days completed since the last run.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.analytics.compact-interval-minutes:60}",
+            initialDelayString = "${app.analytics.compact-interval-minutes:60}",
+            timeUnit = TimeUnit.MINUTES
+    )
+    public synchronized void compact() {
+        if (!enabled) {
+            return;
+        }
+        Instant target = Instant.now().minus(lag).truncatedTo(ChronoUnit.DAYS);
+        Coverage covered = coverage();
+        Instant start;
+        if (covered.isEmpty()) {
+            Instant earliest = sentimentResultRepository.findEarliestProcessedAt();
+            if (earliest == null) {
+                return;
+            }
+            start = monthStart(YearMonth.from(earliest.atZone(ZoneOffset.UTC)));
+        } else if (!target.isAfter(covered.to())) {
+            return;
+        } else {
+            // Reopen the last month unless it is complete
+            YearMonth last = segments.lastKey();
+            start = covered.to().equals(monthStart(last.plusMonths(1))) ? covered.to() : monthStart(last);
+        }
+
+        while (start.isBefore(target)) {
+            YearMonth month = YearMonth.from(start.atZone(ZoneOffset.UTC));
+            Instant end = min(target, monthStart(month.plusMonths(1)));
+            long began = System.currentTimeMillis();
+            SentimentSegment segment = build(month, start, end);
+
+            NavigableMap<YearMonth, SentimentSegment> updated = new TreeMap<>(segments);
+            updated.put(month, segment);
+            segments = Collections.unmodifiableNavigableMap(updated);
+            log.info("Compacted {} sentiment results up to {} into {} in {} ms",
+                    segment.rows(), end, segment.path().getFileName(), System.currentTimeMillis() - began);
+            start = end;
+        }
+    }
+
+    private SentimentSegment build(YearMonth month, Instant start, Instant end) {
+        SentimentSegment.Builder builder = new SentimentSegment.Builder(toMicros(start), toMicros(end));
+        readOnlyTransaction.executeWithoutResult(status -> sentimentResultRepository.forEachProcessedBetween(
+                start, end, fetchSize, (processedAt, sourceId, topicId, sentiment, confidence) ->
+                        builder.add(toMicros(processedAt), sourceId, topicId, sentiment, hundredths(confidence))));
+        try {
+            Files.createDirectories(directory);
+            return builder.write(directory.resolve("sentiment-" + month.format(FILE_MONTH) + EXTENSION));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write sentiment segment for " + month, e);
+        }
+    }
+
+    /**
+     * Maps the segments on disk. They must cover one contiguous range;
+     * otherwise they are discarded and compaction starts over.
+     */
+    private NavigableMap<YearMonth, SentimentSegment> load() {
+        NavigableMap<YearMonth, SentimentSegment> loaded = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return Collections.unmodifiableNavigableMap(loaded);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "sentiment-*" + EXTENSION)) {
+            stream.forEach(files::add);
+            for (Path file : files) {
+                SentimentSegment segment = SentimentSegment.open(file);
+                loaded.put(YearMonth.from(toInstant(segment.rangeStart()).atZone(ZoneOffset.UTC)), segment);
+            }
+        } catch (IOException e) {
+            log.warn("Could not read sentiment segments in {}, rebuilding them: {}", directory, e.getMessage());
+            return discard(files);
+        }
+
+        long expectedStart = -1;
+        for (SentimentSegment segment : loaded.values()) {
+            if (expectedStart >= 0 && segment.rangeStart() != expectedStart) {
+                log.warn("Sentiment segments in {} have a gap before {}, rebuilding them",
+                        directory, segment.path().getFileName());
+                return discard(files);
+            }
+            expectedStart = segment.rangeEnd();
+        }
+        log.info("Opened {} sentiment segments from {}", loaded.size(), directory);
+        return Collections.unmodifiableNavigableMap(loaded);
+    }
+
+    private NavigableMap<YearMonth, SentimentSegment> discard(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to delete sentiment segment " + file, e);
+            }
+        }
+        return Collections.emptyNavigableMap();
+    }
+
+    private static int hundredths(BigDecimal confidence) {
+        return confidence != null ? confidence.movePointRight(2).intValue() : SentimentSegment.NO_CONFIDENCE;
+    }
+
+    private static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static Instant toInstant(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
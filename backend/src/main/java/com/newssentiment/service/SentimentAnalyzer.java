@@ -0,0 +1,28 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Produces a sentiment result for an article. Implementations must be safe
+ * to call from many threads at once.
+ */
+public interface SentimentAnalyzer {
+
+    /**
+     * Analyzes one article. The returned result is not attached to the
+     * article or saved; it must carry a sentiment and a model version.
+     */
+    SentimentResult analyze(Article article) throws IOException, InterruptedException;
+
+    /**
+     * Model versions whose stored results may stand in for analyzing the same
+     * text again, preferred first. Empty means results are never reused.
+     */
+    default List<String> modelVersions() {
+        return List.of();
+    }
+}
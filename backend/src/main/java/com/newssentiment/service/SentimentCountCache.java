@@ -0,0 +1,128 @@
+package com.newssentiment.service;
+
+import com.newssentiment.config.CacheConfig;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.repository.SentimentResultRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-day sentiment counts with every completed UTC day cached under its date.
+ * Dashboard ranges slide with the clock, so caching whole responses would
+ * almost never hit; caching aligned day buckets means a "last 30 days" query
+ * only goes to the database for the partial days at either end, plus one
+ * query covering whichever whole days are missing from the cache.
+ */
+@Service
+public class SentimentCountCache {
+
+    private final SentimentResultRepository sentimentResultRepository;
+    private final Cache cache;
+
+    public SentimentCountCache(SentimentResultRepository sentimentResultRepository, CacheManager cacheManager) {
+        this.sentimentResultRepository = sentimentResultRepository;
+        this.cache = cacheManager.getCache(CacheConfig.SENTIMENT_DAYS);
+    }
+
+    /**
+     * Returns counts per UTC day for results processed in {@code [from, to)}.
+     * Days without results may be absent or empty.
+     */
+    public NavigableMap<LocalDate, SentimentCounts> countsBetween(Instant from, Instant to) {
+        NavigableMap<LocalDate, SentimentCounts> result = new TreeMap<>();
+        Instant firstDay = ceilDay(from);
+        Instant lastDay = min(to, Instant.now()).truncatedTo(ChronoUnit.DAYS);
+
+        if (!firstDay.isBefore(lastDay)) {
+            result.putAll(load(from, to));
+            return result;
+        }
+
+        if (from.isBefore(firstDay)) {
+            result.putAll(load(from, firstDay));
+        }
+
+        List<LocalDate> missing = new ArrayList<>();
+        for (Instant day = firstDay; day.isBefore(lastDay); day = day.plus(1, ChronoUnit.DAYS)) {
+            LocalDate date = toDate(day);
+            SentimentCounts cached = cache.get(date, SentimentCounts.class);
+            if (cached != null) {
+                result.put(date, cached);
+            } else {
+                missing.add(date);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            LocalDate first = missing.get(0);
+            LocalDate last = missing.get(missing.size() - 1);
+            Map<LocalDate, SentimentCounts> loaded = load(toInstant(first), toInstant(last.plusDays(1)));
+            for (LocalDate date : missing) {
+                SentimentCounts counts = loaded.getOrDefault(date, SentimentCounts.EMPTY);
+                cache.put(date, counts);
+                result.put(date, counts);
+            }
+        }
+
+        if (lastDay.isBefore(to)) {
+            result.putAll(load(lastDay, to));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the cached counts of the day containing {@code processedAt}. Only
+     * completed days are cached, so this matters for results stamped in the past.
+     */
+    public void evict(Instant processedAt) {
+        cache.evict(toDate(processedAt));
+    }
+
+    private Map<LocalDate, SentimentCounts> load(Instant from, Instant to) {
+        Map<LocalDate, Map<Long, long[]>> grouped = new LinkedHashMap<>();
+        for (Object[] row : sentimentResultRepository.countByDaySourceAndSentiment(from, to)) {
+            LocalDate day = (LocalDate) row[0];
+            Long sourceId = (Long) row[1];
+            SentimentResult.Sentiment sentiment = (SentimentResult.Sentiment) row[2];
+            long count = (Long) row[3];
+
+            grouped.computeIfAbsent(day, d -> new LinkedHashMap<>())
+                    .computeIfAbsent(sourceId, s -> new long[SentimentResult.Sentiment.values().length])
+                    [sentiment.ordinal()] += count;
+        }
+
+        Map<LocalDate, SentimentCounts> counts = new HashMap<>();
+        grouped.forEach((day, bySource) -> counts.put(day, SentimentCounts.of(bySource)));
+        return counts;
+    }
+
+    private static Instant ceilDay(Instant instant) {
+        Instant floor = instant.truncatedTo(ChronoUnit.DAYS);
+        return floor.equals(instant) ? floor : floor.plus(1, ChronoUnit.DAYS);
+    }
+
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDate toDate(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -0,0 +1,55 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Sentiment counts per source for one UTC day, stored column-wise so a cached
+ * day serializes to four small arrays. Source id 0 stands for articles without
+ * a source.
+ */
+public record SentimentCounts(long[] sourceIds, long[] positive, long[] negative, long[] neutral) {
+
+    public static final SentimentCounts EMPTY = new SentimentCounts(new long[0], new long[0], new long[0], new long[0]);
+
+    /**
+     * Builds counts from a map of source id to per-sentiment counts indexed by
+     * {@link SentimentResult.Sentiment#ordinal()}.
+     */
+    static SentimentCounts of(Map<Long, long[]> bySource) {
+        int size = bySource.size();
+        long[] sourceIds = new long[size];
+        long[] positive = new long[size];
+        long[] negative = new long[size];
+        long[] neutral = new long[size];
+
+        int i = 0;
+        for (Map.Entry<Long, long[]> entry : bySource.entrySet()) {
+            long[] counts = entry.getValue();
+            sourceIds[i] = entry.getKey();
+            positive[i] = counts[SentimentResult.Sentiment.POSITIVE.ordinal()];
+            negative[i] = counts[SentimentResult.Sentiment.NEGATIVE.ordinal()];
+            neutral[i] = counts[SentimentResult.Sentiment.NEUTRAL.ordinal()];
+            i++;
+        }
+        return new SentimentCounts(sourceIds, positive, negative, neutral);
+    }
+
+    public int size() {
+        return sourceIds.length;
+    }
+
+    public long totalPositive() {
+        return Arrays.stream(positive).sum();
+    }
+
+    public long totalNegative() {
+        return Arrays.stream(negative).sum();
+    }
+
+    public long totalNeutral() {
+        return Arrays.stream(neutral).sum();
+    }
+}
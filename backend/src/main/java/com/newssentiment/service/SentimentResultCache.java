@@ -0,0 +1,133 @@
+package com.newssentiment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.repository.SentimentResultRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sentiment results by (content hash, model version), so that text already
+ * analyzed for another article, as syndicated news is, gets the stored result
+ * copied instead of another model call. Lookups try this instance's Caffeine
+ * cache first and then results in the database, with one query for all
+ * misses of a batch.
+ *
+ * <p>Hit rates are reported per article: {@code sentiment.cache.lookups}
+ * tagged {@code result=hit} by the tier that answered (memory, database, or
+ * batch for a duplicate within the same batch) and {@code result=miss}.
+ */
+@Component
+public class SentimentResultCache {
+
+    private final SentimentResultRepository sentimentResultRepository;
+    private final Cache<Key, SentimentResult> cache;
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter batchHits;
+    private final Counter misses;
+
+    public SentimentResultCache(
+            SentimentResultRepository sentimentResultRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.sentiment.cache.max-size:100000}") long maxSize
+    ) {
+        this.sentimentResultRepository = sentimentResultRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.memoryHits = meterRegistry.counter("sentiment.cache.lookups", "result", "hit", "tier", "memory");
+        this.databaseHits = meterRegistry.counter("sentiment.cache.lookups", "result", "hit", "tier", "database");
+        this.batchHits = meterRegistry.counter("sentiment.cache.lookups", "result", "hit", "tier", "batch");
+        this.misses = meterRegistry.counter("sentiment.cache.lookups", "result", "miss", "tier", "none");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "sentimentResults");
+    }
+
+    /**
+     * Finds a result for each content hash under one of {@code modelVersions},
+     * preferring versions listed first. Values are templates to pass to
+     * {@link #copyFor}; each group is the number of articles sharing that
+     * hash and is what the hit and miss counts are recorded against.
+     */
+    public Map<String, SentimentResult> lookup(Map<String, Integer> articlesByHash, List<String> modelVersions) {
+        Map<String, SentimentResult> found = new HashMap<>();
+        if (articlesByHash.isEmpty() || modelVersions.isEmpty()) {
+            return found;
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (String contentHash : articlesByHash.keySet()) {
+            SentimentResult cached = fromMemory(contentHash, modelVersions);
+            if (cached != null) {
+                found.put(contentHash, cached);
+                memoryHits.increment(articlesByHash.get(contentHash));
+            } else {
+                missing.add(contentHash);
+            }
+        }
+
+        for (SentimentResult stored : sentimentResultRepository.findByContentHashes(missing, modelVersions)) {
+            String contentHash = stored.getArticle().getContentHash();
+            stored.setArticle(null);
+            cache.put(new Key(contentHash, stored.getModelVersion()), stored);
+            found.put(contentHash, stored);
+            databaseHits.increment(articlesByHash.get(contentHash));
+        }
+        for (String contentHash : missing) {
+            if (!found.containsKey(contentHash)) {
+                // The first article with this text is analyzed and its result copied to the rest
+                misses.increment();
+                batchHits.increment(articlesByHash.get(contentHash) - 1);
+            }
+        }
+        return found;
+    }
+
+    public void put(String contentHash, SentimentResult result) {
+        if (contentHash != null) {
+            cache.put(new Key(contentHash, result.getModelVersion()), copyFor(null, result));
+        }
+    }
+
+    /**
+     * A new, unsaved result for {@code article} with the template's analysis.
+     */
+    public static SentimentResult copyFor(Article article, SentimentResult template) {
+        return SentimentResult.builder()
+                .article(article)
+                .sentiment(template.getSentiment())
+                .confidence(template.getConfidence())
+                .modelVersion(template.getModelVersion())
+                .reasoning(template.getReasoning())
+                .topics(template.getTopics())
+                .entities(template.getEntities())
+                .processedAt(Instant.now())
+                .build();
+    }
+
+    private SentimentResult fromMemory(String contentHash, Collection<String> modelVersions) {
+        for (String modelVersion : modelVersions) {
+            SentimentResult cached = cache.getIfPresent(new Key(contentHash, modelVersion));
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private record Key(String contentHash, String modelVersion) {}
+}
@@ -0,0 +1,50 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Published when sentiment results are stored. {@code topicId} and
+ * {@code sourceId} are those of the analyzed article, or null if it has none;
+ * {@code topicIds} holds every topic the article matched, {@code topicId}
+ * included.
+ */
+public record SentimentResultSavedEvent(
+        Long articleId,
+        Long sourceId,
+        Long topicId,
+        List<Long> topicIds,
+        String title,
+        String url,
+        Instant publishedAt,
+        SentimentResult.Sentiment sentiment,
+        BigDecimal confidence,
+        Instant processedAt
+) {
+
+    static SentimentResultSavedEvent of(SentimentResult result, List<Long> matchedTopicIds) {
+        Article article = result.getArticle();
+        Long topicId = article.getTopic() != null ? article.getTopic().getId() : null;
+        List<Long> topicIds = matchedTopicIds;
+        if (topicId != null && !matchedTopicIds.contains(topicId)) {
+            topicIds = new ArrayList<>(matchedTopicIds);
+            topicIds.add(topicId);
+        }
+        return new SentimentResultSavedEvent(
+                article.getId(),
+                article.getSource() != null ? article.getSource().getId() : null,
+                topicId,
+                List.copyOf(topicIds),
+                article.getTitle(),
+                article.getUrl(),
+                article.getPublishedAt(),
+                result.getSentiment(),
+                result.getConfidence(),
+                result.getProcessedAt());
+    }
+}
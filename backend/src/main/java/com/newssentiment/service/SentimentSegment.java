@@ -0,0 +1,494 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult.Sentiment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An immutable file of sentiment results in columnar form, read through a
+ * memory mapping. Rows are (processed at, source id, topic id, sentiment,
+ * confidence), sorted by time, with times in microseconds since the epoch.
+ *
+ * <p>Times are stored in blocks of {@link #BLOCK_ROWS} rows as deltas from the
+ * previous row, bit-packed at the width the block needs, with each block's
+ * first and last time kept aside so a scan can skip blocks or, for a block
+ * within one day of the range, not decode times at all. Source and topic ids
+ * are codes into per-segment dictionaries, sentiment is two bits per row and
+ * confidence one byte. Packed widths are powers of two, so no value straddles
+ * two words.
+ *
+ * <p>Layout, in little-endian longs: an {@value #HEADER_LONGS}-long header,
+ * the two dictionaries, per-block first time, last time and (width, word
+ * offset), then the time, sentiment, source and topic words, and finally the
+ * confidence bytes.
+ */
+final class SentimentSegment {
+
+    static final int BLOCK_ROWS = 16_384;
+    static final long DAY_MICROS = 86_400_000_000L;
+    static final int NO_CONFIDENCE = 0xFF;
+
+    private static final long MAGIC = 0x4E53534547L;
+    private static final int VERSION = 1;
+    private static final int HEADER_LONGS = 8;
+    private static final int SENTIMENT_WIDTH = 2;
+    private static final int SENTIMENTS = Sentiment.values().length;
+
+    private final Path path;
+    private final LongBuffer words;
+    private final ByteBuffer bytes;
+    private final int rows;
+    private final long rangeStart;
+    private final long rangeEnd;
+    private final long[] sourceIds;
+    private final long[] topicIds;
+    private final int sourceWidth;
+    private final int topicWidth;
+    private final long[] blockFirst;
+    private final long[] blockLast;
+    private final int[] blockWidth;
+    private final int[] blockOffset;
+    private final int sentimentOffset;
+    private final int sourceOffset;
+    private final int topicOffset;
+    private final int confidenceOffset;
+
+    private SentimentSegment(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.bytes = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.words = bytes.asLongBuffer();
+        if (words.limit() < HEADER_LONGS || words.get(0) != (MAGIC | (long) VERSION << 40)) {
+            throw new IOException("Not a version " + VERSION + " sentiment segment: " + path);
+        }
+        this.rows = (int) words.get(1);
+        this.rangeStart = words.get(2);
+        this.rangeEnd = words.get(3);
+        int sourceCount = (int) words.get(4);
+        int topicCount = (int) (words.get(4) >>> 32);
+        this.sourceWidth = (int) words.get(5);
+        this.topicWidth = (int) (words.get(5) >>> 32);
+        int blocks = (int) words.get(6);
+
+        int at = HEADER_LONGS;
+        this.sourceIds = read(at, sourceCount);
+        at += sourceCount;
+        this.topicIds = read(at, topicCount);
+        at += topicCount;
+        this.blockFirst = read(at, blocks);
+        at += blocks;
+        this.blockLast = read(at, blocks);
+        at += blocks;
+        this.blockWidth = new int[blocks];
+        this.blockOffset = new int[blocks];
+        int timeWords = 0;
+        for (int b = 0; b < blocks; b++) {
+            long meta = words.get(at + b);
+            blockWidth[b] = (int) (meta & 0xFF);
+            blockOffset[b] = at + blocks + (int) (meta >>> 8);
+            timeWords = (int) (meta >>> 8) + packedWords(blockRows(b), blockWidth[b]);
+        }
+        at += blocks + timeWords;
+        this.sentimentOffset = at;
+        at += packedWords(rows, SENTIMENT_WIDTH);
+        this.sourceOffset = at;
+        at += packedWords(rows, sourceWidth);
+        this.topicOffset = at;
+        at += packedWords(rows, topicWidth);
+        this.confidenceOffset = at * Long.BYTES;
+        if (confidenceOffset + rows > bytes.limit()) {
+            throw new IOException("Truncated sentiment segment: " + path);
+        }
+    }
+
+    /**
+     * Maps a segment written by {@link Builder#write}. The mapping outlives the
+     * file, which can be replaced or deleted while scans are running.
+     */
+    static SentimentSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Sentiment segment too large to map: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SentimentSegment(path, buffer);
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Start of the time range this segment covers, inclusive, in microseconds.
+     */
+    long rangeStart() {
+        return rangeStart;
+    }
+
+    /**
+     * End of the time range this segment covers, exclusive, in microseconds.
+     */
+    long rangeEnd() {
+        return rangeEnd;
+    }
+
+    /**
+     * Counts per UTC day, source and sentiment of the rows in
+     * {@code [from, to)}. Days without rows are absent.
+     */
+    Map<LocalDate, SentimentCounts> countsByDay(long from, long to) {
+        long lo = Math.max(from, rangeStart);
+        long hi = Math.min(to, rangeEnd);
+        if (lo >= hi || rows == 0) {
+            return Map.of();
+        }
+        long firstDay = Math.floorDiv(lo, DAY_MICROS);
+        int days = (int) (Math.floorDiv(hi - 1, DAY_MICROS) - firstDay + 1);
+        int stride = sourceIds.length * SENTIMENTS;
+        long[] counts = new long[days * stride];
+        long[] times = null;
+
+        for (int b = 0; b < blockFirst.length && blockFirst[b] < hi; b++) {
+            if (blockLast[b] < lo) {
+                continue;
+            }
+            int start = b * BLOCK_ROWS;
+            int end = start + blockRows(b);
+            long day = Math.floorDiv(blockFirst[b], DAY_MICROS);
+            if (blockFirst[b] >= lo && blockLast[b] < hi && day == Math.floorDiv(blockLast[b], DAY_MICROS)) {
+                count(start, end, (int) (day - firstDay) * stride, counts);
+                continue;
+            }
+
+            if (times == null) {
+                times = new long[BLOCK_ROWS];
+            }
+            decodeTimes(b, times);
+            long dayEnd = Long.MIN_VALUE;
+            int base = 0;
+            for (int i = start; i < end; i++) {
+                long time = times[i - start];
+                if (time < lo) {
+                    continue;
+                }
+                if (time >= hi) {
+                    break;
+                }
+                if (time >= dayEnd) {
+                    day = Math.floorDiv(time, DAY_MICROS);
+                    base = (int) (day - firstDay) * stride;
+                    dayEnd = (day + 1) * DAY_MICROS;
+                }
+                counts[base + sourceCode(i) * SENTIMENTS + sentiment(i)]++;
+            }
+        }
+        return toCounts(firstDay, days, counts);
+    }
+
+    private void count(int start, int end, int base, long[] counts) {
+        if (sourceWidth == 0) {
+            for (int i = start; i < end; i++) {
+                counts[base + sentiment(i)]++;
+            }
+            return;
+        }
+        for (int i = start; i < end; i++) {
+            counts[base + sourceCode(i) * SENTIMENTS + sentiment(i)]++;
+        }
+    }
+
+    private Map<LocalDate, SentimentCounts> toCounts(long firstDay, int days, long[] counts) {
+        Map<LocalDate, SentimentCounts> result = new TreeMap<>();
+        int stride = sourceIds.length * SENTIMENTS;
+        for (int d = 0; d < days; d++) {
+            Map<Long, long[]> bySource = new LinkedHashMap<>();
+            for (int code = 0; code < sourceIds.length; code++) {
+                int at = d * stride + code * SENTIMENTS;
+                long[] perSentiment = Arrays.copyOfRange(counts, at, at + SENTIMENTS);
+                if (Arrays.stream(perSentiment).anyMatch(c -> c > 0)) {
+                    bySource.put(sourceIds[code], perSentiment);
+                }
+            }
+            if (!bySource.isEmpty()) {
+                result.put(LocalDate.ofEpochDay(firstDay + d), SentimentCounts.of(bySource));
+            }
+        }
+        return result;
+    }
+
+    long time(int row) {
+        int b = row / BLOCK_ROWS;
+        long time = blockFirst[b];
+        for (int i = b * BLOCK_ROWS + 1; i <= row; i++) {
+            time += unpack(blockOffset[b], i - b * BLOCK_ROWS, blockWidth[b]);
+        }
+        return time;
+    }
+
+    long sourceId(int row) {
+        return sourceIds[sourceCode(row)];
+    }
+
+    long topicId(int row) {
+        return topicIds[(int) unpack(topicOffset, row, topicWidth)];
+    }
+
+    Sentiment sentimentOf(int row) {
+        return Sentiment.values()[sentiment(row)];
+    }
+
+    /**
+     * Confidence in hundredths, or {@link #NO_CONFIDENCE}.
+     */
+    int confidence(int row) {
+        return bytes.get(confidenceOffset + row) & 0xFF;
+    }
+
+    private void decodeTimes(int block, long[] times) {
+        int n = blockRows(block);
+        int width = blockWidth[block];
+        int offset = blockOffset[block];
+        long time = blockFirst[block];
+        times[0] = time;
+        for (int i = 1; i < n; i++) {
+            time += unpack(offset, i, width);
+            times[i] = time;
+        }
+    }
+
+    private int sentiment(int row) {
+        return (int) (words.get(sentimentOffset + (row >>> 5)) >>> ((row & 31) << 1)) & 3;
+    }
+
+    private int sourceCode(int row) {
+        return (int) unpack(sourceOffset, row, sourceWidth);
+    }
+
+    private long unpack(int offset, int index, int width) {
+        if (width == 0) {
+            return 0;
+        }
+        long bit = (long) index * width;
+        long word = words.get(offset + (int) (bit >>> 6));
+        return width == 64 ? word : (word >>> (bit & 63)) & ((1L << width) - 1);
+    }
+
+    private int blockRows(int block) {
+        return Math.min(BLOCK_ROWS, rows - block * BLOCK_ROWS);
+    }
+
+    private long[] read(int offset, int count) {
+        long[] values = new long[count];
+        words.get(offset, values);
+        return values;
+    }
+
+    private static int packedWords(int count, int width) {
+        return (int) (((long) count * width + 63) >>> 6);
+    }
+
+    /**
+     * The smallest power of two from 1 to 64 that fits {@code max}, or 0 when
+     * every value is 0.
+     */
+    private static int widthFor(long max) {
+        if (max == 0) {
+            return 0;
+        }
+        int bits = 64 - Long.numberOfLeadingZeros(max);
+        return bits <= 1 ? 1 : Integer.highestOneBit(bits - 1) << 1;
+    }
+
+    /**
+     * Collects rows in time order and writes them as a segment.
+     */
+    static final class Builder {
+
+        private final long rangeStart;
+        private final long rangeEnd;
+        private long[] times = new long[1024];
+        private long[] sources = new long[1024];
+        private long[] topics = new long[1024];
+        private byte[] sentiments = new byte[1024];
+        private byte[] confidences = new byte[1024];
+        private int size;
+
+        /**
+         * Rows must fall in {@code [rangeStart, rangeEnd)}, in microseconds.
+         */
+        Builder(long rangeStart, long rangeEnd) {
+            if (rangeStart >= rangeEnd) {
+                throw new IllegalArgumentException("Empty segment range " + rangeStart + " to " + rangeEnd);
+            }
+            this.rangeStart = rangeStart;
+            this.rangeEnd = rangeEnd;
+        }
+
+        /**
+         * Adds a row; rows must come in time order. {@code confidence} is in
+         * hundredths, or {@link #NO_CONFIDENCE}.
+         */
+        Builder add(long time, long sourceId, long topicId, Sentiment sentiment, int confidence) {
+            if (time < rangeStart || time >= rangeEnd) {
+                throw new IllegalArgumentException("Time " + time + " outside the segment range");
+            }
+            if (size > 0 && time < times[size - 1]) {
+                throw new IllegalArgumentException("Rows must be added in time order");
+            }
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+                topics = Arrays.copyOf(topics, capacity);
+                sentiments = Arrays.copyOf(sentiments, capacity);
+                confidences = Arrays.copyOf(confidences, capacity);
+            }
+            times[size] = time;
+            sources[size] = sourceId;
+            topics[size] = topicId;
+            sentiments[size] = (byte) sentiment.ordinal();
+            confidences[size] = (byte) confidence;
+            size++;
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Writes the segment to {@code path}, replacing any file there only
+         * once it is complete, and maps it.
+         */
+        SentimentSegment write(Path path) throws IOException {
+            long[] sourceDict = dictionary(sources);
+            long[] topicDict = dictionary(topics);
+            int sourceWidth = widthFor(Math.max(0, sourceDict.length - 1));
+            int topicWidth = widthFor(Math.max(0, topicDict.length - 1));
+            int blocks = (size + BLOCK_ROWS - 1) / BLOCK_ROWS;
+
+            int[] widths = new int[blocks];
+            int[] offsets = new int[blocks];
+            int timeWords = 0;
+            for (int b = 0; b < blocks; b++) {
+                int start = b * BLOCK_ROWS;
+                int end = Math.min(size, start + BLOCK_ROWS);
+                long maxDelta = 0;
+                for (int i = start + 1; i < end; i++) {
+                    maxDelta = Math.max(maxDelta, times[i] - times[i - 1]);
+                }
+                widths[b] = widthFor(maxDelta);
+                offsets[b] = timeWords;
+                timeWords += packedWords(end - start, widths[b]);
+            }
+
+            int longs = HEADER_LONGS + sourceDict.length + topicDict.length + 3 * blocks + timeWords
+                    + packedWords(size, SENTIMENT_WIDTH) + packedWords(size, sourceWidth)
+                    + packedWords(size, topicWidth);
+            long length = (long) longs * Long.BYTES + size;
+            if (length > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Sentiment segment of " + size + " rows is too large");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) length).order(ByteOrder.LITTLE_ENDIAN);
+            LongBuffer out = buffer.asLongBuffer();
+
+            out.put(MAGIC | (long) VERSION << 40);
+            out.put(size);
+            out.put(rangeStart);
+            out.put(rangeEnd);
+            out.put(sourceDict.length | (long) topicDict.length << 32);
+            out.put(sourceWidth | (long) topicWidth << 32);
+            out.put(blocks);
+            out.put(0);
+            out.put(sourceDict);
+            out.put(topicDict);
+            for (int b = 0; b < blocks; b++) {
+                out.put(times[b * BLOCK_ROWS]);
+            }
+            for (int b = 0; b < blocks; b++) {
+                out.put(times[Math.min(size, (b + 1) * BLOCK_ROWS) - 1]);
+            }
+            for (int b = 0; b < blocks; b++) {
+                out.put(widths[b] | (long) offsets[b] << 8);
+            }
+
+            long[] packed = new long[timeWords];
+            for (int b = 0; b < blocks; b++) {
+                int start = b * BLOCK_ROWS;
+                int end = Math.min(size, start + BLOCK_ROWS);
+                for (int i = start + 1; i < end; i++) {
+                    pack(packed, offsets[b], i - start, widths[b], times[i] - times[i - 1]);
+                }
+            }
+            out.put(packed);
+
+            packed = new long[packedWords(size, SENTIMENT_WIDTH)];
+            for (int i = 0; i < size; i++) {
+                pack(packed, 0, i, SENTIMENT_WIDTH, sentiments[i]);
+            }
+            out.put(packed);
+            out.put(codes(sources, sourceDict, sourceWidth));
+            out.put(codes(topics, topicDict, topicWidth));
+
+            buffer.position(longs * Long.BYTES);
+            buffer.put(confidences, 0, size);
+            buffer.flip();
+
+            Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return open(path);
+        }
+
+        private long[] dictionary(long[] ids) {
+            long[] sorted = Arrays.copyOf(ids, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+
+        private long[] codes(long[] ids, long[] dictionary, int width) {
+            long[] packed = new long[packedWords(size, width)];
+            if (width > 0) {
+                for (int i = 0; i < size; i++) {
+                    pack(packed, 0, i, width, Arrays.binarySearch(dictionary, ids[i]));
+                }
+            }
+            return packed;
+        }
+
+        private static void pack(long[] packed, int offset, int index, int width, long value) {
+            long bit = (long) index * width;
+            packed[offset + (int) (bit >>> 6)] |= value << (bit & 63);
+        }
+    }
+}
@@ -1,26 +1,74 @@
 package com.newssentiment.service;
 
 import com.newssentiment.dto.SentimentAggregateDTO;
+import com.newssentiment.dto.SourceDTO;
 import com.newssentiment.model.SentimentResult;
+import com.newssentiment.model.Source;
+import com.newssentiment.model.Topic;
+import com.newssentiment.model.User;
+import com.newssentiment.repository.ArticleRepository;
 import com.newssentiment.repository.SentimentResultRepository;
+import com.newssentiment.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class SentimentService {
 
+    /** Hourly groups over long ranges are sized up front only to this many. */
+    private static final int MAX_PRESIZED_GROUPS = 1 << 16;
+
     private final SentimentResultRepository sentimentResultRepository;
+    private final ArticleRepository articleRepository;
+    private final SentimentCountCache sentimentCountCache;
+    private final SentimentAnalyticsStore analyticsStore;
+    private final SourceService sourceService;
+    private final TopicRepository topicRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public SentimentResult save(SentimentResult result) {
-        return sentimentResultRepository.save(result);
+        SentimentResult saved = sentimentResultRepository.save(result);
+        sentimentCountCache.evict(saved.getProcessedAt());
+
+        Long articleId = saved.getArticle().getId();
+        List<Long> topicIds = articleRepository.findTopicIds(List.of(articleId)).getOrDefault(articleId, List.of());
+        eventPublisher.publishEvent(SentimentResultSavedEvent.of(saved, topicIds));
+        return saved;
+    }
+
+    /**
+     * Saves a batch of results in one statement. Results for an article that
+     * already has one from the same model are skipped. Returns the number
+     * inserted.
+     */
+    @Transactional
+    public int saveAll(List<SentimentResult> results) {
+        Set<Long> inserted = new HashSet<>(sentimentResultRepository.insertIgnoringDuplicates(results));
+        Map<Long, List<Long>> topicIds = articleRepository.findTopicIds(inserted);
+        Set<LocalDate> days = new HashSet<>();
+        for (SentimentResult result : results) {
+            if (!inserted.contains(result.getArticle().getId())) {
+                continue;
+            }
+            if (days.add(LocalDate.ofInstant(result.getProcessedAt(), ZoneOffset.UTC))) {
+                sentimentCountCache.evict(result.getProcessedAt());
+            }
+            Long articleId = result.getArticle().getId();
+            eventPublisher.publishEvent(SentimentResultSavedEvent.of(result, topicIds.getOrDefault(articleId, List.of())));
+        }
+        return inserted.size();
     }
 
     @Transactional(readOnly = true)
@@ -28,65 +76,178 @@ public class SentimentService {
         return sentimentResultRepository.findByArticleId(articleId);
     }
 
+    /**
+     * Latest result of each of the given articles, as detached results whose
+     * articles carry only the id.
+     */
+    @Transactional(readOnly = true)
+    public List<SentimentResult> findLatestByArticleIds(Collection<Long> articleIds) {
+        return sentimentResultRepository.findLatestByArticleIds(articleIds);
+    }
+
     @Transactional(readOnly = true)
     public List<SentimentAggregateDTO> getAggregatedByDay(Instant from, Instant to) {
-        List<Object[]> results = sentimentResultRepository.countByDayAndSentimentBetween(from, to);
-        return aggregateResults(results, "day");
+        return aggregateByDay(countsBetween(from, to));
+    }
+
+    /**
+     * Groups by ISO week, labelled like {@code 2024-W09}. Weeks cut by the
+     * range only count its days.
+     */
+    @Transactional(readOnly = true)
+    public List<SentimentAggregateDTO> getAggregatedByWeek(Instant from, Instant to) {
+        return aggregateByWeek(countsBetween(from, to));
     }
 
     @Transactional(readOnly = true)
     public List<SentimentAggregateDTO> getAggregatedBySource(Instant from, Instant to) {
-        List<Object[]> results = sentimentResultRepository.countBySourceAndSentimentBetween(from, to);
-        return aggregateResults(results, "source");
+        return aggregateBySource(countsBetween(from, to).values());
+    }
+
+    /**
+     * Groups by the language of each article's source.
+     */
+    @Transactional(readOnly = true)
+    public List<SentimentAggregateDTO> getAggregatedByLanguage(Instant from, Instant to) {
+        return aggregateByLanguage(countsBetween(from, to).values(), sourceService.findSources(null, false));
+    }
+
+    /**
+     * Groups by UTC hour, labelled with the hour's start.
+     */
+    @Transactional(readOnly = true)
+    public List<SentimentAggregateDTO> getAggregatedByHour(Instant from, Instant to) {
+        Instant end = exclusiveEnd(to);
+        long hours = Math.max(1, Duration.between(from, end).toHours() + 1);
+        SentimentAggregator aggregator = new SentimentAggregator((int) Math.min(hours, MAX_PRESIZED_GROUPS));
+        sentimentResultRepository.countByHourAndSentiment(from, end, aggregator::add);
+        return aggregator.toAggregates(hour -> Instant.ofEpochSecond(hour * 3600).toString());
+    }
+
+    /**
+     * Groups by the user's topics, labelled with the topic name. Only results
+     * for articles matched to one of the topics are counted.
+     */
+    @Transactional(readOnly = true)
+    public List<SentimentAggregateDTO> getAggregatedByTopic(Instant from, Instant to, User user) {
+        Map<Long, String> names = new HashMap<>();
+        for (Topic topic : topicRepository.findByUserOrderByCreatedAtDesc(user)) {
+            names.put(topic.getId(), topic.getName());
+        }
+        SentimentAggregator aggregator = new SentimentAggregator(names.size());
+        sentimentResultRepository.countByTopicAndSentiment(from, exclusiveEnd(to), names.keySet(), aggregator::add);
+        return aggregator.toAggregates(names::get);
     }
 
     @Transactional(readOnly = true)
     public Map<String, Long> getOverallCounts(Instant from, Instant to) {
-        List<Object[]> results = sentimentResultRepository.countBySentimentBetween(from, to);
+        long[] totals = new long[SentimentResult.Sentiment.values().length];
+        for (SentimentCounts counts : countsBetween(from, to).values()) {
+            totals[SentimentResult.Sentiment.POSITIVE.ordinal()] += counts.totalPositive();
+            totals[SentimentResult.Sentiment.NEGATIVE.ordinal()] += counts.totalNegative();
+            totals[SentimentResult.Sentiment.NEUTRAL.ordinal()] += counts.totalNeutral();
+        }
+
         Map<String, Long> counts = new HashMap<>();
-        counts.put("POSITIVE", 0L);
-        counts.put("NEGATIVE", 0L);
-        counts.put("NEUTRAL", 0L);
-
-        for (Object[] row : results) {
-            SentimentResult.Sentiment sentiment = (SentimentResult.Sentiment) row[0];
-            Long count = (Long) row[1];
-            counts.put(sentiment.name(), count);
+        for (SentimentResult.Sentiment sentiment : SentimentResult.Sentiment.values()) {
+            counts.put(sentiment.name(), totals[sentiment.ordinal()]);
         }
+        return counts;
+    }
 
+    /**
+     * The API treats {@code to} as inclusive. processed_at has microsecond
+     * precision, so that is the same as an exclusive bound one microsecond later.
+     *
+     * <p>The part of the range the analytics store has compacted is scanned
+     * there; the rest, usually just today, comes from the day cache. The store
+     * covers whole days, so the two never return the same day.
+     */
+    private NavigableMap<LocalDate, SentimentCounts> countsBetween(Instant from, Instant to) {
+        Instant end = exclusiveEnd(to);
+        SentimentAnalyticsStore.Coverage covered = analyticsStore.coverage();
+        Instant storeFrom = max(from, covered.from());
+        Instant storeTo = min(end, covered.to());
+        if (!storeFrom.isBefore(storeTo)) {
+            return sentimentCountCache.countsBetween(from, end);
+        }
+
+        NavigableMap<LocalDate, SentimentCounts> counts = analyticsStore.countsBetween(storeFrom, storeTo);
+        if (from.isBefore(storeFrom)) {
+            counts.putAll(sentimentCountCache.countsBetween(from, storeFrom));
+        }
+        if (storeTo.isBefore(end)) {
+            counts.putAll(sentimentCountCache.countsBetween(storeTo, end));
+        }
         return counts;
     }
 
-    private List<SentimentAggregateDTO> aggregateResults(List<Object[]> results, String groupType) {
-        Map<Object, Map<String, Long>> grouped = new LinkedHashMap<>();
+    private static Instant exclusiveEnd(Instant to) {
+        return to.truncatedTo(ChronoUnit.MICROS).plus(1, ChronoUnit.MICROS);
+    }
 
-        for (Object[] row : results) {
-            Object groupKey = row[0];
-            SentimentResult.Sentiment sentiment = (SentimentResult.Sentiment) row[1];
-            Long count = (Long) row[2];
+    private static Instant min(Instant a, Instant b) {
+        return a.isBefore(b) ? a : b;
+    }
 
-            grouped.computeIfAbsent(groupKey, k -> {
-                Map<String, Long> m = new HashMap<>();
-                m.put("POSITIVE", 0L);
-                m.put("NEGATIVE", 0L);
-                m.put("NEUTRAL", 0L);
-                return m;
-            }).merge(sentiment.name(), count, Long::sum);
+    private static Instant max(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    static List<SentimentAggregateDTO> aggregateByDay(Map<LocalDate, SentimentCounts> countsByDay) {
+        SentimentAggregator aggregator = new SentimentAggregator(countsByDay.size());
+        countsByDay.forEach((day, counts) -> aggregator.addAll(day.toEpochDay(), counts));
+        return aggregator.toAggregates(day -> LocalDate.ofEpochDay(day).toString());
+    }
+
+    static List<SentimentAggregateDTO> aggregateByWeek(Map<LocalDate, SentimentCounts> countsByDay) {
+        SentimentAggregator aggregator = new SentimentAggregator(countsByDay.size() / 7 + 1);
+        // Keyed by the epoch day of the week's Monday
+        countsByDay.forEach((day, counts) ->
+                aggregator.addAll(day.toEpochDay() - day.getDayOfWeek().ordinal(), counts));
+        return aggregator.toAggregates(monday -> {
+            LocalDate date = LocalDate.ofEpochDay(monday);
+            return String.format("%d-W%02d",
+                    date.get(IsoFields.WEEK_BASED_YEAR), date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        });
+    }
+
+    /**
+     * Articles without a source are counted under the group "null", as the
+     * grouped query reported them before counts were cached.
+     */
+    static List<SentimentAggregateDTO> aggregateBySource(Collection<SentimentCounts> days) {
+        SentimentAggregator aggregator = new SentimentAggregator();
+        for (SentimentCounts counts : days) {
+            for (int i = 0; i < counts.size(); i++) {
+                aggregator.add(counts.sourceIds()[i], counts.positive()[i], counts.negative()[i], counts.neutral()[i]);
+            }
         }
+        return aggregator.toAggregates(sourceId -> sourceId == 0 ? "null" : Long.toString(sourceId));
+    }
 
-        return grouped.entrySet().stream()
-                .map(entry -> {
-                    String group = entry.getKey().toString();
-                    Map<String, Long> counts = entry.getValue();
-                    long total = counts.values().stream().mapToLong(Long::longValue).sum();
-                    return new SentimentAggregateDTO(
-                            group,
-                            counts.get("POSITIVE"),
-                            counts.get("NEGATIVE"),
-                            counts.get("NEUTRAL"),
-                            total
-                    );
-                })
-                .collect(Collectors.toList());
+    /**
+     * Articles without a source, or whose source no longer exists, have no
+     * language and are left out.
+     */
+    static List<SentimentAggregateDTO> aggregateByLanguage(Collection<SentimentCounts> days, List<SourceDTO> sources) {
+        List<SourceDTO> byId = sources.stream().sorted(Comparator.comparing(SourceDTO::id)).toList();
+        long[] sourceIds = new long[byId.size()];
+        int[] languages = new int[byId.size()];
+        for (int i = 0; i < byId.size(); i++) {
+            sourceIds[i] = byId.get(i).id();
+            languages[i] = Source.Language.valueOf(byId.get(i).language()).ordinal();
+        }
+
+        SentimentAggregator aggregator = new SentimentAggregator(Source.Language.values().length);
+        for (SentimentCounts counts : days) {
+            for (int i = 0; i < counts.size(); i++) {
+                int index = Arrays.binarySearch(sourceIds, counts.sourceIds()[i]);
+                if (index >= 0) {
+                    aggregator.add(languages[index], counts.positive()[i], counts.negative()[i], counts.neutral()[i]);
+                }
+            }
+        }
+        return aggregator.toAggregates(language -> Source.Language.values()[(int) language].name());
     }
 }
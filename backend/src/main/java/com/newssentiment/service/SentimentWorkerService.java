@@ -0,0 +1,245 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.repository.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs sentiment analysis for newly ingested articles inside the backend.
+ * Each round claims a batch of unanalyzed articles with a lease (see
+ * {@link ArticleRepository#claimUnprocessedArticles}), analyzes them on
+ * virtual threads with at most {@code concurrency} calls in flight, and writes
+ * the results in one statement. Any number of nodes can run workers against
+ * the same database: a claimed article is invisible to other workers until
+ * its lease expires, which is also how articles of a crashed worker, or whose
+ * analysis failed, are retried.
+ *
+ * <p>Near-duplicates get a copy of their cluster representative's result.
+ * Articles whose text was already analyzed under one of the analyzer's
+ * {@link SentimentAnalyzer#modelVersions() model versions} get a copy of that
+ * result from the {@link SentimentResultCache}; articles sharing text within
+ * a batch are analyzed once.
+ */
+@Slf4j
+@Service
+public class SentimentWorkerService {
+
+    private final ArticleRepository articleRepository;
+    private final SentimentService sentimentService;
+    private final SentimentAnalyzer analyzer;
+    private final SentimentResultCache resultCache;
+    private final Semaphore permits;
+    private final Timer analysisTimer;
+    private final Counter analyzed;
+    private final Counter failed;
+    private final Counter reused;
+
+    @Value("${app.sentiment.worker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sentiment.worker.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.sentiment.worker.poll-interval-seconds:5}")
+    private long pollIntervalSeconds;
+
+    @Value("${app.sentiment.worker.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${app.sentiment.worker.max-attempts:5}")
+    private int maxAttempts;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    public SentimentWorkerService(
+            ArticleRepository articleRepository,
+            SentimentService sentimentService,
+            SentimentAnalyzer analyzer,
+            SentimentResultCache resultCache,
+            MeterRegistry meterRegistry,
+            @Value("${app.sentiment.worker.concurrency:64}") int concurrency
+    ) {
+        this.articleRepository = articleRepository;
+        this.sentimentService = sentimentService;
+        this.analyzer = analyzer;
+        this.resultCache = resultCache;
+        this.permits = new Semaphore(concurrency);
+        this.analysisTimer = meterRegistry.timer("sentiment.analysis");
+        this.analyzed = meterRegistry.counter("sentiment.analyzed", "outcome", "success");
+        this.failed = meterRegistry.counter("sentiment.analyzed", "outcome", "failed");
+        this.reused = meterRegistry.counter("sentiment.analyzed", "outcome", "cached");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = Thread.ofVirtual().name("sentiment-worker").start(this::workLoop);
+        log.info("Started sentiment worker with analyzer {}", analyzer.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Claims, analyzes and saves one batch. Returns the number of articles
+     * claimed, so zero means there was nothing to do.
+     */
+    public int processBatch() throws InterruptedException {
+        List<Article> claimed = articleRepository.claimUnprocessedArticles(
+                batchSize, Duration.ofSeconds(leaseSeconds), maxAttempts);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<SentimentResult> results = Collections.synchronizedList(new ArrayList<>(claimed.size()));
+        List<List<Article>> toAnalyze = new ArrayList<>(claimed.size());
+        List<String> modelVersions = analyzer.modelVersions();
+        Map<Long, SentimentResult> representativeResults = representativeResults(claimed);
+        Map<String, List<Article>> byHash = new LinkedHashMap<>();
+        for (Article article : claimed) {
+            SentimentResult representative = article.getDuplicateOf() != null
+                    ? representativeResults.get(article.getDuplicateOf())
+                    : null;
+            if (representative != null) {
+                results.add(SentimentResultCache.copyFor(article, representative));
+                reused.increment();
+            } else if (article.getContentHash() == null || modelVersions.isEmpty()) {
+                toAnalyze.add(List.of(article));
+            } else {
+                byHash.computeIfAbsent(article.getContentHash(), hash -> new ArrayList<>(1)).add(article);
+            }
+        }
+        if (!byHash.isEmpty()) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            byHash.forEach((hash, group) -> counts.put(hash, group.size()));
+            Map<String, SentimentResult> cached = resultCache.lookup(counts, modelVersions);
+            byHash.forEach((hash, group) -> {
+                SentimentResult template = cached.get(hash);
+                if (template == null) {
+                    toAnalyze.add(group);
+                    return;
+                }
+                group.forEach(article -> results.add(SentimentResultCache.copyFor(article, template)));
+                reused.increment(group.size());
+            });
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Article> group : toAnalyze) {
+                permits.acquire();
+                executor.submit(() -> {
+                    try {
+                        analyze(group, results);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+
+        int saved = sentimentService.saveAll(results);
+        log.debug("Analyzed {} of {} claimed articles, saved {}", results.size(), claimed.size(), saved);
+        return claimed.size();
+    }
+
+    /**
+     * Results of the cluster representatives of the claimed near-duplicates,
+     * by representative id. A near-duplicate whose representative has none is
+     * analyzed like any other article.
+     */
+    private Map<Long, SentimentResult> representativeResults(List<Article> claimed) {
+        Set<Long> representatives = new HashSet<>();
+        for (Article article : claimed) {
+            if (article.getDuplicateOf() != null) {
+                representatives.add(article.getDuplicateOf());
+            }
+        }
+        Map<Long, SentimentResult> found = new HashMap<>();
+        for (SentimentResult result : sentimentService.findLatestByArticleIds(representatives)) {
+            found.put(result.getArticle().getId(), result);
+        }
+        return found;
+    }
+
+    /**
+     * Analyzes the first article of a group of articles with the same text
+     * and gives every one of them the result.
+     */
+    private void analyze(List<Article> group, List<SentimentResult> results) {
+        Article article = group.get(0);
+        long start = System.nanoTime();
+        try {
+            SentimentResult result = analyzer.analyze(article);
+            result.setArticle(article);
+            results.add(result);
+            for (Article duplicate : group.subList(1, group.size())) {
+                results.add(SentimentResultCache.copyFor(duplicate, result));
+            }
+            resultCache.put(article.getContentHash(), result);
+            analyzed.increment();
+            reused.increment(group.size() - 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Sentiment analysis of article {} failed: {}", article.getId(), e.getMessage());
+        } finally {
+            analysisTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            try {
+                if (processBatch() < batchSize) {
+                    Thread.sleep(Duration.ofSeconds(pollIntervalSeconds));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Sentiment worker round failed", e);
+                try {
+                    Thread.sleep(Duration.ofSeconds(pollIntervalSeconds));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
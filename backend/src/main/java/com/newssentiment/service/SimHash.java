@@ -0,0 +1,87 @@
+package com.newssentiment.service;
+
+/**
+ * 64-bit SimHash over the words of a text. Texts that differ only in a few
+ * words (syndicated copies with a changed byline, lead or trailing boilerplate)
+ * end up a small Hamming distance apart, while unrelated texts sit around 32.
+ * Tokenization is script-agnostic so it works the same for Armenian, Russian
+ * and English text.
+ */
+final class SimHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    static long fingerprint(String text) {
+        return fingerprint(text, 0);
+    }
+
+    /**
+     * Returns null if {@code text} has fewer than {@code minTokens} words; a
+     * few words fingerprint alike whatever they say, and empty text always
+     * fingerprints as 0.
+     */
+    static Long fingerprint(String text, int minTokens) {
+        int[] weights = new int[64];
+        int tokens = 0;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                if (text.charAt(i) == '<') {
+                    // Skip markup so HTML-heavy feeds fingerprint like their plain text
+                    int close = text.indexOf('>', i);
+                    i = close < 0 ? length : close;
+                }
+                i++;
+            }
+            if (i >= length) {
+                break;
+            }
+
+            long word = FNV_OFFSET;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                word = (word ^ Character.toLowerCase(text.charAt(i))) * FNV_PRIME;
+                i++;
+            }
+            accumulate(weights, mix(word));
+            tokens++;
+        }
+        if (tokens < minTokens) {
+            return null;
+        }
+
+        long fingerprint = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                fingerprint |= 1L << bit;
+            }
+        }
+        return fingerprint;
+    }
+
+    static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void accumulate(int[] weights, long hash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    /**
+     * Finalizer from MurmurHash3, spreads FNV output over all 64 bits.
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,96 @@
+package com.newssentiment.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory lookup of SimHash fingerprints within a small Hamming distance,
+ * using multi-index hashing. The 64-bit fingerprint is split into four 16-bit
+ * bands; by the pigeonhole principle two fingerprints at distance 11 or less
+ * differ in at most two bits on at least one band. Each band value addresses a
+ * bucket directly, so a lookup probes the 137 buckets within two bit flips of
+ * each of the four band values, roughly {@code 548 * size / 65536} entries.
+ *
+ * <p>Entries are stored as (fingerprint, clusterId) pairs in flat
+ * {@code long[]} buckets, 64 bytes per indexed article across all bands.
+ */
+final class SimHashIndex {
+
+    static final int MAX_DISTANCE = 9;
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 16;
+    private static final int BUCKETS_PER_BAND = 1 << BAND_BITS;
+
+    private final long[][] buckets = new long[BANDS * BUCKETS_PER_BAND][];
+    private final int[] bucketSizes = new int[BANDS * BUCKETS_PER_BAND];
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long size;
+
+    /**
+     * Returns the cluster id of the closest indexed fingerprint within
+     * {@link #MAX_DISTANCE}, or -1 if there is none.
+     */
+    long findCluster(long fingerprint) {
+        lock.readLock().lock();
+        try {
+            long bestCluster = -1;
+            int bestDistance = MAX_DISTANCE + 1;
+            for (int band = 0; band < BANDS; band++) {
+                int value = bandValue(fingerprint, band);
+                int offset = band * BUCKETS_PER_BAND;
+                for (int i = -1; i < BAND_BITS; i++) {
+                    int flippedOnce = i < 0 ? value : value ^ (1 << i);
+                    for (int j = i < 0 ? BAND_BITS : i + 1; j <= BAND_BITS; j++) {
+                        int probe = j == BAND_BITS ? flippedOnce : flippedOnce ^ (1 << j);
+                        int bucket = offset + probe;
+                        long[] entries = buckets[bucket];
+                        int used = bucketSizes[bucket];
+                        for (int e = 0; e < used; e += 2) {
+                            int distance = SimHash.distance(fingerprint, entries[e]);
+                            if (distance < bestDistance) {
+                                bestDistance = distance;
+                                bestCluster = entries[e + 1];
+                            }
+                        }
+                    }
+                }
+            }
+            return bestCluster;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void add(long fingerprint, long clusterId) {
+        lock.writeLock().lock();
+        try {
+            for (int band = 0; band < BANDS; band++) {
+                int bucket = band * BUCKETS_PER_BAND + bandValue(fingerprint, band);
+                long[] entries = buckets[bucket];
+                int used = bucketSizes[bucket];
+                if (entries == null) {
+                    entries = new long[4];
+                    buckets[bucket] = entries;
+                } else if (used == entries.length) {
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                    buckets[bucket] = entries;
+                }
+                entries[used] = fingerprint;
+                entries[used + 1] = clusterId;
+                bucketSizes[bucket] = used + 2;
+            }
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long size() {
+        return size;
+    }
+
+    private static int bandValue(long fingerprint, int band) {
+        return (int) (fingerprint >>> (band * BAND_BITS)) & (BUCKETS_PER_BAND - 1);
+    }
+}
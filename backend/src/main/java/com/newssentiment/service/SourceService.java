@@ -0,0 +1,64 @@
+package com.newssentiment.service;
+
+import com.newssentiment.config.CacheConfig;
+import com.newssentiment.dto.SourceDTO;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.SourceRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class SourceService {
+
+    private final SourceRepository sourceRepository;
+
+    @Cacheable(cacheNames = CacheConfig.SOURCES, key = "#active + ':' + #language")
+    @Transactional(readOnly = true)
+    public List<SourceDTO> findSources(Source.Language language, boolean active) {
+        List<Source> sources;
+
+        if (active) {
+            sources = sourceRepository.findByActiveTrue();
+        } else if (language != null) {
+            sources = sourceRepository.findByLanguage(language);
+        } else {
+            sources = sourceRepository.findAll();
+        }
+
+        return sources.stream()
+                .map(SourceService::toDTO)
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SourceDTO> findById(Long id) {
+        return sourceRepository.findById(id).map(SourceService::toDTO);
+    }
+
+    /**
+     * Listings include fetch timestamps, so they are dropped after every sweep.
+     */
+    @CacheEvict(cacheNames = CacheConfig.SOURCES, allEntries = true)
+    public void evictListings() {
+    }
+
+    private static SourceDTO toDTO(Source source) {
+        return new SourceDTO(
+                source.getId(),
+                source.getName(),
+                source.getUrl(),
+                source.getType().name(),
+                source.getLanguage().name(),
+                source.getActive(),
+                source.getLastFetched(),
+                source.getLastSuccess()
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Scores every article with the in-process {@link LexiconSentimentScorer}
+ * first and only escalates those it is unsure about, below
+ * {@code app.sentiment.lexicon.escalate-below}, to the remote model. With
+ * {@code app.sentiment.remote.enabled} off the lexicon result is always kept,
+ * so analysis works with no network at all.
+ *
+ * <p>Lexicon results carry their own model version, so they can be told
+ * apart from (and re-analyzed by) the remote model later.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(name = "app.sentiment.lexicon.enabled", havingValue = "true", matchIfMissing = true)
+public class TieredSentimentAnalyzer implements SentimentAnalyzer {
+
+    private final LexiconSentimentScorer scorer;
+    private final SentimentAnalyzer remote;
+    private final String modelVersion;
+    private final double escalateBelow;
+    private final boolean remoteEnabled;
+    private final Counter lexiconTier;
+    private final Counter remoteTier;
+
+    @Autowired
+    public TieredSentimentAnalyzer(
+            HttpSentimentAnalyzer remote,
+            MeterRegistry meterRegistry,
+            @Value("${app.sentiment.lexicon.model-version:lexicon-v1}") String modelVersion,
+            @Value("${app.sentiment.lexicon.escalate-below:0.75}") double escalateBelow,
+            @Value("${app.sentiment.remote.enabled:true}") boolean remoteEnabled
+    ) {
+        this(LexiconSentimentScorer.fromClasspath(LexiconSentimentScorer.DEFAULT_LEXICONS),
+                remote, meterRegistry, modelVersion, escalateBelow, remoteEnabled);
+    }
+
+    TieredSentimentAnalyzer(
+            LexiconSentimentScorer scorer,
+            SentimentAnalyzer remote,
+            MeterRegistry meterRegistry,
+            String modelVersion,
+            double escalateBelow,
+            boolean remoteEnabled
+    ) {
+        this.scorer = scorer;
+        this.remote = remote;
+        this.modelVersion = modelVersion;
+        this.escalateBelow = escalateBelow;
+        this.remoteEnabled = remoteEnabled;
+        this.lexiconTier = meterRegistry.counter("sentiment.tier", "tier", "lexicon");
+        this.remoteTier = meterRegistry.counter("sentiment.tier", "tier", "remote");
+    }
+
+    /**
+     * Remote results are preferred over lexicon ones when both exist.
+     */
+    @Override
+    public List<String> modelVersions() {
+        List<String> versions = new ArrayList<>();
+        if (remoteEnabled) {
+            versions.addAll(remote.modelVersions());
+        }
+        versions.add(modelVersion);
+        return versions;
+    }
+
+    @Override
+    public SentimentResult analyze(Article article) throws IOException, InterruptedException {
+        LexiconSentimentScorer.Score score = scorer.score(article.getTitle(), article.getContent());
+        if (remoteEnabled && score.confidence() < escalateBelow) {
+            remoteTier.increment();
+            return remote.analyze(article);
+        }
+        lexiconTier.increment();
+        return SentimentResult.builder()
+                .sentiment(score.sentiment())
+                .confidence(BigDecimal.valueOf(score.confidence()).setScale(2, RoundingMode.HALF_UP))
+                .modelVersion(modelVersion)
+                .reasoning(String.format(Locale.ROOT, "Lexicon score %.2f from %d terms", score.compound(), score.terms()))
+                .topics(List.of())
+                .entities(Map.of())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.newssentiment.service;
+
+import java.util.List;
+
+/**
+ * Published when a topic is created, updated or deleted. {@code keywords} is
+ * null for a deleted topic; {@code sourceIds} is null or empty when the topic
+ * covers every source.
+ */
+public record TopicChangedEvent(
+        long topicId,
+        List<String> keywords,
+        List<Long> sourceIds
+) {
+    public boolean deleted() {
+        return keywords == null;
+    }
+}
@@ -0,0 +1,268 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.Topic;
+import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.TopicRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Assigns ingested articles to user topics by keyword. The keywords of all
+ * topics are compiled into one {@link KeywordAutomaton}, so classifying an
+ * article is a single pass over its title and content however many topics
+ * exist. A topic matches when any of its keywords occurs as a whole word or
+ * phrase, ignoring case and diacritics, and the article comes from one of the
+ * topic's sources if it names any.
+ *
+ * <p>Topic changes update the in-memory keyword map and trigger a rebuild on
+ * a background thread; matching keeps using the previous automaton until the
+ * new one is swapped in. Changes arriving during a rebuild are folded into
+ * the next one. Those events only reach this node, so topics are also
+ * reloaded from the database periodically and the automaton rebuilt if any
+ * differ; changes made on another node take effect within that interval.
+ */
+@Slf4j
+@Service
+public class TopicMatcher {
+
+    private final TopicRepository topicRepository;
+    private final ArticleRepository articleRepository;
+    private final Map<Long, TopicKeywords> topics = new ConcurrentHashMap<>();
+    private final AtomicReference<Compiled> compiled = new AtomicReference<>(Compiled.EMPTY);
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final Counter matched;
+
+    public TopicMatcher(
+            TopicRepository topicRepository,
+            ArticleRepository articleRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.topicRepository = topicRepository;
+        this.articleRepository = articleRepository;
+        this.matched = meterRegistry.counter("topics.matched");
+
+        Gauge.builder("topics.matcher.topics", compiled, ref -> ref.get().topicIds().length)
+                .register(meterRegistry);
+        Gauge.builder("topics.matcher.keywords", compiled, ref -> ref.get().topicsByKeyword().length)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        topics.putAll(load());
+        rebuild();
+        log.info("Compiled {} topics into the keyword matcher in {} ms",
+                topics.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Picks up topic changes made on other nodes. Rebuilds only when the
+     * loaded topics differ from the in-memory ones.
+     */
+    @Scheduled(
+            fixedDelayString = "${app.topics.reload-interval-seconds:60}",
+            initialDelayString = "${app.topics.reload-interval-seconds:60}",
+            timeUnit = TimeUnit.SECONDS
+    )
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<Long, TopicKeywords> loaded = load();
+        if (loaded.equals(topics)) {
+            return;
+        }
+        topics.keySet().retainAll(loaded.keySet());
+        topics.putAll(loaded);
+        log.debug("Topics changed elsewhere, rebuilding the keyword matcher");
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTopicChanged(TopicChangedEvent event) {
+        if (event.deleted()) {
+            topics.remove(event.topicId());
+        } else {
+            topics.put(event.topicId(), TopicKeywords.of(event.keywords(), event.sourceIds()));
+        }
+        if (rebuildPending.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("topic-matcher-rebuild").start(this::rebuild);
+        }
+    }
+
+    /**
+     * Matches the given saved articles and records their topics. Articles
+     * without a topic get their best match, the topic with most keyword hits.
+     */
+    @Transactional
+    public void assign(List<Article> articles) {
+        Map<Long, List<Long>> topicIdsByArticle = new LinkedHashMap<>();
+        for (Article article : articles) {
+            List<Long> topicIds = match(article);
+            if (topicIds.isEmpty()) {
+                continue;
+            }
+            topicIdsByArticle.put(article.getId(), topicIds);
+            if (article.getTopic() == null) {
+                // Keep a managed entity in line with the update below so a later flush doesn't undo it
+                article.setTopic(topicRepository.getReferenceById(topicIds.get(0)));
+            }
+        }
+        articleRepository.assignTopics(topicIdsByArticle);
+        matched.increment(topicIdsByArticle.size());
+    }
+
+    /**
+     * Ids of the topics the article matches, most keyword hits first.
+     */
+    public List<Long> match(Article article) {
+        Compiled current = compiled.get();
+        if (current.topicIds().length == 0) {
+            return List.of();
+        }
+
+        String title = article.getTitle() != null ? article.getTitle() : "";
+        String content = article.getContent() != null ? article.getContent() : "";
+        String text = title + " " + content;
+        char[] folded = new char[text.length()];
+        int length = KeywordAutomaton.fold(text, folded, true);
+
+        Long sourceId = article.getSource() != null ? article.getSource().getId() : null;
+        Map<Integer, Integer> hits = new HashMap<>();
+        current.automaton().match(folded, length, keyword -> {
+            for (int topic : current.topicsByKeyword()[keyword]) {
+                if (current.coversSource(topic, sourceId)) {
+                    hits.merge(topic, 1, Integer::sum);
+                }
+            }
+        });
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(hits.entrySet());
+        ranked.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return ranked.stream().map(entry -> current.topicIds()[entry.getKey()]).toList();
+    }
+
+    private Map<Long, TopicKeywords> load() {
+        Map<Long, TopicKeywords> loaded = new HashMap<>();
+        for (Topic topic : topicRepository.findAll()) {
+            loaded.put(topic.getId(), TopicKeywords.of(topic.getKeywords(), topic.getSourceIds()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Compiles the current keyword map. Serialized so that a rebuild started
+     * later always swaps in a newer snapshot.
+     */
+    private synchronized void rebuild() {
+        rebuildPending.set(false);
+        long start = System.currentTimeMillis();
+        try {
+            Compiled rebuilt = Compiled.of(Map.copyOf(topics));
+            compiled.set(rebuilt);
+            log.debug("Rebuilt keyword matcher with {} topics and {} keywords in {} ms",
+                    rebuilt.topicIds().length, rebuilt.topicsByKeyword().length, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the keyword matcher, keeping the previous one", e);
+        }
+    }
+
+    /**
+     * A topic's folded keywords and, if it is restricted, its sorted source ids.
+     */
+    private record TopicKeywords(List<String> keywords, long[] sourceIds) {
+
+        static TopicKeywords of(List<String> keywords, List<Long> sourceIds) {
+            List<String> folded = keywords == null ? List.of() : keywords.stream()
+                    .filter(keyword -> keyword != null && !keyword.isBlank())
+                    .map(KeywordAutomaton::fold)
+                    .distinct()
+                    .toList();
+            long[] sources = sourceIds == null || sourceIds.isEmpty()
+                    ? null
+                    : sourceIds.stream().mapToLong(Long::longValue).sorted().toArray();
+            return new TopicKeywords(folded, sources);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TopicKeywords other
+                    && keywords.equals(other.keywords)
+                    && Arrays.equals(sourceIds, other.sourceIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * keywords.hashCode() + Arrays.hashCode(sourceIds);
+        }
+    }
+
+    /**
+     * An automaton over the distinct keywords of all topics, with the topics
+     * (as indices into {@code topicIds}) that each keyword belongs to.
+     */
+    private record Compiled(
+            KeywordAutomaton automaton,
+            int[][] topicsByKeyword,
+            long[] topicIds,
+            long[][] sourceIds
+    ) {
+        static final Compiled EMPTY = new Compiled(new KeywordAutomaton(List.of()), new int[0][], new long[0], new long[0][]);
+
+        static Compiled of(Map<Long, TopicKeywords> topics) {
+            long[] topicIds = new long[topics.size()];
+            long[][] sourceIds = new long[topics.size()][];
+            Map<String, Integer> keywordIds = new HashMap<>();
+            List<String> keywords = new ArrayList<>();
+            List<List<Integer>> owners = new ArrayList<>();
+
+            int topic = 0;
+            for (Map.Entry<Long, TopicKeywords> entry : topics.entrySet()) {
+                topicIds[topic] = entry.getKey();
+                sourceIds[topic] = entry.getValue().sourceIds();
+                for (String keyword : entry.getValue().keywords()) {
+                    int id = keywordIds.computeIfAbsent(keyword, k -> {
+                        keywords.add(k);
+                        owners.add(new ArrayList<>(1));
+                        return keywords.size() - 1;
+                    });
+                    owners.get(id).add(topic);
+                }
+                topic++;
+            }
+            int[][] topicsByKeyword = owners.stream()
+                    .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+                    .toArray(int[][]::new);
+            return new Compiled(new KeywordAutomaton(keywords), topicsByKeyword, topicIds, sourceIds);
+        }
+
+        boolean coversSource(int topic, Long sourceId) {
+            long[] sources = sourceIds[topic];
+            return sources == null || (sourceId != null && Arrays.binarySearch(sources, sourceId) >= 0);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.newssentiment.model.Topic;
 import com.newssentiment.model.User;
 import com.newssentiment.repository.TopicRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +16,7 @@ import java.util.Optional;
 public class TopicService {
 
     private final TopicRepository topicRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<Topic> getTopicsByUser(User user) {
         return topicRepository.findByUserOrderByCreatedAtDesc(user);
@@ -35,7 +37,9 @@ public class TopicService {
                 .language(language != null ? language : "en")
                 .build();
 
-        return topicRepository.save(topic);
+        Topic saved = topicRepository.save(topic);
+        publishChanged(saved);
+        return saved;
     }
 
     @Transactional
@@ -51,7 +55,9 @@ public class TopicService {
                     if (language != null) {
                         topic.setLanguage(language);
                     }
-                    return topicRepository.save(topic);
+                    Topic saved = topicRepository.save(topic);
+                    publishChanged(saved);
+                    return saved;
                 });
     }
 
@@ -60,6 +66,7 @@ public class TopicService {
         return topicRepository.findByIdAndUser(id, user)
                 .map(topic -> {
                     topicRepository.delete(topic);
+                    eventPublisher.publishEvent(new TopicChangedEvent(topic.getId(), null, null));
                     return true;
                 })
                 .orElse(false);
@@ -68,4 +75,8 @@ public class TopicService {
     public List<Topic> getGlobalSearchTopics() {
         return topicRepository.findByGlobalSearchTrue();
     }
+
+    private void publishChanged(Topic topic) {
+        eventPublisher.publishEvent(new TopicChangedEvent(topic.getId(), topic.getKeywords(), topic.getSourceIds()));
+    }
 }
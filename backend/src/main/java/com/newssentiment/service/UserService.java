@@ -2,6 +2,7 @@ package com.newssentiment.service;
 
 import com.newssentiment.model.User;
 import com.newssentiment.repository.UserRepository;
+import com.newssentiment.security.AuthenticatedPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Service;
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final AuthenticatedPrincipalCache principalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -29,7 +31,14 @@ public class UserService implements UserDetailsService {
         return userRepository.existsByEmail(email);
     }
 
+    /**
+     * Saves the user. Cached principals of the user are dropped only if the
+     * account was disabled or enabled or its role changed, so that takes effect
+     * on the next request; saves such as a login's lastLogin keep them.
+     */
     public User save(User user) {
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        principalCache.invalidateIfAccessChanged(saved);
+        return saved;
     }
 }
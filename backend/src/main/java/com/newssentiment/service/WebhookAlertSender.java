@@ -0,0 +1,59 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Alert;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+@Component
+public class WebhookAlertSender implements AlertSender {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Duration timeout;
+
+    public WebhookAlertSender(
+            ObjectMapper objectMapper,
+            @Value("${app.alerts.delivery.webhook-timeout-seconds:10}") int timeoutSeconds
+    ) {
+        this.objectMapper = objectMapper;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Override
+    public Alert.Channel channel() {
+        return Alert.Channel.WEBHOOK;
+    }
+
+    @Override
+    public void send(AlertDigest digest) throws IOException, InterruptedException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                "userId", digest.userId(),
+                "alerts", digest.notifications()
+        ));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(digest.recipient()))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("User-Agent", "NewsSentimentAlerts/1.0")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + digest.recipient() + " responded with HTTP " + response.statusCode());
+        }
+    }
+}
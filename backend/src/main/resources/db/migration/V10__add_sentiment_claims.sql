@@ -0,0 +1,10 @@
+-- Lease columns for the backend sentiment workers. A worker claims unanalyzed
+-- articles by pushing sentiment_claimed_until into the future; other workers
+-- skip them until the lease runs out, so a crashed worker's articles are
+-- picked up again.
+
+ALTER TABLE articles ADD COLUMN sentiment_claimed_until TIMESTAMPTZ;
+ALTER TABLE articles ADD COLUMN sentiment_attempts SMALLINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_articles_sentiment_pending ON articles(id)
+    WHERE duplicate_of IS NULL;
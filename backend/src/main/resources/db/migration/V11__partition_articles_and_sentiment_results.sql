@@ -0,0 +1,271 @@
+-- Monthly range partitions for articles (on published_at) and sentiment_results
+-- (on processed_at). Time-range queries prune to the months they cover, each
+-- month is vacuumed on its own, and old months leave by detaching a partition
+-- rather than by DELETE. PartitionMaintenanceService creates upcoming months
+-- and retires expired ones; rows outside every monthly partition, including
+-- undated articles, go to the default partitions.
+--
+-- Unique constraints on a partitioned table must include the partition key,
+-- and foreign keys can only reference such a constraint. So:
+--   * articles keeps UNIQUE (id, published_at); ids still come from one
+--     sequence. (source_id, external_id) uniqueness moves to article_keys and
+--     (article_id, model_version) to sentiment_result_keys, both claimed by
+--     BEFORE INSERT triggers that skip duplicate rows the way
+--     ON CONFLICT DO NOTHING did.
+--   * Foreign keys to articles(id) are replaced by an AFTER DELETE trigger
+--     with the same cascades.
+
+-- Foreign keys to the table being replaced
+ALTER TABLE sentiment_results DROP CONSTRAINT IF EXISTS sentiment_results_article_id_fkey;
+ALTER TABLE labels DROP CONSTRAINT IF EXISTS labels_article_id_fkey;
+ALTER TABLE article_topics DROP CONSTRAINT IF EXISTS article_topics_article_id_fkey;
+ALTER TABLE articles DROP CONSTRAINT IF EXISTS articles_duplicate_of_fkey;
+
+ALTER TABLE articles RENAME TO articles_unpartitioned;
+ALTER TABLE sentiment_results RENAME TO sentiment_results_unpartitioned;
+ALTER SEQUENCE articles_id_seq OWNED BY NONE;
+ALTER SEQUENCE sentiment_results_id_seq OWNED BY NONE;
+
+CREATE TABLE articles (
+    id BIGINT NOT NULL DEFAULT nextval('articles_id_seq'),
+    source_id BIGINT REFERENCES sources(id) ON DELETE CASCADE,
+    topic_id BIGINT REFERENCES topics(id) ON DELETE SET NULL,
+    external_id VARCHAR(500),
+    title TEXT NOT NULL,
+    content TEXT,
+    url VARCHAR(500),
+    author VARCHAR(255),
+    published_at TIMESTAMPTZ,
+    fetched_at TIMESTAMPTZ DEFAULT NOW() NOT NULL,
+    content_hash VARCHAR(64),
+    simhash BIGINT,
+    duplicate_of BIGINT,
+    sentiment_claimed_until TIMESTAMPTZ,
+    sentiment_attempts SMALLINT NOT NULL DEFAULT 0,
+    metadata JSONB,
+    search_vector tsvector,
+    created_at TIMESTAMPTZ DEFAULT NOW() NOT NULL
+) PARTITION BY RANGE (published_at);
+
+CREATE TABLE articles_default PARTITION OF articles DEFAULT;
+
+CREATE TABLE sentiment_results (
+    id BIGINT NOT NULL DEFAULT nextval('sentiment_results_id_seq'),
+    article_id BIGINT NOT NULL,
+    sentiment VARCHAR(20) NOT NULL,
+    confidence DECIMAL(3,2),
+    model_version VARCHAR(50),
+    reasoning TEXT,
+    topics TEXT[],
+    entities JSONB,
+    processed_at TIMESTAMPTZ DEFAULT NOW() NOT NULL,
+    CONSTRAINT chk_sentiment CHECK (sentiment IN ('POSITIVE', 'NEGATIVE', 'NEUTRAL'))
+) PARTITION BY RANGE (processed_at);
+
+CREATE TABLE sentiment_results_default PARTITION OF sentiment_results DEFAULT;
+
+-- Creates the partition of parent for the UTC month starting at month_start
+-- unless it exists. Rows of that month already in the default partition are
+-- moved into it first, since attaching would fail otherwise. Returns whether
+-- a partition was created.
+CREATE FUNCTION ensure_monthly_partition(parent TEXT, key_column TEXT, month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := parent || '_p' || to_char(month_start, 'YYYYMM');
+    range_start TIMESTAMPTZ := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('partition:' || parent));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    -- Moving rows is not deleting them; the cascade triggers check this
+    PERFORM set_config('app.moving_partition_rows', 'on', TRUE);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, key_column, partition_name)
+        USING range_start, range_end;
+    PERFORM set_config('app.moving_partition_rows', 'off', TRUE);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, range_start, range_end);
+    RETURN TRUE;
+END
+$$ LANGUAGE plpgsql;
+
+-- Partitions for the months that hold data, at most three years back, up to
+-- three months ahead. Older rows stay in the default partition.
+DO $$
+DECLARE
+    first_month DATE;
+    last_month DATE := date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months';
+    earliest DATE := date_trunc('month', NOW() AT TIME ZONE 'UTC') - INTERVAL '3 years';
+    partition_month DATE;
+BEGIN
+    SELECT GREATEST(COALESCE(date_trunc('month', MIN(published_at) AT TIME ZONE 'UTC'), last_month), earliest)
+    INTO first_month FROM articles_unpartitioned WHERE published_at <= NOW();
+    partition_month := first_month;
+    WHILE partition_month <= last_month LOOP
+        PERFORM ensure_monthly_partition('articles', 'published_at', partition_month);
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+
+    SELECT GREATEST(COALESCE(date_trunc('month', MIN(processed_at) AT TIME ZONE 'UTC'), last_month), earliest)
+    INTO first_month FROM sentiment_results_unpartitioned;
+    partition_month := first_month;
+    WHILE partition_month <= last_month LOOP
+        PERFORM ensure_monthly_partition('sentiment_results', 'processed_at', partition_month);
+        partition_month := partition_month + INTERVAL '1 month';
+    END LOOP;
+END
+$$;
+
+INSERT INTO articles (id, source_id, topic_id, external_id, title, content, url, author, published_at,
+                      fetched_at, content_hash, simhash, duplicate_of, sentiment_claimed_until,
+                      sentiment_attempts, metadata, search_vector, created_at)
+SELECT id, source_id, topic_id, external_id, title, content, url, author, published_at,
+       fetched_at, content_hash, simhash, duplicate_of, sentiment_claimed_until,
+       sentiment_attempts, metadata, search_vector, created_at
+FROM articles_unpartitioned;
+
+INSERT INTO sentiment_results (id, article_id, sentiment, confidence, model_version, reasoning,
+                               topics, entities, processed_at)
+SELECT id, article_id, sentiment, confidence, model_version, reasoning, topics, entities, processed_at
+FROM sentiment_results_unpartitioned;
+
+DROP TABLE articles_unpartitioned;
+DROP TABLE sentiment_results_unpartitioned;
+ALTER SEQUENCE articles_id_seq OWNED BY articles.id;
+ALTER SEQUENCE sentiment_results_id_seq OWNED BY sentiment_results.id;
+
+-- Indexes are created on the parent and cascade to every partition
+ALTER TABLE articles ADD CONSTRAINT uq_articles_id UNIQUE (id, published_at);
+CREATE INDEX idx_articles_source_published ON articles(source_id, published_at DESC);
+CREATE INDEX idx_articles_content_hash ON articles(content_hash);
+CREATE INDEX idx_articles_published_at ON articles(published_at DESC, id DESC);
+CREATE INDEX idx_articles_unpublished ON articles(id DESC) WHERE published_at IS NULL;
+CREATE INDEX idx_articles_fetched_at ON articles(fetched_at DESC);
+CREATE INDEX idx_articles_search ON articles USING GIN(search_vector);
+CREATE INDEX idx_articles_topic ON articles(topic_id);
+CREATE INDEX idx_articles_duplicate_of ON articles(duplicate_of) WHERE duplicate_of IS NOT NULL;
+CREATE INDEX idx_articles_sentiment_pending ON articles(id) WHERE duplicate_of IS NULL;
+
+ALTER TABLE sentiment_results ADD CONSTRAINT pk_sentiment_results PRIMARY KEY (id, processed_at);
+CREATE INDEX idx_sentiment_article ON sentiment_results(article_id);
+CREATE INDEX idx_sentiment_processed ON sentiment_results(processed_at DESC);
+CREATE INDEX idx_sentiment_sentiment ON sentiment_results(sentiment);
+
+COMMENT ON COLUMN articles.simhash IS 'SimHash fingerprint of title and content';
+COMMENT ON COLUMN articles.duplicate_of IS 'Cluster representative if this article is a near-duplicate, NULL otherwise';
+
+-- Natural keys, unpartitioned so they stay unique across months
+CREATE TABLE article_keys (
+    source_id BIGINT NOT NULL REFERENCES sources(id) ON DELETE CASCADE,
+    external_id VARCHAR(500) NOT NULL,
+    article_id BIGINT NOT NULL,
+    PRIMARY KEY (source_id, external_id)
+);
+
+INSERT INTO article_keys (source_id, external_id, article_id)
+SELECT source_id, external_id, id FROM articles
+WHERE source_id IS NOT NULL AND external_id IS NOT NULL;
+
+CREATE TABLE sentiment_result_keys (
+    article_id BIGINT NOT NULL,
+    model_version VARCHAR(50) NOT NULL,
+    result_id BIGINT NOT NULL,
+    PRIMARY KEY (article_id, model_version)
+);
+
+INSERT INTO sentiment_result_keys (article_id, model_version, result_id)
+SELECT article_id, model_version, id FROM sentiment_results
+WHERE model_version IS NOT NULL;
+
+-- A row whose key is taken by another row is skipped. A row keeping its own
+-- key is one moving to another partition after an update of its date.
+CREATE FUNCTION articles_claim_key() RETURNS trigger AS $$
+BEGIN
+    IF NEW.source_id IS NULL OR NEW.external_id IS NULL THEN
+        RETURN NEW;
+    END IF;
+    INSERT INTO article_keys (source_id, external_id, article_id)
+    VALUES (NEW.source_id, NEW.external_id, NEW.id)
+    ON CONFLICT DO NOTHING;
+    IF FOUND OR EXISTS (SELECT 1 FROM article_keys
+                        WHERE source_id = NEW.source_id AND external_id = NEW.external_id
+                          AND article_id = NEW.id) THEN
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION sentiment_results_claim_key() RETURNS trigger AS $$
+BEGIN
+    IF NEW.model_version IS NULL THEN
+        RETURN NEW;
+    END IF;
+    INSERT INTO sentiment_result_keys (article_id, model_version, result_id)
+    VALUES (NEW.article_id, NEW.model_version, NEW.id)
+    ON CONFLICT DO NOTHING;
+    IF FOUND OR EXISTS (SELECT 1 FROM sentiment_result_keys
+                        WHERE article_id = NEW.article_id AND model_version = NEW.model_version
+                          AND result_id = NEW.id) THEN
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- The cascades of the former foreign keys. A deleted row that still exists
+-- was moved to another partition, not deleted.
+CREATE FUNCTION articles_delete_dependents() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('app.moving_partition_rows', TRUE) = 'on'
+       OR EXISTS (SELECT 1 FROM articles WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM sentiment_results WHERE article_id = OLD.id;
+    DELETE FROM labels WHERE article_id = OLD.id;
+    DELETE FROM article_topics WHERE article_id = OLD.id;
+    UPDATE articles SET duplicate_of = NULL WHERE duplicate_of = OLD.id;
+    DELETE FROM article_keys
+    WHERE source_id = OLD.source_id AND external_id = OLD.external_id AND article_id = OLD.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION sentiment_results_release_key() RETURNS trigger AS $$
+BEGIN
+    IF current_setting('app.moving_partition_rows', TRUE) = 'on'
+       OR EXISTS (SELECT 1 FROM sentiment_results WHERE id = OLD.id) THEN
+        RETURN NULL;
+    END IF;
+    DELETE FROM sentiment_result_keys
+    WHERE article_id = OLD.article_id AND model_version = OLD.model_version AND result_id = OLD.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER articles_search_update
+    BEFORE INSERT OR UPDATE ON articles
+    FOR EACH ROW EXECUTE FUNCTION articles_search_trigger();
+
+CREATE TRIGGER articles_claim_key
+    BEFORE INSERT ON articles
+    FOR EACH ROW EXECUTE FUNCTION articles_claim_key();
+
+CREATE TRIGGER articles_delete_dependents
+    AFTER DELETE ON articles
+    FOR EACH ROW EXECUTE FUNCTION articles_delete_dependents();
+
+CREATE TRIGGER sentiment_results_claim_key
+    BEFORE INSERT ON sentiment_results
+    FOR EACH ROW EXECUTE FUNCTION sentiment_results_claim_key();
+
+CREATE TRIGGER sentiment_results_release_key
+    AFTER DELETE ON sentiment_results
+    FOR EACH ROW EXECUTE FUNCTION sentiment_results_release_key();
+
+-- Retired partitions are moved here unless configured to be dropped
+CREATE SCHEMA IF NOT EXISTS archive;
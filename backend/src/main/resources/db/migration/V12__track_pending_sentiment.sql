@@ -0,0 +1,33 @@
+-- Articles still waiting for sentiment analysis. The claim query used to walk
+-- every article ever ingested and anti-join sentiment_results for each; with
+-- this flag the partial index holds only the articles that can still be
+-- claimed. It is cleared when a result is inserted, by any writer, and by the
+-- claim that uses up an article's last attempt.
+
+-- Added as FALSE so existing rows aren't rewritten, then set for the few
+-- pending ones. 5 is the default app.sentiment.worker.max-attempts.
+ALTER TABLE articles ADD COLUMN sentiment_pending BOOLEAN NOT NULL DEFAULT FALSE;
+
+UPDATE articles a SET sentiment_pending = TRUE
+WHERE a.sentiment_attempts < 5
+  AND NOT EXISTS (SELECT 1 FROM sentiment_results sr WHERE sr.article_id = a.id);
+
+ALTER TABLE articles ALTER COLUMN sentiment_pending SET DEFAULT TRUE;
+
+DROP INDEX idx_articles_sentiment_pending;
+CREATE INDEX idx_articles_sentiment_pending ON articles(id) WHERE sentiment_pending;
+
+CREATE FUNCTION sentiment_results_mark_analyzed() RETURNS trigger AS $$
+BEGIN
+    UPDATE articles SET sentiment_pending = FALSE
+    WHERE sentiment_pending AND id IN (SELECT article_id FROM inserted_results);
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER sentiment_results_mark_analyzed
+    AFTER INSERT ON sentiment_results
+    REFERENCING NEW TABLE AS inserted_results
+    FOR EACH STATEMENT EXECUTE FUNCTION sentiment_results_mark_analyzed();
+
+COMMENT ON COLUMN articles.sentiment_pending IS 'Whether the article still needs a sentiment result and has attempts left';
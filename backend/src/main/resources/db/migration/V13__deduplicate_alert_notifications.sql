@@ -0,0 +1,8 @@
+-- When each alert fired, taken from the result that fired it. Every node
+-- evaluates the same relayed results, and a restarted node has forgotten
+-- what it already fired, so the same alert can be enqueued more than once;
+-- enqueueing skips firings within the alert's window of one already here.
+
+ALTER TABLE alert_notifications ADD COLUMN fired_at TIMESTAMPTZ;
+
+CREATE INDEX idx_alert_notifications_fired ON alert_notifications(alert_id, fired_at);
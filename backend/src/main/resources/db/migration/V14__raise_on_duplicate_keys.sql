@@ -0,0 +1,103 @@
+-- The claim-key triggers of V11 skipped a row whose natural key was taken by
+-- returning NULL. That silently dropped single-row inserts too: a JPA save
+-- got no generated id back and the scraper's db.add() lost its row without an
+-- error. They now raise unique_violation, as the unique constraints they
+-- replace did. The bulk inserts that mean "skip duplicates" (formerly
+-- ON CONFLICT DO NOTHING) ask for skipping with
+--   SELECT set_config('app.skip_duplicate_keys', 'on', TRUE)
+-- for the rest of their transaction, the way partition maintenance sets
+-- app.moving_partition_rows.
+--
+-- articles cannot have a primary key on the parent: it would have to include
+-- the partition key published_at, which is NULL for undated articles. Every
+-- partition gets a primary key on id instead, so each table holding rows has
+-- one; new monthly partitions get it from ensure_monthly_partition.
+
+CREATE OR REPLACE FUNCTION articles_claim_key() RETURNS trigger AS $$
+BEGIN
+    IF NEW.source_id IS NULL OR NEW.external_id IS NULL THEN
+        RETURN NEW;
+    END IF;
+    INSERT INTO article_keys (source_id, external_id, article_id)
+    VALUES (NEW.source_id, NEW.external_id, NEW.id)
+    ON CONFLICT DO NOTHING;
+    IF FOUND OR EXISTS (SELECT 1 FROM article_keys
+                        WHERE source_id = NEW.source_id AND external_id = NEW.external_id
+                          AND article_id = NEW.id) THEN
+        RETURN NEW;
+    END IF;
+    IF current_setting('app.skip_duplicate_keys', TRUE) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    RAISE unique_violation USING
+        MESSAGE = 'duplicate key value violates unique constraint "article_keys_pkey"',
+        DETAIL = format('Key (source_id, external_id)=(%s, %s) already exists.', NEW.source_id, NEW.external_id),
+        TABLE = 'article_keys',
+        CONSTRAINT = 'article_keys_pkey';
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION sentiment_results_claim_key() RETURNS trigger AS $$
+BEGIN
+    IF NEW.model_version IS NULL THEN
+        RETURN NEW;
+    END IF;
+    INSERT INTO sentiment_result_keys (article_id, model_version, result_id)
+    VALUES (NEW.article_id, NEW.model_version, NEW.id)
+    ON CONFLICT DO NOTHING;
+    IF FOUND OR EXISTS (SELECT 1 FROM sentiment_result_keys
+                        WHERE article_id = NEW.article_id AND model_version = NEW.model_version
+                          AND result_id = NEW.id) THEN
+        RETURN NEW;
+    END IF;
+    IF current_setting('app.skip_duplicate_keys', TRUE) = 'on' THEN
+        RETURN NULL;
+    END IF;
+    RAISE unique_violation USING
+        MESSAGE = 'duplicate key value violates unique constraint "sentiment_result_keys_pkey"',
+        DETAIL = format('Key (article_id, model_version)=(%s, %s) already exists.', NEW.article_id, NEW.model_version),
+        TABLE = 'sentiment_result_keys',
+        CONSTRAINT = 'sentiment_result_keys_pkey';
+END
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, key_column TEXT, month_start DATE) RETURNS BOOLEAN AS $$
+DECLARE
+    partition_name TEXT := parent || '_p' || to_char(month_start, 'YYYYMM');
+    range_start TIMESTAMPTZ := date_trunc('month', month_start::timestamp) AT TIME ZONE 'UTC';
+    range_end TIMESTAMPTZ := (date_trunc('month', month_start::timestamp) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('partition:' || parent));
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    IF parent = 'articles' THEN
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id)', partition_name, partition_name || '_pkey');
+    END IF;
+    -- Moving rows is not deleting them; the cascade triggers check this
+    PERFORM set_config('app.moving_partition_rows', 'on', TRUE);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= $1 AND %I < $2 RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   parent || '_default', key_column, key_column, partition_name)
+        USING range_start, range_end;
+    PERFORM set_config('app.moving_partition_rows', 'off', TRUE);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, range_start, range_end);
+    RETURN TRUE;
+END
+$$ LANGUAGE plpgsql;
+
+DO $$
+DECLARE
+    partition_name TEXT;
+BEGIN
+    FOR partition_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'articles'::regclass
+    LOOP
+        EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (id)', partition_name, partition_name || '_pkey');
+    END LOOP;
+END
+$$;
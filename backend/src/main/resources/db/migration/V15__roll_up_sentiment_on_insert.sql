@@ -0,0 +1,51 @@
+-- Keeps sentiment_rollups current as results are inserted. A scheduled job
+-- used to fold closed hours in behind a processed_at watermark, which never
+-- counted a result whose processed_at was already behind the watermark when
+-- it committed: the worker and the scraper stamp processed_at when an
+-- analysis finishes and commit the whole batch later, and node clocks differ.
+-- A statement-level trigger counts every inserted row by any writer, whatever
+-- its timestamp, the way sentiment_results_mark_analyzed clears the pending
+-- flag.
+--
+-- Counters are upserted in key order, so concurrent inserts lock the ones
+-- they share in the same order and wait for each other instead of
+-- deadlocking. Deleted results stay counted, as they did once rolled up;
+-- rollups outlive the partitions retention detaches. Rows moved between
+-- partitions are inserted into the partition itself, which doesn't fire
+-- statement triggers of the parent.
+
+CREATE FUNCTION sentiment_results_roll_up() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO sentiment_rollups (granularity, bucket_start, source_id, sentiment, count)
+    SELECT g.granularity, date_trunc(g.unit, r.processed_at, 'UTC'), COALESCE(a.source_id, 0), r.sentiment, count(*)
+    FROM inserted_results r
+    JOIN articles a ON a.id = r.article_id
+    CROSS JOIN (VALUES ('HOUR', 'hour'), ('DAY', 'day')) AS g(granularity, unit)
+    GROUP BY 1, 2, 3, 4
+    ORDER BY 1, 2, 3, 4
+    ON CONFLICT (granularity, bucket_start, source_id, sentiment)
+    DO UPDATE SET count = sentiment_rollups.count + EXCLUDED.count;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+-- Creating the trigger locks out inserts until this migration commits, so the
+-- recount below and the trigger see every result exactly once
+CREATE TRIGGER sentiment_results_roll_up
+    AFTER INSERT ON sentiment_results
+    REFERENCING NEW TABLE AS inserted_results
+    FOR EACH STATEMENT EXECUTE FUNCTION sentiment_results_roll_up();
+
+-- Recount every day still in sentiment_results, which adds the results the
+-- job missed; days before the earliest retained result keep their rollups
+DELETE FROM sentiment_rollups
+WHERE bucket_start >= (SELECT date_trunc('day', MIN(processed_at), 'UTC') FROM sentiment_results);
+
+INSERT INTO sentiment_rollups (granularity, bucket_start, source_id, sentiment, count)
+SELECT g.granularity, date_trunc(g.unit, sr.processed_at, 'UTC'), COALESCE(a.source_id, 0), sr.sentiment, count(*)
+FROM sentiment_results sr
+JOIN articles a ON a.id = sr.article_id
+CROSS JOIN (VALUES ('HOUR', 'hour'), ('DAY', 'day')) AS g(granularity, unit)
+GROUP BY 1, 2, 3, 4;
+
+DROP TABLE sentiment_rollup_state;
@@ -0,0 +1,13 @@
+-- V11 recreated articles without the NOT NULL that V1 put on source_id.
+-- Combined with the claim-key trigger, which only claims a natural key for
+-- rows with a source, that let sourceless rows in on every run with no
+-- deduplication, where they used to be rejected. Restores the constraint.
+--
+-- Rows written without a source since then can't be told apart from their
+-- repeats, and the writers that produced them (the NewsAPI path of the
+-- scraper) were meant to fail on them, so they are removed; the delete
+-- trigger takes their dependents with them.
+
+DELETE FROM articles WHERE source_id IS NULL;
+
+ALTER TABLE articles ALTER COLUMN source_id SET NOT NULL;
@@ -0,0 +1,12 @@
+-- Near-duplicate detection for syndicated articles
+
+-- 64-bit SimHash of title and content, computed at ingest time
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS simhash BIGINT;
+
+-- Representative article of the near-duplicate cluster this article belongs to
+ALTER TABLE articles ADD COLUMN IF NOT EXISTS duplicate_of BIGINT REFERENCES articles(id) ON DELETE SET NULL;
+CREATE INDEX IF NOT EXISTS idx_articles_duplicate_of ON articles(duplicate_of) WHERE duplicate_of IS NOT NULL;
+
+-- Comment
+COMMENT ON COLUMN articles.simhash IS 'SimHash fingerprint of title and content';
+COMMENT ON COLUMN articles.duplicate_of IS 'Cluster representative if this article is a near-duplicate, NULL otherwise';
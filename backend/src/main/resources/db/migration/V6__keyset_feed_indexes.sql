@@ -0,0 +1,8 @@
+-- Indexes for keyset pagination of the article feed
+
+-- Seek on (published_at, id): replace the single-column index with a composite one
+DROP INDEX IF EXISTS idx_articles_published_at;
+CREATE INDEX idx_articles_published_at ON articles(published_at DESC, id DESC);
+
+-- Undated articles are listed after dated ones, newest id first
+CREATE INDEX IF NOT EXISTS idx_articles_unpublished ON articles(id DESC) WHERE published_at IS NULL;
@@ -0,0 +1,24 @@
+-- Pre-aggregated sentiment counts for dashboard queries
+
+-- Counts per (granularity, bucket, source, sentiment). Buckets are UTC hours and
+-- days; source_id 0 stands for articles without a source.
+CREATE TABLE sentiment_rollups (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMPTZ NOT NULL,
+    source_id BIGINT NOT NULL,
+    sentiment VARCHAR(20) NOT NULL,
+    count BIGINT NOT NULL,
+    CONSTRAINT pk_sentiment_rollups PRIMARY KEY (granularity, bucket_start, source_id, sentiment),
+    CONSTRAINT chk_rollup_granularity CHECK (granularity IN ('HOUR', 'DAY')),
+    CONSTRAINT chk_rollup_sentiment CHECK (sentiment IN ('POSITIVE', 'NEGATIVE', 'NEUTRAL'))
+);
+
+-- Results processed before rolled_up_to are included in sentiment_rollups;
+-- later ones are still read from sentiment_results.
+CREATE TABLE sentiment_rollup_state (
+    id INTEGER PRIMARY KEY,
+    rolled_up_to TIMESTAMPTZ NOT NULL,
+    CONSTRAINT chk_rollup_state_singleton CHECK (id = 1)
+);
+
+INSERT INTO sentiment_rollup_state (id, rolled_up_to) VALUES (1, '1970-01-01T00:00:00Z');
@@ -0,0 +1,26 @@
+-- Persistent outbox for alert notifications
+
+ALTER TABLE alerts ADD COLUMN webhook_url VARCHAR(500);
+
+-- One row per triggered alert. Rows stay PENDING until delivered; a worker
+-- claims due rows by pushing next_attempt_at forward, so a crash mid-delivery
+-- only delays the retry.
+CREATE TABLE alert_notifications (
+    id BIGSERIAL PRIMARY KEY,
+    alert_id BIGINT REFERENCES alerts(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    channel VARCHAR(50) NOT NULL,
+    recipient VARCHAR(500) NOT NULL,
+    payload JSONB NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    sent_at TIMESTAMPTZ,
+    CONSTRAINT chk_notification_channel CHECK (channel IN ('EMAIL', 'WEBHOOK')),
+    CONSTRAINT chk_notification_status CHECK (status IN ('PENDING', 'SENT', 'FAILED'))
+);
+
+CREATE INDEX idx_alert_notifications_due ON alert_notifications(channel, next_attempt_at)
+    WHERE status = 'PENDING';
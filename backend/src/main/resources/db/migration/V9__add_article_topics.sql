@@ -0,0 +1,10 @@
+-- Topics matched to each article by the keyword matcher. An article can match
+-- several topics; articles.topic_id keeps the best match.
+
+CREATE TABLE article_topics (
+    article_id BIGINT NOT NULL REFERENCES articles(id) ON DELETE CASCADE,
+    topic_id BIGINT NOT NULL REFERENCES topics(id) ON DELETE CASCADE,
+    PRIMARY KEY (article_id, topic_id)
+);
+
+CREATE INDEX idx_article_topics_topic ON article_topics(topic_id, article_id);
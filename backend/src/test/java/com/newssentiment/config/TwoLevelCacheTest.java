@@ -0,0 +1,163 @@
+package com.newssentiment.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances sharing one remote tier, a map standing in for Redis, with
+ * evictions broadcast to both the way the Redis channel delivers them.
+ */
+class TwoLevelCacheTest {
+
+    private static final String NAME = "counts";
+
+    private final ConcurrentMapCache remote = new ConcurrentMapCache(NAME, false);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<TwoLevelCacheManager> nodes = new ArrayList<>();
+
+    private TwoLevelCacheManager nodeA;
+    private TwoLevelCacheManager nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsFillTheLocalTierFromRedis() {
+        Cache a = nodeA.getCache(NAME);
+        Cache b = nodeB.getCache(NAME);
+        a.put("2024-03-01", "v1");
+
+        assertThat(b.get("2024-03-01", String.class)).isEqualTo("v1");
+        remote.evict("2024-03-01");
+        assertThat(b.get("2024-03-01", String.class)).isEqualTo("v1");
+        assertThat(b.get("2024-03-02")).isNull();
+
+        assertThat(count("remote_hit")).isEqualTo(1);
+        assertThat(count("local_hit")).isEqualTo(1);
+        assertThat(count("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void evictionOnOneNodeDropsLocalCopiesEverywhere() {
+        Cache a = nodeA.getCache(NAME);
+        Cache b = nodeB.getCache(NAME);
+        a.put("2024-03-01", "v1");
+        a.put("2024-03-02", "v2");
+        b.get("2024-03-01");
+        b.get("2024-03-02");
+
+        a.evict("2024-03-01");
+
+        assertThat(b.get("2024-03-01")).isNull();
+        assertThat(b.get("2024-03-02", String.class)).isEqualTo("v2");
+
+        b.clear();
+
+        assertThat(a.get("2024-03-02")).isNull();
+        assertThat(remote.getNativeCache()).isEmpty();
+    }
+
+    @Test
+    void loaderRunsOnceAndNullsAreNotCached() {
+        Cache a = nodeA.getCache(NAME);
+        Cache b = nodeB.getCache(NAME);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(a.get("k", () -> "loaded-" + loads.incrementAndGet())).isEqualTo("loaded-1");
+        assertThat(b.get("k", () -> "loaded-" + loads.incrementAndGet())).isEqualTo("loaded-1");
+        assertThat(loads).hasValue(1);
+
+        a.put("k", null);
+        assertThat(b.get("k")).isNull();
+        assertThat(remote.getNativeCache()).isEmpty();
+    }
+
+    @Test
+    void putsAndEvictionsInATransactionApplyAfterCommit() {
+        Cache a = nodeA.getCache(NAME);
+        Cache b = nodeB.getCache(NAME);
+        a.put("2024-03-01", "stale");
+        b.get("2024-03-01");
+
+        TransactionSynchronizationManager.initSynchronization();
+        a.evict("2024-03-01");
+        a.put("2024-03-02", "fresh");
+
+        assertThat(b.get("2024-03-01", String.class)).isEqualTo("stale");
+        assertThat(b.get("2024-03-02")).isNull();
+
+        complete(true);
+
+        assertThat(b.get("2024-03-01")).isNull();
+        assertThat(b.get("2024-03-02", String.class)).isEqualTo("fresh");
+    }
+
+    @Test
+    void putsAndEvictionsInARolledBackTransactionAreDropped() {
+        Cache a = nodeA.getCache(NAME);
+        Cache b = nodeB.getCache(NAME);
+        a.put("2024-03-01", "kept");
+        b.get("2024-03-01");
+
+        TransactionSynchronizationManager.initSynchronization();
+        a.evict("2024-03-01");
+        a.put("2024-03-02", "discarded");
+        complete(false);
+
+        assertThat(b.get("2024-03-01", String.class)).isEqualTo("kept");
+        assertThat(a.get("2024-03-02")).isNull();
+    }
+
+    private TwoLevelCacheManager node() {
+        TwoLevelCache cache = new TwoLevelCache(
+                NAME,
+                Caffeine.newBuilder().maximumSize(100).build(),
+                remote,
+                (cacheName, key) -> nodes.forEach(node -> node.evictLocal(cacheName, key)),
+                meterRegistry);
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(List.of(cache));
+        manager.afterPropertiesSet();
+        nodes.add(manager);
+        return manager;
+    }
+
+    private static void complete(boolean commit) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (commit) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.counter("cache.requests", "cache", NAME, "result", result).count();
+    }
+}
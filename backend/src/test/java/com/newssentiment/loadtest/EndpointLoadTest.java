@@ -0,0 +1,361 @@
+package com.newssentiment.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.User;
+import com.newssentiment.security.JwtService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a realistic mix of reads and topic edits through the article,
+ * sentiment and topic endpoints of a running backend, against Postgres in
+ * Testcontainers seeded with a {@link SyntheticCorpus}. Prints p50/p99
+ * latency, throughput and statements per request for each endpoint and writes
+ * the same table to {@code build/reports/loadtest/summary.csv}.
+ *
+ * <p>Excluded from the regular test run; use {@code ./gradlew loadTest},
+ * optionally with {@code -Dloadtest.articles=5000000 -Dloadtest.clients=64
+ * -Dloadtest.duration-seconds=300}. Nothing outside the machine is called; the
+ * Postgres image must be available to the local Docker daemon.
+ */
+@Tag("loadtest")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(StatementCounter.Config.class)
+class EndpointLoadTest {
+
+    private static final SyntheticCorpus CORPUS = SyntheticCorpus.fromSystemProperties();
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 32);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 20));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60));
+    private static final double MAX_ERROR_RATE = 0.001;
+
+    @Container
+    static final PostgreSQLContainer<?> postgres =
+            new PostgreSQLContainer<>(System.getProperty("loadtest.image", "postgres:16-alpine"));
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 20);
+        registry.add("spring.flyway.enabled", () -> true);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private long minArticleId;
+    private long maxArticleId;
+    private long minSourceId;
+    private List<String> tokens;
+
+    @Test
+    void endpointMixUnderLoad() throws Exception {
+        long seedStart = System.currentTimeMillis();
+        CORPUS.seed(jdbcTemplate);
+        System.out.printf("Seeded %s in %d s%n", CORPUS, (System.currentTimeMillis() - seedStart) / 1000);
+
+        minArticleId = jdbcTemplate.queryForObject("SELECT min(id) FROM articles", Long.class);
+        maxArticleId = jdbcTemplate.queryForObject("SELECT max(id) FROM articles", Long.class);
+        minSourceId = jdbcTemplate.queryForObject(
+                "SELECT min(id) FROM sources WHERE name LIKE 'Load source %'", Long.class);
+        tokens = new ArrayList<>();
+        for (int i = 1; i <= CORPUS.users(); i++) {
+            tokens.add(jwtService.generateToken(User.builder().email(SyntheticCorpus.email(i)).build()));
+        }
+
+        run(WARMUP, endpoints());
+        statementCounter.reset();
+        Map<String, Recorder> recorders = run(DURATION, endpoints());
+
+        report(recorders);
+        for (Map.Entry<String, Recorder> entry : recorders.entrySet()) {
+            Recorder recorder = entry.getValue();
+            assertThat(recorder.errors.get())
+                    .as("errors on %s", entry.getKey())
+                    .isLessThanOrEqualTo((long) Math.ceil(recorder.count() * MAX_ERROR_RATE));
+        }
+    }
+
+    /**
+     * The request mix, weighted roughly like dashboard traffic: mostly article
+     * lists and lookups, then sentiment charts, then topic management.
+     */
+    private List<Endpoint> endpoints() {
+        return List.of(
+                new Endpoint("GET /articles", 25, client -> get(client, "/api/v1/articles?page="
+                        + client.random.nextInt(50) + "&size=20" + optionalFilter(client))),
+                new Endpoint("GET /articles?q", 10, client -> get(client, "/api/v1/articles?size=20&q="
+                        + encode(word(client) + " " + word(client)))),
+                new Endpoint("GET /articles/feed", 15, client -> get(client, "/api/v1/articles/feed?size=20"
+                        + optionalFilter(client))),
+                new Endpoint("GET /articles/{id}", 15, client -> get(client, "/api/v1/articles/"
+                        + client.random.nextLong(minArticleId, maxArticleId + 1))),
+                new Endpoint("GET /sentiment/aggregate?groupBy=day", 8, client -> get(client,
+                        "/api/v1/sentiment/aggregate?groupBy=day&" + lastDays(client.random.nextInt(7, 366)))),
+                new Endpoint("GET /sentiment/aggregate?groupBy=source", 5, client -> get(client,
+                        "/api/v1/sentiment/aggregate?groupBy=source&" + lastDays(30))),
+                new Endpoint("GET /sentiment/summary", 8, client -> get(client,
+                        "/api/v1/sentiment/summary?" + lastDays(1))),
+                new Endpoint("GET /topics", 8, client -> get(client, "/api/v1/topics")),
+                new Endpoint("POST /topics", 3, this::createTopic),
+                new Endpoint("DELETE /topics/{id}", 3, client -> client.createdTopics.isEmpty()
+                        ? null
+                        : request(client, "/api/v1/topics/" + client.createdTopics.poll()).DELETE().build())
+        );
+    }
+
+    private Map<String, Recorder> run(Duration duration, List<Endpoint> endpoints) {
+        Map<String, Recorder> recorders = new LinkedHashMap<>();
+        endpoints.forEach(endpoint -> recorders.put(endpoint.name(), new Recorder()));
+        int totalWeight = endpoints.stream().mapToInt(Endpoint::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < CLIENTS; c++) {
+                Client client = new Client(new SplittableRandom(c), tokens.get(c % tokens.size()));
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick(endpoints, totalWeight, client.random);
+                        HttpRequest request = endpoint.request().apply(client);
+                        if (request != null) {
+                            send(client, endpoint.name(), request, recorders.get(endpoint.name()));
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+        return recorders;
+    }
+
+    private void send(Client client, String endpoint, HttpRequest request, Recorder recorder) {
+        HttpRequest named = HttpRequest.newBuilder(request, (name, value) -> true)
+                .header(StatementCounter.HEADER, endpoint)
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(named, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            recorder.record(System.nanoTime() - start, true);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(System.nanoTime() - start, response.statusCode() >= 400);
+
+        if (request.method().equals("POST") && response.statusCode() == 200) {
+            try {
+                JsonNode topic = objectMapper.readTree(response.body());
+                client.createdTopics.add(topic.get("id").asLong());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void report(Map<String, Recorder> recorders) throws IOException {
+        double seconds = DURATION.toMillis() / 1000.0;
+        List<String> lines = new ArrayList<>();
+        lines.add("endpoint,requests,errors,p50_ms,p99_ms,requests_per_s,statements_per_request");
+        System.out.printf("%nLoad test: %d clients for %d s over %s%n", CLIENTS, DURATION.toSeconds(), CORPUS);
+        System.out.printf("%-42s %9s %7s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "p50 ms", "p99 ms", "req/s", "stmts/req");
+        recorders.forEach((name, recorder) -> {
+            long[] latencies = recorder.sorted();
+            double p50 = percentile(latencies, 0.50);
+            double p99 = percentile(latencies, 0.99);
+            double throughput = latencies.length / seconds;
+            double statements = statementCounter.perRequest(name);
+            System.out.printf("%-42s %9d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                    name, latencies.length, recorder.errors.get(), p50, p99, throughput, statements);
+            lines.add(String.format("\"%s\",%d,%d,%.1f,%.1f,%.1f,%.1f",
+                    name, latencies.length, recorder.errors.get(), p50, p99, throughput, statements));
+        });
+
+        Path summary = Path.of("build", "reports", "loadtest", "summary.csv");
+        Files.createDirectories(summary.getParent());
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summary))) {
+            lines.forEach(out::println);
+        }
+    }
+
+    private HttpRequest createTopic(Client client) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(Map.of(
+                    "name", "Load topic " + client.random.nextInt(1_000_000),
+                    "keywords", List.of(word(client), word(client))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return request(client, "/api/v1/topics")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(Client client, String path) {
+        return request(client, path).GET().build();
+    }
+
+    private HttpRequest.Builder request(Client client, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + client.token);
+    }
+
+    private String optionalFilter(Client client) {
+        return switch (client.random.nextInt(4)) {
+            case 0 -> "&sourceId=" + (minSourceId + client.random.nextInt(CORPUS.sources()));
+            case 1 -> "&sentiment=" + List.of("positive", "negative", "neutral").get(client.random.nextInt(3));
+            default -> "";
+        };
+    }
+
+    private static String lastDays(int days) {
+        Instant to = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return "from=" + to.minus(days, ChronoUnit.DAYS) + "&to=" + to;
+    }
+
+    private static String word(Client client) {
+        List<String> words = SyntheticCorpus.VOCABULARY.get(client.random.nextInt(SyntheticCorpus.VOCABULARY.size()));
+        return words.get(client.random.nextInt(words.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static Endpoint pick(List<Endpoint> endpoints, int totalWeight, SplittableRandom random) {
+        int choice = random.nextInt(totalWeight);
+        for (Endpoint endpoint : endpoints) {
+            choice -= endpoint.weight();
+            if (choice < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sortedNanos.length - 1, (int) Math.ceil(quantile * sortedNanos.length) - 1);
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * One request type. {@code request} may return null when the client has
+     * nothing to do for it, such as no topic left to delete.
+     */
+    private record Endpoint(String name, int weight, Function<Client, HttpRequest> request) {}
+
+    /**
+     * A simulated user: one token, its own random stream and the topics it
+     * created and may delete again.
+     */
+    private static final class Client {
+
+        final SplittableRandom random;
+        final String token;
+        final Deque<Long> createdTopics = new ArrayDeque<>();
+
+        Client(SplittableRandom random, String token) {
+            this.random = random;
+            this.token = token;
+        }
+    }
+
+    private static final class Recorder {
+
+        private final AtomicLong errors = new AtomicLong();
+        private long[] latencies = new long[1024];
+        private int size;
+
+        synchronized void record(long nanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized int count() {
+            return size;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
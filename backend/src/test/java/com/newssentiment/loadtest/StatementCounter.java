@@ -0,0 +1,127 @@
+package com.newssentiment.loadtest;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the JDBC statements each endpoint of the load test runs on the
+ * server. The load client names the endpoint in the {@value #HEADER} header;
+ * a filter ahead of security binds it to the request thread, and the data
+ * source counts every statement prepared while it is bound, including the
+ * user lookup during authentication.
+ */
+class StatementCounter {
+
+    static final String HEADER = "X-Load-Endpoint";
+
+    private static final ThreadLocal<String> ENDPOINT = new ThreadLocal<>();
+    private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private final Map<String, LongAdder> statements = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requests = new ConcurrentHashMap<>();
+
+    void reset() {
+        statements.clear();
+        requests.clear();
+    }
+
+    /**
+     * Statements per request for {@code endpoint}, or 0 if it was not called.
+     */
+    double perRequest(String endpoint) {
+        LongAdder count = requests.get(endpoint);
+        if (count == null || count.sum() == 0) {
+            return 0;
+        }
+        return (double) statements.getOrDefault(endpoint, new LongAdder()).sum() / count.sum();
+    }
+
+    private void countStatement() {
+        String endpoint = ENDPOINT.get();
+        if (endpoint != null) {
+            statements.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+        }
+    }
+
+    private Connection counting(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (STATEMENT_METHODS.contains(method.getName())) {
+                        countStatement();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Config {
+
+        @Bean
+        static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        static BeanPostProcessor countingDataSource(StatementCounter counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return counter.counting(super.getConnection());
+                        }
+
+                        @Override
+                        public Connection getConnection(String username, String password) throws SQLException {
+                            return counter.counting(super.getConnection(username, password));
+                        }
+                    };
+                }
+            };
+        }
+
+        @Bean
+        FilterRegistrationBean<Filter> endpointFilter(StatementCounter counter) {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+                String endpoint = ((HttpServletRequest) request).getHeader(HEADER);
+                if (endpoint == null) {
+                    chain.doFilter(request, response);
+                    return;
+                }
+                counter.requests.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+                ENDPOINT.set(endpoint);
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    ENDPOINT.remove();
+                }
+            });
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.newssentiment.loadtest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+/**
+ * Generates a corpus shaped like production inside the database: sources in
+ * Armenian, Russian and English, articles written from each source's language
+ * over {@code days} days, sentiment results for most of them, users with
+ * topics, and topic matches. Everything is produced by set-based SQL so a few
+ * million articles load in minutes.
+ *
+ * <p>Sizes come from {@code loadtest.*} system properties; see
+ * {@link #fromSystemProperties()}.
+ */
+record SyntheticCorpus(int sources, int articles, int days, int users, int topicsPerUser) {
+
+    static final String PASSWORD = "load-test-password";
+
+    /** Sixteen words per language, in the order ARMENIAN, RUSSIAN, ENGLISH. */
+    static final List<List<String>> VOCABULARY = List.of(
+            List.of("ընտրություններ", "կառավարություն", "բյուջե", "վարչապետ", "Երևան", "խորհրդարան",
+                    "սահման", "տնտեսություն", "բանակցություններ", "համաձայնագիր", "ներդրումներ", "էներգետիկա",
+                    "անվտանգություն", "հանդիպում", "պատվիրակություն", "հայտարարություն"),
+            List.of("выборы", "правительство", "бюджет", "премьер", "Ереван", "парламент",
+                    "граница", "экономика", "переговоры", "соглашение", "инвестиции", "энергетика",
+                    "безопасность", "встреча", "делегация", "заявление"),
+            List.of("election", "government", "budget", "minister", "Yerevan", "parliament",
+                    "border", "economy", "negotiations", "agreement", "investment", "energy",
+                    "security", "meeting", "delegation", "statement")
+    );
+
+    static SyntheticCorpus fromSystemProperties() {
+        return new SyntheticCorpus(
+                Integer.getInteger("loadtest.sources", 60),
+                Integer.getInteger("loadtest.articles", 1_000_000),
+                Integer.getInteger("loadtest.days", 365),
+                Integer.getInteger("loadtest.users", 200),
+                Integer.getInteger("loadtest.topics-per-user", 3)
+        );
+    }
+
+    static String email(int user) {
+        return "load" + user + "@example.com";
+    }
+
+    void seed(JdbcTemplate jdbcTemplate) {
+        // Give the history its monthly partitions, as maintenance would have over time
+        for (String[] table : new String[][]{{"articles", "published_at"}, {"sentiment_results", "processed_at"}}) {
+            jdbcTemplate.queryForList("""
+                    SELECT ensure_monthly_partition(?, ?, m::date)
+                    FROM generate_series(date_trunc('month', now() - make_interval(days => ?)), now(), '1 month') m
+                    """, Boolean.class, table[0], table[1], days);
+        }
+
+        jdbcTemplate.update("""
+                INSERT INTO sources (name, url, type, language)
+                SELECT 'Load source ' || i, 'https://load.example/' || i, 'RSS',
+                       (ARRAY['ARMENIAN', 'RUSSIAN', 'ENGLISH'])[1 + i % 3]
+                FROM generate_series(0, ? - 1) i
+                """, sources);
+
+        // Source i writes in language i % 3, so words[1 + i % 3] is its vocabulary
+        jdbcTemplate.update("""
+                WITH src AS (
+                    SELECT array_agg(id ORDER BY id) AS ids FROM sources WHERE name LIKE 'Load source %'
+                ), vocab AS (
+                    SELECT ?::text[][] AS words
+                )
+                INSERT INTO articles (source_id, external_id, title, content, url, author, published_at, fetched_at)
+                SELECT src.ids[1 + i % ?],
+                       'load-' || i,
+                       array_to_string(ARRAY(
+                           SELECT words[1 + (i % ?) % 3][1 + floor(random() * 16)::int]
+                           FROM generate_series(1, 6 + i % 4)), ' '),
+                       array_to_string(ARRAY(
+                           SELECT words[1 + (i % ?) % 3][1 + floor(random() * 16)::int]
+                           FROM generate_series(1, 120 + i % 80)), ' '),
+                       'https://load.example/articles/' || i,
+                       CASE WHEN i % 4 = 0 THEN NULL ELSE 'Reporter ' || (i % 97) END,
+                       g.published_at,
+                       g.published_at + interval '2 minutes'
+                FROM src, vocab, (
+                    SELECT i, now() - random() * make_interval(days => ?) AS published_at
+                    FROM generate_series(1, ?) i
+                ) g
+                """, vocabularyLiteral(), sources, sources, sources, days, articles);
+
+        jdbcTemplate.update("""
+                INSERT INTO sentiment_results (article_id, sentiment, confidence, model_version, processed_at)
+                SELECT id,
+                       (ARRAY['POSITIVE', 'NEGATIVE', 'NEUTRAL'])[1 + floor(random() * 3)::int],
+                       round((0.5 + random() * 0.49)::numeric, 2),
+                       'loadtest',
+                       least(published_at + interval '5 minutes', now())
+                FROM articles
+                WHERE external_id LIKE 'load-%' AND random() < 0.9
+                """);
+
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+        jdbcTemplate.update("""
+                INSERT INTO users (email, password_hash, name, role)
+                SELECT 'load' || i || '@example.com', ?, 'Load user ' || i, 'USER'
+                FROM generate_series(1, ?) i
+                """, passwordHash, users);
+
+        jdbcTemplate.update("""
+                WITH vocab AS (SELECT ?::text[][] AS words)
+                INSERT INTO topics (user_id, name, keywords)
+                SELECT u.id, 'Topic ' || t,
+                       ARRAY[words[1 + t % 3][1 + (u.id + t) % 16], words[1 + t % 3][1 + (u.id * 7 + t) % 16]]
+                FROM vocab, users u, generate_series(1, ?) t
+                WHERE u.email LIKE 'load%@example.com'
+                """, vocabularyLiteral(), topicsPerUser);
+
+        jdbcTemplate.update("""
+                INSERT INTO article_topics (article_id, topic_id)
+                SELECT a.id, t.ids[1 + floor(random() * cardinality(t.ids))::int]
+                FROM articles a, (SELECT array_agg(id) AS ids FROM topics) t
+                WHERE a.external_id LIKE 'load-%' AND random() < 0.1
+                ON CONFLICT DO NOTHING
+                """);
+
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private static String vocabularyLiteral() {
+        StringBuilder literal = new StringBuilder("{");
+        for (List<String> words : VOCABULARY) {
+            literal.append(literal.length() > 1 ? ",{" : "{");
+            literal.append(String.join(",", words.stream().map(word -> '"' + word + '"').toList()));
+            literal.append('}');
+        }
+        return literal.append('}').toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.newssentiment.repository;
+
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.AlertNotification;
+import com.newssentiment.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AlertNotificationRepositoryTest {
+
+    private static final Instant FIRED = Instant.parse("2024-03-01T12:00:00Z");
+
+    @Autowired
+    private AlertNotificationRepository notificationRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private User user;
+    private Alert emailAlert;
+    private Alert webhookAlert;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        user = userRepository.save(User.builder().email("outbox@example.com").passwordHash("hash").build());
+        emailAlert = alertRepository.save(alert(Alert.Channel.EMAIL, null));
+        webhookAlert = alertRepository.save(alert(Alert.Channel.WEBHOOK, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        alertRepository.deleteAll(List.of(emailAlert, webhookAlert));
+        userRepository.delete(user);
+    }
+
+    @Test
+    void enqueueAddressesTheOwnerAndSkipsRepeatsWithinTheWindow() {
+        assertThat(enqueue(emailAlert, FIRED)).isEqualTo(1);
+        // No webhook URL to send to
+        assertThat(enqueue(webhookAlert, FIRED)).isZero();
+        // Fired again by another node, or after a restart, within the hour
+        assertThat(enqueue(emailAlert, FIRED.plus(Duration.ofMinutes(59)))).isZero();
+        assertThat(enqueue(emailAlert, FIRED.minus(Duration.ofMinutes(59)))).isZero();
+        assertThat(enqueue(emailAlert, FIRED.plus(Duration.ofMinutes(60)))).isEqualTo(1);
+
+        assertThat(notificationRepository.findAll())
+                .extracting(AlertNotification::getRecipient, AlertNotification::getUserId, AlertNotification::getStatus)
+                .containsOnly(tuple("outbox@example.com", user.getId(), AlertNotification.Status.PENDING))
+                .hasSize(2);
+    }
+
+    @Test
+    void claimSkipsRowsAnotherWorkerHoldsAndLeasesWhatItTakes() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            enqueue(emailAlert, FIRED.plus(Duration.ofHours(i)));
+        }
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<List<AlertNotification>> first = CompletableFuture.supplyAsync(() -> transaction.execute(status -> {
+            List<AlertNotification> rows = notificationRepository.claimDue(Alert.Channel.EMAIL, 2, Duration.ofMinutes(5));
+            claimed.countDown();
+            await(release);
+            return rows;
+        }));
+        assertThat(claimed.await(10, TimeUnit.SECONDS)).isTrue();
+
+        List<AlertNotification> second = notificationRepository.claimDue(Alert.Channel.EMAIL, 10, Duration.ofMinutes(5));
+        release.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).hasSize(2);
+        assertThat(second).hasSize(2);
+        assertThat(second).extracting(AlertNotification::getId)
+                .doesNotContainAnyElementsOf(first.get().stream().map(AlertNotification::getId).toList());
+        assertThat(notificationRepository.claimDue(Alert.Channel.EMAIL, 10, Duration.ofMinutes(5))).isEmpty();
+        assertThat(notificationRepository.claimDue(Alert.Channel.WEBHOOK, 10, Duration.ofMinutes(5))).isEmpty();
+    }
+
+    @Test
+    void failuresBackOffExponentiallyUpToTheCapUntilMaxAttempts() {
+        enqueue(emailAlert, FIRED);
+        Long id = notificationRepository.findAll().get(0).getId();
+        Duration base = Duration.ofSeconds(10);
+        Duration cap = Duration.ofSeconds(25);
+
+        assertBackoff(id, 1, base, cap, Duration.ofSeconds(10));
+        assertBackoff(id, 2, base, cap, Duration.ofSeconds(20));
+        assertBackoff(id, 3, base, cap, Duration.ofSeconds(25));
+
+        notificationRepository.markFailed(List.of(id), "refused", 4, base, cap);
+
+        AlertNotification failed = notificationRepository.findById(id).orElseThrow();
+        assertThat(failed.getStatus()).isEqualTo(AlertNotification.Status.FAILED);
+        assertThat(failed.getAttempts()).isEqualTo(4);
+        assertThat(failed.getLastError()).isEqualTo("refused");
+    }
+
+    @Test
+    void sentNotificationsAreNotClaimedAgain() {
+        enqueue(emailAlert, FIRED);
+        Long id = notificationRepository.findAll().get(0).getId();
+
+        notificationRepository.markSent(List.of(id));
+
+        AlertNotification sent = notificationRepository.findById(id).orElseThrow();
+        assertThat(sent.getStatus()).isEqualTo(AlertNotification.Status.SENT);
+        assertThat(sent.getSentAt()).isNotNull();
+        assertThat(notificationRepository.claimDue(Alert.Channel.EMAIL, 10, Duration.ZERO)).isEmpty();
+    }
+
+    private void assertBackoff(Long id, int attempts, Duration base, Duration cap, Duration expected) {
+        Instant before = Instant.now();
+        notificationRepository.markFailed(List.of(id), "refused", 4, base, cap);
+        Instant after = Instant.now();
+
+        AlertNotification row = notificationRepository.findById(id).orElseThrow();
+        assertThat(row.getStatus()).isEqualTo(AlertNotification.Status.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(attempts);
+        // Database and JVM clocks are the same machine's, give or take a second
+        assertThat(row.getNextAttemptAt())
+                .isBetween(before.plus(expected).minusSeconds(1), after.plus(expected).plusSeconds(1));
+    }
+
+    private int enqueue(Alert alert, Instant firedAt) {
+        Integer written = transaction.execute(status -> notificationRepository.enqueue(
+                List.of(alert.getId()), List.of(firedAt), List.of(60),
+                List.of(Map.of("alertId", alert.getId())), Instant.now().minusSeconds(1)));
+        return written != null ? written : 0;
+    }
+
+    private Alert alert(Alert.Channel channel, String webhookUrl) {
+        return Alert.builder()
+                .user(user)
+                .condition(Map.of("type", "threshold", "value", 0.5))
+                .channel(channel)
+                .webhookUrl(webhookUrl)
+                .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFilterRequest;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures full-text search latency over a generated corpus. Excluded from the
+ * regular test run; use {@code ./gradlew benchmarkTest}, optionally with
+ * {@code -Dbenchmark.articles=5000000 -Dbenchmark.search.p95-ms=150}.
+ */
+@Tag("benchmark")
+@Testcontainers
+class ArticleSearchBenchmarkTest {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 2_000_000);
+    private static final long P95_BUDGET_MS = Long.getLong("benchmark.search.p95-ms", 200);
+    private static final int ITERATIONS = 200;
+
+    private static final List<String> QUERIES = List.of(
+            "ընտրություններ",
+            "Пашинян выборы",
+            "\"central bank\" inflation",
+            "կառավարություն -բյուջե",
+            "border OR граница"
+    );
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static ArticleRepositoryImpl repository;
+
+    @BeforeAll
+    static void seedCorpus() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new ArticleRepositoryImpl(jdbcTemplate, new ObjectMapper());
+
+        jdbcTemplate.execute("""
+                INSERT INTO sources (name, url, type, language)
+                SELECT 'Bench source ' || i, 'https://bench.example/' || i, 'RSS', 'ENGLISH'
+                FROM generate_series(1, 50) i
+                """);
+        jdbcTemplate.update("""
+                WITH vocab AS (
+                    SELECT ARRAY['ընտրություններ', 'կառավարություն', 'բյուջե', 'վարչապետ', 'Երևան',
+                                 'խորհրդարան', 'սահման', 'տնտեսություն', 'Пашинян', 'выборы',
+                                 'правительство', 'граница', 'экономика', 'инфляция', 'парламент',
+                                 'central', 'bank', 'inflation', 'border', 'election', 'minister',
+                                 'parliament', 'economy', 'protest', 'agreement', 'energy', 'visa',
+                                 'security', 'report', 'statement', 'meeting', 'delegation'] AS words
+                )
+                INSERT INTO articles (source_id, external_id, title, content, published_at)
+                SELECT (SELECT id FROM sources ORDER BY id LIMIT 1) + (i % 50),
+                       'bench-' || i,
+                       array_to_string(ARRAY(
+                           SELECT words[1 + floor(random() * array_length(words, 1))::int]
+                           FROM generate_series(1, 6 + (i % 2))), ' '),
+                       array_to_string(ARRAY(
+                           SELECT words[1 + floor(random() * array_length(words, 1))::int]
+                           FROM generate_series(1, 80 + (i % 3))), ' '),
+                       now() - (i || ' minutes')::interval
+                FROM vocab, generate_series(1, ?) i
+                """, ARTICLES);
+        jdbcTemplate.execute("ANALYZE articles");
+    }
+
+    @Test
+    void searchUsesGinIndex() {
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT id FROM articles WHERE search_vector @@ websearch_to_tsquery('simple', 'Пашинян')",
+                String.class));
+        assertThat(plan).contains("idx_articles_search").doesNotContain("Seq Scan on articles");
+    }
+
+    @Test
+    void searchLatencyStaysWithinBudget() {
+        for (int i = 0; i < 20; i++) {
+            runQuery(i);
+        }
+
+        long[] latencies = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            Page<ArticleDTO> page = runQuery(i);
+            latencies[i] = System.nanoTime() - start;
+            assertThat(page.getContent()).allSatisfy(article -> assertThat(article.headline()).isNotNull());
+        }
+        Arrays.sort(latencies);
+
+        long p50 = latencies[ITERATIONS / 2] / 1_000_000;
+        long p95 = latencies[ITERATIONS * 95 / 100] / 1_000_000;
+        System.out.printf("Full-text search over %d articles: p50=%d ms, p95=%d ms%n", ARTICLES, p50, p95);
+        assertThat(p95).isLessThanOrEqualTo(P95_BUDGET_MS);
+    }
+
+    private static Page<ArticleDTO> runQuery(int i) {
+        ArticleFilterRequest filter = new ArticleFilterRequest(
+                null, null, null, null, QUERIES.get(i % QUERIES.size()));
+        return repository.search(filter, PageRequest.of(i % 5, 20));
+    }
+}
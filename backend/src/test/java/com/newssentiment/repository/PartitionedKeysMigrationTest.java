@@ -0,0 +1,240 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.model.Source;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that the natural
+ * keys and cascades of the partitioned tables behave like the constraints
+ * they replace.
+ */
+@Testcontainers
+class PartitionedKeysMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static ArticleRepositoryImpl articleRepository;
+    private static SentimentResultRepositoryImpl sentimentResultRepository;
+    private static long sourceId;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        articleRepository = new ArticleRepositoryImpl(jdbcTemplate, new ObjectMapper());
+        sentimentResultRepository = new SentimentResultRepositoryImpl(jdbcTemplate, new ObjectMapper());
+        sourceId = jdbcTemplate.queryForObject("SELECT id FROM sources ORDER BY id LIMIT 1", Long.class);
+    }
+
+    @Test
+    void singleRowInsertsReturnTheirIdAndRejectDuplicateKeys() {
+        String externalId = uniqueExternalId();
+        Long id = insertArticle(externalId, thisMonth());
+
+        assertThat(id).isNotNull();
+        assertThatThrownBy(() -> insertArticle(externalId, nextMonth()))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining("article_keys_pkey");
+
+        insertResult(id, "model-a");
+        assertThatThrownBy(() -> insertResult(id, "model-a"))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessageContaining("sentiment_result_keys_pkey");
+        // Another model's result for the same article is a different key
+        assertThat(insertResult(id, "model-b")).isNotNull();
+    }
+
+    @Test
+    void articlesWithoutASourceAreRejected() {
+        assertThatThrownBy(() -> jdbcTemplate.update(
+                "INSERT INTO articles (external_id, title) VALUES (?, 'Title')", uniqueExternalId()))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining("source_id");
+    }
+
+    @Test
+    void bulkInsertsSkipDuplicatesOnlyForThemselves() {
+        String existing = uniqueExternalId();
+        String fresh = uniqueExternalId();
+        insertArticle(existing, thisMonth());
+
+        List<ArticleRepositoryCustom.InsertedArticle> inserted = transactionTemplate.execute(status -> {
+            List<ArticleRepositoryCustom.InsertedArticle> rows = articleRepository.insertIgnoringDuplicates(List.of(
+                    article(existing), article(fresh), article(fresh)));
+            // Later single-row inserts in the same transaction still fail on duplicates
+            assertThatThrownBy(() -> insertArticle(fresh, thisMonth())).isInstanceOf(DuplicateKeyException.class);
+            status.setRollbackOnly();
+            return rows;
+        });
+
+        assertThat(inserted).extracting(ArticleRepositoryCustom.InsertedArticle::externalId).containsExactly(fresh);
+
+        Long articleId = insertArticle(fresh, thisMonth());
+        insertResult(articleId, "model-a");
+        List<Long> insertedResults = transactionTemplate.execute(status ->
+                sentimentResultRepository.insertIgnoringDuplicates(List.of(
+                        result(articleId, "model-a"), result(articleId, "model-b"), result(articleId, "model-b"))));
+
+        assertThat(insertedResults).containsExactly(articleId);
+        assertThat(countResults(articleId)).isEqualTo(2);
+    }
+
+    @Test
+    void deletingAnArticleCascadesAndReleasesItsKey() {
+        String externalId = uniqueExternalId();
+        long id = insertArticle(externalId, thisMonth());
+        long duplicateId = insertArticle(uniqueExternalId(), thisMonth());
+        long userId = jdbcTemplate.queryForObject("SELECT id FROM users ORDER BY id LIMIT 1", Long.class);
+        long topicId = jdbcTemplate.queryForObject(
+                "INSERT INTO topics (user_id, name, keywords) VALUES (?, 'Cascade', ARRAY['cascade']) RETURNING id",
+                Long.class, userId);
+        insertResult(id, "model-a");
+        jdbcTemplate.update("INSERT INTO labels (article_id, labeler_id, sentiment) VALUES (?, ?, 'NEUTRAL')", id, userId);
+        jdbcTemplate.update("INSERT INTO article_topics (article_id, topic_id) VALUES (?, ?)", id, topicId);
+        jdbcTemplate.update("UPDATE articles SET duplicate_of = ? WHERE id = ?", id, duplicateId);
+
+        jdbcTemplate.update("DELETE FROM articles WHERE id = ?", id);
+
+        assertThat(countResults(id)).isZero();
+        assertThat(count("SELECT count(*) FROM labels WHERE article_id = ?", id)).isZero();
+        assertThat(count("SELECT count(*) FROM article_topics WHERE article_id = ?", id)).isZero();
+        assertThat(count("SELECT count(*) FROM sentiment_result_keys WHERE article_id = ?", id)).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT duplicate_of FROM articles WHERE id = ?", Long.class, duplicateId))
+                .isNull();
+        // The key is free again
+        assertThat(insertArticle(externalId, thisMonth())).isNotNull();
+    }
+
+    @Test
+    void rowsMovingBetweenPartitionsKeepTheirKeysAndDependents() {
+        String externalId = uniqueExternalId();
+        long id = insertArticle(externalId, thisMonth());
+        insertResult(id, "model-a");
+
+        jdbcTemplate.update("UPDATE articles SET published_at = ? WHERE id = ?", nextMonth(), id);
+        assertThat(partitionOf(id)).isEqualTo("articles_p" + YearMonth.now(ZoneOffset.UTC).plusMonths(1).toString().replace("-", ""));
+
+        jdbcTemplate.update("UPDATE articles SET published_at = NULL WHERE id = ?", id);
+        assertThat(partitionOf(id)).isEqualTo("articles_default");
+
+        assertThat(countResults(id)).isEqualTo(1);
+        assertThat(count("SELECT count(*) FROM article_keys WHERE article_id = ?", id)).isEqualTo(1);
+        assertThatThrownBy(() -> insertArticle(externalId, thisMonth())).isInstanceOf(DuplicateKeyException.class);
+
+        long resultId = jdbcTemplate.queryForObject("SELECT id FROM sentiment_results WHERE article_id = ?", Long.class, id);
+        jdbcTemplate.update("UPDATE sentiment_results SET processed_at = ? WHERE id = ?", nextMonth(), resultId);
+        assertThat(count("SELECT count(*) FROM sentiment_result_keys WHERE result_id = ?", resultId)).isEqualTo(1);
+        assertThatThrownBy(() -> insertResult(id, "model-a")).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void everyArticlesPartitionHasAPrimaryKey() {
+        jdbcTemplate.queryForObject("SELECT ensure_monthly_partition('articles', 'published_at', ?::date)",
+                Boolean.class, YearMonth.now(ZoneOffset.UTC).plusMonths(6).atDay(1).toString());
+
+        List<Map<String, Object>> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname,
+                       EXISTS (SELECT 1 FROM pg_constraint k WHERE k.conrelid = c.oid AND k.contype = 'p') AS has_pk
+                FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'articles'::regclass
+                """);
+
+        assertThat(partitions).hasSizeGreaterThan(2)
+                .allSatisfy(partition -> assertThat(partition.get("has_pk")).as(partition.get("relname").toString())
+                        .isEqualTo(true));
+    }
+
+    private static Long insertArticle(String externalId, Timestamp publishedAt) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO articles (source_id, external_id, title, published_at)
+                VALUES (?, ?, 'Title', ?) RETURNING id
+                """, Long.class, sourceId, externalId, publishedAt);
+    }
+
+    private static Long insertResult(long articleId, String modelVersion) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO sentiment_results (article_id, sentiment, confidence, model_version)
+                VALUES (?, 'NEUTRAL', 0.70, ?) RETURNING id
+                """, Long.class, articleId, modelVersion);
+    }
+
+    private static Article article(String externalId) {
+        return Article.builder()
+                .source(Source.builder().id(sourceId).build())
+                .externalId(externalId)
+                .title("Title")
+                .publishedAt(thisMonth().toInstant())
+                .fetchedAt(Instant.now())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    private static SentimentResult result(long articleId, String modelVersion) {
+        return SentimentResult.builder()
+                .article(Article.builder().id(articleId).build())
+                .sentiment(SentimentResult.Sentiment.NEUTRAL)
+                .confidence(new BigDecimal("0.70"))
+                .modelVersion(modelVersion)
+                .topics(List.of())
+                .entities(Map.of())
+                .processedAt(Instant.now())
+                .build();
+    }
+
+    private static String partitionOf(long articleId) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM articles WHERE id = ?", String.class, articleId);
+    }
+
+    private static long countResults(long articleId) {
+        return count("SELECT count(*) FROM sentiment_results WHERE article_id = ?", articleId);
+    }
+
+    private static long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private static Timestamp thisMonth() {
+        return Timestamp.from(Instant.now());
+    }
+
+    private static Timestamp nextMonth() {
+        return Timestamp.from(YearMonth.now(ZoneOffset.UTC).plusMonths(1).atDay(15).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private static String uniqueExternalId() {
+        return "key-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,206 @@
+package com.newssentiment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that aggregates
+ * read from {@code sentiment_rollups} and the raw range edges add up to the
+ * same counts as {@code sentiment_results}, whenever results are committed.
+ */
+@Testcontainers
+class SentimentRollupsTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Instant NOW = Instant.now();
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static SentimentResultRepositoryImpl sentimentResultRepository;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        sentimentResultRepository = new SentimentResultRepositoryImpl(jdbcTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void resultsCommittedAfterTheirHourWasReadAreCounted() {
+        long sourceId = insertSource();
+        Instant threeHoursAgo = NOW.minus(3, ChronoUnit.HOURS);
+        Instant from = NOW.minus(2, ChronoUnit.DAYS);
+        insertResult(insertArticle(sourceId), SentimentResult.Sentiment.NEGATIVE, threeHoursAgo);
+
+        assertThat(dayCounts(sourceId, from, NOW)).isEqualTo(rawDayCounts(sourceId, from, NOW));
+
+        // A batch stamped hours ago, committed only now
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < 3; i++) {
+                insertResult(insertArticle(sourceId), SentimentResult.Sentiment.NEGATIVE, threeHoursAgo.plusSeconds(i));
+            }
+        });
+
+        Map<String, Long> counts = dayCounts(sourceId, from, NOW);
+        assertThat(counts).isEqualTo(rawDayCounts(sourceId, from, NOW));
+        assertThat(counts.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(4);
+        assertThat(hourCounts(from, NOW)).isEqualTo(rawHourCounts(from, NOW));
+    }
+
+    @Test
+    void aggregatesMatchRawCountsForUnalignedRanges() {
+        long sourceId = insertSource();
+        SplittableRandom random = new SplittableRandom(42);
+        SentimentResult.Sentiment[] sentiments = SentimentResult.Sentiment.values();
+        for (int i = 0; i < 300; i++) {
+            Instant processedAt = NOW.minusSeconds(random.nextLong(10 * 86_400));
+            insertResult(insertArticle(sourceId), sentiments[random.nextInt(sentiments.length)], processedAt);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            Instant from = NOW.minusSeconds(random.nextLong(11 * 86_400));
+            Instant to = from.plusSeconds(random.nextLong(6 * 86_400));
+            assertThat(dayCounts(sourceId, from, to)).as("[%s, %s)", from, to)
+                    .isEqualTo(rawDayCounts(sourceId, from, to));
+            assertThat(hourCounts(from, to)).as("[%s, %s)", from, to)
+                    .isEqualTo(rawHourCounts(from, to));
+        }
+
+        // Ranges within one hour, and ending exactly on hour and day boundaries
+        Instant hour = NOW.minus(5, ChronoUnit.HOURS).truncatedTo(ChronoUnit.HOURS);
+        Instant day = NOW.minus(3, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        for (Instant[] range : new Instant[][]{
+                {hour.plusSeconds(60), hour.plusSeconds(1800)},
+                {hour, hour.plus(1, ChronoUnit.HOURS)},
+                {day, day.plus(2, ChronoUnit.DAYS)},
+                {day.minusSeconds(1), day.plus(1, ChronoUnit.DAYS).plusSeconds(1)}}) {
+            assertThat(dayCounts(sourceId, range[0], range[1])).isEqualTo(rawDayCounts(sourceId, range[0], range[1]));
+            assertThat(hourCounts(range[0], range[1])).isEqualTo(rawHourCounts(range[0], range[1]));
+        }
+    }
+
+    @Test
+    void duplicatesSkippedByBulkInsertsAreNotCounted() {
+        long sourceId = insertSource();
+        long articleId = insertArticle(sourceId);
+        Instant processedAt = NOW.minus(1, ChronoUnit.DAYS);
+        insertResult(articleId, SentimentResult.Sentiment.POSITIVE, processedAt);
+
+        transactionTemplate.execute(status -> sentimentResultRepository.insertIgnoringDuplicates(List.of(
+                result(articleId, processedAt), result(insertArticle(sourceId), processedAt))));
+
+        Instant from = processedAt.truncatedTo(ChronoUnit.DAYS);
+        Map<String, Long> counts = dayCounts(sourceId, from, from.plus(1, ChronoUnit.DAYS));
+        assertThat(counts).containsEntry(LocalDate.ofInstant(processedAt, ZoneOffset.UTC) + " POSITIVE", 2L);
+        assertThat(counts).isEqualTo(rawDayCounts(sourceId, from, from.plus(1, ChronoUnit.DAYS)));
+    }
+
+    private static Map<String, Long> dayCounts(long sourceId, Instant from, Instant to) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : sentimentResultRepository.countByDaySourceAndSentiment(from, to)) {
+            if ((Long) row[1] == sourceId) {
+                counts.merge(row[0] + " " + row[2], (Long) row[3], Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> rawDayCounts(long sourceId, Instant from, Instant to) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT (sr.processed_at AT TIME ZONE 'UTC')::date, sr.sentiment, count(*)
+                        FROM sentiment_results sr JOIN articles a ON a.id = sr.article_id
+                        WHERE a.source_id = ? AND sr.processed_at >= ? AND sr.processed_at < ?
+                        GROUP BY 1, 2
+                        """,
+                rs -> {
+                    counts.put(rs.getObject(1, LocalDate.class) + " " + rs.getString(2), rs.getLong(3));
+                },
+                sourceId, Timestamp.from(from), Timestamp.from(to));
+        return counts;
+    }
+
+    private static Map<String, Long> hourCounts(Instant from, Instant to) {
+        Map<String, Long> counts = new HashMap<>();
+        sentimentResultRepository.countByHourAndSentiment(from, to,
+                (hour, sentiment, count) -> counts.merge(hour + " " + sentiment, count, Long::sum));
+        return counts;
+    }
+
+    private static Map<String, Long> rawHourCounts(Instant from, Instant to) {
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT floor(extract(epoch FROM processed_at) / 3600)::bigint, sentiment, count(*)
+                        FROM sentiment_results
+                        WHERE processed_at >= ? AND processed_at < ?
+                        GROUP BY 1, 2
+                        """,
+                rs -> {
+                    counts.put(rs.getLong(1) + " " + rs.getString(2), rs.getLong(3));
+                },
+                Timestamp.from(from), Timestamp.from(to));
+        return counts;
+    }
+
+    private static long insertSource() {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO sources (name, url, type, language)
+                VALUES (?, 'https://example.com/rss', 'RSS', 'ENGLISH') RETURNING id
+                """, Long.class, "Rollup source " + UUID.randomUUID());
+    }
+
+    private static long insertArticle(long sourceId) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO articles (source_id, external_id, title, published_at)
+                VALUES (?, ?, 'Title', now()) RETURNING id
+                """, Long.class, sourceId, "rollup-" + UUID.randomUUID());
+    }
+
+    private static void insertResult(long articleId, SentimentResult.Sentiment sentiment, Instant processedAt) {
+        jdbcTemplate.update("""
+                INSERT INTO sentiment_results (article_id, sentiment, confidence, model_version, processed_at)
+                VALUES (?, ?, 0.70, 'model-a', ?)
+                """, articleId, sentiment.name(), Timestamp.from(processedAt));
+    }
+
+    private static SentimentResult result(long articleId, Instant processedAt) {
+        return SentimentResult.builder()
+                .article(Article.builder().id(articleId).build())
+                .sentiment(SentimentResult.Sentiment.POSITIVE)
+                .modelVersion("model-a")
+                .topics(List.of())
+                .entities(Map.of())
+                .processedAt(processedAt)
+                .build();
+    }
+}
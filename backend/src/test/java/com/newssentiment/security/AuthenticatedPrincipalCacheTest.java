@@ -0,0 +1,101 @@
+package com.newssentiment.security;
+
+import com.newssentiment.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticatedPrincipalCacheTest {
+
+    private final AuthenticatedPrincipalCache cache = new AuthenticatedPrincipalCache(new SimpleMeterRegistry(), 100, 60);
+
+    @Test
+    void entriesExpireWithTheTokenWhenItExpiresBeforeTheTtl() throws InterruptedException {
+        Instant later = Instant.now().plus(Duration.ofMinutes(10));
+        cache.put("long-lived", JwtServiceTest.user("alice@example.com"), later);
+        cache.put("short-lived", JwtServiceTest.user("bob@example.com"), Instant.now().plusMillis(200));
+        cache.put("expired", JwtServiceTest.user("carol@example.com"), Instant.now().minusSeconds(1));
+
+        assertThat(cache.get("expired")).isNull();
+        assertThat(cache.get("short-lived").getUsername()).isEqualTo("bob@example.com");
+
+        Thread.sleep(400);
+
+        assertThat(cache.get("short-lived")).isNull();
+        assertThat(cache.get("long-lived").getUsername()).isEqualTo("alice@example.com");
+    }
+
+    @Test
+    void entriesExpireAfterTheTtlWhenTheTokenOutlivesIt() throws InterruptedException {
+        AuthenticatedPrincipalCache shortTtl = new AuthenticatedPrincipalCache(new SimpleMeterRegistry(), 100, 1);
+        shortTtl.put("token", JwtServiceTest.user("alice@example.com"), Instant.now().plus(Duration.ofHours(1)));
+
+        assertThat(shortTtl.get("token")).isNotNull();
+
+        Thread.sleep(1_200);
+
+        assertThat(shortTtl.get("token")).isNull();
+    }
+
+    @Test
+    void invalidatingAUserDropsAllTheirTokensOnly() {
+        Instant later = Instant.now().plus(Duration.ofMinutes(10));
+        cache.put("alice-laptop", JwtServiceTest.user("alice@example.com"), later);
+        cache.put("alice-phone", JwtServiceTest.user("alice@example.com"), later);
+        cache.put("bob", JwtServiceTest.user("bob@example.com"), later);
+
+        cache.invalidateUser("alice@example.com");
+
+        assertThat(cache.get("alice-laptop")).isNull();
+        assertThat(cache.get("alice-phone")).isNull();
+        assertThat(cache.get("bob")).isNotNull();
+    }
+
+    @Test
+    void onlyAChangeOfAccessDropsTheUsersTokens() {
+        Instant later = Instant.now().plus(Duration.ofMinutes(10));
+        cache.put("alice-laptop", JwtServiceTest.user("alice@example.com"), later);
+        cache.put("bob", JwtServiceTest.user("bob@example.com"), later);
+
+        User loggedIn = JwtServiceTest.user("alice@example.com");
+        loggedIn.setLastLogin(Instant.now());
+        cache.invalidateIfAccessChanged(loggedIn);
+        assertThat(cache.get("alice-laptop")).isNotNull();
+
+        User promoted = JwtServiceTest.user("alice@example.com");
+        promoted.setRole(User.Role.ADMIN);
+        cache.invalidateIfAccessChanged(promoted);
+        assertThat(cache.get("alice-laptop")).isNull();
+
+        User disabled = JwtServiceTest.user("bob@example.com");
+        disabled.setEnabled(false);
+        cache.invalidateIfAccessChanged(disabled);
+        assertThat(cache.get("bob")).isNull();
+    }
+
+    @Test
+    void principalsMutatedAfterCachingAreComparedAsCached() {
+        User alice = JwtServiceTest.user("alice@example.com");
+        cache.put("alice", alice, Instant.now().plus(Duration.ofMinutes(10)));
+
+        alice.setEnabled(false);
+        cache.invalidateIfAccessChanged(alice);
+
+        assertThat(cache.get("alice")).isNull();
+    }
+
+    @Test
+    void tokensReusedByAnotherUserAreIndexedUnderIt() {
+        Instant later = Instant.now().plus(Duration.ofMinutes(10));
+        cache.put("token", JwtServiceTest.user("alice@example.com"), later);
+        cache.put("token", JwtServiceTest.user("bob@example.com"), later);
+
+        cache.invalidateUser("bob@example.com");
+
+        assertThat(cache.get("token")).isNull();
+    }
+}
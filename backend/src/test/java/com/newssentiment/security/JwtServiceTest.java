@@ -0,0 +1,67 @@
+package com.newssentiment.security;
+
+import com.newssentiment.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-purposes-minimum-32-chars";
+
+    private final JwtService jwtService = jwtService(SECRET, 60_000);
+
+    @Test
+    void parsesTheClaimsOfAValidToken() {
+        String token = jwtService.generateToken(Map.of("role", "ADMIN"), user("alice@example.com"));
+
+        assertThat(jwtService.parseValidClaims(token).getSubject()).isEqualTo("alice@example.com");
+        assertThat(jwtService.parseValidClaims(token).get("role", String.class)).isEqualTo("ADMIN");
+        assertThat(jwtService.parseValidClaims(token).getExpiration()).isInTheFuture();
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        String token = jwtService(SECRET, -1_000).generateToken(user("alice@example.com"));
+
+        assertThatThrownBy(() -> jwtService.parseValidClaims(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void rejectsATamperedToken() {
+        String[] alice = jwtService.generateToken(user("alice@example.com")).split("\\.");
+        String[] mallory = jwtService.generateToken(user("mallory@example.com")).split("\\.");
+        String swappedPayload = alice[0] + "." + mallory[1] + "." + alice[2];
+
+        assertThatThrownBy(() -> jwtService.parseValidClaims(swappedPayload)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> jwtService.parseValidClaims(alice[0] + "." + alice[1] + "."))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        String token = jwtService("another-secret-key-that-is-also-at-least-32-chars", 60_000)
+                .generateToken(user("alice@example.com"));
+
+        assertThatThrownBy(() -> jwtService.parseValidClaims(token)).isInstanceOf(SignatureException.class);
+    }
+
+    private static JwtService jwtService(String secret, long expiration) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", secret);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        service.init();
+        return service;
+    }
+
+    static User user(String email) {
+        return User.builder().email(email).passwordHash("hash").build();
+    }
+}
@@ -0,0 +1,145 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+import com.newssentiment.model.AlertNotification;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.repository.AlertNotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertDeliveryServiceTest {
+
+    private static final AlertCondition CONDITION =
+            new AlertCondition(AlertCondition.Type.THRESHOLD, SentimentResult.Sentiment.NEGATIVE, 0.5, 60, 5, 0);
+
+    private final List<Thread> writers = new CopyOnWriteArrayList<>();
+    private final List<List<Long>> enqueued = new CopyOnWriteArrayList<>();
+
+    @Test
+    void queuedTriggersAreWrittenInBatchesOffTheFiringThread() throws Exception {
+        AlertDeliveryService service = service(100);
+
+        service.onAlertTriggered(new AlertTriggeredEvent(triggers(1, 50)));
+        assertThat(enqueued).isEmpty();
+
+        // Stopping waits for the writer to empty the queue
+        service.start();
+        service.stop();
+
+        assertThat(enqueued).hasSize(1);
+        assertThat(enqueued.get(0)).containsExactlyElementsOf(LongStream.rangeClosed(1, 50).boxed().toList());
+        assertThat(writers).extracting(Thread::getName).containsOnly("alert-outbox-writer");
+    }
+
+    @Test
+    void triggersThatDontFitAreWrittenOnTheFiringThreadInOneCall() {
+        AlertDeliveryService service = service(2);
+
+        service.onAlertTriggered(new AlertTriggeredEvent(triggers(1, 5)));
+
+        assertThat(enqueued).containsExactly(List.of(3L, 4L, 5L));
+        assertThat(writers).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    void stoppingWritesWhatIsStillQueued() throws Exception {
+        AlertDeliveryService service = service(100);
+        service.start();
+
+        service.onAlertTriggered(new AlertTriggeredEvent(triggers(1, 3)));
+        service.stop();
+
+        assertThat(enqueued.stream().flatMap(List::stream)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void groupsNotificationsByUserAndRecipientInClaimOrder() {
+        List<AlertNotification> claimed = List.of(
+                notification(1, 10, "bob@example.com"),
+                notification(2, 20, "carol@example.com"),
+                notification(3, 10, "bob@example.com"),
+                notification(4, 10, "bob@work.example.com"),
+                notification(5, 20, "carol@example.com"));
+
+        Map<AlertDigest, List<Long>> digests = AlertDeliveryService.toDigests(Alert.Channel.EMAIL, claimed);
+
+        assertThat(digests.values()).containsExactly(List.of(1L, 3L), List.of(2L, 5L), List.of(4L));
+        List<AlertDigest> keys = new ArrayList<>(digests.keySet());
+        assertThat(keys).extracting(AlertDigest::recipient)
+                .containsExactly("bob@example.com", "carol@example.com", "bob@work.example.com");
+        assertThat(keys).extracting(AlertDigest::channel).containsOnly(Alert.Channel.EMAIL);
+        assertThat(keys.get(0).userId()).isEqualTo(10L);
+        assertThat(keys.get(0).notifications()).extracting(payload -> payload.get("alertId")).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void noClaimedNotificationsMakeNoDigests() {
+        assertThat(AlertDeliveryService.toDigests(Alert.Channel.WEBHOOK, List.of())).isEmpty();
+    }
+
+    private static AlertNotification notification(long id, long userId, String recipient) {
+        return AlertNotification.builder()
+                .id(id)
+                .alertId(id)
+                .userId(userId)
+                .channel(Alert.Channel.EMAIL)
+                .recipient(recipient)
+                .payload(Map.of("alertId", id))
+                .build();
+    }
+
+    private AlertDeliveryService service(int queueCapacity) {
+        AlertNotificationRepository repository = (AlertNotificationRepository) Proxy.newProxyInstance(
+                AlertNotificationRepository.class.getClassLoader(), new Class<?>[]{AlertNotificationRepository.class},
+                (proxy, method, args) -> {
+                    if (!method.getName().equals("enqueue")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    @SuppressWarnings("unchecked")
+                    List<Long> alertIds = (List<Long>) args[0];
+                    writers.add(Thread.currentThread());
+                    enqueued.add(List.copyOf(alertIds));
+                    return alertIds.size();
+                });
+        PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+        AlertDeliveryService service = new AlertDeliveryService(
+                repository, transactionManager, List.of(), new SimpleMeterRegistry(), queueCapacity);
+        ReflectionTestUtils.setField(service, "batchSize", 200);
+        return service;
+    }
+
+    private static List<AlertTrigger> triggers(long firstId, long lastId) {
+        return LongStream.rangeClosed(firstId, lastId)
+                .mapToObj(id -> new AlertTrigger(id, 10L, null, Alert.Channel.EMAIL, CONDITION, 0.6,
+                        Instant.parse("2024-03-01T12:00:00Z")))
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.newssentiment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static com.newssentiment.model.SentimentResult.Sentiment.NEGATIVE;
+import static com.newssentiment.model.SentimentResult.Sentiment.POSITIVE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AlertStreamTest {
+
+    @Test
+    void firesExactlyTheAlertsWhoseThresholdTheShareCrossed() {
+        AlertStream stream = new AlertStream(AlertCondition.parse(Map.of(
+                "type", "threshold", "value", 0.5, "windowMinutes", 10, "minArticles", 4)));
+        stream.setAlerts(new long[]{3, 1, 4, 2}, new double[]{0.6, 0.2, 0.8, 0.4});
+
+        assertThat(stream.record(0, POSITIVE, 2, true).alertIds()).isEmpty();
+        assertThat(stream.record(0, NEGATIVE, 1, true).alertIds()).isEmpty();
+
+        AlertStream.Fired half = stream.record(1, NEGATIVE, 1, true);
+        assertThat(half.value()).isEqualTo(0.5);
+        assertThat(half.alertIds()).containsExactly(1L, 2L);
+
+        assertThat(stream.record(1, NEGATIVE, 1, true).alertIds()).containsExactly(3L);
+        // Falling back to 0.5 and rising to 4/7 crosses nothing new
+        assertThat(stream.record(2, POSITIVE, 1, true).alertIds()).isEmpty();
+        assertThat(stream.record(2, NEGATIVE, 1, true).alertIds()).isEmpty();
+        // 12 of 15 crosses 0.6 again, but alert 3 already fired within this window
+        assertThat(stream.record(2, NEGATIVE, 8, true).alertIds()).containsExactly(4L);
+    }
+
+    @Test
+    void resultsLeaveTheWindowAndAnAlertFiresOncePerWindow() {
+        AlertStream stream = new AlertStream(AlertCondition.parse(Map.of(
+                "type", "threshold", "value", 0.5, "windowMinutes", 5, "minArticles", 2)));
+        stream.setAlerts(new long[]{7}, new double[]{0.5});
+
+        assertThat(stream.record(0, NEGATIVE, 2, true).alertIds()).containsExactly(7L);
+        assertThat(stream.record(1, POSITIVE, 2, true).alertIds()).isEmpty();
+        assertThat(stream.record(2, POSITIVE, 2, true).alertIds()).isEmpty();
+        // Back above the threshold, but still within the window of the last firing
+        assertThat(stream.record(3, NEGATIVE, 4, true).alertIds()).isEmpty();
+
+        // By minute 8 minutes 0-3 have left the window, so one result is below minArticles
+        assertThat(stream.record(8, POSITIVE, 1, true).value()).isZero();
+        AlertStream.Fired again = stream.record(8, NEGATIVE, 1, true);
+        assertThat(again.value()).isEqualTo(0.5);
+        assertThat(again.alertIds()).containsExactly(7L);
+    }
+
+    @Test
+    void resultsOlderThanTheHorizonAreIgnored() {
+        AlertStream stream = new AlertStream(AlertCondition.parse(Map.of(
+                "type", "threshold", "value", 0.5, "windowMinutes", 5, "minArticles", 1)));
+        stream.setAlerts(new long[]{7}, new double[]{0.5});
+
+        stream.record(100, POSITIVE, 1, true);
+
+        assertThat(stream.record(100 - stream.horizonMinutes(), NEGATIVE, 5, true)).isSameAs(AlertStream.Fired.NONE);
+        assertThat(stream.record(100, POSITIVE, 1, true).value()).isZero();
+    }
+
+    @Test
+    void spikesAreMeasuredAgainstTheBaselineWindows() {
+        AlertStream stream = new AlertStream(AlertCondition.parse(Map.of(
+                "type", "spike", "value", 2, "windowMinutes", 1, "baselineWindows", 3, "minArticles", 1)));
+        stream.setAlerts(new long[]{9}, new double[]{2});
+        assertThat(stream.horizonMinutes()).isEqualTo(4);
+
+        // Warm-up accumulates without firing
+        for (int minute = 0; minute < 3; minute++) {
+            assertThat(stream.record(minute, NEGATIVE, 2, false)).isSameAs(AlertStream.Fired.NONE);
+        }
+
+        // Baseline is 6 matches over 3 windows; 3 is only 1.5 times that
+        assertThat(stream.record(3, NEGATIVE, 3, true).alertIds()).isEmpty();
+        AlertStream.Fired spike = stream.record(3, NEGATIVE, 1, true);
+        assertThat(spike.value()).isEqualTo(2.0);
+        assertThat(spike.alertIds()).containsExactly(9L);
+    }
+
+    @Test
+    void replacingAlertsKeepsCountsAndForgetsRemovedAlerts() {
+        AlertStream stream = new AlertStream(AlertCondition.parse(Map.of(
+                "type", "threshold", "value", 0.5, "windowMinutes", 5, "minArticles", 1)));
+        stream.setAlerts(new long[]{1}, new double[]{0.5});
+        assertThat(stream.record(0, NEGATIVE, 1, true).alertIds()).containsExactly(1L);
+        stream.record(0, POSITIVE, 3, true);
+
+        stream.setAlerts(new long[]{1, 2}, new double[]{0.5, 0.4});
+
+        // 3 of 6 is 0.5: alert 2 is new and fires, alert 1 is still within its window
+        assertThat(stream.record(1, NEGATIVE, 2, true).alertIds()).containsExactly(2L);
+    }
+}
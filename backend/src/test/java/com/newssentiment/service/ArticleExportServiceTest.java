@@ -0,0 +1,126 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ArticleFilterRequest;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.SentimentResultRepository;
+import com.newssentiment.repository.SourceRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.export.chunk-size=7")
+@ActiveProfiles("test")
+@Transactional
+class ArticleExportServiceTest {
+
+    @Autowired
+    private ArticleExportService exportService;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SentimentResultRepository sentimentResultRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Source source;
+
+    @BeforeEach
+    void setUp() {
+        source = sourceRepository.save(Source.builder()
+                .name("Export Source")
+                .url("https://example.com/export-rss")
+                .type(Source.SourceType.RSS)
+                .language(Source.Language.ENGLISH)
+                .build());
+
+        for (int i = 0; i < 30; i++) {
+            Article article = articleRepository.save(Article.builder()
+                    .source(source)
+                    .externalId("export-" + i)
+                    .title(i == 0 ? "Quotes \"and\", commas" : "Article " + i)
+                    .publishedAt(Instant.parse("2024-03-01T00:00:00Z").plusSeconds(i * 60L))
+                    .build());
+            sentimentResultRepository.save(SentimentResult.builder()
+                    .article(article)
+                    .sentiment(i % 3 == 0 ? SentimentResult.Sentiment.NEGATIVE : SentimentResult.Sentiment.POSITIVE)
+                    .confidence(new BigDecimal("0.80"))
+                    .modelVersion("test")
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void exportsEveryMatchingRowAcrossChunksAsNdjson() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(filter(null), ArticleExportService.Format.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(30);
+        assertThat(lines).hasSize(30);
+        List<Long> ids = lines.stream().map(this::readTree).map(node -> node.get("id").asLong()).toList();
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+
+        JsonNode first = readTree(lines.get(0));
+        assertThat(first.get("title").asText()).isEqualTo("Quotes \"and\", commas");
+        assertThat(first.get("sourceName").asText()).isEqualTo("Export Source");
+        assertThat(first.get("sentiment").asText()).isEqualTo("NEGATIVE");
+        assertThat(first.get("confidence").decimalValue()).isEqualByComparingTo("0.80");
+        assertThat(first.get("publishedAt").asText()).isEqualTo("2024-03-01T00:00:00Z");
+    }
+
+    @Test
+    void appliesFiltersAndQuotesCsvFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.export(filter(SentimentResult.Sentiment.NEGATIVE),
+                ArticleExportService.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(count).isEqualTo(10);
+        assertThat(lines).hasSize(11);
+        assertThat(lines.get(0)).isEqualTo("id,source_id,source_name,title,url,author,published_at,sentiment,confidence");
+        assertThat(lines.get(1)).contains(",Export Source,\"Quotes \"\"and\"\", commas\",,,2024-03-01T00:00:00Z,NEGATIVE,0.80");
+        assertThat(lines.subList(1, lines.size())).allSatisfy(line -> assertThat(line).contains(",NEGATIVE,"));
+    }
+
+    private ArticleFilterRequest filter(SentimentResult.Sentiment sentiment) {
+        return new ArticleFilterRequest(source.getId(), sentiment, null, null, null);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.ArticleDTO;
+import com.newssentiment.dto.ArticleFilterRequest;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.SentimentResultRepository;
+import com.newssentiment.repository.SourceRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+class ArticleServiceTest {
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SentimentResultRepository sentimentResultRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Source source = sourceRepository.save(Source.builder()
+                .name("Test Source")
+                .url("https://example.com/rss")
+                .type(Source.SourceType.RSS)
+                .language(Source.Language.ENGLISH)
+                .build());
+
+        for (int i = 0; i < 30; i++) {
+            Article article = articleRepository.save(Article.builder()
+                    .source(source)
+                    .externalId("article-" + i)
+                    .title("Article " + i)
+                    .content("Body of article " + i)
+                    .publishedAt(Instant.now().minusSeconds(i * 60L))
+                    .build());
+            sentimentResultRepository.save(SentimentResult.builder()
+                    .article(article)
+                    .sentiment(SentimentResult.Sentiment.POSITIVE)
+                    .confidence(new BigDecimal("0.90"))
+                    .modelVersion("test")
+                    .build());
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingPageRunsOneSelectAndOneCount() {
+        Page<ArticleDTO> page = articleService.findWithFilters(
+                new ArticleFilterRequest(null, null, null, null, null),
+                PageRequest.of(0, 20)
+        );
+
+        assertThat(page.getContent()).hasSize(20).allSatisfy(article -> {
+            assertThat(article.sourceName()).isEqualTo("Test Source");
+            assertThat(article.sentiment()).isEqualTo("POSITIVE");
+        });
+        assertThat(page.getTotalElements()).isEqualTo(30);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
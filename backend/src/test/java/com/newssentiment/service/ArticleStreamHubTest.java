@@ -0,0 +1,213 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.dto.ScoredArticleDTO;
+import com.newssentiment.model.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleStreamHubTest {
+
+    private static final ArticleStreamHub.Filter ANY = new ArticleStreamHub.Filter(Set.of(), Set.of(), Set.of());
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    void filtersMatchAnyOfTheArticlesTopics() {
+        ScoredArticleDTO article = article(1, 10L, 5L, List.of(5L, 7L), "NEGATIVE");
+
+        assertThat(filter(Set.of(), Set.of(7L), Set.of()).matches(article)).isTrue();
+        assertThat(filter(Set.of(), Set.of(5L), Set.of()).matches(article)).isTrue();
+        assertThat(filter(Set.of(), Set.of(8L), Set.of()).matches(article)).isFalse();
+        assertThat(filter(Set.of(10L), Set.of(7L), Set.of(SentimentResult.Sentiment.NEGATIVE)).matches(article)).isTrue();
+        assertThat(filter(Set.of(11L), Set.of(7L), Set.of()).matches(article)).isFalse();
+        assertThat(filter(Set.of(), Set.of(7L), Set.of(SentimentResult.Sentiment.POSITIVE)).matches(article)).isFalse();
+
+        // Without topicIds, as relayed by older nodes, the best topic is used
+        assertThat(filter(Set.of(), Set.of(5L), Set.of()).matches(article(2, 10L, 5L, null, "NEUTRAL"))).isTrue();
+        assertThat(filter(Set.of(), Set.of(7L), Set.of()).matches(article(2, 10L, 5L, null, "NEUTRAL"))).isFalse();
+        // Articles without a source or topic only match filters that don't ask for one
+        ScoredArticleDTO bare = article(3, null, null, List.of(), "NEUTRAL");
+        assertThat(filter(Set.of(10L), Set.of(), Set.of()).matches(bare)).isFalse();
+        assertThat(filter(Set.of(), Set.of(5L), Set.of()).matches(bare)).isFalse();
+        assertThat(ANY.matches(bare)).isTrue();
+    }
+
+    @Test
+    void deliversOnlyToMatchingSubscribers() throws Exception {
+        ArticleStreamHub hub = hub(null, 16);
+        RecordingEmitter topicSeven = new RecordingEmitter();
+        RecordingEmitter topicEight = new RecordingEmitter();
+        hub.subscribe(filter(Set.of(), Set.of(7L), Set.of()), topicSeven);
+        hub.subscribe(filter(Set.of(), Set.of(8L), Set.of()), topicEight);
+
+        hub.deliver(json(article(1, 10L, 5L, List.of(5L, 7L), "NEGATIVE")));
+        hub.deliver(json(article(2, 10L, 8L, List.of(8L), "POSITIVE")));
+
+        assertThat(topicSeven.nextArticle()).contains("\"articleId\":1");
+        assertThat(topicEight.nextArticle()).contains("\"articleId\":2");
+        assertThat(topicSeven.sent).isEmpty();
+        assertThat(topicEight.sent).isEmpty();
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void disconnectsOnlyTheSubscriberThatFallsBehind() throws Exception {
+        ArticleStreamHub hub = hub(null, 2);
+        RecordingEmitter fast = new RecordingEmitter();
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.blocked = new CountDownLatch(1);
+        hub.subscribe(ANY, fast);
+        hub.subscribe(ANY, stalled);
+        stalled.entered.await(5, TimeUnit.SECONDS);
+
+        // The stalled sender is stuck on its first write, so its queue of two overflows on the third article
+        for (int i = 1; i <= 3; i++) {
+            hub.deliver(json(article(i, 10L, null, List.of(), "NEUTRAL")));
+        }
+
+        assertThat(meterRegistry.counter("stream.subscribers.dropped").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("stream.subscribers").gauge().value()).isEqualTo(1.0);
+        for (int i = 1; i <= 3; i++) {
+            assertThat(fast.nextArticle()).contains("\"articleId\":" + i);
+        }
+
+        // Disconnected subscribers get nothing more
+        hub.deliver(json(article(4, 10L, null, List.of(), "NEUTRAL")));
+        assertThat(fast.nextArticle()).contains("\"articleId\":4");
+        assertThat(stalled.sent).isEmpty();
+    }
+
+    @Test
+    void relaysThroughRedisAndDeliversWhatComesBack() throws Exception {
+        List<String> relayed = new CopyOnWriteArrayList<>();
+        ArticleStreamHub hub = hub(new StringRedisTemplate() {
+            @Override
+            public Long convertAndSend(String channel, Object message) {
+                assertThat(channel).isEqualTo(ArticleStreamHub.CHANNEL);
+                relayed.add((String) message);
+                return 1L;
+            }
+        }, 16);
+        RecordingEmitter subscriber = new RecordingEmitter();
+        hub.subscribe(ANY, subscriber);
+
+        hub.onResultSaved(savedEvent(1));
+
+        // Nothing is delivered until the relay hands the message back
+        assertThat(relayed).hasSize(1);
+        assertThat(events).isEmpty();
+
+        hub.deliver(relayed.get(0));
+
+        assertThat(subscriber.nextArticle()).contains("\"articleId\":1");
+        assertThat(events).hasSize(1);
+        ScoredArticleDTO scored = ((ArticleScoredEvent) events.get(0)).article();
+        assertThat(scored.topicIds()).containsExactly(5L, 7L);
+        assertThat(meterRegistry.counter("stream.articles.published").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deliversLocallyWhenTheRelayFails() throws Exception {
+        ArticleStreamHub hub = hub(new StringRedisTemplate() {
+            @Override
+            public Long convertAndSend(String channel, Object message) {
+                throw new IllegalStateException("Redis is down");
+            }
+        }, 16);
+        RecordingEmitter subscriber = new RecordingEmitter();
+        hub.subscribe(ANY, subscriber);
+
+        hub.onResultSaved(savedEvent(2));
+
+        assertThat(subscriber.nextArticle()).contains("\"articleId\":2");
+        assertThat(events).hasSize(1);
+
+        hub.deliver("not json");
+        assertThat(events).hasSize(1);
+    }
+
+    private ArticleStreamHub hub(StringRedisTemplate redis, int queueCapacity) {
+        Map<String, Object> beansByName = redis != null ? Map.of("redisTemplate", redis) : Map.of();
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(beansByName);
+        return new ArticleStreamHub(objectMapper, beans.getBeanProvider(StringRedisTemplate.class),
+                events::add, meterRegistry, redis != null, 100, queueCapacity);
+    }
+
+    private String json(ScoredArticleDTO article) throws IOException {
+        return objectMapper.writeValueAsString(article);
+    }
+
+    private static ArticleStreamHub.Filter filter(Set<Long> sourceIds, Set<Long> topicIds,
+                                                  Set<SentimentResult.Sentiment> sentiments) {
+        return new ArticleStreamHub.Filter(sourceIds, topicIds, sentiments);
+    }
+
+    private static ScoredArticleDTO article(long id, Long sourceId, Long topicId, List<Long> topicIds, String sentiment) {
+        return new ScoredArticleDTO(id, sourceId, topicId, topicIds, "Article " + id, "https://example.com/" + id,
+                Instant.parse("2024-03-01T12:00:00Z"), sentiment, new BigDecimal("0.90"), Instant.parse("2024-03-01T12:05:00Z"));
+    }
+
+    private static SentimentResultSavedEvent savedEvent(long id) {
+        return new SentimentResultSavedEvent(id, 10L, 5L, List.of(5L, 7L), "Article " + id, "https://example.com/" + id,
+                Instant.parse("2024-03-01T12:00:00Z"), SentimentResult.Sentiment.NEGATIVE, new BigDecimal("0.90"),
+                Instant.parse("2024-03-01T12:05:00Z"));
+    }
+
+    /**
+     * Records what the hub writes; with {@code blocked} set, the first write
+     * waits until the latch opens or the sender is interrupted.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch blocked;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while sending", e);
+                }
+            }
+            String event = builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .collect(Collectors.joining());
+            if (event.contains("event:article")) {
+                sent.add(event);
+            }
+        }
+
+        String nextArticle() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return event;
+        }
+    }
+}
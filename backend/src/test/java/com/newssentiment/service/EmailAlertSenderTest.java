@@ -0,0 +1,150 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Alert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmailAlertSenderTest {
+
+    private SmtpStandIn smtp;
+    private EmailAlertSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        smtp = new SmtpStandIn();
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtp.port());
+        sender = new EmailAlertSender(mailSender, "alerts@test.local");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        smtp.close();
+    }
+
+    @Test
+    void sendsOneMessagePerDigest() throws Exception {
+        AlertDigest digest = new AlertDigest(3L, Alert.Channel.EMAIL, "analyst@test.local", List.of(
+                Map.of("alertId", 11, "type", "THRESHOLD", "sentiment", "NEGATIVE", "observed", 0.64,
+                        "threshold", 0.6, "windowMinutes", 60, "triggeredAt", "2024-05-01T10:00:00Z"),
+                Map.of("alertId", 12, "type", "SPIKE", "sentiment", "NEGATIVE", "topicId", 5, "observed", 3.5,
+                        "threshold", 3.0, "windowMinutes", 30, "triggeredAt", "2024-05-01T10:01:00Z")
+        ));
+
+        sender.send(digest);
+
+        assertThat(smtp.messages()).hasSize(1);
+        SmtpStandIn.Message message = smtp.messages().get(0);
+        assertThat(message.from()).isEqualTo("alerts@test.local");
+        assertThat(message.recipients()).containsExactly("analyst@test.local");
+        assertThat(message.data())
+                .contains("Subject: 2 sentiment alerts triggered")
+                .contains("Alert 11: NEGATIVE share for all articles reached 64%")
+                .contains("Alert 12: NEGATIVE results for topic 5 reached 3.5x the baseline");
+    }
+
+    /**
+     * Just enough of an SMTP server to accept one message per connection and
+     * keep what it received.
+     */
+    static class SmtpStandIn implements AutoCloseable {
+
+        record Message(String from, List<String> recipients, String data) {}
+
+        private final ServerSocket server;
+        private final List<Message> messages = new CopyOnWriteArrayList<>();
+
+        SmtpStandIn() throws IOException {
+            server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread.ofVirtual().start(this::acceptLoop);
+        }
+
+        int port() {
+            return server.getLocalPort();
+        }
+
+        List<Message> messages() {
+            return messages;
+        }
+
+        @Override
+        public void close() throws IOException {
+            server.close();
+        }
+
+        private void acceptLoop() {
+            while (!server.isClosed()) {
+                try {
+                    Socket socket = server.accept();
+                    Thread.ofVirtual().start(() -> handle(socket));
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void handle(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                 PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+                reply(out, "220 localhost stand-in");
+                String from = null;
+                List<String> recipients = new CopyOnWriteArrayList<>();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String command = line.toUpperCase();
+                    if (command.startsWith("EHLO") || command.startsWith("HELO")) {
+                        reply(out, "250 localhost");
+                    } else if (command.startsWith("MAIL FROM:")) {
+                        from = address(line);
+                        reply(out, "250 OK");
+                    } else if (command.startsWith("RCPT TO:")) {
+                        recipients.add(address(line));
+                        reply(out, "250 OK");
+                    } else if (command.equals("DATA")) {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line).append('\n');
+                        }
+                        messages.add(new Message(from, List.copyOf(recipients), data.toString()));
+                        reply(out, "250 OK");
+                    } else if (command.equals("QUIT")) {
+                        reply(out, "221 Bye");
+                        return;
+                    } else {
+                        reply(out, "250 OK");
+                    }
+                }
+            } catch (IOException ignored) {
+                // Connection closed by the client
+            }
+        }
+
+        private static void reply(PrintWriter out, String line) {
+            out.print(line + "\r\n");
+            out.flush();
+        }
+
+        private static String address(String line) {
+            return line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the client against a local stub of the sentiment API that answers
+ * after a fixed latency and throttles when too many requests overlap.
+ */
+class HttpSentimentAnalyzerTest {
+
+    private static final long LATENCY_MS = 30;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<JsonNode> lastRequest = new AtomicReference<>();
+    private final AtomicReference<String> fixedResponse = new AtomicReference<>();
+    private final AtomicInteger fixedStatus = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger throttled = new AtomicInteger();
+    private volatile int maxConcurrent = Integer.MAX_VALUE;
+    private volatile long throttleOnceId = -1;
+
+    private HttpServer stub;
+    private HttpSentimentAnalyzer analyzer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/analyze/batch", this::handle);
+        stub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (analyzer != null) {
+            analyzer.close();
+        }
+        stub.stop(0);
+    }
+
+    @Test
+    void postsArticleAndMapsResponse() throws Exception {
+        analyzer = analyzer(1, 0);
+        fixedResponse.set("""
+                {"results": [{"id": 1, "sentiment": "negative", "confidence": "HIGH", "topic": "economy",
+                              "entities": ["Central Bank"], "reasoning": "Inflation is rising"}]}
+                """);
+
+        SentimentResult result = analyzer.analyze(article(1, "Prices climb", "Inflation hits 9%"));
+
+        JsonNode sent = lastRequest.get().get("articles").get(0);
+        assertThat(sent.get("id").asLong()).isEqualTo(1);
+        assertThat(sent.get("title").asText()).isEqualTo("Prices climb");
+        assertThat(sent.get("content").asText()).isEqualTo("Inflation hits 9%");
+        assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.NEGATIVE);
+        assertThat(result.getConfidence()).isEqualByComparingTo(new BigDecimal("0.90"));
+        assertThat(result.getModelVersion()).isEqualTo("stub-model");
+        assertThat(result.getTopics()).containsExactly("economy");
+        assertThat(result.getReasoning()).isEqualTo("Inflation is rising");
+    }
+
+    @Test
+    void usesNumericConfidenceAndReportedModelVersion() throws Exception {
+        analyzer = analyzer(1, 0);
+        fixedResponse.set("""
+                {"results": [{"id": 2, "sentiment": "POSITIVE", "confidence": 0.834, "modelVersion": "model-2"}]}
+                """);
+
+        SentimentResult result = analyzer.analyze(article(2, "Record harvest", null));
+
+        assertThat(result.getConfidence()).isEqualByComparingTo(new BigDecimal("0.83"));
+        assertThat(result.getModelVersion()).isEqualTo("model-2");
+        assertThat(lastRequest.get().get("articles").get(0).get("content").asText()).isEqualTo("Record harvest");
+    }
+
+    @Test
+    void failsOnErrorStatusMissingResultOrUnknownSentiment() {
+        analyzer = analyzer(1, 0);
+        fixedStatus.set(500);
+        fixedResponse.set("{}");
+        assertThatThrownBy(() -> analyzer.analyze(article(3, "x", null)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("500");
+
+        fixedStatus.set(200);
+        assertThatThrownBy(() -> analyzer.analyze(article(3, "x", null)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("no result for article 3");
+
+        fixedResponse.set("{\"results\": [{\"id\": 3, \"sentiment\": \"MIXED\"}]}");
+        assertThatThrownBy(() -> analyzer.analyze(article(3, "x", null)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("MIXED");
+    }
+
+    @Test
+    void batchesConcurrentCallsIntoFewRequests() throws Exception {
+        analyzer = analyzer(16, 20);
+
+        List<SentimentResult> results = analyzeConcurrently(200);
+
+        assertThat(results).hasSize(200).allSatisfy(result ->
+                assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE));
+        assertThat(requests.get()).isLessThanOrEqualTo(40);
+        assertThat(meterRegistry.summary("sentiment.api.batch.size").mean()).isGreaterThan(4);
+        assertThat(meterRegistry.timer("sentiment.api.batch").count()).isEqualTo(requests.get());
+    }
+
+    @Test
+    void backsOffWhenThrottledAndStillCompletes() throws Exception {
+        maxConcurrent = 2;
+        analyzer = analyzer(4, 5);
+
+        List<SentimentResult> results = analyzeConcurrently(300);
+
+        assertThat(results).hasSize(300);
+        assertThat(throttled.get()).isPositive();
+        assertThat(meterRegistry.counter("sentiment.api.throttled").count()).isEqualTo(throttled.get());
+        assertThat(analyzer.concurrencyLimit()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void waitsOutRetryAfterWithoutHoldingAPermit() throws Exception {
+        analyzer = new HttpSentimentAnalyzer(objectMapper, meterRegistry,
+                "http://localhost:" + stub.getAddress().getPort(), 5, "stub-model", 1, 0, 1, 1);
+        throttleOnceId = 1;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<SentimentResult> throttledCall = executor.submit(() -> analyzer.analyze(article(1, "Throttled", null)));
+            while (throttled.get() == 0) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            SentimentResult other = analyzer.analyze(article(2, "Not throttled", null));
+
+            // The only permit is free while article 1 waits out its one-second Retry-After
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+            assertThat(other.getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE);
+            assertThat(throttledCall.get().getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE);
+        }
+        assertThat(requests.get()).isEqualTo(3);
+    }
+
+    @Test
+    void readsRetryAfterAsSecondsOrHttpDateWithinTheCap() {
+        Instant now = Instant.parse("2024-03-01T12:00:00Z");
+        String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME.format(now.plusSeconds(10).atZone(ZoneOffset.UTC));
+        String anHourAgo = DateTimeFormatter.RFC_1123_DATE_TIME.format(now.minusSeconds(3600).atZone(ZoneOffset.UTC));
+
+        assertThat(HttpSentimentAnalyzer.retryAfter("5", now)).isEqualTo(Duration.ofSeconds(5));
+        assertThat(HttpSentimentAnalyzer.retryAfter(inTenSeconds, now)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(HttpSentimentAnalyzer.retryAfter("86400", now))
+                .isEqualTo(Duration.ofSeconds(HttpSentimentAnalyzer.MAX_RETRY_AFTER_SECONDS));
+        assertThat(HttpSentimentAnalyzer.retryAfter(anHourAgo, now)).isEqualTo(Duration.ZERO);
+        assertThat(HttpSentimentAnalyzer.retryAfter("-3", now)).isEqualTo(Duration.ZERO);
+        assertThat(HttpSentimentAnalyzer.retryAfter("soon", now)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(HttpSentimentAnalyzer.retryAfter(null, now)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void failsCallsOnceClosed() {
+        analyzer = analyzer(1, 0);
+        analyzer.close();
+
+        assertThatThrownBy(() -> analyzer.analyze(article(4, "Late", null)))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("shut down");
+    }
+
+    private List<SentimentResult> analyzeConcurrently(int count) throws Exception {
+        List<Future<SentimentResult>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                Article article = article(100 + i, "Good news " + i, "Body " + i);
+                futures.add(executor.submit(() -> analyzer.analyze(article)));
+            }
+        }
+        List<SentimentResult> results = new ArrayList<>(count);
+        for (Future<SentimentResult> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        lastRequest.set(request);
+        if (request.get("articles").get(0).get("id").asLong() == throttleOnceId) {
+            throttleOnceId = -1;
+            throttled.incrementAndGet();
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+            return;
+        }
+        try {
+            if (active.incrementAndGet() > maxConcurrent) {
+                throttled.incrementAndGet();
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                exchange.sendResponseHeaders(429, -1);
+                return;
+            }
+            byte[] body;
+            if (fixedResponse.get() != null) {
+                body = fixedResponse.get().getBytes(StandardCharsets.UTF_8);
+            } else {
+                Thread.sleep(LATENCY_MS);
+                ArrayNode results = objectMapper.createArrayNode();
+                request.get("articles").forEach(article -> results.addObject()
+                        .put("id", article.get("id").asLong())
+                        .put("sentiment", "POSITIVE")
+                        .put("confidence", "HIGH"));
+                body = objectMapper.writeValueAsBytes(Map.of("results", results));
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(fixedStatus.get(), body.length);
+            exchange.getResponseBody().write(body);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private HttpSentimentAnalyzer analyzer(int maxBatchSize, long maxLingerMillis) {
+        return new HttpSentimentAnalyzer(objectMapper, meterRegistry,
+                "http://localhost:" + stub.getAddress().getPort() + "/", 5, "stub-model",
+                maxBatchSize, maxLingerMillis, 4, 16);
+    }
+
+    private static Article article(long id, String title, String content) {
+        return Article.builder().id(id).title(title).content(content).build();
+    }
+}
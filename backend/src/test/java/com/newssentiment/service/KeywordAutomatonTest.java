@@ -0,0 +1,60 @@
+package com.newssentiment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void keywordsOnlyMatchWholeWords() {
+        assertThat(matches(List.of("war"), "War, software, warfare and war.")).containsExactly("war", "war");
+        assertThat(matches(List.of("ark", "an"), "bark ban")).isEmpty();
+        assertThat(matches(List.of("bark", "ark"), "bark, ark")).containsExactly("bark", "ark");
+        assertThat(matches(List.of("g7"), "the G7 summit, not G77")).containsExactly("g7");
+    }
+
+    @Test
+    void caseDiacriticsWhitespaceAndMarkupAreFolded() {
+        assertThat(matches(List.of("Erdoğan", "café"), "ERDOGAN at the Café; erdogan at the CAFE"))
+                .containsExactly("Erdoğan", "café", "Erdoğan", "café");
+        assertThat(matches(List.of("Пашинян"), "ПАШИНЯН заявил")).containsExactly("Пашинян");
+        assertThat(matches(List.of("central bank"), "the Central\n  <b>Bank</b> raised")).containsExactly("central bank");
+        assertThat(KeywordAutomaton.fold("  Central\tBank ")).isEqualTo("central bank");
+    }
+
+    @Test
+    void failureLinksFindOverlappingKeywords() {
+        assertThat(matches(List.of("new york", "york times", "new york times"), "the new york times reported"))
+                .containsExactly("new york", "new york times", "york times");
+        // Falling back from "new york" to "york" lets "york city" continue
+        assertThat(matches(List.of("new york", "york city"), "new york city")).containsExactly("new york", "york city");
+        // A failed partial match restarts at the next word
+        assertThat(matches(List.of("new york"), "new new york")).containsExactly("new york");
+        assertThat(matches(List.of("a b c", "b c d"), "a b c d")).containsExactly("a b c", "b c d");
+    }
+
+    @Test
+    void largeKeywordSetsMatchLikeASearchPerKeyword() {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            keywords.add("topic" + i + (i % 3 == 0 ? " news" : ""));
+        }
+        String text = "topic7 topic12 news, topic300 news and topic1999 but not topic12news or xtopic5";
+
+        assertThat(matches(keywords, text)).containsExactly("topic7", "topic12 news", "topic300 news", "topic1999");
+        assertThat(matches(List.of(), text)).isEmpty();
+    }
+
+    private static List<String> matches(List<String> keywords, String text) {
+        KeywordAutomaton automaton = new KeywordAutomaton(keywords.stream().map(KeywordAutomaton::fold).toList());
+        char[] folded = new char[text.length()];
+        int length = KeywordAutomaton.fold(text, folded, true);
+        List<String> found = new ArrayList<>();
+        automaton.match(folded, length, keyword -> found.add(keywords.get(keyword)));
+        return found;
+    }
+}
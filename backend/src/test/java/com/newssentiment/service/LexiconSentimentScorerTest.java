@@ -0,0 +1,60 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult.Sentiment;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LexiconSentimentScorerTest {
+
+    private final LexiconSentimentScorer scorer =
+            LexiconSentimentScorer.fromClasspath(LexiconSentimentScorer.DEFAULT_LEXICONS);
+
+    @Test
+    void scoresEnglishRussianAndArmenian() {
+        assertSentiment("Economy shows strong growth", "Exports improved and profits rose.", Sentiment.POSITIVE);
+        assertSentiment("Earthquake kills dozens", "Many were injured in the disaster.", Sentiment.NEGATIVE);
+        assertSentiment("Экономика показала уверенный рост", "Компании получили прибыль, успехи очевидны.",
+                Sentiment.POSITIVE);
+        assertSentiment("Взрыв в центре города: погибли трое", "Ранены десятки человек.", Sentiment.NEGATIVE);
+        assertSentiment("Հայաստանի տնտեսական աճը կայուն է", "Ձեռքբերումները զգալի են։", Sentiment.POSITIVE);
+        assertSentiment("Երկրաշարժի հետևանքով զոհվել են մարդիկ", "Կան վիրավորներ։", Sentiment.NEGATIVE);
+    }
+
+    @Test
+    void negationFlipsTheFollowingWordsWithinTheSentence() {
+        assertSentiment("The plan is not good", null, Sentiment.NEGATIVE);
+        assertSentiment("Talks didn't fail", null, Sentiment.POSITIVE);
+        assertSentiment("Переговоры не провалились", null, Sentiment.POSITIVE);
+        assertSentiment("Բանակցությունները չհաջողվեցին", null, Sentiment.NEGATIVE);
+        assertSentiment("No comment. A great success", null, Sentiment.POSITIVE);
+    }
+
+    @Test
+    void boostersStrengthenAndTitleWordsCountDouble() {
+        double plain = scorer.score(null, "The result was bad").compound();
+        double boosted = scorer.score(null, "The result was very bad").compound();
+        double inTitle = scorer.score("The result was bad", null).compound();
+
+        assertThat(boosted).isLessThan(plain);
+        assertThat(inTitle).isLessThan(plain);
+    }
+
+    @Test
+    void isUnsureWithoutEvidenceOrWithMixedEvidence() {
+        LexiconSentimentScorer.Score none = scorer.score("Parliament meets on Tuesday", "The session discusses the budget.");
+        LexiconSentimentScorer.Score mixed = scorer.score(null, "Good harvest, bad weather");
+
+        assertThat(none.sentiment()).isEqualTo(Sentiment.NEUTRAL);
+        assertThat(none.confidence()).isEqualTo(LexiconSentimentScorer.UNSURE);
+        assertThat(none.terms()).isZero();
+        assertThat(mixed.sentiment()).isEqualTo(Sentiment.NEUTRAL);
+        assertThat(mixed.confidence()).isEqualTo(LexiconSentimentScorer.UNSURE);
+    }
+
+    private void assertSentiment(String title, String content, Sentiment expected) {
+        LexiconSentimentScorer.Score score = scorer.score(title, content);
+        assertThat(score.sentiment()).as("%s %s", title, content).isEqualTo(expected);
+        assertThat(score.confidence()).isGreaterThan(LexiconSentimentScorer.UNSURE);
+    }
+}
@@ -0,0 +1,227 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.IngestionSweepResult;
+import com.newssentiment.model.Article;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.SentimentResultRepository;
+import com.newssentiment.repository.SourceRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sweeps feeds served by a local stub that answers after a fixed latency,
+ * honours {@code If-None-Match} and records how many requests overlap per host.
+ */
+@SpringBootTest(properties = "app.scraping.max-concurrent-per-host=2")
+@ActiveProfiles("test")
+class RssIngestionServiceTest {
+
+    private static final String NAME = "Ingestion Test ";
+    private static final long LATENCY_MS = 50;
+
+    @Autowired
+    private RssIngestionService ingestionService;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SentimentResultRepository sentimentResultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, AtomicInteger> activeByHost = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxByHost = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+
+    private HttpServer stub;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress(0), 0);
+        stub.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        stub.createContext("/feed/", this::handle);
+        stub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+        sentimentResultRepository.deleteAll();
+        articleRepository.deleteAll();
+        sourceRepository.findAll().stream()
+                .filter(source -> source.getName().startsWith(NAME))
+                .forEach(sourceRepository::delete);
+    }
+
+    @Test
+    void sweepSavesArticlesAndRecordsFetchTimes() {
+        Source ok = source("localhost", "ok");
+        Source missing = source("localhost", "missing");
+
+        IngestionSweepResult result = ingestionService.sweep();
+
+        assertThat(result.sources()).isGreaterThanOrEqualTo(2);
+        assertThat(result.failed()).isGreaterThanOrEqualTo(1);
+        assertThat(articlesOf(ok)).extracting(Article::getExternalId)
+                .containsExactlyInAnyOrder("ok-1", "ok-2");
+        assertThat(ingestionService.getLastSweep()).contains(result);
+
+        Source okAfter = sourceRepository.findById(ok.getId()).orElseThrow();
+        assertThat(okAfter.getLastFetched()).isNotNull();
+        assertThat(okAfter.getLastSuccess()).isEqualTo(okAfter.getLastFetched());
+        assertThat(okAfter.getConfig()).containsEntry("etag", "\"ok\"").containsKey("bodyHash");
+
+        Source missingAfter = sourceRepository.findById(missing.getId()).orElseThrow();
+        assertThat(missingAfter.getLastFetched()).isNotNull();
+        assertThat(missingAfter.getLastSuccess()).isNull();
+        assertThat(articlesOf(missing)).isEmpty();
+    }
+
+    @Test
+    void unchangedFeedIsRequestedConditionallyAndNotSavedAgain() {
+        Source ok = source("localhost", "cached");
+        ingestionService.sweep();
+
+        IngestionSweepResult second = ingestionService.sweep();
+
+        assertThat(ifNoneMatch).contains("\"cached\"");
+        assertThat(second.articlesSaved()).isZero();
+        assertThat(articlesOf(ok)).hasSize(2);
+        Source after = sourceRepository.findById(ok.getId()).orElseThrow();
+        assertThat(after.getLastSuccess()).isEqualTo(after.getLastFetched());
+    }
+
+    @Test
+    void changesMadeToASourceDuringTheSweepAreKept() {
+        Source edited = source("localhost", "edited");
+
+        ingestionService.sweep();
+
+        Source after = sourceRepository.findById(edited.getId()).orElseThrow();
+        assertThat(after.getActive()).isFalse();
+        assertThat(after.getConfig()).containsEntry("selector", "main")
+                .containsEntry("etag", "\"edited\"").containsKey("bodyHash");
+        assertThat(after.getLastSuccess()).isEqualTo(after.getLastFetched());
+    }
+
+    @Test
+    void requestsToOneHostAreBoundedWhileHostsRunInParallel() {
+        for (int i = 0; i < 6; i++) {
+            source("localhost", "a" + i);
+            source("127.0.0.1", "b" + i);
+        }
+
+        IngestionSweepResult result = ingestionService.sweep();
+
+        assertThat(result.articlesSaved()).isGreaterThanOrEqualTo(24);
+        assertThat(maxByHost).containsOnlyKeys("localhost", "127.0.0.1");
+        assertThat(maxByHost.values()).allSatisfy(max -> assertThat(max).isLessThanOrEqualTo(2));
+        assertThat(maxActive.get()).isGreaterThan(2);
+    }
+
+    private Source source(String host, String feed) {
+        return sourceRepository.save(Source.builder()
+                .name(NAME + host + " " + feed)
+                .url("http://" + host + ":" + stub.getAddress().getPort() + "/feed/" + feed)
+                .type(Source.SourceType.RSS)
+                .language(Source.Language.ENGLISH)
+                .build());
+    }
+
+    private List<Article> articlesOf(Source source) {
+        return articleRepository.findAll().stream()
+                .filter(article -> article.getSource().getId().equals(source.getId()))
+                .toList();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String host = exchange.getRequestHeaders().getFirst("Host").replaceFirst(":\\d+$", "");
+        String feed = exchange.getRequestURI().getPath().substring("/feed/".length());
+        int hostActive = activeByHost.computeIfAbsent(host, h -> new AtomicInteger()).incrementAndGet();
+        maxByHost.merge(host, hostActive, Math::max);
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(LATENCY_MS);
+            String etag = "\"" + feed + "\"";
+            String conditional = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (conditional != null) {
+                ifNoneMatch.add(conditional);
+            }
+            if (feed.equals("edited")) {
+                // Someone else edits the source while the sweep holds its stale copy
+                jdbcTemplate.update("""
+                        UPDATE sources SET active = FALSE, config = '{"selector": "main"}'::jsonb
+                        WHERE url LIKE '%/feed/edited'
+                        """);
+            }
+            if (feed.equals("missing")) {
+                exchange.sendResponseHeaders(404, -1);
+            } else if (etag.equals(conditional)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = rss(feed).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/rss+xml");
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            active.decrementAndGet();
+            activeByHost.get(host).decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static String rss(String feed) {
+        StringBuilder items = new StringBuilder();
+        for (int i = 1; i <= 2; i++) {
+            items.append("""
+                    <item>
+                      <title>%1$s story %2$d</title>
+                      <link>https://example.com/%1$s/%2$d</link>
+                      <guid>%1$s-%2$d</guid>
+                      <description>Body of %1$s story %2$d</description>
+                      <pubDate>Mon, 15 Jan 2024 10:00:00 GMT</pubDate>
+                    </item>
+                    """.formatted(feed, i));
+        }
+        return """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <rss version="2.0"><channel>
+                  <title>%s</title>
+                  <link>https://example.com/%s</link>
+                  <description>Stub feed</description>
+                  %s
+                </channel></rss>
+                """.formatted(feed, feed, items);
+    }
+}
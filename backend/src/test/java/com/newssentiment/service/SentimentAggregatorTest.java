@@ -0,0 +1,89 @@
+package com.newssentiment.service;
+
+import com.newssentiment.dto.SentimentAggregateDTO;
+import com.newssentiment.model.SentimentResult.Sentiment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SentimentAggregatorTest {
+
+    @Test
+    void countsMatchABoxedMapWhileGrowing() {
+        Random random = new Random(11);
+        SentimentAggregator aggregator = new SentimentAggregator(1);
+        Map<Long, long[]> expected = new TreeMap<>();
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(5_000) - 2_500L + (random.nextBoolean() ? Long.MAX_VALUE / 2 : 0);
+            Sentiment sentiment = Sentiment.values()[random.nextInt(3)];
+            long count = random.nextInt(10) + 1;
+            aggregator.add(key, sentiment, count);
+            expected.computeIfAbsent(key, k -> new long[3])[sentiment.ordinal()] += count;
+        }
+
+        List<SentimentAggregateDTO> aggregates = aggregator.toAggregates(Long::toString);
+
+        assertThat(aggregator.size()).isEqualTo(expected.size());
+        assertThat(aggregates).extracting(SentimentAggregateDTO::group)
+                .containsExactlyElementsOf(expected.keySet().stream().map(String::valueOf).toList());
+        for (SentimentAggregateDTO aggregate : aggregates) {
+            long[] counts = expected.get(Long.parseLong(aggregate.group()));
+            assertThat(new long[]{aggregate.positive(), aggregate.negative(), aggregate.neutral()}).containsExactly(counts);
+            assertThat(aggregate.total()).isEqualTo(counts[0] + counts[1] + counts[2]);
+        }
+    }
+
+    @Test
+    void percentagesAreRoundedAndZeroForAnEmptyGroup() {
+        SentimentAggregator aggregator = new SentimentAggregator();
+        aggregator.add(1, 1, 1, 1);
+        aggregator.add(2, 0, 0, 0);
+
+        List<SentimentAggregateDTO> aggregates = aggregator.toAggregates(key -> key == 1 ? "a" : "b");
+
+        assertThat(aggregates.get(0).positivePercent()).isEqualTo(33.33);
+        assertThat(aggregates.get(0).neutralPercent()).isEqualTo(33.33);
+        assertThat(aggregates.get(1).total()).isZero();
+        assertThat(aggregates.get(1).positivePercent()).isZero();
+    }
+
+    @Test
+    void weeksAreLabelledByIsoWeekAcrossTheYearEnd() {
+        Map<LocalDate, SentimentCounts> days = new TreeMap<>();
+        // 2024-12-30 is the Monday of 2025-W01; 2024-12-29 is the Sunday ending 2024-W52
+        days.put(LocalDate.of(2024, 12, 29), counts(1, 0, 0));
+        days.put(LocalDate.of(2024, 12, 30), counts(0, 2, 0));
+        days.put(LocalDate.of(2025, 1, 5), counts(0, 0, 3));
+
+        List<SentimentAggregateDTO> weeks = SentimentService.aggregateByWeek(days);
+
+        assertThat(weeks).extracting(SentimentAggregateDTO::group).containsExactly("2024-W52", "2025-W01");
+        assertThat(weeks.get(1).negative()).isEqualTo(2);
+        assertThat(weeks.get(1).neutral()).isEqualTo(3);
+    }
+
+    @Test
+    void articlesWithoutASourceKeepTheirGroup() {
+        List<SentimentCounts> days = List.of(
+                new SentimentCounts(new long[]{0, 3}, new long[]{1, 2}, new long[]{0, 1}, new long[]{4, 0}),
+                new SentimentCounts(new long[]{0}, new long[]{0}, new long[]{5}, new long[]{0}));
+
+        List<SentimentAggregateDTO> sources = SentimentService.aggregateBySource(days);
+
+        assertThat(sources).extracting(SentimentAggregateDTO::group).containsExactly("null", "3");
+        assertThat(sources.get(0).positive()).isEqualTo(1);
+        assertThat(sources.get(0).negative()).isEqualTo(5);
+        assertThat(sources.get(0).neutral()).isEqualTo(4);
+        assertThat(sources.get(1).total()).isEqualTo(3);
+    }
+
+    private static SentimentCounts counts(long positive, long negative, long neutral) {
+        return new SentimentCounts(new long[]{1}, new long[]{positive}, new long[]{negative}, new long[]{neutral});
+    }
+}
@@ -0,0 +1,154 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.SentimentResult.Sentiment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SentimentSegmentTest {
+
+    private static final long MARCH = SentimentAnalyticsStore.toMicros(Instant.parse("2024-03-01T00:00:00Z"));
+    private static final long APRIL = SentimentAnalyticsStore.toMicros(Instant.parse("2024-04-01T00:00:00Z"));
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void countsMatchTheRowsAcrossBlocksAndPartialDays() throws IOException {
+        Random random = new Random(7);
+        Rows rows = Rows.random(random, 5 * SentimentSegment.BLOCK_ROWS + 123, 40);
+        SentimentSegment segment = rows.write(directory.resolve("march.seg"));
+
+        assertThat(segment.rows()).isEqualTo(rows.size());
+        assertCounts(segment, rows, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertCounts(segment, rows, MARCH + SentimentSegment.DAY_MICROS, MARCH + 3 * SentimentSegment.DAY_MICROS);
+        for (int i = 0; i < 20; i++) {
+            long from = MARCH + (long) (random.nextDouble() * (APRIL - MARCH));
+            long to = from + (long) (random.nextDouble() * (APRIL - from));
+            assertCounts(segment, rows, from, to);
+        }
+    }
+
+    @Test
+    void rowsDecodeToWhatWasAdded() throws IOException {
+        Rows rows = Rows.random(new Random(11), SentimentSegment.BLOCK_ROWS + 10, 300);
+        SentimentSegment segment = SentimentSegment.open(rows.write(directory.resolve("march.seg")).path());
+
+        for (int row = 0; row < rows.size(); row += 97) {
+            assertThat(segment.time(row)).isEqualTo(rows.times[row]);
+            assertThat(segment.sourceId(row)).isEqualTo(rows.sources[row]);
+            assertThat(segment.topicId(row)).isEqualTo(rows.topics[row]);
+            assertThat(segment.sentimentOf(row)).isEqualTo(Sentiment.values()[rows.sentiments[row]]);
+            assertThat(segment.confidence(row)).isEqualTo(rows.confidences[row]);
+        }
+        assertThat(segment.rangeStart()).isEqualTo(MARCH);
+        assertThat(segment.rangeEnd()).isEqualTo(APRIL);
+    }
+
+    @Test
+    void handlesASingleSourceAndIdenticalTimes() throws IOException {
+        SentimentSegment.Builder builder = new SentimentSegment.Builder(MARCH, APRIL);
+        for (int i = 0; i < 1000; i++) {
+            builder.add(MARCH + 5, 0, 0, Sentiment.NEGATIVE, SentimentSegment.NO_CONFIDENCE);
+        }
+        SentimentSegment segment = builder.write(directory.resolve("march.seg"));
+
+        Map<LocalDate, SentimentCounts> counts = segment.countsByDay(MARCH, APRIL);
+        assertThat(counts).containsOnlyKeys(LocalDate.of(2024, 3, 1));
+        SentimentCounts day = counts.get(LocalDate.of(2024, 3, 1));
+        assertThat(day.sourceIds()).containsExactly(0L);
+        assertThat(day.negative()).containsExactly(1000L);
+        assertThat(segment.confidence(999)).isEqualTo(SentimentSegment.NO_CONFIDENCE);
+    }
+
+    @Test
+    void emptySegmentHasNoCounts() throws IOException {
+        SentimentSegment segment = new SentimentSegment.Builder(MARCH, APRIL).write(directory.resolve("empty.seg"));
+
+        assertThat(segment.rows()).isZero();
+        assertThat(segment.countsByDay(Long.MIN_VALUE, Long.MAX_VALUE)).isEmpty();
+        assertThat(SentimentSegment.open(segment.path()).rangeEnd()).isEqualTo(APRIL);
+    }
+
+    @Test
+    void rejectsRowsOutOfOrderOrOutsideTheRange() {
+        SentimentSegment.Builder builder = new SentimentSegment.Builder(MARCH, APRIL);
+        builder.add(MARCH + 10, 1, 0, Sentiment.POSITIVE, 90);
+
+        assertThatThrownBy(() -> builder.add(MARCH + 9, 1, 0, Sentiment.POSITIVE, 90))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.add(APRIL, 1, 0, Sentiment.POSITIVE, 90))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertCounts(SentimentSegment segment, Rows rows, long from, long to) {
+        Map<LocalDate, Map<Long, long[]>> expected = new TreeMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.times[i] >= from && rows.times[i] < to) {
+                LocalDate day = LocalDate.ofEpochDay(Math.floorDiv(rows.times[i], SentimentSegment.DAY_MICROS));
+                expected.computeIfAbsent(day, d -> new TreeMap<>())
+                        .computeIfAbsent(rows.sources[i], s -> new long[3])[rows.sentiments[i]]++;
+            }
+        }
+
+        Map<LocalDate, SentimentCounts> actual = segment.countsByDay(from, to);
+        assertThat(actual).as("days in [%d, %d)", from, to).containsOnlyKeys(expected.keySet());
+        expected.forEach((day, bySource) -> {
+            SentimentCounts counts = actual.get(day);
+            Map<Long, long[]> actualBySource = new TreeMap<>();
+            for (int i = 0; i < counts.size(); i++) {
+                actualBySource.put(counts.sourceIds()[i],
+                        new long[]{counts.positive()[i], counts.negative()[i], counts.neutral()[i]});
+            }
+            assertThat(actualBySource).as("sources on %s", day).containsOnlyKeys(bySource.keySet());
+            bySource.forEach((source, values) ->
+                    assertThat(actualBySource.get(source)).as("source %d on %s", source, day)
+                            .containsExactly(values));
+        });
+    }
+
+    private record Rows(long[] times, long[] sources, long[] topics, int[] sentiments, int[] confidences) {
+
+        static Rows random(Random random, int size, int sourceCount) {
+            long[] times = new long[size];
+            for (int i = 0; i < size; i++) {
+                times[i] = MARCH + (long) (random.nextDouble() * (APRIL - MARCH));
+            }
+            Arrays.sort(times);
+            long[] sources = new long[size];
+            long[] topics = new long[size];
+            int[] sentiments = new int[size];
+            int[] confidences = new int[size];
+            for (int i = 0; i < size; i++) {
+                sources[i] = random.nextInt(sourceCount) * 13L;
+                topics[i] = random.nextInt(4);
+                sentiments[i] = random.nextInt(Sentiment.values().length);
+                confidences[i] = random.nextInt(101);
+            }
+            return new Rows(times, sources, topics, sentiments, confidences);
+        }
+
+        int size() {
+            return times.length;
+        }
+
+        SentimentSegment write(Path file) throws IOException {
+            SentimentSegment.Builder builder = new SentimentSegment.Builder(MARCH, APRIL);
+            for (int i = 0; i < size(); i++) {
+                builder.add(times[i], sources[i], topics[i], Sentiment.values()[sentiments[i]], confidences[i]);
+            }
+            return builder.write(file);
+        }
+    }
+}
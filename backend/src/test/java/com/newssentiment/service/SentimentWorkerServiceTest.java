@@ -0,0 +1,215 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import com.newssentiment.model.Source;
+import com.newssentiment.repository.ArticleRepository;
+import com.newssentiment.repository.SentimentResultRepository;
+import com.newssentiment.repository.SourceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.sentiment.worker.batch-size=7",
+        "app.sentiment.worker.concurrency=3",
+        "app.sentiment.lexicon.enabled=false"
+})
+@ActiveProfiles("test")
+class SentimentWorkerServiceTest {
+
+    private static final Map<Long, Integer> CALLS = new ConcurrentHashMap<>();
+
+    @TestConfiguration
+    static class StubAnalyzerConfig {
+
+        @Bean
+        @Primary
+        SentimentAnalyzer stubAnalyzer() {
+            return new SentimentAnalyzer() {
+                @Override
+                public SentimentResult analyze(Article article) throws IOException, InterruptedException {
+                    CALLS.merge(article.getId(), 1, Integer::sum);
+                    Thread.sleep(5);
+                    if (article.getTitle().contains("unanalyzable")) {
+                        throw new IOException("stub failure");
+                    }
+                    return SentimentResult.builder()
+                            .sentiment(article.getTitle().contains("good")
+                                    ? SentimentResult.Sentiment.POSITIVE
+                                    : SentimentResult.Sentiment.NEUTRAL)
+                            .confidence(new BigDecimal("0.80"))
+                            .modelVersion("stub")
+                            .topics(List.of("test"))
+                            .entities(Map.of("names", List.of()))
+                            .build();
+                }
+
+                @Override
+                public List<String> modelVersions() {
+                    return List.of("stub");
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private SentimentWorkerService worker;
+
+    @Autowired
+    private SourceRepository sourceRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private SentimentResultRepository sentimentResultRepository;
+
+    private final List<Long> articleIds = new ArrayList<>();
+    private Source source;
+    private Long duplicateId;
+
+    @BeforeEach
+    void setUp() {
+        CALLS.clear();
+        source = sourceRepository.save(Source.builder()
+                .name("Worker Test Source")
+                .url("https://example.com/worker-rss")
+                .type(Source.SourceType.RSS)
+                .language(Source.Language.ENGLISH)
+                .build());
+
+        for (int i = 0; i < 40; i++) {
+            Article article = articleRepository.save(Article.builder()
+                    .source(source)
+                    .externalId("worker-" + i)
+                    .title(i % 2 == 0 ? "A good day " + i : "A day " + i)
+                    .content("Body " + i)
+                    .build());
+            articleIds.add(article.getId());
+        }
+        duplicateId = articleRepository.save(Article.builder()
+                .source(source)
+                .externalId("worker-duplicate")
+                .title("A good day 0")
+                .duplicateOf(articleIds.get(0))
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sentimentResultRepository.deleteAll();
+        articleRepository.deleteAll();
+        sourceRepository.findAll().stream()
+                .filter(source -> source.getName().equals("Worker Test Source"))
+                .forEach(sourceRepository::delete);
+    }
+
+    @Test
+    void concurrentWorkersAnalyzeEachArticleOnce() throws Exception {
+        Callable<Integer> drain = () -> {
+            int claimed = 0;
+            int batch;
+            while ((batch = worker.processBatch()) > 0) {
+                claimed += batch;
+            }
+            return claimed;
+        };
+
+        int total = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(3)) {
+            List<Future<Integer>> workers = executor.invokeAll(List.of(drain, drain, drain));
+            for (Future<Integer> future : workers) {
+                total += future.get();
+            }
+        }
+
+        // The near-duplicate is claimed once its representative has a result, and gets a copy
+        assertThat(total).isEqualTo(articleIds.size() + 1);
+        assertThat(CALLS).hasSize(articleIds.size()).allSatisfy((id, calls) -> assertThat(calls).isEqualTo(1));
+        assertThat(CALLS).doesNotContainKey(duplicateId);
+        assertThat(sentimentResultRepository.count()).isEqualTo(articleIds.size() + 1);
+        assertThat(sentimentResultRepository.findByArticleId(duplicateId))
+                .hasValueSatisfying(result -> {
+                    assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE);
+                    assertThat(result.getModelVersion()).isEqualTo("stub");
+                });
+        assertThat(sentimentResultRepository.findByArticleId(articleIds.get(0)))
+                .hasValueSatisfying(result -> {
+                    assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE);
+                    assertThat(result.getModelVersion()).isEqualTo("stub");
+                    assertThat(result.getTopics()).containsExactly("test");
+                });
+    }
+
+    @Test
+    void articlesWithAlreadyAnalyzedTextReuseTheResult() throws Exception {
+        List<Long> syndicated = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            syndicated.add(syndicatedArticle("worker-syndicated-" + i));
+        }
+        while (worker.processBatch() > 0) {
+            // drain
+        }
+        Long republished = syndicatedArticle("worker-republished");
+        worker.processBatch();
+
+        assertThat(syndicated.stream().filter(CALLS::containsKey)).hasSize(1);
+        assertThat(CALLS).doesNotContainKey(republished);
+        for (Long id : List.of(syndicated.get(0), syndicated.get(1), syndicated.get(2), republished)) {
+            assertThat(sentimentResultRepository.findByArticleId(id)).hasValueSatisfying(result -> {
+                assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.POSITIVE);
+                assertThat(result.getModelVersion()).isEqualTo("stub");
+            });
+        }
+    }
+
+    @Test
+    void lastFailedAttemptTakesTheArticleOffThePendingIndex() throws Exception {
+        Long failing = articleRepository.save(Article.builder()
+                .source(source)
+                .externalId("worker-unanalyzable")
+                .title("An unanalyzable day")
+                .sentimentAttempts((short) 4)
+                .build()).getId();
+
+        while (worker.processBatch() > 0) {
+            // drain
+        }
+
+        Article after = articleRepository.findById(failing).orElseThrow();
+        assertThat(CALLS).containsEntry(failing, 1);
+        assertThat(after.getSentimentAttempts()).isEqualTo((short) 5);
+        assertThat(after.getSentimentPending()).isFalse();
+        assertThat(sentimentResultRepository.findByArticleId(failing)).isEmpty();
+    }
+
+    private Long syndicatedArticle(String externalId) {
+        return articleRepository.save(Article.builder()
+                .source(source)
+                .externalId(externalId)
+                .title("A good syndicated day")
+                .content("Syndicated body")
+                .contentHash("syndicated-content-hash")
+                .build()).getId();
+    }
+}
@@ -0,0 +1,72 @@
+package com.newssentiment.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimHashIndexTest {
+
+    @Test
+    void findsFingerprintsWithinTheMaximumDistanceAcrossAllBands() {
+        SimHashIndex index = new SimHashIndex();
+        long fingerprint = 0x0123_4567_89AB_CDEFL;
+        index.add(fingerprint, 42);
+
+        // Three bits in the lowest band and two in each of the others
+        long spread = fingerprint ^ (0b111L | 0b11L << 20 | 0b11L << 36 | 0b11L << 52);
+        // All nine in one band, so only the other three bands match exactly
+        long concentrated = fingerprint ^ 0x1FFL << 16;
+        long tooFar = spread ^ 1L << 60;
+
+        assertThat(index.findCluster(fingerprint)).isEqualTo(42);
+        assertThat(index.findCluster(spread)).isEqualTo(42);
+        assertThat(index.findCluster(concentrated)).isEqualTo(42);
+        assertThat(SimHash.distance(fingerprint, tooFar)).isEqualTo(SimHashIndex.MAX_DISTANCE + 1);
+        assertThat(index.findCluster(tooFar)).isEqualTo(-1);
+        assertThat(new SimHashIndex().findCluster(fingerprint)).isEqualTo(-1);
+    }
+
+    @Test
+    void prefersTheClosestCluster() {
+        SimHashIndex index = new SimHashIndex();
+        long fingerprint = 0xF0F0_F0F0_F0F0_F0F0L;
+        index.add(fingerprint ^ 0b1111L, 1);
+        index.add(fingerprint ^ 0b1L << 40, 2);
+        index.add(fingerprint ^ 0b111L << 20, 3);
+
+        assertThat(index.findCluster(fingerprint)).isEqualTo(2);
+    }
+
+    @Test
+    void matchesABruteForceSearch() {
+        Random random = new Random(5);
+        long[] fingerprints = new long[20_000];
+        SimHashIndex index = new SimHashIndex();
+        for (int i = 0; i < fingerprints.length; i++) {
+            // A narrow range of band values so buckets hold many entries and grow
+            fingerprints[i] = random.nextLong() & 0x00FF_00FF_00FF_00FFL;
+            index.add(fingerprints[i], i);
+        }
+        assertThat(index.size()).isEqualTo(fingerprints.length);
+
+        for (int q = 0; q < 2_000; q++) {
+            long query = fingerprints[random.nextInt(fingerprints.length)];
+            for (int flips = random.nextInt(14); flips > 0; flips--) {
+                query ^= 1L << random.nextInt(64);
+            }
+
+            int best = SimHashIndex.MAX_DISTANCE + 1;
+            for (long fingerprint : fingerprints) {
+                best = Math.min(best, SimHash.distance(query, fingerprint));
+            }
+            long cluster = index.findCluster(query);
+            if (best > SimHashIndex.MAX_DISTANCE) {
+                assertThat(cluster).isEqualTo(-1);
+            } else {
+                assertThat(SimHash.distance(query, fingerprints[(int) cluster])).isEqualTo(best);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.newssentiment.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimHashTest {
+
+    private static final String STORY = """
+            The central bank raised its key interest rate by half a percentage point on Tuesday, \
+            citing inflation that has stayed above target for six consecutive months. Analysts had \
+            expected a smaller increase, and the currency strengthened after the announcement.""";
+
+    @Test
+    void ignoresCaseMarkupAndPunctuation() {
+        String marked = "<p>" + STORY.toUpperCase().replace(",", " ;") + "</p><br/>";
+
+        assertThat(SimHash.fingerprint(marked)).isEqualTo(SimHash.fingerprint(STORY));
+    }
+
+    @Test
+    void syndicatedCopiesAreCloseAndUnrelatedStoriesAreNot() {
+        String edited = "Yerevan (Reuters) - " + STORY.replace("Tuesday", "Wednesday") + " Reporting by staff.";
+        String unrelated = """
+                The national football team won its qualifying match away from home on Saturday, \
+                scoring twice in the second half after a goalless first period in front of a sold out \
+                stadium, and now leads the group by three points.""";
+
+        assertThat(SimHash.distance(SimHash.fingerprint(STORY), SimHash.fingerprint(edited)))
+                .isLessThanOrEqualTo(SimHashIndex.MAX_DISTANCE);
+        assertThat(SimHash.distance(SimHash.fingerprint(STORY), SimHash.fingerprint(unrelated)))
+                .isGreaterThan(SimHashIndex.MAX_DISTANCE);
+    }
+
+    @Test
+    void scriptsOtherThanLatinAreTokenized() {
+        String russian = "Центральный банк повысил ключевую ставку на полпроцентного пункта во вторник";
+        String armenian = "Կենտրոնական բանկը երեքշաբթի բարձրացրել է հիմնական տոկոսադրույքը կես տոկոսային կետով";
+
+        assertThat(SimHash.fingerprint(russian)).isNotZero().isEqualTo(SimHash.fingerprint(russian.toLowerCase()));
+        assertThat(SimHash.fingerprint(armenian, 10)).isNotNull();
+        assertThat(SimHash.fingerprint(armenian, 11)).isNull();
+    }
+
+    @Test
+    void shortTextHasNoFingerprintUnderAMinimum() {
+        assertThat(SimHash.fingerprint("", 1)).isNull();
+        assertThat(SimHash.fingerprint(" <p></p> ", 1)).isNull();
+        assertThat(SimHash.fingerprint("Untitled", 2)).isNull();
+        assertThat(SimHash.fingerprint("two words", 2)).isNotNull();
+        assertThat(SimHash.fingerprint("")).isZero();
+    }
+}
@@ -0,0 +1,60 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.Article;
+import com.newssentiment.model.SentimentResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TieredSentimentAnalyzerTest {
+
+    private final LexiconSentimentScorer scorer =
+            LexiconSentimentScorer.fromClasspath(LexiconSentimentScorer.DEFAULT_LEXICONS);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger remoteCalls = new AtomicInteger();
+    private final SentimentAnalyzer remote = article -> {
+        remoteCalls.incrementAndGet();
+        return SentimentResult.builder()
+                .sentiment(SentimentResult.Sentiment.NEUTRAL)
+                .confidence(new BigDecimal("0.90"))
+                .modelVersion("remote")
+                .build();
+    };
+
+    @Test
+    void keepsConfidentLexiconResultsAndEscalatesTheRest() throws Exception {
+        TieredSentimentAnalyzer analyzer = new TieredSentimentAnalyzer(
+                scorer, remote, meterRegistry, "lexicon-test", 0.75, true);
+
+        SentimentResult obvious = analyzer.analyze(article("Earthquake kills dozens", "Many were injured."));
+        SentimentResult unclear = analyzer.analyze(article("Parliament meets on Tuesday", "Budget on the agenda."));
+
+        assertThat(obvious.getSentiment()).isEqualTo(SentimentResult.Sentiment.NEGATIVE);
+        assertThat(obvious.getModelVersion()).isEqualTo("lexicon-test");
+        assertThat(obvious.getConfidence()).isGreaterThanOrEqualTo(new BigDecimal("0.75"));
+        assertThat(unclear.getModelVersion()).isEqualTo("remote");
+        assertThat(remoteCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("sentiment.tier", "tier", "lexicon").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("sentiment.tier", "tier", "remote").count()).isEqualTo(1);
+    }
+
+    @Test
+    void neverCallsTheRemoteModelWhenItIsDisabled() throws Exception {
+        TieredSentimentAnalyzer analyzer = new TieredSentimentAnalyzer(
+                scorer, remote, meterRegistry, "lexicon-test", 0.75, false);
+
+        SentimentResult result = analyzer.analyze(article("Parliament meets on Tuesday", null));
+
+        assertThat(result.getSentiment()).isEqualTo(SentimentResult.Sentiment.NEUTRAL);
+        assertThat(result.getModelVersion()).isEqualTo("lexicon-test");
+        assertThat(remoteCalls.get()).isZero();
+    }
+
+    private static Article article(String title, String content) {
+        return Article.builder().id(1L).title(title).content(content).build();
+    }
+}
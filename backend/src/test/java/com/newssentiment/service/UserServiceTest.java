@@ -0,0 +1,58 @@
+package com.newssentiment.service;
+
+import com.newssentiment.model.User;
+import com.newssentiment.security.AuthenticatedPrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class UserServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
+
+    @Test
+    void savingAUserDropsTheirCachedPrincipals() {
+        User user = userService.save(User.builder()
+                .email("cached-principal@example.com")
+                .passwordHash("hash")
+                .build());
+        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(10));
+        principalCache.put("token", user, expiresAt);
+        principalCache.put("other-token", User.builder().email("other@example.com").passwordHash("hash").build(), expiresAt);
+
+        user.setEnabled(false);
+        userService.save(user);
+
+        assertThat(principalCache.get("token")).isNull();
+        assertThat(principalCache.get("other-token")).isNotNull();
+        assertThat(userService.loadUserByUsername("cached-principal@example.com").isEnabled()).isFalse();
+    }
+
+    @Test
+    void savingALoginKeepsTheUsersCachedPrincipals() {
+        User user = userService.save(User.builder()
+                .email("login-principal@example.com")
+                .passwordHash("hash")
+                .build());
+        principalCache.put("token", user, Instant.now().plus(Duration.ofMinutes(10)));
+
+        user.setLastLogin(Instant.now());
+        userService.save(user);
+
+        assertThat(principalCache.get("token")).isNotNull();
+    }
+}
@@ -0,0 +1,78 @@
+package com.newssentiment.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.newssentiment.model.Alert;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WebhookAlertSenderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+    private final AtomicReference<String> receivedContentType = new AtomicReference<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(204);
+
+    private HttpServer receiver;
+    private WebhookAlertSender sender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            receivedContentType.set(exchange.getRequestHeaders().getFirst("Content-Type"));
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes()));
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        receiver.start();
+        sender = new WebhookAlertSender(objectMapper, 5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.stop(0);
+    }
+
+    @Test
+    void postsDigestAsJson() throws Exception {
+        AlertDigest digest = new AlertDigest(7L, Alert.Channel.WEBHOOK, url(), List.of(
+                Map.of("alertId", 1, "type", "THRESHOLD", "observed", 0.72),
+                Map.of("alertId", 2, "type", "SPIKE", "observed", 4.0)
+        ));
+
+        sender.send(digest);
+
+        assertThat(receivedContentType.get()).isEqualTo("application/json");
+        JsonNode body = objectMapper.readTree(receivedBody.get());
+        assertThat(body.get("userId").asLong()).isEqualTo(7L);
+        assertThat(body.get("alerts")).hasSize(2);
+        assertThat(body.get("alerts").get(1).get("type").asText()).isEqualTo("SPIKE");
+    }
+
+    @Test
+    void failsOnNonSuccessStatus() {
+        responseStatus.set(503);
+        AlertDigest digest = new AlertDigest(7L, Alert.Channel.WEBHOOK, url(), List.of(Map.of("alertId", 1)));
+
+        assertThatThrownBy(() -> sender.send(digest))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("503");
+    }
+
+    private String url() {
+        return "http://localhost:" + receiver.getAddress().getPort() + "/hook";
+    }
+}
@@ -1,5 +1,6 @@
 import axios from 'axios'
 import { useAuthStore } from '../contexts/authStore'
+import type { ScoredArticle } from '../types'
 
 const api = axios.create({
   baseURL: '/api/v1',
@@ -17,13 +18,17 @@ api.interceptors.request.use((config) => {
   return config
 })
 
+const onUnauthorized = () => {
+  useAuthStore.getState().logout()
+  window.location.href = '/login'
+}
+
 // Handle 401 responses
 api.interceptors.response.use(
   (response) => response,
   (error) => {
     if (error.response?.status === 401) {
-      useAuthStore.getState().logout()
-      window.location.href = '/login'
+      onUnauthorized()
     }
     return Promise.reject(error)
   }
@@ -44,9 +49,20 @@ export const articlesApi = {
     sentiment?: string
     from?: string
     to?: string
+    q?: string
     page?: number
     size?: number
   }) => api.get('/articles', { params }),
+  getFeed: (params?: {
+    sourceId?: number
+    sentiment?: string
+    from?: string
+    to?: string
+    q?: string
+    cursor?: string
+    size?: number
+    includeTotal?: boolean
+  }) => api.get('/articles/feed', { params }),
   getById: (id: number) => api.get(`/articles/${id}`),
 }
 
@@ -85,4 +101,105 @@ export const topicsApi = {
   delete: (id: number) => api.delete(`/topics/${id}`),
 }
 
+// Live feed of newly analyzed articles. EventSource can't send the
+// Authorization header, so the server-sent events are read with fetch.
+export const streamApi = {
+  articles: (
+    params: { sourceId?: number[]; topicId?: number[]; sentiment?: string[] },
+    onArticle: (article: ScoredArticle) => void,
+  ): (() => void) => {
+    const controller = new AbortController()
+    const query = new URLSearchParams()
+    Object.entries(params).forEach(([key, values]) =>
+      values?.forEach((value) => query.append(key, String(value))))
+    let retryMillis = 3000
+
+    const connect = async () => {
+      while (!controller.signal.aborted) {
+        try {
+          const token = useAuthStore.getState().token
+          const response = await fetch(`/api/v1/stream/articles?${query}`, {
+            headers: {
+              Accept: 'text/event-stream',
+              ...(token ? { Authorization: `Bearer ${token}` } : {}),
+            },
+            signal: controller.signal,
+          })
+          if (response.status === 401) {
+            onUnauthorized()
+            return
+          }
+          if (response.ok && response.body) {
+            await readEvents(response.body, (name, data) => {
+              if (name === 'article') {
+                onArticle(JSON.parse(data))
+              }
+            }, (retry) => {
+              retryMillis = retry
+            })
+          }
+        } catch {
+          // Aborted, or the connection dropped; reconnect below unless aborted
+        }
+        if (!controller.signal.aborted) {
+          await new Promise((resolve) => setTimeout(resolve, retryMillis))
+        }
+      }
+    }
+
+    connect()
+    return () => controller.abort()
+  },
+}
+
+// Parses a text/event-stream body, calling onEvent for each event with data
+export async function readEvents(
+  body: ReadableStream<Uint8Array>,
+  onEvent: (name: string, data: string) => void,
+  onRetry: (millis: number) => void = () => {},
+) {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader()
+  let buffer = ''
+  let name = 'message'
+  let data: string[] = []
+
+  for (;;) {
+    const { value, done } = await reader.read()
+    if (done) {
+      return
+    }
+    buffer += value
+    const lines = buffer.split('\n')
+    buffer = lines.pop() ?? ''
+
+    for (const raw of lines) {
+      const line = raw.endsWith('\r') ? raw.slice(0, -1) : raw
+      if (line === '') {
+        if (data.length > 0) {
+          onEvent(name, data.join('\n'))
+        }
+        name = 'message'
+        data = []
+        continue
+      }
+      if (line.startsWith(':')) {
+        continue
+      }
+      const colon = line.indexOf(':')
+      const field = colon < 0 ? line : line.slice(0, colon)
+      let fieldValue = colon < 0 ? '' : line.slice(colon + 1)
+      if (fieldValue.startsWith(' ')) {
+        fieldValue = fieldValue.slice(1)
+      }
+      if (field === 'event') {
+        name = fieldValue
+      } else if (field === 'data') {
+        data.push(fieldValue)
+      } else if (field === 'retry' && /^\d+$/.test(fieldValue)) {
+        onRetry(Number(fieldValue))
+      }
+    }
+  }
+}
+
 export default api
@@ -8,6 +8,7 @@ export interface Article {
   publishedAt: string
   sentiment?: 'POSITIVE' | 'NEGATIVE' | 'NEUTRAL'
   confidence?: number
+  headline?: string
 }
 
 export interface Source {
@@ -27,6 +28,9 @@ export interface SentimentAggregate {
   negative: number
   neutral: number
   total: number
+  positivePercent: number
+  negativePercent: number
+  neutralPercent: number
 }
 
 export interface Topic {
@@ -47,8 +51,13 @@ export interface Alert {
   condition: {
     type: 'spike' | 'threshold'
     value: number
+    sentiment?: 'POSITIVE' | 'NEGATIVE' | 'NEUTRAL'
+    windowMinutes?: number
+    minArticles?: number
+    baselineWindows?: number
   }
   channel: 'EMAIL' | 'WEBHOOK'
+  webhookUrl?: string
   active: boolean
 }
 
@@ -59,3 +68,22 @@ export interface PageResponse<T> {
   size: number
   number: number
 }
+
+export interface ArticleFeed {
+  content: Article[]
+  nextCursor?: string
+  totalElements?: number
+}
+
+export interface ScoredArticle {
+  articleId: number
+  sourceId?: number
+  topicId?: number
+  topicIds: number[]
+  title: string
+  url: string
+  publishedAt?: string
+  sentiment: 'POSITIVE' | 'NEGATIVE' | 'NEUTRAL'
+  confidence: number
+  processedAt: string
+}
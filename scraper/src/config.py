@@ -23,6 +23,16 @@ class Settings(BaseSettings):
     scrape_interval_minutes: int = 15
     max_articles_per_source: int = 50
 
+    # RSS feeds are now polled by the backend ingester; enable this only when
+    # the backend runs with SCRAPING_ENABLED=false, or both poll every feed
+    fetch_job_enabled: bool = False
+
+    # Sentiment API serving POST /analyze/batch for the backend sentiment
+    # workers, which claim articles and store the results (SENTIMENT_API_URL)
+    sentiment_api_enabled: bool = True
+    sentiment_api_port: int = 8000
+    sentiment_api_workers: int = 8
+
     # Logging
     log_level: str = "INFO"
 
@@ -4,7 +4,7 @@ from apscheduler.triggers.interval import IntervalTrigger
 
 from .config import get_settings
 from .sources.rss_fetcher import fetch_all_rss_sources
-from .sentiment.analyzer import process_unanalyzed_articles
+from .sentiment.server import start_sentiment_api
 from .services.topic_search import fetch_all_topics
 
 # Configure structured logging
@@ -37,15 +37,6 @@ def run_fetch_job():
         logger.error("fetch_job_error", error=str(e))
 
 
-def run_sentiment_job():
-    """Job to analyze sentiment of new articles."""
-    logger.info("starting_sentiment_job")
-    try:
-        process_unanalyzed_articles(limit=20)
-    except Exception as e:
-        logger.error("sentiment_job_error", error=str(e))
-
-
 def run_topic_search_job():
     """Job to search global news for user-defined topics."""
     logger.info("starting_topic_search_job")
@@ -59,20 +50,24 @@ def main():
     """Main entry point for the scraper service."""
     logger.info("starting_scraper_service", interval=settings.scrape_interval_minutes)
 
+    if settings.sentiment_api_enabled:
+        start_sentiment_api(settings.sentiment_api_port, settings.sentiment_api_workers)
+
     # Run immediately on startup
-    run_fetch_job()
+    if settings.fetch_job_enabled:
+        run_fetch_job()
     run_topic_search_job()
-    run_sentiment_job()
 
     # Schedule periodic jobs
     scheduler = BlockingScheduler()
 
-    scheduler.add_job(
-        run_fetch_job,
-        IntervalTrigger(minutes=settings.scrape_interval_minutes),
-        id="fetch_job",
-        name="Fetch articles from sources"
-    )
+    if settings.fetch_job_enabled:
+        scheduler.add_job(
+            run_fetch_job,
+            IntervalTrigger(minutes=settings.scrape_interval_minutes),
+            id="fetch_job",
+            name="Fetch articles from sources"
+        )
 
     scheduler.add_job(
         run_topic_search_job,
@@ -81,13 +76,6 @@ def main():
         name="Search global news for topics"
     )
 
-    scheduler.add_job(
-        run_sentiment_job,
-        IntervalTrigger(minutes=5),  # More frequent for sentiment
-        id="sentiment_job",
-        name="Analyze article sentiment"
-    )
-
     try:
         logger.info("scheduler_started")
         scheduler.start()
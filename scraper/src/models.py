@@ -1,4 +1,4 @@
-from sqlalchemy import Column, Integer, String, Text, Boolean, DateTime, Numeric, ForeignKey, Enum as SQLEnum
+from sqlalchemy import Column, Integer, BigInteger, String, Text, Boolean, DateTime, Numeric, ForeignKey, Enum as SQLEnum
 from sqlalchemy.dialects.postgresql import JSONB, ARRAY
 from sqlalchemy.ext.declarative import declarative_base
 from sqlalchemy.orm import relationship
@@ -57,6 +57,8 @@ class Article(Base):
     published_at = Column(DateTime(timezone=True))
     fetched_at = Column(DateTime(timezone=True), default=datetime.utcnow)
     content_hash = Column(String(64))
+    simhash = Column(BigInteger)
+    duplicate_of = Column(BigInteger)
     extra_data = Column("metadata", JSONB)
     created_at = Column(DateTime(timezone=True), default=datetime.utcnow)
 
@@ -1,17 +1,21 @@
+"""Claude sentiment analysis behind the sentiment API.
+
+Articles are claimed and their results stored by the backend sentiment
+workers, which call the API in server.py; nothing here reads or writes the
+database.
+"""
 import json
 import structlog
-from typing import Optional
-from decimal import Decimal
 from tenacity import retry, stop_after_attempt, wait_exponential
 import anthropic
 
 from ..config import get_settings
-from ..models import Article, SentimentResult
-from ..database import get_db
 
 logger = structlog.get_logger()
 settings = get_settings()
 
+MODEL_VERSION = "claude-3-haiku"
+
 SENTIMENT_PROMPT = """Analyze the sentiment of this news article.
 
 Article Title: {title}
@@ -37,16 +41,6 @@ Respond ONLY with valid JSON in this exact format:
 }}"""
 
 
-def confidence_to_decimal(confidence: str) -> Decimal:
-    """Convert confidence string to decimal."""
-    mapping = {
-        "HIGH": Decimal("0.90"),
-        "MEDIUM": Decimal("0.70"),
-        "LOW": Decimal("0.50"),
-    }
-    return mapping.get(confidence.upper(), Decimal("0.70"))
-
-
 @retry(stop=stop_after_attempt(3), wait=wait_exponential(multiplier=1, min=4, max=10))
 def analyze_with_claude(title: str, content: str) -> dict:
     """Analyze sentiment using Claude API."""
@@ -87,61 +81,3 @@ def analyze_with_claude(title: str, content: str) -> dict:
             "entities": [],
             "reasoning": "Failed to parse response"
         }
-
-
-def analyze_article(article: Article) -> Optional[SentimentResult]:
-    """Analyze sentiment of a single article."""
-    if not article.content and not article.title:
-        logger.warning("empty_article", article_id=article.id)
-        return None
-
-    content = article.content or article.title
-
-    try:
-        result = analyze_with_claude(article.title, content)
-
-        sentiment_result = SentimentResult(
-            article_id=article.id,
-            sentiment=result["sentiment"],
-            confidence=confidence_to_decimal(result["confidence"]),
-            model_version="claude-3-haiku",
-            reasoning=result.get("reasoning"),
-            topics=[result.get("topic")] if result.get("topic") else [],
-            entities={"names": result.get("entities", [])}
-        )
-
-        logger.info(
-            "sentiment_analyzed",
-            article_id=article.id,
-            sentiment=result["sentiment"],
-            confidence=result["confidence"]
-        )
-
-        return sentiment_result
-
-    except Exception as e:
-        logger.error("sentiment_analysis_error", article_id=article.id, error=str(e))
-        return None
-
-
-def process_unanalyzed_articles(limit: int = 50):
-    """Process articles that haven't been analyzed yet."""
-    with get_db() as db:
-        # Get unanalyzed articles
-        articles = db.query(Article).outerjoin(
-            SentimentResult
-        ).filter(
-            SentimentResult.id == None
-        ).limit(limit).all()
-
-        logger.info("processing_articles", count=len(articles))
-
-        processed = 0
-        for article in articles:
-            result = analyze_article(article)
-            if result:
-                db.add(result)
-                processed += 1
-
-        logger.info("sentiment_processing_complete", processed=processed)
-        return processed
@@ -0,0 +1,139 @@
+"""HTTP sentiment API called by the backend sentiment workers.
+
+POST /analyze/batch
+    {"articles": [{"id": 1, "title": "...", "content": "..."}]}
+    -> {"results": [{"id": 1, "sentiment": "NEGATIVE", "confidence": "HIGH", "topic": "...",
+                     "entities": ["..."], "reasoning": "...", "modelVersion": "claude-3-haiku"}]}
+
+Articles in a batch are analyzed concurrently. An article whose analysis fails
+is left out of the results and the backend retries it later. When Claude
+rate-limits every article of a batch the response is 429 with Retry-After, so
+the backend lowers its concurrency and backs off.
+"""
+import json
+import threading
+from concurrent.futures import ThreadPoolExecutor
+from http.server import BaseHTTPRequestHandler, ThreadingHTTPServer
+
+import anthropic
+import structlog
+from tenacity import RetryError
+
+from .analyzer import MODEL_VERSION, analyze_with_claude
+
+logger = structlog.get_logger()
+
+MAX_BATCH_SIZE = 100
+RETRY_AFTER_SECONDS = 10
+
+
+class RateLimited(Exception):
+    """Claude rejected the request with a rate limit after all retries."""
+
+
+def analyze(article: dict) -> dict:
+    """Analyze one article of a batch request."""
+    title = article.get("title") or ""
+    content = article.get("content") or title
+    try:
+        result = analyze_with_claude(title, content)
+    except RetryError as e:
+        if isinstance(e.last_attempt.exception(), anthropic.RateLimitError):
+            raise RateLimited() from e
+        raise
+    return {
+        "id": article["id"],
+        "sentiment": result["sentiment"],
+        "confidence": result["confidence"],
+        "topic": result.get("topic"),
+        "entities": result.get("entities", []),
+        "reasoning": result.get("reasoning"),
+        "modelVersion": MODEL_VERSION,
+    }
+
+
+def analyze_batch(articles: list, executor: ThreadPoolExecutor) -> tuple[int, dict]:
+    """Analyze a batch and return the HTTP status and response body."""
+    futures = [(article, executor.submit(analyze, article)) for article in articles]
+    results = []
+    throttled = 0
+    for article, future in futures:
+        try:
+            results.append(future.result())
+        except RateLimited:
+            throttled += 1
+        except Exception as e:
+            logger.error("sentiment_analysis_error", article_id=article.get("id"), error=str(e))
+
+    if throttled and not results:
+        return 429, {"error": "rate limited"}
+    logger.info("sentiment_batch_analyzed", requested=len(articles), analyzed=len(results), throttled=throttled)
+    return 200, {"results": results}
+
+
+def parse_articles(body: bytes) -> list:
+    """Read and validate the articles of a batch request."""
+    articles = json.loads(body)["articles"]
+    if not isinstance(articles, list) or len(articles) > MAX_BATCH_SIZE:
+        raise ValueError(f"articles must be a list of at most {MAX_BATCH_SIZE}")
+    for article in articles:
+        if not isinstance(article, dict) or "id" not in article:
+            raise ValueError("every article needs an id")
+    return articles
+
+
+class SentimentHandler(BaseHTTPRequestHandler):
+    server: "SentimentServer"
+
+    def do_GET(self):
+        if self.path == "/health":
+            self.send_json(200, {"status": "UP"})
+        else:
+            self.send_json(404, {"error": "not found"})
+
+    def do_POST(self):
+        if self.path != "/analyze/batch":
+            self.send_json(404, {"error": "not found"})
+            return
+        try:
+            length = int(self.headers.get("Content-Length", 0))
+            articles = parse_articles(self.rfile.read(length))
+        except (ValueError, KeyError, TypeError) as e:
+            self.send_json(400, {"error": str(e)})
+            return
+
+        status, body = analyze_batch(articles, self.server.executor)
+        self.send_json(status, body)
+
+    def send_json(self, status: int, body: dict):
+        payload = json.dumps(body).encode("utf-8")
+        self.send_response(status)
+        self.send_header("Content-Type", "application/json")
+        self.send_header("Content-Length", str(len(payload)))
+        if status == 429:
+            self.send_header("Retry-After", str(RETRY_AFTER_SECONDS))
+        self.end_headers()
+        self.wfile.write(payload)
+
+    def log_message(self, format, *args):
+        logger.debug("sentiment_api_request", request=format % args)
+
+
+class SentimentServer(ThreadingHTTPServer):
+    daemon_threads = True
+
+    def __init__(self, port: int, workers: int):
+        super().__init__(("0.0.0.0", port), SentimentHandler)
+        self.executor = ThreadPoolExecutor(max_workers=workers, thread_name_prefix="sentiment")
+
+    def server_close(self):
+        super().server_close()
+        self.executor.shutdown(wait=False, cancel_futures=True)
+
+
+def start_sentiment_api(port: int, workers: int) -> SentimentServer:
+    """Serve the sentiment API from a background thread."""
+    server = SentimentServer(port, workers)
+    threading.Thread(target=server.serve_forever, name="sentiment-api", daemon=True).start()
+    logger.info("sentiment_api_started", port=port, workers=workers)
+    return server
@@ -0,0 +1,73 @@
+"""Tests for the sentiment API."""
+import json
+import pytest
+from concurrent.futures import ThreadPoolExecutor
+from unittest.mock import patch
+
+
+@pytest.fixture
+def executor():
+    with ThreadPoolExecutor(max_workers=2) as pool:
+        yield pool
+
+
+def test_analyze_batch_returns_results_in_backend_format(executor):
+    """Test results carry the article id and model version."""
+    from src.sentiment.server import analyze_batch
+
+    claude = {
+        "sentiment": "NEGATIVE",
+        "confidence": "HIGH",
+        "topic": "economy",
+        "entities": ["ECB"],
+        "reasoning": "Rate hike criticised",
+    }
+    with patch("src.sentiment.server.analyze_with_claude", return_value=claude) as analyze:
+        status, body = analyze_batch([{"id": 7, "title": "Rates", "content": "The ECB..."}, {"id": 8, "title": "Only"}], executor)
+
+    assert status == 200
+    assert [r["id"] for r in body["results"]] == [7, 8]
+    assert body["results"][0]["sentiment"] == "NEGATIVE"
+    assert body["results"][0]["entities"] == ["ECB"]
+    assert body["results"][0]["modelVersion"] == "claude-3-haiku"
+    # An article without content is analyzed by its title
+    analyze.assert_any_call("Only", "Only")
+
+
+def test_analyze_batch_leaves_out_failed_articles(executor):
+    """Test a failing article doesn't fail the batch."""
+    from src.sentiment.server import analyze_batch
+
+    def claude(title, content):
+        if title == "bad":
+            raise RuntimeError("boom")
+        return {"sentiment": "NEUTRAL", "confidence": "LOW"}
+
+    with patch("src.sentiment.server.analyze_with_claude", side_effect=claude):
+        status, body = analyze_batch([{"id": 1, "title": "bad"}, {"id": 2, "title": "good"}], executor)
+
+    assert status == 200
+    assert [r["id"] for r in body["results"]] == [2]
+
+
+def test_analyze_batch_is_throttled_when_every_article_is_rate_limited(executor):
+    """Test a fully rate-limited batch answers 429."""
+    from src.sentiment.server import RateLimited, analyze_batch
+
+    with patch("src.sentiment.server.analyze", side_effect=RateLimited()):
+        status, _ = analyze_batch([{"id": 1, "title": "a"}, {"id": 2, "title": "b"}], executor)
+
+    assert status == 429
+
+
+def test_parse_articles_rejects_invalid_requests():
+    """Test request validation."""
+    from src.sentiment.server import MAX_BATCH_SIZE, parse_articles
+
+    assert parse_articles(json.dumps({"articles": [{"id": 1}]}).encode()) == [{"id": 1}]
+    with pytest.raises(KeyError):
+        parse_articles(b"{}")
+    with pytest.raises(ValueError):
+        parse_articles(json.dumps({"articles": [{"title": "no id"}]}).encode())
+    with pytest.raises(ValueError):
+        parse_articles(json.dumps({"articles": [{"id": i} for i in range(MAX_BATCH_SIZE + 1)]}).encode())